@@ -26,12 +26,20 @@ public class AuditProperties {
     //ToDo: make system user name globally configurable?
     String systemUsername;
 
+    /**
+     * Whether new entity snapshots are stored in the compact binary format instead of JSON.
+     * Snapshots stored in XML, JSON and compact formats are always readable.
+     */
+    boolean compactSnapshotsEnabled;
+
     public AuditProperties(
             @DefaultValue("true") boolean enabled,
-            @DefaultValue("system") String systemUsername
+            @DefaultValue("system") String systemUsername,
+            @DefaultValue("false") boolean compactSnapshotsEnabled
     ) {
         this.enabled = enabled;
         this.systemUsername = systemUsername;
+        this.compactSnapshotsEnabled = compactSnapshotsEnabled;
     }
 
     public boolean isEnabled() {
@@ -41,4 +49,11 @@ public class AuditProperties {
     public String getSystemUsername() {
         return systemUsername;
     }
+
+    /**
+     * @see #compactSnapshotsEnabled
+     */
+    public boolean isCompactSnapshotsEnabled() {
+        return compactSnapshotsEnabled;
+    }
 }
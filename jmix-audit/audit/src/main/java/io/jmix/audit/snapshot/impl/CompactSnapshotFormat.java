@@ -0,0 +1,226 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.audit.snapshot.impl;
+
+import io.jmix.core.FetchPlan;
+import io.jmix.core.FetchPlanProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Constants and low-level byte routines of the compact binary snapshot format.
+ * <p>
+ * Layout of a decompressed payload:
+ * <pre>
+ * version        : byte
+ * dictionary     : varint count, then (varint length, UTF-8 bytes) per string
+ * record offsets : varint count, then varint offset per entity record
+ * body           : tagged root value
+ * </pre>
+ * Entity records are written as {@code TAG_ENTITY, int32 length, varint entity name index, tagged id,
+ * tagged value per fetch plan property}. Properties are stored by ordinal, i.e. by the position of the
+ * property in the name-sorted property list of the fetch plan, so property names are never written.
+ * Embedded values that are not covered by a fetch plan, like composite ids, are written as
+ * {@code TAG_NAMED, int32 length, varint count, (varint name index, tagged value) per attribute}.
+ */
+final class CompactSnapshotFormat {
+
+    static final String PREFIX = "jmix-snapshot:";
+
+    static final byte VERSION = 1;
+
+    static final byte TAG_NULL = 0;
+    static final byte TAG_UNLOADED = 1;
+    static final byte TAG_FALSE = 2;
+    static final byte TAG_TRUE = 3;
+    static final byte TAG_INT = 4;
+    static final byte TAG_LONG = 5;
+    static final byte TAG_STRING = 6;
+    static final byte TAG_UUID = 7;
+    static final byte TAG_DOUBLE = 8;
+    static final byte TAG_DATE = 9;
+    static final byte TAG_DECIMAL = 10;
+    static final byte TAG_TEXT = 11;
+    static final byte TAG_BYTES = 12;
+    static final byte TAG_ENUM = 13;
+    static final byte TAG_ENTITY = 14;
+    static final byte TAG_REF = 15;
+    static final byte TAG_COLLECTION = 16;
+    static final byte TAG_LOCAL_DATE = 17;
+    static final byte TAG_LOCAL_DATE_TIME = 18;
+    static final byte TAG_LOCAL_TIME = 19;
+    static final byte TAG_OFFSET_DATE_TIME = 20;
+    static final byte TAG_OFFSET_TIME = 21;
+    static final byte TAG_NAMED = 22;
+
+    private CompactSnapshotFormat() {
+    }
+
+    /**
+     * @return names of the fetch plan properties in ordinal order
+     */
+    static String[] propertyNames(FetchPlan fetchPlan) {
+        return fetchPlan.getProperties().stream()
+                .map(FetchPlanProperty::getName)
+                .sorted()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Growable byte buffer supporting varints and in-place patching of fixed-size lengths.
+     */
+    static class Output {
+
+        private byte[] buf = new byte[256];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        void writeByte(int b) {
+            ensureCapacity(1);
+            buf[size++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeInt32(int value) {
+            ensureCapacity(4);
+            putInt32(size, value);
+            size += 4;
+        }
+
+        void patchInt32(int position, int value) {
+            putInt32(position, value);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeFixedLong(long value) {
+            for (int i = 7; i >= 0; i--) {
+                writeByte((int) (value >>> (i * 8)));
+            }
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes);
+        }
+
+        private void putInt32(int position, int value) {
+            buf[position] = (byte) (value >>> 24);
+            buf[position + 1] = (byte) (value >>> 16);
+            buf[position + 2] = (byte) (value >>> 8);
+            buf[position + 3] = (byte) value;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+            }
+        }
+    }
+
+    /**
+     * Random-access reader over a decompressed payload. Reading methods take and return explicit positions
+     * so that a single instance can be shared by all lazily decoded nodes of a snapshot.
+     */
+    static class Input {
+
+        private final byte[] buf;
+
+        Input(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int length() {
+            return buf.length;
+        }
+
+        byte byteAt(int position) {
+            return buf[position];
+        }
+
+        int int32At(int position) {
+            return ((buf[position] & 0xFF) << 24)
+                    | ((buf[position + 1] & 0xFF) << 16)
+                    | ((buf[position + 2] & 0xFF) << 8)
+                    | (buf[position + 3] & 0xFF);
+        }
+
+        long fixedLongAt(int position) {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buf[position + i] & 0xFF);
+            }
+            return value;
+        }
+
+        /**
+         * Reads an unsigned varint.
+         *
+         * @param position position of the first byte
+         * @param next     single-element array receiving the position after the varint
+         */
+        long varLongAt(int position, int[] next) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buf[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            next[0] = position;
+            return value;
+        }
+
+        long signedVarLongAt(int position, int[] next) {
+            long raw = varLongAt(position, next);
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        byte[] bytesAt(int position, int length) {
+            return Arrays.copyOfRange(buf, position, position + length);
+        }
+
+        String stringAt(int position, int length) {
+            return new String(buf, position, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.audit.snapshot.impl;
+
+import io.jmix.core.FetchPlan;
+import io.jmix.core.FetchPlanProperty;
+import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.core.metamodel.model.MetaProperty;
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import static io.jmix.audit.snapshot.impl.CompactSnapshotFormat.TAG_UNLOADED;
+
+/**
+ * Lazily decoded entity record of a compact snapshot.
+ * <p>
+ * Property values are located and decoded on first access. Reference values are returned as nested nodes,
+ * collection values as lists of nodes. Use {@link CompactSnapshotSerializer#toEntity(CompactSnapshotNode)}
+ * to build an entity instance when one is really needed.
+ */
+public class CompactSnapshotNode {
+
+    private static final Object NOT_DECODED = new Object();
+
+    private final CompactSnapshotReader reader;
+    private final FetchPlan fetchPlan;
+    private final MetaClass metaClass;
+    private final Object id;
+    private final String[] propertyNames;
+    private final int firstPropertyPosition;
+
+    private int[] propertyPositions;
+    private Object[] values;
+
+    CompactSnapshotNode(CompactSnapshotReader reader, int position, @Nullable FetchPlan fetchPlan) {
+        this.reader = reader;
+        this.fetchPlan = fetchPlan;
+        this.propertyNames = fetchPlan != null ? reader.getPropertyNames(fetchPlan) : new String[0];
+
+        int[] next = new int[1];
+        int nameIndex = (int) reader.getInput().varLongAt(position + 5, next);
+        this.metaClass = reader.getMetaClass(nameIndex);
+
+        this.id = reader.readValue(next[0], reader.getPrimaryKeyProperty(metaClass), null);
+        this.firstPropertyPosition = reader.skipValue(next[0]);
+    }
+
+    public MetaClass getMetaClass() {
+        return metaClass;
+    }
+
+    @Nullable
+    public Object getId() {
+        return id;
+    }
+
+    CompactSnapshotReader getReader() {
+        return reader;
+    }
+
+    String[] getPropertyNames() {
+        return propertyNames;
+    }
+
+    /**
+     * @return true if the property is a part of the snapshot fetch plan and was loaded in the captured entity
+     */
+    public boolean isLoaded(String property) {
+        int ordinal = Arrays.binarySearch(propertyNames, property);
+        if (ordinal < 0) {
+            return false;
+        }
+        return reader.getInput().byteAt(getPropertyPositions()[ordinal]) != TAG_UNLOADED;
+    }
+
+    /**
+     * @return decoded property value, a nested {@code CompactSnapshotNode} or a list of them for references,
+     * or null if the property is null or not captured by the snapshot
+     */
+    @Nullable
+    public Object getValue(String property) {
+        int ordinal = Arrays.binarySearch(propertyNames, property);
+        if (ordinal < 0) {
+            return null;
+        }
+        if (values == null) {
+            values = new Object[propertyNames.length];
+            Arrays.fill(values, NOT_DECODED);
+        }
+        Object value = values[ordinal];
+        if (value == NOT_DECODED) {
+            MetaProperty metaProperty = metaClass.getProperty(property);
+            FetchPlan nestedFetchPlan = null;
+            if (metaProperty.getRange().isClass()) {
+                nestedFetchPlan = findNestedFetchPlan(property);
+            }
+            value = reader.readValue(getPropertyPositions()[ordinal], metaProperty, nestedFetchPlan);
+            values[ordinal] = value;
+        }
+        return value;
+    }
+
+    private int[] getPropertyPositions() {
+        if (propertyPositions == null) {
+            int[] positions = new int[propertyNames.length];
+            int position = firstPropertyPosition;
+            for (int i = 0; i < propertyNames.length; i++) {
+                positions[i] = position;
+                position = reader.skipValue(position);
+            }
+            propertyPositions = positions;
+        }
+        return propertyPositions;
+    }
+
+    @Nullable
+    private FetchPlan findNestedFetchPlan(String property) {
+        FetchPlanProperty fetchPlanProperty = fetchPlan != null ? fetchPlan.getProperty(property) : null;
+        return fetchPlanProperty != null ? fetchPlanProperty.getFetchPlan() : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactSnapshotNode)) {
+            return false;
+        }
+        CompactSnapshotNode that = (CompactSnapshotNode) o;
+        return id != null && id.equals(that.id) && metaClass.equals(that.metaClass);
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? Objects.hash(metaClass.getName(), id) : System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return metaClass.getName() + "-" + id + " [compact snapshot]";
+    }
+}
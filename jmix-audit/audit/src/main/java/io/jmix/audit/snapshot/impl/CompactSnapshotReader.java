@@ -0,0 +1,318 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.audit.snapshot.impl;
+
+import io.jmix.core.FetchPlan;
+import io.jmix.core.Metadata;
+import io.jmix.core.MetadataTools;
+import io.jmix.core.entity.EntityValues;
+import io.jmix.core.metamodel.datatype.Datatype;
+import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.core.metamodel.model.MetaProperty;
+import org.springframework.lang.Nullable;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.time.*;
+import java.util.*;
+
+import static io.jmix.audit.snapshot.impl.CompactSnapshotFormat.*;
+
+/**
+ * Decodes a single compact snapshot payload. Entity records are exposed as {@link CompactSnapshotNode}s which
+ * decode their properties on first access, so only the parts of the graph that are actually read are parsed.
+ */
+class CompactSnapshotReader {
+
+    private final Input in;
+    private final Metadata metadata;
+    private final MetadataTools metadataTools;
+
+    private final String[] dictionary;
+    private final int[] recordOffsets;
+    private final int bodyPosition;
+
+    private final Map<Integer, CompactSnapshotNode> nodes = new HashMap<>();
+    private final Map<FetchPlan, String[]> propertyNames = new IdentityHashMap<>();
+    private final Map<CompactSnapshotNode, Object> entities = new IdentityHashMap<>();
+
+    CompactSnapshotReader(byte[] payload, Metadata metadata, MetadataTools metadataTools) {
+        this.in = new Input(payload);
+        this.metadata = metadata;
+        this.metadataTools = metadataTools;
+
+        if (payload.length == 0 || in.byteAt(0) != VERSION) {
+            throw new IllegalStateException("Unsupported compact snapshot version: "
+                    + (payload.length == 0 ? "<empty>" : in.byteAt(0)));
+        }
+        int[] next = new int[1];
+        int position = 1;
+
+        int dictionarySize = (int) in.varLongAt(position, next);
+        position = next[0];
+        dictionary = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            int length = (int) in.varLongAt(position, next);
+            dictionary[i] = in.stringAt(next[0], length);
+            position = next[0] + length;
+        }
+
+        int recordCount = (int) in.varLongAt(position, next);
+        position = next[0];
+        recordOffsets = new int[recordCount];
+        for (int i = 0; i < recordCount; i++) {
+            recordOffsets[i] = (int) in.varLongAt(position, next);
+            position = next[0];
+        }
+        bodyPosition = position;
+    }
+
+    /**
+     * @return root value of the snapshot, normally a {@link CompactSnapshotNode}
+     */
+    @Nullable
+    Object readRoot(FetchPlan fetchPlan) {
+        return readValue(bodyPosition, null, fetchPlan);
+    }
+
+    String[] getPropertyNames(FetchPlan fetchPlan) {
+        return propertyNames.computeIfAbsent(fetchPlan, CompactSnapshotFormat::propertyNames);
+    }
+
+    Input getInput() {
+        return in;
+    }
+
+    MetaClass getMetaClass(int nameIndex) {
+        return metadata.getClass(dictionary[nameIndex]);
+    }
+
+    @Nullable
+    MetaProperty getPrimaryKeyProperty(MetaClass metaClass) {
+        return metadataTools.getPrimaryKeyProperty(metaClass);
+    }
+
+    @Nullable
+    Object readValue(int position, @Nullable MetaProperty metaProperty, @Nullable FetchPlan fetchPlan) {
+        byte tag = in.byteAt(position);
+        int[] next = new int[1];
+        switch (tag) {
+            case TAG_NULL:
+            case TAG_UNLOADED:
+                return null;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_INT:
+                return (int) in.signedVarLongAt(position + 1, next);
+            case TAG_LONG:
+                return in.signedVarLongAt(position + 1, next);
+            case TAG_STRING:
+                return dictionary[(int) in.varLongAt(position + 1, next)];
+            case TAG_UUID:
+                return new UUID(in.fixedLongAt(position + 1), in.fixedLongAt(position + 9));
+            case TAG_DOUBLE:
+                return Double.longBitsToDouble(in.fixedLongAt(position + 1));
+            case TAG_DATE:
+                return new Date(in.signedVarLongAt(position + 1, next));
+            case TAG_DECIMAL:
+                return new BigDecimal(dictionary[(int) in.varLongAt(position + 1, next)]);
+            case TAG_TEXT:
+                return parseText(dictionary[(int) in.varLongAt(position + 1, next)], metaProperty);
+            case TAG_BYTES: {
+                int length = (int) in.varLongAt(position + 1, next);
+                return in.bytesAt(next[0], length);
+            }
+            case TAG_ENUM:
+                return parseEnum(dictionary[(int) in.varLongAt(position + 1, next)], metaProperty);
+            case TAG_LOCAL_DATE:
+                return LocalDate.ofEpochDay(in.signedVarLongAt(position + 1, next));
+            case TAG_LOCAL_DATE_TIME: {
+                long seconds = in.signedVarLongAt(position + 1, next);
+                int nanos = (int) in.varLongAt(next[0], next);
+                return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+            }
+            case TAG_LOCAL_TIME:
+                return LocalTime.ofNanoOfDay(in.varLongAt(position + 1, next));
+            case TAG_OFFSET_DATE_TIME:
+                return OffsetDateTime.parse(dictionary[(int) in.varLongAt(position + 1, next)]);
+            case TAG_OFFSET_TIME:
+                return OffsetTime.parse(dictionary[(int) in.varLongAt(position + 1, next)]);
+            case TAG_NAMED:
+                return readNamed(position, metaProperty);
+            case TAG_ENTITY:
+                return getNode(position, fetchPlan);
+            case TAG_REF:
+                return getNode(recordOffsets[(int) in.varLongAt(position + 1, next)] + bodyPosition, fetchPlan);
+            case TAG_COLLECTION: {
+                int size = (int) in.varLongAt(position + 1, next);
+                List<Object> items = new ArrayList<>(size);
+                int itemPosition = next[0];
+                for (int i = 0; i < size; i++) {
+                    items.add(readValue(itemPosition, metaProperty, fetchPlan));
+                    itemPosition = skipValue(itemPosition);
+                }
+                return items;
+            }
+            default:
+                throw new IllegalStateException("Unknown compact snapshot value tag: " + tag);
+        }
+    }
+
+    /**
+     * @return position right after the tagged value starting at the given position
+     */
+    int skipValue(int position) {
+        byte tag = in.byteAt(position);
+        int[] next = new int[1];
+        switch (tag) {
+            case TAG_NULL:
+            case TAG_UNLOADED:
+            case TAG_FALSE:
+            case TAG_TRUE:
+                return position + 1;
+            case TAG_UUID:
+                return position + 17;
+            case TAG_DOUBLE:
+                return position + 9;
+            case TAG_INT:
+            case TAG_LONG:
+            case TAG_STRING:
+            case TAG_DATE:
+            case TAG_DECIMAL:
+            case TAG_TEXT:
+            case TAG_ENUM:
+            case TAG_REF:
+            case TAG_LOCAL_DATE:
+            case TAG_LOCAL_TIME:
+            case TAG_OFFSET_DATE_TIME:
+            case TAG_OFFSET_TIME:
+                in.varLongAt(position + 1, next);
+                return next[0];
+            case TAG_LOCAL_DATE_TIME:
+                in.varLongAt(position + 1, next);
+                in.varLongAt(next[0], next);
+                return next[0];
+            case TAG_BYTES: {
+                int length = (int) in.varLongAt(position + 1, next);
+                return next[0] + length;
+            }
+            case TAG_ENTITY:
+            case TAG_NAMED:
+                return position + 5 + in.int32At(position + 1);
+            case TAG_COLLECTION: {
+                int size = (int) in.varLongAt(position + 1, next);
+                int itemPosition = next[0];
+                for (int i = 0; i < size; i++) {
+                    itemPosition = skipValue(itemPosition);
+                }
+                return itemPosition;
+            }
+            default:
+                throw new IllegalStateException("Unknown compact snapshot value tag: " + tag);
+        }
+    }
+
+    /**
+     * Builds a detached entity instance from the node, reusing instances for nodes referenced several times.
+     */
+    Object toEntity(CompactSnapshotNode node) {
+        Object entity = entities.get(node);
+        if (entity != null) {
+            return entity;
+        }
+        MetaClass metaClass = node.getMetaClass();
+        entity = metadata.create(metaClass);
+        entities.put(node, entity);
+
+        Object id = node.getId();
+        if (id != null) {
+            EntityValues.setId(entity, id);
+        }
+        for (String name : node.getPropertyNames()) {
+            MetaProperty metaProperty = metaClass.findProperty(name);
+            if (metaProperty == null || metaProperty.isReadOnly() || !node.isLoaded(name)) {
+                continue;
+            }
+            Object value = node.getValue(name);
+            if (value instanceof CompactSnapshotNode) {
+                value = toEntity((CompactSnapshotNode) value);
+            } else if (value instanceof List && !metaProperty.getRange().isDatatype()) {
+                Collection<Object> collection = Set.class.isAssignableFrom(metaProperty.getJavaType())
+                        ? new LinkedHashSet<>()
+                        : new ArrayList<>();
+                for (Object item : (List<?>) value) {
+                    collection.add(item instanceof CompactSnapshotNode ? toEntity((CompactSnapshotNode) item) : item);
+                }
+                value = collection;
+            }
+            EntityValues.setValue(entity, name, value);
+        }
+        return entity;
+    }
+
+    private CompactSnapshotNode getNode(int position, @Nullable FetchPlan fetchPlan) {
+        return nodes.computeIfAbsent(position, p -> new CompactSnapshotNode(this, p, fetchPlan));
+    }
+
+    private Object readNamed(int position, @Nullable MetaProperty metaProperty) {
+        if (metaProperty == null || !metaProperty.getRange().isClass()) {
+            throw new IllegalStateException("Cannot resolve the class of an embedded snapshot value");
+        }
+        MetaClass metaClass = metaProperty.getRange().asClass();
+        Object value = metadata.create(metaClass);
+
+        int[] next = new int[1];
+        int count = (int) in.varLongAt(position + 5, next);
+        int itemPosition = next[0];
+        for (int i = 0; i < count; i++) {
+            String name = dictionary[(int) in.varLongAt(itemPosition, next)];
+            itemPosition = next[0];
+            MetaProperty itemProperty = metaClass.findProperty(name);
+            if (itemProperty != null) {
+                EntityValues.setValue(value, name, readValue(itemPosition, itemProperty, null));
+            }
+            itemPosition = skipValue(itemPosition);
+        }
+        return value;
+    }
+
+    private Object parseText(String text, @Nullable MetaProperty metaProperty) {
+        if (metaProperty == null || !metaProperty.getRange().isDatatype()) {
+            return text;
+        }
+        Datatype<?> datatype = metaProperty.getRange().asDatatype();
+        try {
+            return datatype.parse(text);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Cannot parse snapshot value of " + metaProperty, e);
+        }
+    }
+
+    @Nullable
+    private Object parseEnum(String id, @Nullable MetaProperty metaProperty) {
+        if (metaProperty == null || !metaProperty.getRange().isEnum()) {
+            return id;
+        }
+        try {
+            return metaProperty.getRange().asEnumeration().parse(id);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Cannot parse snapshot enum value of " + metaProperty, e);
+        }
+    }
+}
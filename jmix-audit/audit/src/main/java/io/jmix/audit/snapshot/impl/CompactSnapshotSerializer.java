@@ -0,0 +1,294 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.audit.snapshot.impl;
+
+import io.jmix.core.*;
+import io.jmix.core.entity.EntityValues;
+import io.jmix.core.metamodel.datatype.Datatype;
+import io.jmix.core.metamodel.datatype.DatatypeRegistry;
+import io.jmix.core.metamodel.datatype.EnumClass;
+import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.core.metamodel.model.MetaProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.*;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static io.jmix.audit.snapshot.impl.CompactSnapshotFormat.*;
+
+/**
+ * Writes and reads entity snapshots in the compact binary format.
+ * <p>
+ * The format is driven by the snapshot {@link FetchPlan}: properties are written by their ordinal in the fetch plan,
+ * strings and entity names are dictionary-encoded, numeric values and ids are varint-encoded, and the whole payload
+ * is deflated. The result is stored in the same text column as XML and JSON snapshots, prefixed with
+ * {@code jmix-snapshot:} and Base64-encoded, so the format of a stored snapshot can be detected by its content.
+ */
+@Component("audit_CompactSnapshotSerializer")
+public class CompactSnapshotSerializer {
+
+    private final Metadata metadata;
+    private final MetadataTools metadataTools;
+    private final EntityStates entityStates;
+    private final DatatypeRegistry datatypeRegistry;
+
+    public CompactSnapshotSerializer(Metadata metadata,
+                                     MetadataTools metadataTools,
+                                     EntityStates entityStates,
+                                     DatatypeRegistry datatypeRegistry) {
+        this.metadata = metadata;
+        this.metadataTools = metadataTools;
+        this.entityStates = entityStates;
+        this.datatypeRegistry = datatypeRegistry;
+    }
+
+    /**
+     * @return true if the raw snapshot content is in the compact binary format
+     */
+    public boolean isCompact(@Nullable String rawSnapshot) {
+        return rawSnapshot != null && rawSnapshot.startsWith(PREFIX);
+    }
+
+    /**
+     * Serializes the entity graph defined by the fetch plan.
+     */
+    public String toCompact(Object entity, FetchPlan fetchPlan) {
+        Writer writer = new Writer();
+        writer.writeEntity(entity, fetchPlan);
+        byte[] payload = writer.toPayload();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length / 2 + 16);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+            out.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to compress entity snapshot", e);
+        }
+        return PREFIX + Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Returns the root node of a compact snapshot. Nothing but the payload header is decoded until node
+     * properties are accessed.
+     *
+     * @param rawSnapshot snapshot content
+     * @param fetchPlan   fetch plan the snapshot was created with
+     */
+    public CompactSnapshotNode read(String rawSnapshot, FetchPlan fetchPlan) {
+        if (!isCompact(rawSnapshot)) {
+            throw new IllegalArgumentException("Snapshot is not in the compact format");
+        }
+        byte[] compressed = Base64.getDecoder().decode(
+                rawSnapshot.substring(PREFIX.length()).getBytes(StandardCharsets.US_ASCII));
+        byte[] payload;
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            payload = in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to decompress entity snapshot", e);
+        }
+        CompactSnapshotReader reader = new CompactSnapshotReader(payload, metadata, metadataTools);
+        Object root = reader.readRoot(fetchPlan);
+        if (!(root instanceof CompactSnapshotNode)) {
+            throw new IllegalStateException("Compact snapshot does not contain an entity");
+        }
+        return (CompactSnapshotNode) root;
+    }
+
+    /**
+     * Builds an entity instance with all properties captured by the snapshot.
+     */
+    public Object toEntity(CompactSnapshotNode node) {
+        return node.getReader().toEntity(node);
+    }
+
+    private class Writer {
+
+        private final Output body = new Output();
+        private final Map<String, Integer> dictionary = new LinkedHashMap<>();
+        private final List<Integer> recordOffsets = new ArrayList<>();
+        private final Map<Object, Map<FetchPlan, Integer>> records = new IdentityHashMap<>();
+        private final Map<FetchPlan, String[]> propertyNames = new IdentityHashMap<>();
+
+        byte[] toPayload() {
+            Output out = new Output();
+            out.writeByte(VERSION);
+            out.writeVarLong(dictionary.size());
+            for (String value : dictionary.keySet()) {
+                out.writeString(value);
+            }
+            out.writeVarLong(recordOffsets.size());
+            for (Integer offset : recordOffsets) {
+                out.writeVarLong(offset);
+            }
+            out.writeBytes(body.toByteArray());
+            return out.toByteArray();
+        }
+
+        void writeEntity(Object entity, @Nullable FetchPlan fetchPlan) {
+            Map<FetchPlan, Integer> entityRecords = records.computeIfAbsent(entity, e -> new IdentityHashMap<>());
+            Integer recordIndex = entityRecords.get(fetchPlan);
+            if (recordIndex != null) {
+                body.writeByte(TAG_REF);
+                body.writeVarLong(recordIndex);
+                return;
+            }
+            entityRecords.put(fetchPlan, recordOffsets.size());
+            recordOffsets.add(body.size());
+
+            body.writeByte(TAG_ENTITY);
+            int lengthPosition = body.size();
+            body.writeInt32(0);
+
+            MetaClass metaClass = metadata.getClass(entity);
+            body.writeVarLong(stringIndex(metaClass.getName()));
+            MetaProperty primaryKeyProperty = metadataTools.getPrimaryKeyProperty(metaClass);
+            writeScalar(primaryKeyProperty != null ? EntityValues.getId(entity) : null, primaryKeyProperty);
+
+            if (fetchPlan != null) {
+                String[] names = propertyNames.computeIfAbsent(fetchPlan, CompactSnapshotFormat::propertyNames);
+                for (String name : names) {
+                    MetaProperty metaProperty = metaClass.findProperty(name);
+                    if (metaProperty == null || !entityStates.isLoaded(entity, name)) {
+                        body.writeByte(TAG_UNLOADED);
+                        continue;
+                    }
+                    FetchPlanProperty fetchPlanProperty = fetchPlan.getProperty(name);
+                    writeValue(EntityValues.getValue(entity, name), metaProperty,
+                            fetchPlanProperty != null ? fetchPlanProperty.getFetchPlan() : null);
+                }
+            }
+            body.patchInt32(lengthPosition, body.size() - lengthPosition - 4);
+        }
+
+        private void writeValue(@Nullable Object value, MetaProperty metaProperty, @Nullable FetchPlan fetchPlan) {
+            if (value == null) {
+                body.writeByte(TAG_NULL);
+            } else if (value instanceof Collection) {
+                Collection<?> collection = (Collection<?>) value;
+                body.writeByte(TAG_COLLECTION);
+                body.writeVarLong(collection.size());
+                for (Object item : collection) {
+                    writeValue(item, metaProperty, fetchPlan);
+                }
+            } else if (metaProperty.getRange().isClass() && EntityValues.isEntity(value)) {
+                writeEntity(value, fetchPlan);
+            } else {
+                writeScalar(value, metaProperty);
+            }
+        }
+
+        private void writeScalar(@Nullable Object value, @Nullable MetaProperty metaProperty) {
+            if (value == null) {
+                body.writeByte(TAG_NULL);
+            } else if (value instanceof String) {
+                writeString(TAG_STRING, (String) value);
+            } else if (value instanceof Boolean) {
+                body.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+            } else if (value instanceof Integer) {
+                body.writeByte(TAG_INT);
+                body.writeSignedVarLong((Integer) value);
+            } else if (value instanceof Long) {
+                body.writeByte(TAG_LONG);
+                body.writeSignedVarLong((Long) value);
+            } else if (value instanceof UUID) {
+                body.writeByte(TAG_UUID);
+                body.writeFixedLong(((UUID) value).getMostSignificantBits());
+                body.writeFixedLong(((UUID) value).getLeastSignificantBits());
+            } else if (value instanceof Double) {
+                body.writeByte(TAG_DOUBLE);
+                body.writeFixedLong(Double.doubleToLongBits((Double) value));
+            } else if (value instanceof BigDecimal) {
+                writeString(TAG_DECIMAL, value.toString());
+            } else if (value instanceof EnumClass) {
+                writeString(TAG_ENUM, String.valueOf(((EnumClass<?>) value).getId()));
+            } else if (value instanceof Date) {
+                body.writeByte(TAG_DATE);
+                body.writeSignedVarLong(((Date) value).getTime());
+            } else if (value instanceof LocalDate) {
+                body.writeByte(TAG_LOCAL_DATE);
+                body.writeSignedVarLong(((LocalDate) value).toEpochDay());
+            } else if (value instanceof LocalDateTime) {
+                body.writeByte(TAG_LOCAL_DATE_TIME);
+                body.writeSignedVarLong(((LocalDateTime) value).toEpochSecond(ZoneOffset.UTC));
+                body.writeVarLong(((LocalDateTime) value).getNano());
+            } else if (value instanceof LocalTime) {
+                body.writeByte(TAG_LOCAL_TIME);
+                body.writeVarLong(((LocalTime) value).toNanoOfDay());
+            } else if (value instanceof OffsetDateTime) {
+                writeString(TAG_OFFSET_DATE_TIME, value.toString());
+            } else if (value instanceof OffsetTime) {
+                writeString(TAG_OFFSET_TIME, value.toString());
+            } else if (value instanceof byte[]) {
+                body.writeByte(TAG_BYTES);
+                body.writeVarLong(((byte[]) value).length);
+                body.writeBytes((byte[]) value);
+            } else if (EntityValues.isEntity(value)) {
+                writeNamed(value);
+            } else {
+                writeString(TAG_TEXT, getDatatype(value, metaProperty).format(value));
+            }
+        }
+
+        private void writeNamed(Object value) {
+            body.writeByte(TAG_NAMED);
+            int lengthPosition = body.size();
+            body.writeInt32(0);
+
+            List<MetaProperty> properties = new ArrayList<>();
+            for (MetaProperty property : metadata.getClass(value).getProperties()) {
+                if (!property.getRange().isClass()) {
+                    properties.add(property);
+                }
+            }
+            body.writeVarLong(properties.size());
+            for (MetaProperty property : properties) {
+                body.writeVarLong(stringIndex(property.getName()));
+                writeScalar(EntityValues.getValue(value, property.getName()), property);
+            }
+            body.patchInt32(lengthPosition, body.size() - lengthPosition - 4);
+        }
+
+        private void writeString(byte tag, String value) {
+            body.writeByte(tag);
+            body.writeVarLong(stringIndex(value));
+        }
+
+        private int stringIndex(String value) {
+            return dictionary.computeIfAbsent(value, v -> dictionary.size());
+        }
+
+        @SuppressWarnings("unchecked")
+        private Datatype<Object> getDatatype(Object value, @Nullable MetaProperty metaProperty) {
+            if (metaProperty != null && metaProperty.getRange().isDatatype()) {
+                return metaProperty.getRange().asDatatype();
+            }
+            Datatype<?> datatype = datatypeRegistry.find(value.getClass());
+            if (datatype == null) {
+                throw new IllegalStateException("Unable to write snapshot value of type " + value.getClass());
+            }
+            return (Datatype<Object>) datatype;
+        }
+    }
+}
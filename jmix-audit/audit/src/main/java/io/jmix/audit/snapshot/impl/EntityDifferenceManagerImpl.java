@@ -46,17 +46,20 @@ public class EntityDifferenceManagerImpl implements EntityDifferenceManager {
     private final ExtendedEntities extendedEntities;
     private final MetadataTools metadataTools;
     private final InstanceNameProvider instanceNameProvider;
+    private final CompactSnapshotSerializer compactSnapshotSerializer;
 
     public EntityDifferenceManagerImpl(EntitySnapshotManager entitySnapshotManager,
                                  FetchPlans fetchPlans,
                                  Metadata metadata,
-                                 ExtendedEntities extendedEntities, MetadataTools metadataTools, InstanceNameProvider instanceNameProvider) {
+                                 ExtendedEntities extendedEntities, MetadataTools metadataTools, InstanceNameProvider instanceNameProvider,
+                                 CompactSnapshotSerializer compactSnapshotSerializer) {
         this.entitySnapshotManager = entitySnapshotManager;
         this.fetchPlans = fetchPlans;
         this.metadata = metadata;
         this.extendedEntities = extendedEntities;
         this.metadataTools = metadataTools;
         this.instanceNameProvider = instanceNameProvider;
+        this.compactSnapshotSerializer = compactSnapshotSerializer;
     }
 
     @Override
@@ -91,23 +94,20 @@ public class EntityDifferenceManagerImpl implements EntityDifferenceManager {
         }
 
         // Diff
-        return getDifferenceByFetchPlan(first, second, diffFetchPlan);
+        return getDifferenceByFetchPlan(first, firstFetchPlan, second, secondFetchPlan, diffFetchPlan);
     }
 
     private EntityDifferenceModel getDifferenceByFetchPlan(
-            @Nullable EntitySnapshotModel first,
-            @Nullable EntitySnapshotModel second, FetchPlan diffFetchPlan) {
+            @Nullable EntitySnapshotModel first, @Nullable FetchPlan firstFetchPlan,
+            EntitySnapshotModel second, FetchPlan secondFetchPlan, FetchPlan diffFetchPlan) {
         EntityDifferenceModel result = metadata.create(EntityDifferenceModel.class);
         result.setDiffFetchPlan(diffFetchPlan);
         result.setBeforeSnapshot(first);
         result.setAfterSnapshot(second);
 
         if (!diffFetchPlan.getProperties().isEmpty()) {
-            Object firstEntity = first != null ? entitySnapshotManager.extractEntity(first) : null;
-            Object secondEntity = entitySnapshotManager.extractEntity(second);
-
-            result.setBeforeEntity(firstEntity);
-            result.setAfterEntity(secondEntity);
+            Object firstEntity = first != null && firstFetchPlan != null ? readSnapshot(first, firstFetchPlan) : null;
+            Object secondEntity = readSnapshot(second, secondFetchPlan);
 
             Stack<Object> diffBranch = new Stack<>();
             if (secondEntity != null) {
@@ -116,10 +116,79 @@ public class EntityDifferenceManagerImpl implements EntityDifferenceManager {
 
             List<EntityPropertyDifferenceModel> propertyDiffs = getPropertyDiffs(diffFetchPlan, firstEntity, secondEntity, diffBranch);
             result.setPropertyDiffs(propertyDiffs);
+
+            result.setBeforeEntity(toEntity(firstEntity));
+            result.setAfterEntity(toEntity(secondEntity));
         }
         return result;
     }
 
+    /**
+     * Returns a lazily decoded {@link CompactSnapshotNode} for compact snapshots, so that only the properties
+     * compared by the diff are decoded, or an extracted entity for snapshots stored in other formats.
+     */
+    @Nullable
+    private Object readSnapshot(EntitySnapshotModel snapshot, FetchPlan fetchPlan) {
+        if (compactSnapshotSerializer.isCompact(snapshot.getSnapshotXml())) {
+            return compactSnapshotSerializer.read(snapshot.getSnapshotXml(), fetchPlan);
+        }
+        return entitySnapshotManager.extractEntity(snapshot);
+    }
+
+    @Nullable
+    private Object getSnapshotValue(Object owner, String property) {
+        if (owner instanceof CompactSnapshotNode) {
+            return ((CompactSnapshotNode) owner).getValue(property);
+        }
+        return EntityValues.getValue(owner, property);
+    }
+
+    @Nullable
+    private Object getSnapshotId(Object owner) {
+        if (owner instanceof CompactSnapshotNode) {
+            return ((CompactSnapshotNode) owner).getId();
+        }
+        return EntityValues.getId(owner);
+    }
+
+    private MetaClass getSnapshotMetaClass(Object owner) {
+        if (owner instanceof CompactSnapshotNode) {
+            return ((CompactSnapshotNode) owner).getMetaClass();
+        }
+        return metadata.getClass(owner);
+    }
+
+    /**
+     * Compares snapshot values by entity class and id, so that an entity extracted from an XML or JSON snapshot
+     * and a {@link CompactSnapshotNode} of the same entity are considered the same.
+     */
+    private boolean isSameSnapshotEntity(@Nullable Object firstValue, @Nullable Object secondValue) {
+        if (firstValue == null || secondValue == null) {
+            return firstValue == secondValue;
+        }
+        Object firstId = getSnapshotId(firstValue);
+        if (firstId == null) {
+            return Objects.equals(firstValue, secondValue);
+        }
+        return firstId.equals(getSnapshotId(secondValue))
+                && Objects.equals(getSnapshotMetaClass(firstValue), getSnapshotMetaClass(secondValue));
+    }
+
+    private boolean isEmbeddable(Object owner) {
+        if (owner instanceof CompactSnapshotNode) {
+            return metadataTools.isJpaEmbeddable(((CompactSnapshotNode) owner).getMetaClass());
+        }
+        return EntitySystemAccess.isEmbeddable(owner);
+    }
+
+    @Nullable
+    private Object toEntity(@Nullable Object value) {
+        if (value instanceof CompactSnapshotNode) {
+            return compactSnapshotSerializer.toEntity((CompactSnapshotNode) value);
+        }
+        return value;
+    }
+
     /**
      * Get diffs for entity properties
      *
@@ -146,8 +215,8 @@ public class EntityDifferenceManagerImpl implements EntityDifferenceManager {
             if (metadataTools.isJpa(metaProperty) && !metadataTools.isSystem(metaProperty)) {
                 FetchPlanProperty fetchPlanProperty = diffFetchPlan.getProperty(metaProperty.getName());
 
-                Object firstValue = firstEntity != null ? EntityValues.getValue(firstEntity,metaPropertyPath.toString()) : null;
-                Object secondValue = secondEntity != null ? EntityValues.getValue(secondEntity,metaPropertyPath.toString()) : null;
+                Object firstValue = firstEntity != null ? getSnapshotValue(firstEntity, metaPropertyPath.toString()) : null;
+                Object secondValue = secondEntity != null ? getSnapshotValue(secondEntity, metaPropertyPath.toString()) : null;
 
                 if (fetchPlanProperty == null) {
                     throw new RuntimeException("Fetch plan property must not be null");
@@ -204,18 +273,17 @@ public class EntityDifferenceManagerImpl implements EntityDifferenceManager {
                                                             Stack<Object> diffBranch) {
         EntityPropertyDifferenceModel propertyDiff = null;
 
-        Collection<Entity> addedEntities = new LinkedList<>();
-        Collection<Entity> removedEntities = new LinkedList<>();
-        Collection<Pair<Entity, Entity>> modifiedEntities = new LinkedList<>();
+        Collection<Object> addedEntities = new LinkedList<>();
+        Collection<Object> removedEntities = new LinkedList<>();
+        Collection<Pair<Object, Object>> modifiedEntities = new LinkedList<>();
 
         // collection
         Collection firstCollection = firstValue == null ? Collections.emptyList() : (Collection) firstValue;
         Collection secondCollection = secondValue == null ? Collections.emptyList() : (Collection) secondValue;
 
         // added or modified
-        for (Object item : secondCollection) {
-            Entity secondEntity = (Entity) item;
-            Entity firstEntity = getRelatedItem(firstCollection, secondEntity);
+        for (Object secondEntity : secondCollection) {
+            Object firstEntity = getRelatedItem(firstCollection, secondEntity);
             if (firstEntity == null)
                 addedEntities.add(secondEntity);
             else
@@ -223,9 +291,8 @@ public class EntityDifferenceManagerImpl implements EntityDifferenceManager {
         }
 
         // removed
-        for (Object item : firstCollection) {
-            Entity firstEntity = (Entity) item;
-            Entity secondEntity = getRelatedItem(secondCollection, firstEntity);
+        for (Object firstEntity : firstCollection) {
+            Object secondEntity = getRelatedItem(secondCollection, firstEntity);
             if (secondEntity == null)
                 removedEntities.add(firstEntity);
         }
@@ -235,29 +302,29 @@ public class EntityDifferenceManagerImpl implements EntityDifferenceManager {
             EntityCollectionPropertyDifferenceModel diff = metadata.create(EntityCollectionPropertyDifferenceModel.class);
             diff.setMetaProperty(metaProperty);
 
-            for (Entity entity : addedEntities) {
+            for (Object entity : addedEntities) {
                 EntityPropertyDifferenceModel addedDiff = getClassDiff(null, entity, fetchPlanProperty, metaProperty, diffBranch);
                 if (addedDiff != null) {
-                    addedDiff.setName(instanceNameProvider.getInstanceName(entity));
+                    addedDiff.setName(instanceNameProvider.getInstanceName(toEntity(entity)));
                     addedDiff.setItemState(EntityPropertyDifferenceModel.ItemState.Added);
                     diff.getAddedEntities().add(addedDiff);
                 }
             }
             // check modified
-            for (Pair<Entity, Entity> entityPair : modifiedEntities) {
+            for (Pair<Object, Object> entityPair : modifiedEntities) {
                 EntityPropertyDifferenceModel modifiedDiff = getClassDiff(entityPair.getFirst(), entityPair.getSecond(),
                         fetchPlanProperty, metaProperty, diffBranch);
                 if (modifiedDiff != null) {
-                    modifiedDiff.setName(instanceNameProvider.getInstanceName(entityPair.getSecond()));
+                    modifiedDiff.setName(instanceNameProvider.getInstanceName(toEntity(entityPair.getSecond())));
                     modifiedDiff.setItemState(EntityPropertyDifferenceModel.ItemState.Modified);
                     diff.getModifiedEntities().add(modifiedDiff);
                 }
             }
             // check removed
-            for (Entity entity : removedEntities) {
+            for (Object entity : removedEntities) {
                 EntityPropertyDifferenceModel removedDiff = getClassDiff(entity, null, fetchPlanProperty, metaProperty, diffBranch);
                 if (removedDiff != null) {
-                    removedDiff.setName(instanceNameProvider.getInstanceName(entity));
+                    removedDiff.setName(instanceNameProvider.getInstanceName(toEntity(entity)));
                     removedDiff.setItemState(EntityPropertyDifferenceModel.ItemState.Removed);
                     diff.getRemovedEntities().add(removedDiff);
                 }
@@ -303,13 +370,11 @@ public class EntityDifferenceManagerImpl implements EntityDifferenceManager {
     }
 
     @Nullable
-    private Entity getRelatedItem(Collection collection, Entity entity) {
+    private Object getRelatedItem(Collection collection, Object entity) {
         for (Object item : collection) {
-            Entity itemEntity = (Entity) item;
-
-            Object entityId = EntityValues.getId(entity);
-            if (entityId != null && entityId.equals(EntityValues.getId(itemEntity)))
-                return itemEntity;
+            Object entityId = getSnapshotId(entity);
+            if (entityId != null && entityId.equals(getSnapshotId(item)))
+                return item;
         }
         return null;
     }
@@ -331,12 +396,12 @@ public class EntityDifferenceManagerImpl implements EntityDifferenceManager {
                                                                FetchPlanProperty fetchPlanProperty, MetaProperty metaProperty,
                                                                Stack<Object> diffBranch) {
         // link
-        boolean isLinkChange = !Objects.equals(firstValue, secondValue);
-        isLinkChange = !(EntitySystemAccess.isEmbeddable(diffObject)) && isLinkChange;
+        boolean isLinkChange = !isSameSnapshotEntity(firstValue, secondValue);
+        isLinkChange = !(isEmbeddable(diffObject)) && isLinkChange;
 
         EntityClassPropertyDifferenceModel classPropertyDiff = metadata.create(EntityClassPropertyDifferenceModel.class);
-        classPropertyDiff.setAfterValue(firstValue);
-        classPropertyDiff.setBeforeValue(secondValue);
+        classPropertyDiff.setAfterValue(toEntity(firstValue));
+        classPropertyDiff.setBeforeValue(toEntity(secondValue));
         classPropertyDiff.setMetaProperty(metaProperty);
         classPropertyDiff.setLinkChange(isLinkChange);
 
@@ -18,6 +18,7 @@ package io.jmix.audit.snapshot.impl;
 
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.mapper.MapperWrapper;
+import io.jmix.audit.AuditProperties;
 import io.jmix.audit.snapshot.EntitySnapshotManager;
 import io.jmix.audit.snapshot.datastore.EntitySnapshotDataStore;
 import io.jmix.audit.snapshot.model.EntitySnapshotModel;
@@ -59,6 +60,8 @@ public class EntitySnapshotManagerImpl implements EntitySnapshotManager {
     private final EntitySerialization entitySerialization;
     private final FetchPlanSerialization fetchPlanSerialization;
     private final EntitySnapshotDataStore entitySnapshotDataStore;
+    private final CompactSnapshotSerializer compactSnapshotSerializer;
+    private final AuditProperties auditProperties;
 
     public EntitySnapshotManagerImpl(ExtendedEntities extendedEntities,
                                      UnconstrainedDataManager unconstrainedDataManager,
@@ -70,7 +73,9 @@ public class EntitySnapshotManagerImpl implements EntitySnapshotManager {
                                      CurrentAuthentication currentAuthentication,
                                      EntitySerialization entitySerialization,
                                      FetchPlanSerialization fetchPlanSerialization,
-                                     EntitySnapshotDataStore entitySnapshotDataStore) {
+                                     EntitySnapshotDataStore entitySnapshotDataStore,
+                                     CompactSnapshotSerializer compactSnapshotSerializer,
+                                     AuditProperties auditProperties) {
         this.extendedEntities = extendedEntities;
         this.unconstrainedDataManager = unconstrainedDataManager;
         this.fetchPlans = fetchPlans;
@@ -82,6 +87,8 @@ public class EntitySnapshotManagerImpl implements EntitySnapshotManager {
         this.entitySerialization = entitySerialization;
         this.fetchPlanSerialization = fetchPlanSerialization;
         this.entitySnapshotDataStore = entitySnapshotDataStore;
+        this.compactSnapshotSerializer = compactSnapshotSerializer;
+        this.auditProperties = auditProperties;
     }
 
     @Override
@@ -156,7 +163,10 @@ public class EntitySnapshotManagerImpl implements EntitySnapshotManager {
     public Object extractEntity(EntitySnapshotModel snapshot) {
         String rawResult = snapshot.getSnapshotXml();
         Object entity;
-        if (isXml(rawResult)) {
+        if (compactSnapshotSerializer.isCompact(rawResult)) {
+            CompactSnapshotNode node = compactSnapshotSerializer.read(rawResult, extractFetchPlan(snapshot));
+            entity = compactSnapshotSerializer.toEntity(node);
+        } else if (isXml(rawResult)) {
             entity = fromXML(snapshot.getSnapshotXml());
         } else {
             entity = entitySerialization.entityFromJson(rawResult, metadata.getClass(snapshot.getEntityMetaClass()));
@@ -360,7 +370,11 @@ public class EntitySnapshotManagerImpl implements EntitySnapshotManager {
         snapshot.setObjectEntityId(referenceToEntitySupport.getReferenceId(entity));
         snapshot.setEntityMetaClass(metaClass.getName());
         snapshot.setFetchPlanXml(fetchPlanSerialization.toJson(fetchPlan, FetchPlanSerializationOption.COMPACT_FORMAT));
-        snapshot.setSnapshotXml(entitySerialization.toJson(entity));
+        if (auditProperties.isCompactSnapshotsEnabled()) {
+            snapshot.setSnapshotXml(compactSnapshotSerializer.toCompact(entity, fetchPlan));
+        } else {
+            snapshot.setSnapshotXml(entitySerialization.toJson(entity));
+        }
         snapshot.setSnapshotDate(snapshotDate);
         snapshot.setAuthorUsername(authorUsername);
 
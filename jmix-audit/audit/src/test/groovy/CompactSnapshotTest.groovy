@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.jmix.audit.snapshot.EntityDifferenceManager
+import io.jmix.audit.snapshot.EntitySnapshotManager
+import io.jmix.audit.snapshot.impl.CompactSnapshotNode
+import io.jmix.audit.snapshot.impl.CompactSnapshotSerializer
+import io.jmix.audit.snapshot.model.EntitySnapshotModel
+import io.jmix.core.EntitySerialization
+import io.jmix.core.FetchPlan
+import io.jmix.core.FetchPlanSerialization
+import io.jmix.core.FetchPlanSerializationOption
+import io.jmix.core.FetchPlans
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.testmodel.cascade.CascOrder
+import test_support.testmodel.cascade.CascOrderReview
+
+class CompactSnapshotTest extends AbstractEntityLogTest {
+
+    @Autowired
+    CompactSnapshotSerializer compactSnapshotSerializer
+
+    @Autowired
+    EntitySnapshotManager snapshotManager
+
+    @Autowired
+    EntityDifferenceManager differenceManager
+
+    @Autowired
+    FetchPlans fetchPlans
+
+    @Autowired
+    FetchPlanSerialization fetchPlanSerialization
+
+    @Autowired
+    EntitySerialization entitySerialization
+
+    def "compact snapshot is decoded lazily and restores the entity graph"() {
+        given:
+        def fetchPlan = orderFetchPlan()
+        def order = createOrder('first notes', 'review title')
+
+        when:
+        def raw = compactSnapshotSerializer.toCompact(order, fetchPlan)
+        def node = compactSnapshotSerializer.read(raw, fetchPlan)
+
+        then:
+        compactSnapshotSerializer.isCompact(raw)
+        node.getId() == order.id
+        node.getValue('notes') == 'first notes'
+        node.getValue('review') instanceof CompactSnapshotNode
+        ((CompactSnapshotNode) node.getValue('review')).getValue('title') == 'review title'
+
+        when:
+        CascOrder restored = compactSnapshotSerializer.toEntity(node) as CascOrder
+
+        then:
+        restored.id == order.id
+        restored.notes == 'first notes'
+        restored.review.id == order.review.id
+        restored.review.title == 'review title'
+    }
+
+    def "difference between compact snapshots"() {
+        given:
+        def fetchPlan = orderFetchPlan()
+        def order = createOrder('first notes', 'review title')
+        def first = createSnapshotModel(order, fetchPlan, new Date(100))
+
+        order.notes = 'second notes'
+        def second = createSnapshotModel(order, fetchPlan, new Date(200))
+
+        when:
+        def difference = differenceManager.getDifference(first, second)
+
+        then:
+        difference.propertyDiffs.size() == 1
+        difference.propertyDiffs[0].propertyName == 'notes'
+        (difference.afterEntity as CascOrder).notes == 'second notes'
+        (snapshotManager.extractEntity(first) as CascOrder).notes == 'first notes'
+    }
+
+    def "difference between JSON and compact snapshots of the same entity"() {
+        given:
+        def fetchPlan = orderFetchPlan()
+        def order = createOrder('first notes', 'review title')
+        def first = createSnapshotModel(order, fetchPlan, new Date(100))
+        first.snapshotXml = entitySerialization.toJson(order, fetchPlan)
+
+        order.notes = 'second notes'
+        def second = createSnapshotModel(order, fetchPlan, new Date(200))
+
+        when:
+        def difference = differenceManager.getDifference(first, second)
+
+        then: "unchanged reference is not reported as a link change"
+        !compactSnapshotSerializer.isCompact(first.snapshotXml)
+        difference.propertyDiffs.size() == 1
+        difference.propertyDiffs[0].propertyName == 'notes'
+    }
+
+    private FetchPlan orderFetchPlan() {
+        fetchPlans.builder(CascOrder)
+                .add('notes')
+                .add('review', { it.add('title').add('text') })
+                .build()
+    }
+
+    private CascOrder createOrder(String notes, String title) {
+        def review = metadata.create(CascOrderReview)
+        review.title = title
+        def order = metadata.create(CascOrder)
+        order.notes = notes
+        order.review = review
+        order
+    }
+
+    private EntitySnapshotModel createSnapshotModel(CascOrder order, FetchPlan fetchPlan, Date date) {
+        def snapshot = metadata.create(EntitySnapshotModel)
+        snapshot.entityMetaClass = metadata.getClass(CascOrder).name
+        snapshot.fetchPlanXml = fetchPlanSerialization.toJson(fetchPlan, FetchPlanSerializationOption.COMPACT_FORMAT)
+        snapshot.snapshotXml = compactSnapshotSerializer.toCompact(order, fetchPlan)
+        snapshot.snapshotDate = date
+        snapshot
+    }
+}
@@ -18,6 +18,9 @@ package io.jmix.awsfs;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.jmix.core.FileAttributes;
 import io.jmix.core.FileRef;
 import io.jmix.core.FileStorage;
 import io.jmix.core.FileStorageException;
@@ -25,6 +28,7 @@ import io.jmix.core.TimeSource;
 import io.jmix.core.UuidProvider;
 import io.jmix.core.annotation.Internal;
 import io.jmix.core.common.util.Preconditions;
+import jakarta.annotation.PreDestroy;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -39,33 +43,54 @@ import software.amazon.awssdk.auth.credentials.AwsCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.AbortedException;
 import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.retry.RetryPolicyContext;
+import software.amazon.awssdk.core.retry.conditions.RetryCondition;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.core.sync.ResponseTransformer;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
 import software.amazon.awssdk.services.s3.model.CompletedPart;
 import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
-import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 
-import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Internal
@@ -74,6 +99,7 @@ public class AwsFileStorage implements FileStorage {
 
     private static final Logger log = LoggerFactory.getLogger(AwsFileStorage.class);
     private static final String DEFAULT_STORAGE_NAME = "s3";
+    private static final int HTTP_NOT_FOUND = 404;
 
     protected String storageName;
 
@@ -88,12 +114,18 @@ public class AwsFileStorage implements FileStorage {
     protected String bucket;
     protected int chunkSize;
     protected String endpointUrl;
+    protected int uploadConcurrency = 4;
+    protected int downloadConcurrency = 4;
+    protected int maxPartAttempts = 3;
+    protected int transferThreads = 16;
 
     @Autowired
     protected TimeSource timeSource;
 
     protected AtomicReference<S3Client> s3ClientReference = new AtomicReference<>();
 
+    protected volatile ExecutorService transferExecutor;
+
     public AwsFileStorage() {
         this(DEFAULT_STORAGE_NAME);
     }
@@ -130,6 +162,10 @@ public class AwsFileStorage implements FileStorage {
             this.bucket = properties.getBucket();
             this.chunkSize = properties.getChunkSize();
             this.endpointUrl = properties.getEndpointUrl();
+            this.uploadConcurrency = properties.getUploadConcurrency();
+            this.downloadConcurrency = properties.getDownloadConcurrency();
+            this.maxPartAttempts = properties.getMaxPartAttempts();
+            this.transferThreads = properties.getTransferThreads();
         }
     }
 
@@ -195,40 +231,90 @@ public class AwsFileStorage implements FileStorage {
     public FileRef saveStream(String fileName, InputStream inputStream, Map<String, Object> parameters) {
         String fileKey = createFileKey(fileName);
         int s3ChunkSizeBytes = this.chunkSize * 1024;
-        try (BufferedInputStream bos = new BufferedInputStream(inputStream, s3ChunkSizeBytes)) {
+        try (InputStream is = inputStream) {
             S3Client s3Client = s3ClientReference.get();
-            int totalSizeBytes = bos.available();
             Map<String, String> fileRefParameters = Maps.toMap(parameters.keySet(), key -> parameters.get(key).toString());
-            if (totalSizeBytes == 0) {
+            byte[] firstChunk = new byte[s3ChunkSizeBytes];
+            int firstChunkLength = ByteStreams.read(is, firstChunk, 0, s3ChunkSizeBytes);
+            if (firstChunkLength < s3ChunkSizeBytes) {
+                // the whole file fits into a single part
                 s3Client.putObject(PutObjectRequest.builder()
                         .bucket(bucket)
                         .key(fileKey)
-                        .build(), RequestBody.empty());
+                        .build(), RequestBody.fromInputStream(new ByteArrayInputStream(firstChunk, 0, firstChunkLength), firstChunkLength));
                 return new FileRef(getStorageName(), fileKey, fileName, fileRefParameters);
             }
 
-            CreateMultipartUploadRequest createMultipartUploadRequest = CreateMultipartUploadRequest.builder()
-                    .bucket(bucket)
-                    .key(fileKey)
-                    .build();
-            CreateMultipartUploadResponse response = s3Client.createMultipartUpload(createMultipartUploadRequest);
+            uploadMultipart(s3Client, fileKey, is, firstChunk);
+            return new FileRef(getStorageName(), fileKey, fileName, fileRefParameters);
+        } catch (IOException | SdkException e) {
+            log.error("Error saving file to S3 storage", e);
+            String message = String.format("Could not save file %s.", fileName);
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, message);
+        }
+    }
 
-            List<CompletedPart> completedParts = new ArrayList<>();
-            for (int partNumber = 1, readBytes = 0; readBytes != totalSizeBytes; partNumber++) {
-                byte[] chunkBytes = new byte[Math.min(totalSizeBytes - readBytes, s3ChunkSizeBytes)];
-                readBytes += bos.read(chunkBytes);
-                UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
-                        .bucket(bucket)
-                        .key(fileKey)
-                        .uploadId(response.uploadId())
-                        .partNumber(partNumber)
-                        .build();
-                String eTag = s3Client.uploadPart(uploadPartRequest, RequestBody.fromBytes(chunkBytes)).eTag();
-                CompletedPart part = CompletedPart.builder()
-                        .partNumber(partNumber)
-                        .eTag(eTag)
-                        .build();
-                completedParts.add(part);
+    /**
+     * Uploads the file by parts sent concurrently. The input stream is read ahead into a bounded pool of buffers
+     * while the previous parts are being sent. If a part cannot be uploaded, the multipart upload is aborted.
+     *
+     * @param firstChunk first part of the file that has already been read from the stream
+     */
+    protected void uploadMultipart(S3Client s3Client, String fileKey, InputStream inputStream, byte[] firstChunk)
+            throws IOException {
+        String bucket = this.bucket;
+        int partSize = firstChunk.length;
+        int concurrency = Math.max(uploadConcurrency, 1);
+
+        CreateMultipartUploadRequest createMultipartUploadRequest = CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(fileKey)
+                .build();
+        String uploadId = s3Client.createMultipartUpload(createMultipartUploadRequest).uploadId();
+
+        // one more buffer than parts sent concurrently, so that the next part is read while the others are sent
+        BlockingQueue<byte[]> freeBuffers = new ArrayBlockingQueue<>(concurrency + 1);
+        int createdBuffers = 1;
+        Semaphore uploadPermits = new Semaphore(concurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Future<CompletedPart>> parts = new ArrayList<>();
+        try {
+            byte[] chunk = firstChunk;
+            int length = partSize;
+            for (int partNumber = 1; length > 0; partNumber++) {
+                acquire(uploadPermits);
+                checkUploadFailure(failure);
+
+                byte[] partBytes = chunk;
+                int partLength = length;
+                int currentPartNumber = partNumber;
+                parts.add(getTransferExecutor().submit(() -> {
+                    try {
+                        return uploadPart(s3Client, bucket, fileKey, uploadId, currentPartNumber, partBytes, partLength);
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                        throw e;
+                    } finally {
+                        freeBuffers.offer(partBytes);
+                        uploadPermits.release();
+                    }
+                }));
+
+                chunk = freeBuffers.poll();
+                if (chunk == null) {
+                    if (createdBuffers <= concurrency) {
+                        chunk = new byte[partSize];
+                        createdBuffers++;
+                    } else {
+                        chunk = take(freeBuffers);
+                    }
+                }
+                length = ByteStreams.read(inputStream, chunk, 0, partSize);
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>(parts.size());
+            for (Future<CompletedPart> part : parts) {
+                completedParts.add(getCompletedPart(part));
             }
 
             CompletedMultipartUpload completedMultipartUpload = CompletedMultipartUpload.builder()
@@ -238,33 +324,285 @@ public class AwsFileStorage implements FileStorage {
                     CompleteMultipartUploadRequest.builder()
                             .bucket(bucket)
                             .key(fileKey)
-                            .uploadId(response.uploadId())
+                            .uploadId(uploadId)
                             .multipartUpload(completedMultipartUpload).build();
             s3Client.completeMultipartUpload(completeMultipartUploadRequest);
-            return new FileRef(getStorageName(), fileKey, fileName, fileRefParameters);
-        } catch (IOException | SdkException e) {
-            log.error("Error saving file to S3 storage", e);
-            String message = String.format("Could not save file %s.", fileName);
-            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, message);
+        } catch (IOException | RuntimeException e) {
+            for (Future<CompletedPart> part : parts) {
+                part.cancel(true);
+            }
+            abortMultipartUpload(s3Client, bucket, fileKey, uploadId);
+            throw e;
+        }
+    }
+
+    protected CompletedPart uploadPart(S3Client s3Client, String bucket, String fileKey, String uploadId,
+                                       int partNumber, byte[] bytes, int length) {
+        UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(fileKey)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .build();
+        String eTag = executeWithRetries(() -> s3Client.uploadPart(uploadPartRequest,
+                RequestBody.fromInputStream(new ByteArrayInputStream(bytes, 0, length), length)).eTag());
+        return CompletedPart.builder()
+                .partNumber(partNumber)
+                .eTag(eTag)
+                .build();
+    }
+
+    protected void abortMultipartUpload(S3Client s3Client, String bucket, String fileKey, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(fileKey)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (SdkException e) {
+            log.warn("Could not abort multipart upload {} of {}", uploadId, fileKey, e);
+        }
+    }
+
+    protected void checkUploadFailure(AtomicReference<Throwable> failure) throws IOException {
+        Throwable throwable = failure.get();
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        }
+        if (throwable != null) {
+            throw new IOException("Could not upload a part of the file", throwable);
+        }
+    }
+
+    protected CompletedPart getCompletedPart(Future<CompletedPart> part) throws IOException {
+        try {
+            return part.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading the file");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Could not upload a part of the file", e.getCause());
+        }
+    }
+
+    protected void acquire(Semaphore semaphore) throws InterruptedIOException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading the file");
+        }
+    }
+
+    protected byte[] take(BlockingQueue<byte[]> buffers) throws InterruptedIOException {
+        try {
+            return buffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading the file");
+        }
+    }
+
+    /**
+     * Executes the transfer of a single part, repeating it up to {@link #maxPartAttempts} times
+     * if it fails with a transient error.
+     */
+    protected <T> T executeWithRetries(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (SdkException e) {
+                if (attempt >= maxPartAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+                log.debug("Attempt {} to transfer a part failed, retrying", attempt, e);
+                try {
+                    Thread.sleep(Math.min(100L << (attempt - 1), 5000L));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks the exception by the default retry condition of the SDK, which accepts throttling, clock skew,
+     * server errors and I/O failures.
+     */
+    protected boolean isRetryable(SdkException e) {
+        if (e instanceof AbortedException) {
+            return false;
+        }
+        RetryPolicyContext context = RetryPolicyContext.builder()
+                .exception(e)
+                .httpStatusCode(e instanceof SdkServiceException ? ((SdkServiceException) e).statusCode() : null)
+                .build();
+        return RetryCondition.defaultRetryCondition().shouldRetry(context);
+    }
+
+    /**
+     * Returns the executor transferring the parts of files, creating it on the first call. The executor uses
+     * at most {@link #transferThreads} threads shared by all uploads and downloads of the storage.
+     */
+    protected ExecutorService getTransferExecutor() {
+        ExecutorService executor = transferExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = transferExecutor;
+                if (executor == null) {
+                    int threads = Math.max(transferThreads, 1);
+                    ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threads, threads,
+                            60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                            new ThreadFactoryBuilder().setNameFormat("AwsFileStorageTransfer-%d").setDaemon(true).build());
+                    threadPoolExecutor.allowCoreThreadTimeOut(true);
+                    transferExecutor = executor = threadPoolExecutor;
+                }
+            }
         }
+        return executor;
     }
 
     @Override
     public InputStream openStream(FileRef reference) {
-        InputStream is;
         try {
-            S3Client s3Client = s3ClientReference.get();
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucket)
-                    .key(reference.getPath())
-                    .build();
-            is = s3Client.getObject(getObjectRequest, ResponseTransformer.toInputStream());
+            return openObjectStream(reference, 0, Long.MAX_VALUE);
         } catch (SdkException e) {
             log.error("Error loading file from S3 storage", e);
             String message = String.format("Could not load file %s.", reference.getFileName());
             throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, message);
         }
-        return is;
+    }
+
+    @Override
+    public InputStream openStream(FileRef reference, long offset, long length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Offset and length must not be negative");
+        }
+        if (length == 0) {
+            return InputStream.nullInputStream();
+        }
+        try {
+            return openObjectStream(reference, offset, length);
+        } catch (SdkException e) {
+            log.error("Error loading file from S3 storage", e);
+            String message = String.format("Could not load file %s.", reference.getFileName());
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, message);
+        }
+    }
+
+    /**
+     * Opens a stream of the object range. A range larger than the chunk size is loaded by concurrent
+     * ranged requests, the first of which also determines the object size. The whole object is requested
+     * without a range, and if it is larger than the chunk size, only its first chunk is read from the response.
+     *
+     * @param length number of bytes to load, {@code Long.MAX_VALUE} to load the object up to its end
+     */
+    protected InputStream openObjectStream(FileRef reference, long offset, long length) {
+        S3Client s3Client = s3ClientReference.get();
+        String bucket = this.bucket;
+        String key = reference.getPath();
+        int partSize = this.chunkSize * 1024;
+        boolean wholeObject = offset == 0 && length == Long.MAX_VALUE;
+        if (downloadConcurrency <= 1 || length <= partSize) {
+            return s3Client.getObject(createGetObjectRequest(bucket, key, offset, length), ResponseTransformer.toInputStream());
+        }
+
+        ResponseInputStream<GetObjectResponse> firstPart = s3Client.getObject(
+                createGetObjectRequest(bucket, key, offset, wholeObject ? Long.MAX_VALUE : partSize),
+                ResponseTransformer.toInputStream());
+        long objectSize = wholeObject ? getContentLength(firstPart.response()) : getObjectSize(firstPart.response());
+        if (objectSize < 0) {
+            // size is unknown or range is not supported, the response contains the whole object
+            return firstPart;
+        }
+        long end = length > objectSize - offset ? objectSize : offset + length;
+        if (end <= offset + partSize) {
+            return firstPart;
+        }
+        InputStream firstPartStream = wholeObject ? limitObjectStream(firstPart, partSize) : firstPart;
+        return new ParallelRangeInputStream(
+                (partOffset, partLength) -> loadPart(s3Client, bucket, key, partOffset, partLength),
+                getTransferExecutor(), firstPartStream, offset + partSize, end, partSize, downloadConcurrency);
+    }
+
+    /**
+     * Returns a stream of the first bytes of the response that aborts the response when closed, because
+     * the rest of the response is loaded by other requests.
+     */
+    protected InputStream limitObjectStream(ResponseInputStream<GetObjectResponse> response, long length) {
+        return new FilterInputStream(ByteStreams.limit(response, length)) {
+            @Override
+            public void close() throws IOException {
+                response.abort();
+                super.close();
+            }
+        };
+    }
+
+    /**
+     * @return size of the object from the {@code Content-Length} header of a response, or -1 if it is unknown
+     */
+    protected long getContentLength(GetObjectResponse response) {
+        Long contentLength = response.contentLength();
+        return contentLength != null ? contentLength : -1;
+    }
+
+    protected byte[] loadPart(S3Client s3Client, String bucket, String key, long offset, int length) throws IOException {
+        try {
+            return executeWithRetries(() -> s3Client.getObject(createGetObjectRequest(bucket, key, offset, length),
+                    ResponseTransformer.toBytes()).asByteArray());
+        } catch (SdkException e) {
+            throw new IOException(String.format("Could not load bytes %d-%d of %s", offset, offset + length - 1, key), e);
+        }
+    }
+
+    protected GetObjectRequest createGetObjectRequest(String bucket, String key, long offset, long length) {
+        GetObjectRequest.Builder builder = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key);
+        if (offset == 0 && length == Long.MAX_VALUE) {
+            return builder.build();
+        }
+        String lastByte = length > Long.MAX_VALUE - offset ? "" : String.valueOf(offset + length - 1);
+        return builder.range("bytes=" + offset + "-" + lastByte).build();
+    }
+
+    /**
+     * @return total size of the object from the {@code Content-Range} header of a ranged response,
+     * or -1 if the response is not ranged
+     */
+    protected long getObjectSize(GetObjectResponse response) {
+        String contentRange = response.contentRange();
+        if (contentRange == null) {
+            return -1;
+        }
+        String size = StringUtils.substringAfterLast(contentRange, "/");
+        return StringUtils.isNumeric(size) ? Long.parseLong(size) : -1;
+    }
+
+    @Override
+    public FileAttributes getFileAttributes(FileRef reference) {
+        try {
+            S3Client s3Client = s3ClientReference.get();
+            HeadObjectResponse response = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(reference.getPath())
+                    .build());
+            return new FileAttributes(response.contentLength(), response.lastModified());
+        } catch (S3Exception e) {
+            if (e.statusCode() == HTTP_NOT_FOUND) {
+                throw new FileStorageException(FileStorageException.Type.FILE_NOT_FOUND, reference.toString(), e);
+            }
+            log.error("Error loading file attributes from S3 storage", e);
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, reference.toString(), e);
+        } catch (SdkException e) {
+            log.error("Error loading file attributes from S3 storage", e);
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, reference.toString(), e);
+        }
     }
 
     @Override
@@ -321,4 +659,33 @@ public class AwsFileStorage implements FileStorage {
     public void setEndpointUrl(@Nullable String endpointUrl) {
         this.endpointUrl = endpointUrl;
     }
+
+    public void setUploadConcurrency(int uploadConcurrency) {
+        this.uploadConcurrency = uploadConcurrency;
+    }
+
+    public void setDownloadConcurrency(int downloadConcurrency) {
+        this.downloadConcurrency = downloadConcurrency;
+    }
+
+    public void setMaxPartAttempts(int maxPartAttempts) {
+        this.maxPartAttempts = maxPartAttempts;
+    }
+
+    /**
+     * Sets the maximum number of threads transferring parts of files. Takes effect if the transfer executor
+     * has not been created yet.
+     */
+    public void setTransferThreads(int transferThreads) {
+        this.transferThreads = transferThreads;
+    }
+
+    @PreDestroy
+    protected void stopTransferExecutor() {
+        ExecutorService executor = transferExecutor;
+        if (executor != null) {
+            executor.shutdown();
+            transferExecutor = null;
+        }
+    }
 }
@@ -27,7 +27,7 @@ public class AwsFileStorageProperties {
     String bucket;
 
     /**
-     * Amazon S3 chunk size (kB).
+     * Amazon S3 chunk size (kB). Files are uploaded and downloaded by parts of this size.
      */
     int chunkSize;
 
@@ -36,19 +36,48 @@ public class AwsFileStorageProperties {
      */
     String endpointUrl;
 
+    /**
+     * Maximum number of parts of a file uploaded concurrently. The value of 1 uploads parts one after another.
+     */
+    int uploadConcurrency;
+
+    /**
+     * Maximum number of ranged requests used concurrently to download a file. The value of 1 downloads
+     * a file by a single request.
+     */
+    int downloadConcurrency;
+
+    /**
+     * Number of attempts to transfer a single part before the whole upload or download fails.
+     */
+    int maxPartAttempts;
+
+    /**
+     * Maximum number of threads transferring parts of files, shared by all uploads and downloads of the storage.
+     */
+    int transferThreads;
+
     public AwsFileStorageProperties(
             String accessKey,
             String secretAccessKey,
             String region,
             String bucket,
             @DefaultValue("8192") int chunkSize,
-            @DefaultValue("") String endpointUrl) {
+            @DefaultValue("") String endpointUrl,
+            @DefaultValue("4") int uploadConcurrency,
+            @DefaultValue("4") int downloadConcurrency,
+            @DefaultValue("3") int maxPartAttempts,
+            @DefaultValue("16") int transferThreads) {
         this.accessKey = accessKey;
         this.secretAccessKey = secretAccessKey;
         this.region = region;
         this.bucket = bucket;
         this.chunkSize = chunkSize;
         this.endpointUrl = endpointUrl;
+        this.uploadConcurrency = uploadConcurrency;
+        this.downloadConcurrency = downloadConcurrency;
+        this.maxPartAttempts = maxPartAttempts;
+        this.transferThreads = transferThreads;
     }
 
     /**
@@ -92,4 +121,32 @@ public class AwsFileStorageProperties {
     public String getEndpointUrl() {
         return endpointUrl;
     }
+
+    /**
+     * @see #uploadConcurrency
+     */
+    public int getUploadConcurrency() {
+        return uploadConcurrency;
+    }
+
+    /**
+     * @see #downloadConcurrency
+     */
+    public int getDownloadConcurrency() {
+        return downloadConcurrency;
+    }
+
+    /**
+     * @see #maxPartAttempts
+     */
+    public int getMaxPartAttempts() {
+        return maxPartAttempts;
+    }
+
+    /**
+     * @see #transferThreads
+     */
+    public int getTransferThreads() {
+        return transferThreads;
+    }
 }
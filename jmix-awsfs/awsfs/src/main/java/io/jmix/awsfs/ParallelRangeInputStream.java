@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.awsfs;
+
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Input stream reading a byte range of a remote object by several concurrent ranged requests.
+ * <p>
+ * The range is split into parts of the same size. While the current part is being read, up to {@code concurrency}
+ * following parts are loaded in the background. Parts are returned in their original order, so the stream
+ * contains the same bytes as a single sequential request.
+ */
+public class ParallelRangeInputStream extends InputStream {
+
+    /**
+     * Loads a part of the remote object.
+     */
+    @FunctionalInterface
+    public interface PartLoader {
+
+        /**
+         * @param offset position of the first byte of the part
+         * @param length number of bytes in the part
+         * @return part contents
+         */
+        byte[] load(long offset, int length) throws IOException;
+    }
+
+    protected final PartLoader partLoader;
+    protected final ExecutorService executor;
+    protected final long end;
+    protected final int partSize;
+    protected final int concurrency;
+
+    protected final Deque<Future<byte[]>> pendingParts = new ArrayDeque<>();
+    protected long nextPartOffset;
+    protected InputStream currentPart;
+    protected boolean closed;
+
+    /**
+     * @param partLoader  loads parts of the object, called concurrently from the executor threads
+     * @param executor    executor loading the parts
+     * @param firstPart   stream of the beginning of the range that has already been requested, or null
+     * @param offset      position of the first byte to load by the part loader
+     * @param end         position following the last byte of the range
+     * @param partSize    size of the parts in bytes
+     * @param concurrency maximum number of parts loaded at the same time
+     */
+    public ParallelRangeInputStream(PartLoader partLoader, ExecutorService executor, @Nullable InputStream firstPart,
+                                    long offset, long end, int partSize, int concurrency) {
+        this.partLoader = partLoader;
+        this.executor = executor;
+        this.currentPart = firstPart;
+        this.nextPartOffset = offset;
+        this.end = end;
+        this.partSize = partSize;
+        this.concurrency = Math.max(concurrency, 1);
+        scheduleParts();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] buffer = new byte[1];
+        int read = read(buffer, 0, 1);
+        return read == -1 ? -1 : buffer[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        while (true) {
+            if (currentPart != null) {
+                int read = currentPart.read(buffer, off, len);
+                if (read != -1) {
+                    return read;
+                }
+                currentPart.close();
+                currentPart = null;
+            }
+            if (!nextPart()) {
+                return -1;
+            }
+        }
+    }
+
+    @Override
+    public int available() throws IOException {
+        return currentPart != null ? currentPart.available() : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Future<byte[]> future;
+        while ((future = pendingParts.poll()) != null) {
+            future.cancel(true);
+        }
+        if (currentPart != null) {
+            currentPart.close();
+            currentPart = null;
+        }
+    }
+
+    protected boolean nextPart() throws IOException {
+        Future<byte[]> future = pendingParts.poll();
+        if (future == null) {
+            return false;
+        }
+        currentPart = new ByteArrayInputStream(awaitPart(future));
+        scheduleParts();
+        return true;
+    }
+
+    protected void scheduleParts() {
+        while (pendingParts.size() < concurrency && nextPartOffset < end) {
+            long offset = nextPartOffset;
+            int length = (int) Math.min(partSize, end - offset);
+            pendingParts.add(executor.submit(() -> partLoader.load(offset, length)));
+            nextPartOffset += length;
+        }
+    }
+
+    protected byte[] awaitPart(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading a part of the object");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Could not load a part of the object", cause);
+        }
+    }
+}
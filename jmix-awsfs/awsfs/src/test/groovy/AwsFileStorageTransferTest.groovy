@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.jmix.awsfs.AwsFileStorage
+import io.jmix.awsfs.AwsFileStorageConfiguration
+import io.jmix.core.CoreConfiguration
+import io.jmix.core.FileRef
+import io.jmix.core.FileStorageException
+import io.jmix.core.TimeSource
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.test.context.ContextConfiguration
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider
+import software.amazon.awssdk.core.retry.RetryPolicy
+import software.amazon.awssdk.regions.Region
+import software.amazon.awssdk.services.s3.S3Client
+import software.amazon.awssdk.services.s3.S3Configuration
+import spock.lang.Shared
+import spock.lang.Specification
+import test_support.AwsFileStorageTestConfiguration
+import test_support.TestContextInititalizer
+import test_support.TestS3Server
+
+@ContextConfiguration(
+        classes = [CoreConfiguration, AwsFileStorageConfiguration, AwsFileStorageTestConfiguration],
+        initializers = [TestContextInititalizer]
+)
+class AwsFileStorageTransferTest extends Specification {
+
+    static final int CHUNK_SIZE_KB = 5
+    static final int CHUNK_SIZE = CHUNK_SIZE_KB * 1024
+
+    @Autowired
+    TimeSource timeSource
+
+    @Shared
+    TestS3Server s3Server = new TestS3Server()
+
+    AwsFileStorage storage
+    S3Client s3Client
+
+    void setup() {
+        s3Server.reset()
+
+        storage = new AwsFileStorage('s3test', 'test', 'test', 'us-east-1', 'test-bucket',
+                CHUNK_SIZE_KB, s3Server.endpointUrl)
+        storage.timeSource = timeSource
+        storage.uploadConcurrency = 3
+        storage.downloadConcurrency = 3
+
+        // SDK retries are disabled to check the retries of parts
+        s3Client = S3Client.builder()
+                .endpointOverride(URI.create(s3Server.endpointUrl))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create('test', 'test')))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .chunkedEncodingEnabled(false)
+                        .build())
+                .overrideConfiguration({ it.retryPolicy(RetryPolicy.none()) })
+                .build()
+        storage.s3ClientReference.set(s3Client)
+    }
+
+    void cleanup() {
+        s3Client.close()
+        storage.stopTransferExecutor()
+    }
+
+    void cleanupSpec() {
+        s3Server.close()
+    }
+
+    def "small file is uploaded by a single request"() {
+        def content = randomBytes(CHUNK_SIZE - 1)
+
+        when:
+        FileRef fileRef = storage.saveStream('small.bin', new ByteArrayInputStream(content))
+
+        then:
+        s3Server.partRequests == 0
+        s3Server.objects[fileRef.path] == content
+        storage.openStream(fileRef).bytes == content
+        s3Server.rangeRequests == 0
+    }
+
+    def "empty file is uploaded and downloaded"() {
+        when:
+        FileRef fileRef = storage.saveStream('empty.bin', new ByteArrayInputStream(new byte[0]))
+
+        then:
+        storage.openStream(fileRef).bytes.length == 0
+        s3Server.rangeRequests == 0
+    }
+
+    def "large file is uploaded by concurrent parts"() {
+        def content = randomBytes(CHUNK_SIZE * 6 + 123)
+        s3Server.partDelayMillis = 100
+
+        when:
+        FileRef fileRef = storage.saveStream('large.bin', new ByteArrayInputStream(content))
+
+        then:
+        s3Server.partRequests == 7
+        s3Server.maxConcurrentPartRequests > 1
+        s3Server.maxConcurrentPartRequests <= 3
+        s3Server.objects[fileRef.path] == content
+    }
+
+    def "failed part is retried"() {
+        def content = randomBytes(CHUNK_SIZE * 3)
+        s3Server.failPart(2, 1)
+
+        when:
+        FileRef fileRef = storage.saveStream('retried.bin', new ByteArrayInputStream(content))
+
+        then:
+        s3Server.partRequests == 4
+        s3Server.objects[fileRef.path] == content
+    }
+
+    def "upload is aborted if a part cannot be uploaded"() {
+        def content = randomBytes(CHUNK_SIZE * 4)
+        s3Server.failPart(3, Integer.MAX_VALUE)
+
+        when:
+        storage.saveStream('failed.bin', new ByteArrayInputStream(content))
+
+        then:
+        thrown(FileStorageException)
+        s3Server.abortedUploads.size() == 1
+        s3Server.objects.isEmpty()
+    }
+
+    def "large file is downloaded by concurrent ranged requests"() {
+        def content = randomBytes(CHUNK_SIZE * 4 + 17)
+        FileRef fileRef = storage.saveStream('download.bin', new ByteArrayInputStream(content))
+
+        when:
+        def downloaded = storage.openStream(fileRef).withCloseable { it.bytes }
+
+        then: "the first part is read from a request without a range"
+        downloaded == content
+        s3Server.rangeRequests == 4
+    }
+
+    def "file range is downloaded"() {
+        def content = randomBytes(CHUNK_SIZE * 4)
+        FileRef fileRef = storage.saveStream('range.bin', new ByteArrayInputStream(content))
+
+        expect:
+        storage.openStream(fileRef, 100, 10).bytes == content[100..109] as byte[]
+        storage.openStream(fileRef, 1000, CHUNK_SIZE * 2).bytes == content[1000..<(1000 + CHUNK_SIZE * 2)] as byte[]
+        storage.openStream(fileRef, CHUNK_SIZE, Long.MAX_VALUE).bytes == content[CHUNK_SIZE..<content.length] as byte[]
+    }
+
+    private static byte[] randomBytes(int size) {
+        def bytes = new byte[size]
+        new Random(size).nextBytes(bytes)
+        return bytes
+    }
+}
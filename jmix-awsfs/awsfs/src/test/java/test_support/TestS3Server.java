@@ -0,0 +1,273 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package test_support;
+
+import com.google.common.hash.Hashing;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process S3-compatible server used by functional tests. Supports path-style requests
+ * for putting, multipart uploading and getting objects with byte ranges.
+ */
+public class TestS3Server implements Closeable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, SortedMap<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    private final Set<String> abortedUploads = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, AtomicInteger> partFailures = new ConcurrentHashMap<>();
+
+    private final AtomicInteger partRequests = new AtomicInteger();
+    private final AtomicInteger concurrentPartRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentPartRequests = new AtomicInteger();
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+
+    private volatile long partDelayMillis;
+
+    public TestS3Server() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 50);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String getEndpointUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Makes the server respond with an error to the given number of requests uploading the part.
+     */
+    public void failPart(int partNumber, int times) {
+        partFailures.put(partNumber, new AtomicInteger(times));
+    }
+
+    public void setPartDelayMillis(long partDelayMillis) {
+        this.partDelayMillis = partDelayMillis;
+    }
+
+    public Map<String, byte[]> getObjects() {
+        return objects;
+    }
+
+    public Set<String> getAbortedUploads() {
+        return abortedUploads;
+    }
+
+    public int getPartRequests() {
+        return partRequests.get();
+    }
+
+    public int getMaxConcurrentPartRequests() {
+        return maxConcurrentPartRequests.get();
+    }
+
+    public int getRangeRequests() {
+        return rangeRequests.get();
+    }
+
+    public void reset() {
+        objects.clear();
+        uploads.clear();
+        abortedUploads.clear();
+        partFailures.clear();
+        partRequests.set(0);
+        maxConcurrentPartRequests.set(0);
+        rangeRequests.set(0);
+        partDelayMillis = 0;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = URLDecoder.decode(exchange.getRequestURI().getRawPath(), StandardCharsets.UTF_8);
+            String key = path.substring(path.indexOf('/', 1) + 1);
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            byte[] body = exchange.getRequestBody().readAllBytes();
+
+            switch (exchange.getRequestMethod()) {
+                case "PUT":
+                    if (query.containsKey("partNumber")) {
+                        uploadPart(exchange, query, body);
+                    } else {
+                        objects.put(key, body);
+                        sendETag(exchange, body);
+                    }
+                    break;
+                case "POST":
+                    if (query.containsKey("uploads")) {
+                        String uploadId = UUID.randomUUID().toString();
+                        uploads.put(uploadId, new ConcurrentSkipListMap<>());
+                        sendXml(exchange, 200, "<InitiateMultipartUploadResult><Key>" + key + "</Key>"
+                                + "<UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+                    } else {
+                        completeUpload(exchange, key, query.get("uploadId"));
+                    }
+                    break;
+                case "DELETE":
+                    if (query.containsKey("uploadId")) {
+                        uploads.remove(query.get("uploadId"));
+                        abortedUploads.add(query.get("uploadId"));
+                    } else {
+                        objects.remove(key);
+                    }
+                    exchange.sendResponseHeaders(204, -1);
+                    break;
+                case "GET":
+                    getObject(exchange, key);
+                    break;
+                default:
+                    exchange.sendResponseHeaders(405, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void uploadPart(HttpExchange exchange, Map<String, String> query, byte[] body) throws IOException {
+        int partNumber = Integer.parseInt(query.get("partNumber"));
+        partRequests.incrementAndGet();
+        maxConcurrentPartRequests.accumulateAndGet(concurrentPartRequests.incrementAndGet(), Math::max);
+        try {
+            if (partDelayMillis > 0) {
+                Thread.sleep(partDelayMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            concurrentPartRequests.decrementAndGet();
+        }
+
+        AtomicInteger failures = partFailures.get(partNumber);
+        if (failures != null && failures.getAndDecrement() > 0) {
+            sendError(exchange, 500, "InternalError");
+            return;
+        }
+        SortedMap<Integer, byte[]> parts = uploads.get(query.get("uploadId"));
+        if (parts == null) {
+            sendError(exchange, 404, "NoSuchUpload");
+            return;
+        }
+        parts.put(partNumber, body);
+        sendETag(exchange, body);
+    }
+
+    private void completeUpload(HttpExchange exchange, String key, String uploadId) throws IOException {
+        SortedMap<Integer, byte[]> parts = uploads.remove(uploadId);
+        if (parts == null) {
+            sendError(exchange, 404, "NoSuchUpload");
+            return;
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (byte[] part : parts.values()) {
+            content.writeBytes(part);
+        }
+        objects.put(key, content.toByteArray());
+        sendXml(exchange, 200, "<CompleteMultipartUploadResult><Key>" + key + "</Key>"
+                + "<ETag>\"" + UUID.randomUUID() + "-" + parts.size() + "\"</ETag></CompleteMultipartUploadResult>");
+    }
+
+    private void getObject(HttpExchange exchange, String key) throws IOException {
+        byte[] content = objects.get(key);
+        if (content == null) {
+            sendError(exchange, 404, "NoSuchKey");
+            return;
+        }
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (range == null) {
+            send(exchange, 200, content);
+            return;
+        }
+
+        rangeRequests.incrementAndGet();
+        String[] bounds = range.substring("bytes=".length()).split("-", -1);
+        long start = Long.parseLong(bounds[0]);
+        long end = bounds[1].isEmpty() ? content.length - 1 : Math.min(Long.parseLong(bounds[1]), content.length - 1);
+        if (start >= content.length) {
+            sendError(exchange, 416, "InvalidRange");
+            return;
+        }
+        byte[] partContent = new byte[(int) (end - start + 1)];
+        System.arraycopy(content, (int) start, partContent, 0, partContent.length);
+        exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + content.length);
+        send(exchange, 206, partContent);
+    }
+
+    private void sendETag(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("ETag", "\"" + Hashing.md5().hashBytes(body) + "\"");
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void sendError(HttpExchange exchange, int status, String code) throws IOException {
+        sendXml(exchange, status, "<Error><Code>" + code + "</Code><Message>" + code + "</Message></Error>");
+    }
+
+    private void sendXml(HttpExchange exchange, int status, String xml) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        send(exchange, status, xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] content) throws IOException {
+        exchange.sendResponseHeaders(status, content.length == 0 ? -1 : content.length);
+        if (content.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(content);
+            }
+        }
+    }
+
+    private Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            String value = separator < 0 ? "" : parameter.substring(separator + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+}
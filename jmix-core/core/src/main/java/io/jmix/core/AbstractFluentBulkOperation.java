@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.core;
+
+import io.jmix.core.constraint.AccessConstraint;
+import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.core.querycondition.Condition;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Base class of fluent builders of bulk operations.
+ *
+ * @param <E> entity type
+ * @param <F> type of the builder
+ * @see FluentBulkUpdate
+ * @see FluentBulkDelete
+ */
+public abstract class AbstractFluentBulkOperation<E, F extends AbstractFluentBulkOperation<E, F>> {
+
+    protected Class<E> entityClass;
+    protected MetaClass metaClass;
+
+    protected UnconstrainedDataManager dataManager;
+
+    private Condition condition;
+    private Map<String, Object> parameters = new HashMap<>();
+    private Map<String, Serializable> hints = new HashMap<>();
+    private List<AccessConstraint<?>> accessConstraints = new ArrayList<>(0);
+    private boolean joinTransaction = true;
+    private int changeEventBatchSize;
+
+    @Autowired
+    protected Metadata metadata;
+
+    protected AbstractFluentBulkOperation(Class<E> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    @PostConstruct
+    protected void init() {
+        this.metaClass = metadata.getClass(entityClass);
+    }
+
+    public void setDataManager(UnconstrainedDataManager dataManager) {
+        this.dataManager = dataManager;
+    }
+
+    protected BulkOperationContext createContext() {
+        BulkOperationContext context = new BulkOperationContext(metaClass, getType());
+        context.setCondition(condition);
+        context.getParameters().putAll(parameters);
+        context.getHints().putAll(hints);
+        context.setAccessConstraints(new ArrayList<>(accessConstraints));
+        context.setJoinTransaction(joinTransaction);
+        context.setChangeEventBatchSize(changeEventBatchSize);
+        return context;
+    }
+
+    protected abstract BulkOperationContext.Type getType();
+
+    @SuppressWarnings("unchecked")
+    protected F self() {
+        return (F) this;
+    }
+
+    /**
+     * Sets the condition selecting the affected entities. If not set, all entities are affected.
+     */
+    public F where(@Nullable Condition condition) {
+        this.condition = condition;
+        return self();
+    }
+
+    /**
+     * Sets value of a parameter of the condition.
+     */
+    public F parameter(String name, @Nullable Object value) {
+        parameters.put(name, value);
+        return self();
+    }
+
+    /**
+     * Sets the map of parameters of the condition.
+     */
+    public F parameters(Map<String, Object> parameters) {
+        this.parameters.putAll(parameters);
+        return self();
+    }
+
+    /**
+     * Adds a custom hint that is used by the data store.
+     */
+    public F hint(String hintName, Serializable value) {
+        hints.put(hintName, value);
+        return self();
+    }
+
+    /**
+     * Sets custom hints that are used by the data store.
+     */
+    public F hints(Map<String, Serializable> hints) {
+        this.hints.putAll(hints);
+        return self();
+    }
+
+    /**
+     * Sets access constraints restricting the affected entities.
+     */
+    public F accessConstraints(List<AccessConstraint<?>> accessConstraints) {
+        this.accessConstraints.addAll(accessConstraints);
+        return self();
+    }
+
+    /**
+     * Sets whether the operation is executed in the existing transaction, if any. True by default.
+     */
+    public F joinTransaction(boolean join) {
+        this.joinTransaction = join;
+        return self();
+    }
+
+    /**
+     * Requests sending {@link io.jmix.core.event.EntityBulkChangedEvent}s containing ids of the affected entities.
+     *
+     * @param batchSize maximum number of ids in a single event
+     * @see BulkOperationContext#setChangeEventBatchSize(int)
+     */
+    public F publishChangeEvents(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.changeEventBatchSize = batchSize;
+        return self();
+    }
+
+    /**
+     * Executes the operation.
+     *
+     * @return number of affected entities
+     */
+    public long execute() {
+        return dataManager.executeBulk(createContext());
+    }
+}
@@ -17,10 +17,12 @@
 package io.jmix.core;
 
 import io.jmix.core.constraint.AccessConstraint;
+import io.jmix.core.datastore.DataStoreResultCache;
 
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.TemporalType;
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.*;
 
 class AbstractFluentValueLoader {
@@ -104,6 +106,15 @@ class AbstractFluentValueLoader {
         return this;
     }
 
+    /**
+     * Indicates that the result should be cached by {@link DataStoreResultCache} for the given time.
+     * The cached result is discarded earlier if the entities it depends on are changed.
+     * The cache must be enabled by the {@code jmix.core.data-store-result-cache-enabled} property.
+     */
+    public AbstractFluentValueLoader cacheable(Duration ttl) {
+        return hint(DataStoreResultCache.TTL_HINT, ttl);
+    }
+
     /**
      * Sets access constraints.
      */
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.core;
+
+import io.jmix.core.constraint.AccessConstraint;
+import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.core.querycondition.Condition;
+import org.springframework.lang.Nullable;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Defines an update or removal of all entities matching a condition, which is executed by the data store
+ * without loading the entities.
+ * <p>
+ * Entity listeners are not invoked and {@code EntityChangedEvent}s are not sent for the affected entities.
+ * Instead, {@link io.jmix.core.event.EntityBulkChangedEvent}s containing ids of the affected entities can be sent,
+ * see {@link #setChangeEventBatchSize(int)}.
+ * <p>
+ * Removal is not supported for entities having {@link io.jmix.core.entity.annotation.OnDelete} or
+ * {@link io.jmix.core.entity.annotation.OnDeleteInverse} deletion policies, because the policies are applied
+ * to loaded entities only. The operation is denied if the access constraints define in-memory update or delete
+ * predicates for the entity, because they cannot be evaluated without loading the entities.
+ *
+ * @see UnconstrainedDataManager#update(Class)
+ * @see UnconstrainedDataManager#delete(Class)
+ */
+public class BulkOperationContext implements Serializable {
+
+    private static final long serialVersionUID = -5018409765640870215L;
+
+    /**
+     * Type of the operation: {@link #UPDATE} or {@link #DELETE}.
+     */
+    public enum Type {
+        UPDATE,
+        DELETE
+    }
+
+    protected MetaClass entityMetaClass;
+    protected Type type;
+    protected Map<String, Object> values = new LinkedHashMap<>();
+    protected Condition condition;
+    protected Map<String, Object> parameters = new HashMap<>();
+    protected Map<String, Serializable> hints = new HashMap<>();
+    protected List<AccessConstraint<?>> accessConstraints = new ArrayList<>();
+    protected boolean joinTransaction = true;
+    protected int changeEventBatchSize;
+
+    /**
+     * @param metaClass metaclass of the affected entities
+     * @param type      type of the operation
+     */
+    public BulkOperationContext(MetaClass metaClass, Type type) {
+        this.entityMetaClass = metaClass;
+        this.type = type;
+    }
+
+    /**
+     * @return metaclass of the affected entities
+     */
+    public MetaClass getEntityMetaClass() {
+        return entityMetaClass;
+    }
+
+    /**
+     * Sets metaclass of the affected entities.
+     *
+     * @return this instance for chaining
+     */
+    public BulkOperationContext setEntityMetaClass(MetaClass metaClass) {
+        this.entityMetaClass = metaClass;
+        return this;
+    }
+
+    /**
+     * @return type of the operation
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return new values of entity attributes set by the {@link Type#UPDATE} operation
+     */
+    public Map<String, Object> getValues() {
+        return values;
+    }
+
+    /**
+     * Sets a new value of the entity attribute for the {@link Type#UPDATE} operation.
+     *
+     * @param property name of an attribute of the entity itself, references to other entities are set by instances
+     * @param value    new value
+     * @return this instance for chaining
+     */
+    public BulkOperationContext setValue(String property, @Nullable Object value) {
+        values.put(property, value);
+        return this;
+    }
+
+    /**
+     * @return condition selecting the affected entities, or null if all entities are affected
+     */
+    @Nullable
+    public Condition getCondition() {
+        return condition;
+    }
+
+    /**
+     * Sets condition selecting the affected entities. If not set, all entities are affected.
+     *
+     * @return this instance for chaining
+     */
+    public BulkOperationContext setCondition(@Nullable Condition condition) {
+        this.condition = condition;
+        return this;
+    }
+
+    /**
+     * @return parameters of the condition
+     */
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Sets value of a parameter of the condition.
+     *
+     * @return this instance for chaining
+     */
+    public BulkOperationContext setParameter(String name, @Nullable Object value) {
+        parameters.put(name, value);
+        return this;
+    }
+
+    /**
+     * @return custom hints which are used by the data store
+     */
+    public Map<String, Serializable> getHints() {
+        return hints;
+    }
+
+    /**
+     * Adds a custom hint that is used by the data store.
+     *
+     * @return this instance for chaining
+     */
+    public BulkOperationContext setHint(String hintName, Serializable value) {
+        hints.put(hintName, value);
+        return this;
+    }
+
+    /**
+     * @return access constraints restricting the affected entities
+     */
+    public List<AccessConstraint<?>> getAccessConstraints() {
+        return accessConstraints;
+    }
+
+    /**
+     * Sets access constraints restricting the affected entities.
+     *
+     * @return this instance for chaining
+     */
+    public BulkOperationContext setAccessConstraints(List<AccessConstraint<?>> accessConstraints) {
+        this.accessConstraints = accessConstraints;
+        return this;
+    }
+
+    /**
+     * @return whether the operation is executed in the existing transaction, if any
+     */
+    public boolean isJoinTransaction() {
+        return joinTransaction;
+    }
+
+    /**
+     * Sets whether the operation is executed in the existing transaction, if any. True by default.
+     *
+     * @return this instance for chaining
+     */
+    public BulkOperationContext setJoinTransaction(boolean joinTransaction) {
+        this.joinTransaction = joinTransaction;
+        return this;
+    }
+
+    /**
+     * @return maximum number of entity ids in a sent {@link io.jmix.core.event.EntityBulkChangedEvent},
+     * zero if the events are not sent
+     */
+    public int getChangeEventBatchSize() {
+        return changeEventBatchSize;
+    }
+
+    /**
+     * Sets maximum number of entity ids in a sent {@link io.jmix.core.event.EntityBulkChangedEvent}. If greater than
+     * zero, ids of the affected entities are selected before the operation, and the operation is executed by
+     * batches of ids. Zero by default, meaning that the events are not sent and the operation is executed by a single
+     * statement.
+     *
+     * @return this instance for chaining
+     */
+    public BulkOperationContext setChangeEventBatchSize(int changeEventBatchSize) {
+        this.changeEventBatchSize = changeEventBatchSize;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkOperationContext{" +
+                "entityMetaClass=" + entityMetaClass +
+                ", type=" + type +
+                ", values=" + values.keySet() +
+                ", condition=" + condition +
+                '}';
+    }
+}
@@ -106,6 +106,37 @@ public class CoreProperties {
      */
     boolean skipNullOrEmptyConditionsByDefault;
 
+    /**
+     * Time downloaded files can be cached by browsers and shared caches without revalidation. Zero value means that
+     * files are always revalidated using their ETag and last modification time.
+     *
+     * @see FileTransferService
+     */
+    Duration fileDownloadCacheMaxAge;
+
+    /**
+     * Whether structurally equal fetch plans created by {@link FetchPlanBuilder} are resolved to a single
+     * canonical instance.
+     */
+    boolean fetchPlanInterningEnabled;
+
+    /**
+     * Whether results of loads requesting caching by {@link io.jmix.core.datastore.DataStoreResultCache#TTL_HINT}
+     * are cached.
+     */
+    boolean dataStoreResultCacheEnabled;
+
+    /**
+     * Maximum total number of rows in cached load results.
+     */
+    long dataStoreResultCacheMaxWeight;
+
+    /**
+     * Whether cached load results are shared only by loads of the same user. Otherwise, they are shared by users
+     * having the same authorities.
+     */
+    boolean dataStoreResultCacheUserScoped;
+
     public CoreProperties(
             String webHostName,
             String webPort,
@@ -126,7 +157,12 @@ public class CoreProperties {
             @DefaultValue("true") boolean triggerFilesEnabled,
             @DefaultValue("5000") Duration triggerFilesProcessInterval,
             @DefaultValue("true") boolean roundDecimalValueByFormat,
-            @DefaultValue("false") boolean skipNullOrEmptyConditionsByDefault) {
+            @DefaultValue("false") boolean skipNullOrEmptyConditionsByDefault,
+            @DefaultValue("0") Duration fileDownloadCacheMaxAge,
+            @DefaultValue("true") boolean fetchPlanInterningEnabled,
+            @DefaultValue("false") boolean dataStoreResultCacheEnabled,
+            @DefaultValue("10000") long dataStoreResultCacheMaxWeight,
+            @DefaultValue("true") boolean dataStoreResultCacheUserScoped) {
         this.webHostName = webHostName;
         this.webPort = webPort;
         this.confDir = confDir;
@@ -156,6 +192,11 @@ public class CoreProperties {
         this.triggerFilesProcessInterval = triggerFilesProcessInterval;
         this.roundDecimalValueByFormat = roundDecimalValueByFormat;
         this.skipNullOrEmptyConditionsByDefault = skipNullOrEmptyConditionsByDefault;
+        this.fileDownloadCacheMaxAge = fileDownloadCacheMaxAge;
+        this.fetchPlanInterningEnabled = fetchPlanInterningEnabled;
+        this.dataStoreResultCacheEnabled = dataStoreResultCacheEnabled;
+        this.dataStoreResultCacheMaxWeight = dataStoreResultCacheMaxWeight;
+        this.dataStoreResultCacheUserScoped = dataStoreResultCacheUserScoped;
     }
 
     public String getWebHostName() {
@@ -266,4 +307,39 @@ public class CoreProperties {
     public boolean isSkipNullOrEmptyConditionsByDefault() {
         return skipNullOrEmptyConditionsByDefault;
     }
+
+    /**
+     * @see #fileDownloadCacheMaxAge
+     */
+    public Duration getFileDownloadCacheMaxAge() {
+        return fileDownloadCacheMaxAge;
+    }
+
+    /**
+     * @see #fetchPlanInterningEnabled
+     */
+    public boolean isFetchPlanInterningEnabled() {
+        return fetchPlanInterningEnabled;
+    }
+
+    /**
+     * @see #dataStoreResultCacheEnabled
+     */
+    public boolean isDataStoreResultCacheEnabled() {
+        return dataStoreResultCacheEnabled;
+    }
+
+    /**
+     * @see #dataStoreResultCacheMaxWeight
+     */
+    public long getDataStoreResultCacheMaxWeight() {
+        return dataStoreResultCacheMaxWeight;
+    }
+
+    /**
+     * @see #dataStoreResultCacheUserScoped
+     */
+    public boolean isDataStoreResultCacheUserScoped() {
+        return dataStoreResultCacheUserScoped;
+    }
 }
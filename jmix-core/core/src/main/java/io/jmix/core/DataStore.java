@@ -84,4 +84,15 @@ public interface DataStore {
      * @return number of key-value pairs in the data store
      */
     long getCount(ValueLoadContext context);
+
+    /**
+     * Updates or removes all entity instances matching the condition passed in the {@link BulkOperationContext}
+     * without loading them.
+     *
+     * @return number of affected instances
+     * @throws UnsupportedOperationException if the data store does not support bulk operations
+     */
+    default long executeBulk(BulkOperationContext context) {
+        throw new UnsupportedOperationException("Bulk operations are not supported by " + getName());
+    }
 }
@@ -16,7 +16,14 @@
 
 package io.jmix.core;
 
+import org.springframework.lang.Nullable;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.Collection;
+import java.util.Iterator;
 
 /**
  * Bean that is used for exporting a collection of entities and importing them.
@@ -66,6 +73,40 @@ public interface EntityImportExport {
      */
     String exportEntitiesToJSON(Collection<Object> entities);
 
+    /**
+     * Loads entities by ids with the fetch plan and writes them to the output stream as a ZIP archive. Entities are
+     * loaded and serialized in batches, each batch is written to a separate JSON file of the archive, so the whole
+     * set of entities is never kept in memory. The archive can be imported by
+     * {@link #importEntitiesFromZIP(InputStream, EntityImportPlan, int, BatchProgressListener)} and
+     * {@link #importEntitiesFromZIP(byte[], EntityImportPlan)}.
+     * <p>
+     * The output stream is not closed by this method.
+     *
+     * @param ids              ids of entities to export, can be a cursor over a large result set
+     * @param fetchPlan        fetch plan to load entities with, also defines the entity class
+     * @param outputStream     stream to write the archive to
+     * @param batchSize        number of entities loaded and written at once
+     * @param progressListener listener notified after each batch is written
+     */
+    void exportEntitiesToZIP(Iterator<?> ids, FetchPlan fetchPlan, OutputStream outputStream, int batchSize,
+                             @Nullable BatchProgressListener progressListener);
+
+    /**
+     * Loads entities by ids with the fetch plan and writes them to the writer as a JSON array. Entities are loaded
+     * and serialized in batches, so the whole set of entities is never kept in memory. Repeated entities are compacted
+     * only within a batch.
+     * <p>
+     * The writer is not closed by this method.
+     *
+     * @param ids              ids of entities to export, can be a cursor over a large result set
+     * @param fetchPlan        fetch plan to load entities with, also defines the entity class
+     * @param writer           writer to write JSON to
+     * @param batchSize        number of entities loaded and written at once
+     * @param progressListener listener notified after each batch is written
+     */
+    void exportEntitiesToJSON(Iterator<?> ids, FetchPlan fetchPlan, Writer writer, int batchSize,
+                              @Nullable BatchProgressListener progressListener);
+
     /**
      * Deserializes the JSON and persists deserialized entities according to the rules, described by the {@code
      * importPlan} parameter. If the entity is not present in the database, it will be saved. Otherwise the fields of
@@ -90,6 +131,40 @@ public interface EntityImportExport {
      */
     Collection<Object> importEntitiesFromZIP(byte[] zipBytes, EntityImportPlan importPlan);
 
+    /**
+     * Reads a JSON array of entities from the reader and persists them according to the rules described by the
+     * {@code importPlan} parameter, like {@link #importEntitiesFromJson(String, EntityImportPlan)} does. The array is
+     * parsed incrementally, and each batch of entities is saved in a separate transaction, so the whole set of
+     * entities is never kept in memory. Repeated entities compacted by the export are resolved regardless of the
+     * batches, so definitions of entities nested in the imported ones are kept until the end of the array.
+     * <p>
+     * The reader is not closed by this method.
+     *
+     * @param reader           reader of JSON array containing entities
+     * @param importPlan       {@code EntityImportPlan} with the rules that describes how entities should be persisted
+     * @param batchSize        number of entities saved in a single transaction
+     * @param progressListener listener notified after each batch is saved
+     * @return number of imported entities
+     */
+    long importEntitiesFromJson(Reader reader, EntityImportPlan importPlan, int batchSize,
+                                @Nullable BatchProgressListener progressListener);
+
+    /**
+     * Reads a zip archive of JSON files from the input stream and persists the entities according to the rules
+     * described by the {@code importPlan} parameter. Each JSON file is imported as described in
+     * {@link #importEntitiesFromJson(Reader, EntityImportPlan, int, BatchProgressListener)}.
+     * <p>
+     * The input stream is not closed by this method.
+     *
+     * @param inputStream      stream of ZIP archive with JSON files
+     * @param importPlan       {@code EntityImportPlan} with the rules that describes how entities should be persisted
+     * @param batchSize        number of entities saved in a single transaction
+     * @param progressListener listener notified after each batch is saved
+     * @return number of imported entities
+     */
+    long importEntitiesFromZIP(InputStream inputStream, EntityImportPlan importPlan, int batchSize,
+                               @Nullable BatchProgressListener progressListener);
+
     /**
      * See {@link #importEntities(Collection, EntityImportPlan, boolean)}. The current method doesn't perform bean
      * validation
@@ -135,4 +210,19 @@ public interface EntityImportExport {
     void importEntityIntoSaveContext(SaveContext saveContext, Object srcEntity, EntityImportPlan importPlan, boolean validate, boolean optimisticLocking);
 
     void importEntityIntoSaveContext(SaveContext saveContext, Object srcEntity, EntityImportPlan importPlan, boolean validate, boolean optimisticLocking, boolean additionComposition);
+
+    /**
+     * Listener of the streaming export and import progress.
+     */
+    @FunctionalInterface
+    interface BatchProgressListener {
+
+        /**
+         * Invoked after a batch of entities is exported or imported.
+         *
+         * @param batchSize      number of entities in the batch
+         * @param processedCount total number of entities processed so far
+         */
+        void batchProcessed(int batchSize, long processedCount);
+    }
 }
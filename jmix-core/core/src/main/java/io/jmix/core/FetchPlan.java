@@ -60,6 +60,9 @@ public class FetchPlan implements Serializable {
 
     protected boolean loadPartialEntities;
 
+    // the fetch plan is not modified after creation, so the hash code of the whole graph is computed once
+    private transient int hash;
+
     protected FetchPlan(Class<?> entityClass, String name) {
         this.entityClass = entityClass;
         this.name = name != null ? name : "";
@@ -102,6 +105,10 @@ public class FetchPlan implements Serializable {
 
         FetchPlan fetchPlan = (FetchPlan) o;
 
+        // hash codes are cached, so this check is cheap for different plans
+        if (hashCode() != fetchPlan.hashCode())
+            return false;
+
         if (!(entityClass.equals(fetchPlan.entityClass) && name.equals(fetchPlan.name)
                 && loadPartialEntities == fetchPlan.loadPartialEntities))
             return false;
@@ -132,8 +139,14 @@ public class FetchPlan implements Serializable {
 
     @Override
     public int hashCode() {
-        int result = entityClass.hashCode();
-        result = 31 * result + name.hashCode();
+        int result = hash;
+        if (result == 0) {
+            result = entityClass.hashCode();
+            result = 31 * result + name.hashCode();
+            result = 31 * result + Boolean.hashCode(loadPartialEntities);
+            result = 31 * result + properties.hashCode();
+            hash = result;
+        }
         return result;
     }
 
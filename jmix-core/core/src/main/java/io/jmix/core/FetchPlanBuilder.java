@@ -63,7 +63,8 @@ public class FetchPlanBuilder {
 
     /**
      * Builds fetch plan and makes builder immutable.<br>
-     * Subsequent method invocations returns the same object.
+     * Subsequent method invocations returns the same object. If an equal fetch plan has already been built,
+     * its instance is returned.
      *
      * @return created FetchPlan
      */
@@ -79,12 +80,14 @@ public class FetchPlanBuilder {
         for (String property : properties) {
             FetchPlanBuilder builder = builders.get(property);
 
+            FetchPlan propertyFetchPlan = builder != null ? builder.build() : propertiesToFetchPlans.get(property);
             fetchPlanProperties.add(new FetchPlanProperty(property,
-                    builder != null ? builder.build() : propertiesToFetchPlans.get(property),
+                    propertyFetchPlan != null ? fetchPlans.intern(propertyFetchPlan) : null,
                     fetchModes.getOrDefault(property, FetchMode.AUTO)));
         }
 
-        result = createFetchPlan(metaClass.getJavaClass(), name, fetchPlanProperties, loadPartialEntities);
+        result = fetchPlans.intern(
+                createFetchPlan(metaClass.getJavaClass(), name, fetchPlanProperties, loadPartialEntities));
         return result;
     }
 
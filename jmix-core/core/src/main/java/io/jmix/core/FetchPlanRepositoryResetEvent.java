@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.core;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event sent when {@link FetchPlanRepository} is reset and fetch plans are going to be reloaded, so that
+ * the data derived from previously loaded fetch plans should be discarded.
+ */
+public class FetchPlanRepositoryResetEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = -2318427761359470512L;
+
+    public FetchPlanRepositoryResetEvent(FetchPlanRepository source) {
+        super(source);
+    }
+
+    @Override
+    public FetchPlanRepository getSource() {
+        return (FetchPlanRepository) super.getSource();
+    }
+}
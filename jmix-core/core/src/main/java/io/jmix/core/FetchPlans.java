@@ -16,6 +16,7 @@
 
 package io.jmix.core;
 
+import io.jmix.core.impl.FetchPlanInterner;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -31,6 +32,8 @@ public class FetchPlans {
     protected MetadataTools metadataTools;
     @Autowired
     protected FetchPlanRepository fetchPlanRepository;
+    @Autowired
+    protected FetchPlanInterner fetchPlanInterner;
 
     /**
      * Returns {@link FetchPlan} builder for the given entity class.
@@ -45,4 +48,11 @@ public class FetchPlans {
     public FetchPlanBuilder builder(FetchPlan fetchPlan) {
         return builder(fetchPlan.getEntityClass()).addFetchPlan(fetchPlan);
     }
+
+    /**
+     * Returns the canonical instance of the fetch plan built by a {@link FetchPlanBuilder}.
+     */
+    protected FetchPlan intern(FetchPlan fetchPlan) {
+        return fetchPlanInterner.intern(fetchPlan);
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.core;
+
+import org.springframework.lang.Nullable;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Attributes of a file stored in a {@link FileStorage}.
+ *
+ * @see FileStorage#getFileAttributes(FileRef)
+ */
+public class FileAttributes implements Serializable {
+
+    private static final long serialVersionUID = -2740915385426703315L;
+
+    private final long size;
+    private final Instant lastModified;
+
+    public FileAttributes(long size, @Nullable Instant lastModified) {
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @return file size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return time of the last modification or null if the storage does not provide it
+     */
+    @Nullable
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public String toString() {
+        return "FileAttributes{size=" + size + ", lastModified=" + lastModified + "}";
+    }
+}
@@ -16,7 +16,13 @@
 
 package io.jmix.core;
 
+import com.google.common.io.ByteStreams;
+import org.springframework.lang.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.Map;
 
@@ -68,6 +74,71 @@ public interface FileStorage {
      */
     InputStream openStream(FileRef reference);
 
+    /**
+     * Returns an input stream to load a part of a file contents.
+     * <p>
+     * The default implementation skips the beginning of the stream returned by {@link #openStream(FileRef)},
+     * storages able to read from an arbitrary position should override it.
+     *
+     * @param reference file reference
+     * @param offset    position of the first byte to load
+     * @param length    maximum number of bytes to load
+     * @return input stream, must be closed after use
+     * @throws IllegalArgumentException if arguments are incorrect
+     * @throws FileStorageException     if something goes wrong
+     */
+    default InputStream openStream(FileRef reference, long offset, long length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Offset and length must not be negative");
+        }
+        InputStream inputStream = openStream(reference);
+        try {
+            ByteStreams.skipFully(inputStream, offset);
+        } catch (IOException e) {
+            try {
+                inputStream.close();
+            } catch (IOException ignored) {
+            }
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, reference.toString(), e);
+        }
+        return ByteStreams.limit(inputStream, length);
+    }
+
+    /**
+     * Writes a part of a file contents to the output stream.
+     * <p>
+     * Storages keeping files on the local file system can override it to transfer the data without copying it
+     * through the application memory.
+     *
+     * @param reference    file reference
+     * @param offset       position of the first byte to write
+     * @param length       number of bytes to write
+     * @param outputStream output stream, is not closed by this method
+     * @throws IOException          if writing to the output stream fails
+     * @throws FileStorageException if the file cannot be read or is shorter than {@code offset + length}
+     */
+    default void transferTo(FileRef reference, long offset, long length, OutputStream outputStream) throws IOException {
+        try (InputStream inputStream = openStream(reference, offset, length)) {
+            long copied = ByteStreams.copy(inputStream, outputStream);
+            if (copied < length) {
+                throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, reference.toString(),
+                        new EOFException(String.format("File ended after %d of %d requested bytes", copied, length)));
+            }
+        }
+    }
+
+    /**
+     * Returns the size and the last modification time of a file.
+     *
+     * @param reference file reference
+     * @return file attributes or null if the storage does not provide them
+     * @throws FileStorageException if the file does not exist or something goes wrong
+     */
+    @Nullable
+    default FileAttributes getFileAttributes(FileRef reference) {
+        return null;
+    }
+
     /**
      * Removes a file from the file storage.
      *
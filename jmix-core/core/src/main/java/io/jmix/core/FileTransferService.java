@@ -17,6 +17,7 @@
 package io.jmix.core;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,6 +33,38 @@ public interface FileTransferService {
                                   Boolean attachment,
                                   HttpServletResponse response) throws FileTransferException;
 
+    /**
+     * Writes the file to the response taking into account the request headers: supports byte range requests
+     * ({@code Range}, {@code If-Range}) and conditional requests ({@code If-None-Match}, {@code If-Modified-Since}).
+     * <p>
+     * The default implementation ignores the request and writes the whole file.
+     */
+    default void downloadAndWriteResponse(FileRef fileReference,
+                                          String fileStorageName,
+                                          Boolean attachment,
+                                          HttpServletRequest request,
+                                          HttpServletResponse response) throws FileTransferException {
+        downloadAndWriteResponse(fileReference, fileStorageName, attachment, response);
+    }
+
+    /**
+     * Writes the file to the response like {@link #downloadAndWriteResponse(FileRef, String, Boolean,
+     * HttpServletRequest, HttpServletResponse)} does, using the given file name and content type instead of the ones
+     * of the file reference.
+     *
+     * @param fileName    file name sent in the {@code Content-Disposition} header, or null to use the file reference
+     * @param contentType content type of the file, or null to use the file reference
+     */
+    default void downloadAndWriteResponse(FileRef fileReference,
+                                          String fileStorageName,
+                                          Boolean attachment,
+                                          @Nullable String fileName,
+                                          @Nullable String contentType,
+                                          HttpServletRequest request,
+                                          HttpServletResponse response) throws FileTransferException {
+        downloadAndWriteResponse(fileReference, fileStorageName, attachment, request, response);
+    }
+
     ResponseEntity<FileInfoResponse> multipartFileUpload(MultipartFile file,
                                                          String name,
                                                          String fileStorageName,
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.core;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fluent builder of a removal of all entities matching a condition, executed without loading the entities.
+ * <p>
+ * Soft-deletable entities are marked as deleted unless soft deletion is turned off by {@link #softDeletion(boolean)}.
+ * Entities having {@link io.jmix.core.entity.annotation.OnDelete} or
+ * {@link io.jmix.core.entity.annotation.OnDeleteInverse} deletion policies cannot be removed this way, the operation
+ * throws {@link UnsupportedOperationException} for them.
+ * <p>
+ * Usage example:
+ * <pre>
+ * long count = dataManager.delete(Customer.class)
+ *         .where(PropertyCondition.equal("status", CustomerStatus.INACTIVE))
+ *         .execute();
+ * </pre>
+ *
+ * @param <E> entity type
+ * @see BulkOperationContext
+ */
+@Component("core_FluentBulkDelete")
+@Scope(BeanDefinition.SCOPE_PROTOTYPE)
+public class FluentBulkDelete<E> extends AbstractFluentBulkOperation<E, FluentBulkDelete<E>> {
+
+    public FluentBulkDelete(Class<E> entityClass) {
+        super(entityClass);
+    }
+
+    @Override
+    protected BulkOperationContext.Type getType() {
+        return BulkOperationContext.Type.DELETE;
+    }
+
+    /**
+     * Sets whether soft-deletable entities are marked as deleted instead of being removed from the data store.
+     * True by default.
+     */
+    public FluentBulkDelete<E> softDeletion(boolean softDeletion) {
+        return hint("jmix.softDeletion", softDeletion);
+    }
+}
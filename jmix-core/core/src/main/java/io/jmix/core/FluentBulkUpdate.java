@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.core;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Scope;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fluent builder of an update of all entities matching a condition, executed without loading the entities.
+ * <p>
+ * Usage example:
+ * <pre>
+ * long count = dataManager.update(Customer.class)
+ *         .set("status", CustomerStatus.INACTIVE)
+ *         .where(PropertyCondition.less("lastOrderDate", date))
+ *         .execute();
+ * </pre>
+ *
+ * @param <E> entity type
+ * @see BulkOperationContext
+ */
+@Component("core_FluentBulkUpdate")
+@Scope(BeanDefinition.SCOPE_PROTOTYPE)
+public class FluentBulkUpdate<E> extends AbstractFluentBulkOperation<E, FluentBulkUpdate<E>> {
+
+    private Map<String, Object> values = new LinkedHashMap<>();
+
+    public FluentBulkUpdate(Class<E> entityClass) {
+        super(entityClass);
+    }
+
+    @Override
+    protected BulkOperationContext.Type getType() {
+        return BulkOperationContext.Type.UPDATE;
+    }
+
+    @Override
+    protected BulkOperationContext createContext() {
+        if (values.isEmpty()) {
+            throw new IllegalStateException("No values to update for " + metaClass.getName());
+        }
+        BulkOperationContext context = super.createContext();
+        context.getValues().putAll(values);
+        return context;
+    }
+
+    /**
+     * Sets a new value of the entity attribute.
+     *
+     * @param property name of an attribute of the entity itself
+     * @param value    new value
+     */
+    public FluentBulkUpdate<E> set(String property, @Nullable Object value) {
+        values.put(property, value);
+        return this;
+    }
+}
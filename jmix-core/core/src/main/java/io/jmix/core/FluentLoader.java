@@ -19,6 +19,7 @@ package io.jmix.core;
 import com.google.common.base.Strings;
 import io.jmix.core.common.util.Preconditions;
 import io.jmix.core.constraint.AccessConstraint;
+import io.jmix.core.datastore.DataStoreResultCache;
 import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.querycondition.Condition;
 import io.jmix.core.querycondition.LogicalCondition;
@@ -33,6 +34,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.*;
 import java.util.function.Consumer;
 
@@ -723,6 +725,16 @@ public class FluentLoader<E> {
             return this;
         }
 
+        /**
+         * Indicates that the result should be cached by {@link DataStoreResultCache} for the given time.
+         * The cached result is discarded earlier if the entities it depends on are changed.
+         * The cache must be enabled by the {@code jmix.core.data-store-result-cache-enabled} property.
+         */
+        public ByQuery<E> cacheable(Duration ttl) {
+            loader.hints.put(DataStoreResultCache.TTL_HINT, ttl);
+            return this;
+        }
+
         /**
          * Adds access constraints.
          */
@@ -964,6 +976,16 @@ public class FluentLoader<E> {
             return this;
         }
 
+        /**
+         * Indicates that the result should be cached by {@link DataStoreResultCache} for the given time.
+         * The cached result is discarded earlier if the entities it depends on are changed.
+         * The cache must be enabled by the {@code jmix.core.data-store-result-cache-enabled} property.
+         */
+        public ByCondition<E> cacheable(Duration ttl) {
+            loader.hints.put(DataStoreResultCache.TTL_HINT, ttl);
+            return this;
+        }
+
         /**
          * Adds access constraints.
          */
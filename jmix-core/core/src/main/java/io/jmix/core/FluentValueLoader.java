@@ -26,6 +26,7 @@ import org.springframework.stereotype.Component;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -132,6 +133,12 @@ public class FluentValueLoader<T> extends AbstractFluentValueLoader {
         return this;
     }
 
+    @Override
+    public FluentValueLoader<T> cacheable(Duration ttl) {
+        super.cacheable(ttl);
+        return this;
+    }
+
     @Override
     public FluentValueLoader<T> parameter(String name, Object value) {
         super.parameter(name, value);
@@ -24,6 +24,7 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.*;
 
 @Component("core_FluentValuesLoader")
@@ -121,6 +122,12 @@ public class FluentValuesLoader extends AbstractFluentValueLoader {
         return this;
     }
 
+    @Override
+    public FluentValuesLoader cacheable(Duration ttl) {
+        super.cacheable(ttl);
+        return this;
+    }
+
     @Override
     public FluentValuesLoader parameter(String name, Object value) {
         super.parameter(name, value);
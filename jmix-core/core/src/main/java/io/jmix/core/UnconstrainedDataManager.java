@@ -108,6 +108,43 @@ public interface UnconstrainedDataManager {
      */
     <E> void remove(Id<E> entityId);
 
+    /**
+     * Updates or removes all entity instances matching the condition without loading them.
+     *
+     * @param context {@link BulkOperationContext} object defining the operation
+     * @return number of affected instances
+     */
+    long executeBulk(BulkOperationContext context);
+
+    /**
+     * Entry point to the fluent API for updating entities matching a condition without loading them.
+     * <p>
+     * Usage example:
+     * <pre>
+     * long count = dataManager.update(Customer.class)
+     *         .set("status", CustomerStatus.INACTIVE)
+     *         .where(PropertyCondition.less("lastOrderDate", date))
+     *         .execute();
+     * </pre>
+     *
+     * @param entityClass class of entities to update
+     */
+    <E> FluentBulkUpdate<E> update(Class<E> entityClass);
+
+    /**
+     * Entry point to the fluent API for removing entities matching a condition without loading them.
+     * <p>
+     * Usage example:
+     * <pre>
+     * long count = dataManager.delete(Customer.class)
+     *         .where(PropertyCondition.equal("status", CustomerStatus.INACTIVE))
+     *         .execute();
+     * </pre>
+     *
+     * @param entityClass class of entities to remove
+     */
+    <E> FluentBulkDelete<E> delete(Class<E> entityClass);
+
     /**
      * Loads list of key-value pairs.
      *
@@ -18,16 +18,25 @@ package io.jmix.core.datastore;
 
 import com.google.common.base.Preconditions;
 import io.jmix.core.*;
+import io.jmix.core.constraint.AccessConstraint;
 import io.jmix.core.entity.EntityValues;
 import io.jmix.core.entity.KeyValueEntity;
+import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetaProperty;
+import io.jmix.core.querycondition.Condition;
+import io.jmix.core.querycondition.JpqlCondition;
+import io.jmix.core.querycondition.LogicalCondition;
+import io.jmix.core.querycondition.PropertyCondition;
+import jakarta.persistence.LockModeType;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.lang.reflect.Field;
+import java.time.Duration;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -39,6 +48,7 @@ public abstract class AbstractDataStore implements DataStore {
     protected MetadataTools metadataTools;
     protected EntityStates entityStates;
     protected KeyValueMapper keyValueMapper;
+    protected DataStoreResultCache resultCache;
 
     private static final Logger log = LoggerFactory.getLogger(AbstractDataStore.class);
 
@@ -62,6 +72,11 @@ public abstract class AbstractDataStore implements DataStore {
         this.keyValueMapper = keyValueMapper;
     }
 
+    @Autowired
+    public void setResultCache(DataStoreResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
     @Nullable
     @Override
     public Object load(LoadContext<?> context) {
@@ -80,6 +95,15 @@ public abstract class AbstractDataStore implements DataStore {
             return null;
         }
 
+        DataStoreResultCache.Lookup cacheLookup = lookupResultCache("load", context);
+        if (cacheLookup != null && cacheLookup.isHit()) {
+            // cached copies are processed like loaded entities, e.g. to install lazy loading
+            DataStoreAfterEntityLoadEvent afterLoadEvent =
+                    new DataStoreAfterEntityLoadEvent(context, cacheLookup.getResult(), loadState);
+            fireEvent(afterLoadEvent);
+            return afterLoadEvent.getResultEntity();
+        }
+
         Object entity;
         Object transaction = beginLoadTransaction(context.isJoinTransaction());
         try {
@@ -101,6 +125,9 @@ public abstract class AbstractDataStore implements DataStore {
         DataStoreAfterEntityLoadEvent afterLoadEvent = new DataStoreAfterEntityLoadEvent(context, entity, loadState);
         fireEvent(afterLoadEvent);
 
+        if (cacheLookup != null) {
+            cacheLookup.store(afterLoadEvent.getResultEntity());
+        }
         return afterLoadEvent.getResultEntity();
     }
 
@@ -121,6 +148,15 @@ public abstract class AbstractDataStore implements DataStore {
             return Collections.emptyList();
         }
 
+        DataStoreResultCache.Lookup cacheLookup = lookupResultCache("loadList", context);
+        if (cacheLookup != null && cacheLookup.isHit()) {
+            //noinspection unchecked
+            DataStoreAfterEntityLoadEvent afterLoadEvent =
+                    new DataStoreAfterEntityLoadEvent(context, (List<Object>) cacheLookup.getResult(), loadState);
+            fireEvent(afterLoadEvent);
+            return afterLoadEvent.getResultEntities();
+        }
+
         List<Object> resultList;
         Object transaction = beginLoadTransaction(context.isJoinTransaction());
         try {
@@ -157,6 +193,9 @@ public abstract class AbstractDataStore implements DataStore {
         DataStoreAfterEntityLoadEvent afterLoadEvent = new DataStoreAfterEntityLoadEvent(context, resultList, loadState);
         fireEvent(afterLoadEvent);
 
+        if (cacheLookup != null) {
+            cacheLookup.store(afterLoadEvent.getResultEntities());
+        }
         return afterLoadEvent.getResultEntities();
     }
 
@@ -177,6 +216,11 @@ public abstract class AbstractDataStore implements DataStore {
             return 0;
         }
 
+        DataStoreResultCache.Lookup cacheLookup = lookupResultCache("getCount", context);
+        if (cacheLookup != null && cacheLookup.isHit()) {
+            return (Long) Objects.requireNonNull(cacheLookup.getResult());
+        }
+
         long count = 0L;
         Object transaction = beginLoadTransaction(context.isJoinTransaction());
         try {
@@ -204,6 +248,10 @@ public abstract class AbstractDataStore implements DataStore {
         } finally {
             rollbackTransaction(transaction);
         }
+
+        if (cacheLookup != null) {
+            cacheLookup.store(count);
+        }
         return count;
     }
 
@@ -236,9 +284,32 @@ public abstract class AbstractDataStore implements DataStore {
             rollbackTransaction(transaction);
         }
 
+        invalidateResultCache(savedEntities, deletedEntities);
+
         return context.isDiscardSaved() ? Collections.emptySet() : loadAllAfterSave(context, savedEntities);
     }
 
+    @Override
+    public long executeBulk(BulkOperationContext context) {
+        log.debug("executeBulk: store={}, context={}", getName(), context);
+
+        long count;
+        Object transaction = beginSaveTransaction(context.isJoinTransaction());
+        try {
+            count = executeBulkStatements(context);
+            commitTransaction(transaction);
+        } finally {
+            beforeBulkTransactionRollback(context);
+            rollbackTransaction(transaction);
+        }
+
+        if (resultCache != null && resultCache.isEnabled()) {
+            resultCache.invalidate(Collections.singleton(context.getEntityMetaClass()));
+        }
+
+        return count;
+    }
+
     @Override
     public List<KeyValueEntity> loadValues(ValueLoadContext context) {
         Preconditions.checkNotNull(context, "context is null");
@@ -257,6 +328,12 @@ public abstract class AbstractDataStore implements DataStore {
             return Collections.emptyList();
         }
 
+        DataStoreResultCache.Lookup cacheLookup = lookupResultCache("loadValues", context);
+        if (cacheLookup != null && cacheLookup.isHit()) {
+            //noinspection unchecked
+            return (List<KeyValueEntity>) cacheLookup.getResult();
+        }
+
         List<KeyValueEntity> keyValueEntities;
         Object transaction = beginLoadTransaction(context.isJoinTransaction());
         try {
@@ -270,6 +347,9 @@ public abstract class AbstractDataStore implements DataStore {
             rollbackTransaction(transaction);
         }
 
+        if (cacheLookup != null) {
+            cacheLookup.store(keyValueEntities);
+        }
         return keyValueEntities;
     }
 
@@ -291,6 +371,11 @@ public abstract class AbstractDataStore implements DataStore {
             return 0;
         }
 
+        DataStoreResultCache.Lookup cacheLookup = lookupResultCache("getCountValues", context);
+        if (cacheLookup != null && cacheLookup.isHit()) {
+            return (Long) Objects.requireNonNull(cacheLookup.getResult());
+        }
+
         long count = 0L;
         Object transaction = beginLoadTransaction(context.isJoinTransaction());
         try {
@@ -300,6 +385,9 @@ public abstract class AbstractDataStore implements DataStore {
             rollbackTransaction(transaction);
         }
 
+        if (cacheLookup != null) {
+            cacheLookup.store(count);
+        }
         return count;
     }
 
@@ -343,6 +431,184 @@ public abstract class AbstractDataStore implements DataStore {
     protected void beforeSaveTransactionRollback(SaveContext context) {
     }
 
+    /**
+     * Executes the bulk operation inside the transaction started by {@link #executeBulk(BulkOperationContext)}.
+     * Data stores supporting bulk operations override this method.
+     *
+     * @return number of affected instances
+     */
+    protected long executeBulkStatements(BulkOperationContext context) {
+        throw new UnsupportedOperationException("Bulk operations are not supported by " + getName());
+    }
+
+    protected void beforeBulkTransactionRollback(BulkOperationContext context) {
+    }
+
+    /**
+     * Looks up the result of the load in {@link DataStoreResultCache} if the load requests caching.
+     *
+     * @return lookup, or null if the result must not be cached
+     */
+    @Nullable
+    protected DataStoreResultCache.Lookup lookupResultCache(String operation, LoadContext<?> context) {
+        Duration ttl = getResultCacheTtl(context.getHints(), context.isJoinTransaction(), context.getLockMode());
+        if (ttl == null) {
+            return null;
+        }
+        List<Object> keyParts = new ArrayList<>();
+        keyParts.add(getName());
+        keyParts.add(operation);
+        keyParts.add(context.getEntityMetaClass().getName());
+        keyParts.add(normalizeResultCacheValue(context.getId()));
+        keyParts.add(normalizeResultCacheValue(context.getIds()));
+        LoadContext.Query query = context.getQuery();
+        if (query != null) {
+            keyParts.add(query.toString());
+            keyParts.add(normalizeResultCacheValue(query.getParameters()));
+            addResultCacheConditionKeyParts(keyParts, query.getCondition());
+        }
+        for (LoadContext.Query previousQuery : context.getPreviousQueries()) {
+            keyParts.add(previousQuery.toString());
+            keyParts.add(normalizeResultCacheValue(previousQuery.getParameters()));
+            addResultCacheConditionKeyParts(keyParts, previousQuery.getCondition());
+        }
+        keyParts.add(context.getFetchPlan());
+        keyParts.add(context.isLoadPartialEntities());
+        addResultCacheKeyParts(keyParts, context.getHints(), context.getAccessConstraints());
+
+        return resultCache.lookup(keyParts, context.getEntityMetaClass(),
+                query != null ? query.toString() : null, context.getFetchPlan(), ttl);
+    }
+
+    /**
+     * Looks up the result of the load in {@link DataStoreResultCache} if the load requests caching.
+     *
+     * @return lookup, or null if the result must not be cached
+     */
+    @Nullable
+    protected DataStoreResultCache.Lookup lookupResultCache(String operation, ValueLoadContext context) {
+        Duration ttl = getResultCacheTtl(context.getHints(), context.isJoinTransaction(), context.getLockMode());
+        if (ttl == null) {
+            return null;
+        }
+        ValueLoadContext.Query query = Objects.requireNonNull(context.getQuery());
+        List<Object> keyParts = new ArrayList<>();
+        keyParts.add(getName());
+        keyParts.add(operation);
+        keyParts.add(query.toString());
+        keyParts.add(normalizeResultCacheValue(query.getParameters()));
+        addResultCacheConditionKeyParts(keyParts, query.getCondition());
+        keyParts.add(context.getIdName());
+        keyParts.add(context.getProperties());
+        addResultCacheKeyParts(keyParts, context.getHints(), context.getAccessConstraints());
+
+        return resultCache.lookup(keyParts, null, query.toString(), null, ttl);
+    }
+
+    @Nullable
+    protected Duration getResultCacheTtl(Map<String, Object> hints, boolean joinTransaction,
+                                         @Nullable LockModeType lockMode) {
+        if (resultCache == null || !resultCache.isEnabled()
+                || !(hints.get(DataStoreResultCache.TTL_HINT) instanceof Duration ttl)
+                || ttl.isNegative() || ttl.isZero()) {
+            return null;
+        }
+        // the current transaction can see its own changes, and locks must be acquired in the database
+        if ((joinTransaction && TransactionSynchronizationManager.isActualTransactionActive())
+                || (lockMode != null && lockMode != LockModeType.NONE)) {
+            return null;
+        }
+        return ttl;
+    }
+
+    protected void addResultCacheKeyParts(List<Object> keyParts, Map<String, Object> hints,
+                                          List<AccessConstraint<?>> accessConstraints) {
+        Map<String, Object> keyHints = new TreeMap<>(hints);
+        keyHints.remove(DataStoreResultCache.TTL_HINT);
+        keyParts.add(normalizeResultCacheValue(keyHints));
+
+        List<String> constraintClasses = new ArrayList<>(accessConstraints.size());
+        for (AccessConstraint<?> constraint : accessConstraints) {
+            constraintClasses.add(constraint.getClass().getName());
+        }
+        keyParts.add(constraintClasses);
+
+        keyParts.addAll(getResultCacheKeyParts());
+    }
+
+    /**
+     * Returns additional parts of the {@link DataStoreResultCache} key, for example the state which affects
+     * the queries of the data store implicitly. The parts must implement {@code equals()} by value.
+     */
+    protected List<Object> getResultCacheKeyParts() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Replaces entities by their names and ids, as entities are compared by ids only and can be modified later.
+     */
+    @Nullable
+    /**
+     * Adds parameter values of the condition to the cache key, because the string representation of the condition
+     * contains only parameter names, and the values are copied to the query parameters by the data store.
+     */
+    protected void addResultCacheConditionKeyParts(List<Object> keyParts, @Nullable Condition condition) {
+        if (condition instanceof LogicalCondition logicalCondition) {
+            for (Condition nestedCondition : logicalCondition.getConditions()) {
+                addResultCacheConditionKeyParts(keyParts, nestedCondition);
+            }
+        } else if (condition instanceof PropertyCondition propertyCondition) {
+            keyParts.add(propertyCondition.getParameterName());
+            keyParts.add(normalizeResultCacheValue(propertyCondition.getParameterValue()));
+        } else if (condition instanceof JpqlCondition jpqlCondition) {
+            keyParts.add(normalizeResultCacheValue(jpqlCondition.getParameterValuesMap()));
+        }
+    }
+
+    protected Object normalizeResultCacheValue(@Nullable Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (EntityValues.isEntity(value)) {
+            return Arrays.asList(metadata.getClass(value).getName(), normalizeResultCacheValue(EntityValues.getId(value)));
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> result = new HashMap<>(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                result.put(entry.getKey(), normalizeResultCacheValue(entry.getValue()));
+            }
+            return result;
+        }
+        if (value instanceof Collection<?> collection) {
+            List<Object> result = new ArrayList<>(collection.size());
+            for (Object item : collection) {
+                result.add(normalizeResultCacheValue(item));
+            }
+            return result;
+        }
+        if (value.getClass().isArray() && !value.getClass().getComponentType().isPrimitive()) {
+            return normalizeResultCacheValue(Arrays.asList((Object[]) value));
+        }
+        return value;
+    }
+
+    /**
+     * Discards cached results depending on the saved and removed entities.
+     */
+    protected void invalidateResultCache(Collection<Object> savedEntities, Collection<Object> removedEntities) {
+        if (resultCache == null || !resultCache.isEnabled()) {
+            return;
+        }
+        Set<MetaClass> metaClasses = new HashSet<>();
+        for (Object entity : savedEntities) {
+            metaClasses.add(metadata.getClass(entity));
+        }
+        for (Object entity : removedEntities) {
+            metaClasses.add(metadata.getClass(entity));
+        }
+        resultCache.invalidate(metaClasses);
+    }
+
     public void registerInterceptor(DataStoreEventListener listener) {
         listeners.add(listener);
         listeners.sort(Comparator.comparing(DataStoreEventListener::getOrder));
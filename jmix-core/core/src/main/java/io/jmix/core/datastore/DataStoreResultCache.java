@@ -0,0 +1,423 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.core.datastore;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.jmix.core.CoreProperties;
+import io.jmix.core.Entity;
+import io.jmix.core.EntityStates;
+import io.jmix.core.EntitySystemStateSupport;
+import io.jmix.core.FetchPlan;
+import io.jmix.core.Metadata;
+import io.jmix.core.MetadataTools;
+import io.jmix.core.cluster.ClusterApplicationEventPublisher;
+import io.jmix.core.entity.EntityValues;
+import io.jmix.core.entity.KeyValueEntity;
+import io.jmix.core.event.EntityChangedEvent;
+import io.jmix.core.impl.keyvalue.KeyValueMetaClass;
+import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.core.metamodel.model.MetaProperty;
+import io.jmix.core.security.CurrentAuthentication;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of data store load results requested by the {@link #TTL_HINT} hint, for example by
+ * {@link io.jmix.core.FluentLoader.ByQuery#cacheable(Duration)}.
+ * <p>
+ * Results are cached by the query, its parameters, fetch plan, hints, access constraints and the current user,
+ * see {@link CoreProperties#isDataStoreResultCacheUserScoped()}. Each result depends on the entities mentioned in
+ * the query and the entities reachable from them by references. A result is discarded when its time-to-live expires
+ * or any of its entities is changed by the data store or an {@link EntityChangedEvent} is sent for it. Changes are
+ * published to other application instances by {@link DataStoreResultCacheInvalidationEvent}.
+ * <p>
+ * The cache is bounded by the total number of cached rows, see {@link CoreProperties#getDataStoreResultCacheMaxWeight()}.
+ * Cached entities are copied when stored and returned, so callers can modify them. The copies keep the state of the
+ * loaded entities, and the data store processes them by {@link DataStoreAfterEntityLoadEvent} like loaded ones.
+ */
+@Component("core_DataStoreResultCache")
+public class DataStoreResultCache {
+
+    /**
+     * Load context hint containing the time-to-live {@link Duration} of the cached result.
+     */
+    public static final String TTL_HINT = "jmix.resultCache.ttl";
+
+    protected static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[\\w$]+");
+
+    protected final Metadata metadata;
+    protected final MetadataTools metadataTools;
+    protected final CurrentAuthentication currentAuthentication;
+    protected final ClusterApplicationEventPublisher clusterEventPublisher;
+    protected final EntityStates entityStates;
+    protected final EntitySystemStateSupport entitySystemStateSupport;
+
+    protected final boolean enabled;
+    protected final boolean userScoped;
+
+    protected final Cache<Key, CachedResult> cache;
+    // entity name -> number of changes of the entity
+    protected final Map<String, Long> generations = new ConcurrentHashMap<>();
+    protected final Map<MetaClass, Set<String>> reachableEntities = new ConcurrentHashMap<>();
+
+    public DataStoreResultCache(Metadata metadata,
+                                MetadataTools metadataTools,
+                                CurrentAuthentication currentAuthentication,
+                                ClusterApplicationEventPublisher clusterEventPublisher,
+                                EntityStates entityStates,
+                                EntitySystemStateSupport entitySystemStateSupport,
+                                CoreProperties coreProperties) {
+        this.metadata = metadata;
+        this.metadataTools = metadataTools;
+        this.currentAuthentication = currentAuthentication;
+        this.clusterEventPublisher = clusterEventPublisher;
+        this.entityStates = entityStates;
+        this.entitySystemStateSupport = entitySystemStateSupport;
+        this.enabled = coreProperties.isDataStoreResultCacheEnabled();
+        this.userScoped = coreProperties.isDataStoreResultCacheUserScoped();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(coreProperties.getDataStoreResultCacheMaxWeight())
+                .weigher((Key key, CachedResult result) -> result.weight())
+                .build();
+    }
+
+    /**
+     * @return whether the cache is enabled by {@link CoreProperties#isDataStoreResultCacheEnabled()}
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Looks up the result of a load.
+     *
+     * @param keyParts     parts of the key identifying the load, their {@code equals()} must compare values
+     * @param metaClass    entity loaded, or null for value loads
+     * @param queryString  query string of the load, used to find the entities the result depends on
+     * @param fetchPlan    fetch plan of the load
+     * @param ttl          time-to-live of the result
+     * @return lookup containing the cached result or allowing to store the loaded one
+     */
+    public Lookup lookup(List<Object> keyParts, @Nullable MetaClass metaClass, @Nullable String queryString,
+                         @Nullable FetchPlan fetchPlan, Duration ttl) {
+        List<Object> parts = new ArrayList<>(keyParts.size() + 1);
+        parts.addAll(keyParts);
+        parts.add(getUserScope());
+        Key key = new Key(parts);
+
+        CachedResult cachedResult = cache.getIfPresent(key);
+        if (cachedResult != null) {
+            if (cachedResult.isValid(System.currentTimeMillis())) {
+                return new Lookup(key, copy(cachedResult.result()), null, ttl);
+            }
+            cache.invalidate(key);
+        }
+
+        // the snapshot is taken before loading, so that changes made during the load discard the result
+        Set<String> dependencies = getDependencies(metaClass, queryString, fetchPlan);
+        Map<String, Long> snapshot = new HashMap<>(dependencies.size());
+        for (String entityName : dependencies) {
+            snapshot.put(entityName, generations.getOrDefault(entityName, 0L));
+        }
+        return new Lookup(key, null, snapshot, ttl);
+    }
+
+    /**
+     * Discards results depending on the entities and publishes the change to other application instances.
+     * If a transaction is active, results are discarded again after its completion.
+     *
+     * @param metaClasses changed entities
+     */
+    public void invalidate(Collection<MetaClass> metaClasses) {
+        if (!enabled || metaClasses.isEmpty()) {
+            return;
+        }
+        Set<String> entityNames = new HashSet<>();
+        for (MetaClass metaClass : metaClasses) {
+            entityNames.add(metaClass.getName());
+            // results of queries by ancestors contain descendants
+            for (MetaClass ancestor : metaClass.getAncestors()) {
+                entityNames.add(ancestor.getName());
+            }
+        }
+        invalidateLocally(entityNames);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateLocally(entityNames);
+                    clusterEventPublisher.publish(
+                            new DataStoreResultCacheInvalidationEvent(DataStoreResultCache.this, entityNames));
+                }
+            });
+        } else {
+            clusterEventPublisher.publish(new DataStoreResultCacheInvalidationEvent(this, entityNames));
+        }
+    }
+
+    /**
+     * Discards all cached results.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return number of cached results
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent<?> event) {
+        invalidate(Collections.singletonList(metadata.getClass(event.getEntityId().getEntityClass())));
+    }
+
+    @EventListener
+    public void onInvalidation(DataStoreResultCacheInvalidationEvent event) {
+        invalidateLocally(event.getEntityNames());
+    }
+
+    protected void invalidateLocally(Collection<String> entityNames) {
+        for (String entityName : entityNames) {
+            generations.merge(entityName, 1L, Long::sum);
+        }
+    }
+
+    protected Object getUserScope() {
+        if (!currentAuthentication.isSet()) {
+            return "";
+        }
+        if (userScoped) {
+            return currentAuthentication.getAuthentication().getName();
+        }
+        Set<String> authorities = new TreeSet<>();
+        for (GrantedAuthority authority : currentAuthentication.getAuthentication().getAuthorities()) {
+            authorities.add(authority.getAuthority());
+        }
+        return authorities;
+    }
+
+    /**
+     * Returns names of the entity, entities mentioned in the query and fetch plan and entities reachable from them
+     * by references, as the query can navigate to them by attribute paths.
+     */
+    protected Set<String> getDependencies(@Nullable MetaClass metaClass, @Nullable String queryString,
+                                          @Nullable FetchPlan fetchPlan) {
+        Set<String> dependencies = new HashSet<>();
+        if (metaClass != null && !(metaClass instanceof KeyValueMetaClass)) {
+            dependencies.addAll(getReachableEntities(metaClass));
+        }
+        if (queryString != null) {
+            Matcher matcher = IDENTIFIER_PATTERN.matcher(queryString);
+            while (matcher.find()) {
+                MetaClass queryMetaClass = metadata.getSession().findClass(matcher.group());
+                if (queryMetaClass != null) {
+                    dependencies.addAll(getReachableEntities(queryMetaClass));
+                }
+            }
+        }
+        if (fetchPlan != null) {
+            dependencies.addAll(getReachableEntities(metadata.getClass(fetchPlan.getEntityClass())));
+        }
+        return dependencies;
+    }
+
+    protected Set<String> getReachableEntities(MetaClass metaClass) {
+        return reachableEntities.computeIfAbsent(metaClass, root -> {
+            Set<String> names = new HashSet<>();
+            Deque<MetaClass> queue = new ArrayDeque<>();
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                MetaClass current = queue.poll();
+                if (names.add(current.getName())) {
+                    for (MetaProperty property : current.getProperties()) {
+                        if (property.getRange().isClass()) {
+                            queue.add(property.getRange().asClass());
+                        }
+                    }
+                }
+            }
+            return Collections.unmodifiableSet(names);
+        });
+    }
+
+    protected Object copy(Object result) {
+        if (result instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(copyItem(item));
+            }
+            return copy;
+        }
+        return copyItem(result);
+    }
+
+    protected Object copyItem(Object item) {
+        if (item instanceof KeyValueEntity keyValueEntity) {
+            KeyValueEntity copy = new KeyValueEntity();
+            copy.setInstanceMetaClass(keyValueEntity.getInstanceMetaClass());
+            copy.setIdName(keyValueEntity.getIdName());
+            for (MetaProperty property : keyValueEntity.getInstanceMetaClass().getProperties()) {
+                copy.setValue(property.getName(), keyValueEntity.getValue(property.getName()));
+            }
+            return copy;
+        }
+        if (EntityValues.isEntity(item)) {
+            Object copy = metadataTools.deepCopy(item);
+            copySystemState(item, copy, new IdentityHashMap<>());
+            return copy;
+        }
+        return item;
+    }
+
+    /**
+     * Copies the state of the entity graph, so that the copy is detached and its not loaded attributes are known.
+     */
+    protected void copySystemState(Object source, Object destination, Map<Object, Object> visited) {
+        if (visited.put(source, destination) != null) {
+            return;
+        }
+        for (MetaProperty property : metadata.getClass(source).getProperties()) {
+            if (!property.getRange().isClass() || property.isReadOnly()
+                    || !entityStates.isLoaded(source, property.getName())) {
+                continue;
+            }
+            Object srcValue = EntityValues.getValue(source, property.getName());
+            Object dstValue = EntityValues.getValue(destination, property.getName());
+            if (srcValue instanceof Collection<?> srcCollection && dstValue instanceof Collection<?> dstCollection) {
+                Iterator<?> dstIterator = dstCollection.iterator();
+                for (Object srcItem : srcCollection) {
+                    if (!dstIterator.hasNext()) {
+                        break;
+                    }
+                    copyReferenceState(srcItem, dstIterator.next(), visited);
+                }
+            } else {
+                copyReferenceState(srcValue, dstValue, visited);
+            }
+        }
+        entitySystemStateSupport.copySystemState((Entity) source, (Entity) destination);
+    }
+
+    protected void copyReferenceState(@Nullable Object source, @Nullable Object destination, Map<Object, Object> visited) {
+        if (source instanceof Entity && destination instanceof Entity) {
+            copySystemState(source, destination, visited);
+        }
+    }
+
+    protected static int getWeight(Object result) {
+        return result instanceof Collection<?> collection ? Math.max(collection.size(), 1) : 1;
+    }
+
+    /**
+     * Result of {@link #lookup(List, MetaClass, String, FetchPlan, Duration)}.
+     */
+    public class Lookup {
+
+        protected final Key key;
+        protected final Object result;
+        protected final Map<String, Long> snapshot;
+        protected final Duration ttl;
+
+        protected Lookup(Key key, @Nullable Object result, @Nullable Map<String, Long> snapshot, Duration ttl) {
+            this.key = key;
+            this.result = result;
+            this.snapshot = snapshot;
+            this.ttl = ttl;
+        }
+
+        /**
+         * @return whether the result has been found in the cache
+         */
+        public boolean isHit() {
+            return snapshot == null;
+        }
+
+        /**
+         * @return copy of the cached result if {@link #isHit()}
+         */
+        @Nullable
+        public Object getResult() {
+            return result;
+        }
+
+        /**
+         * Caches the loaded result unless the entities it depends on have been changed since the lookup.
+         */
+        public void store(@Nullable Object loadedResult) {
+            if (snapshot == null || loadedResult == null) {
+                return;
+            }
+            cache.put(key, new CachedResult(copy(loadedResult), getWeight(loadedResult),
+                    System.currentTimeMillis() + ttl.toMillis(), snapshot));
+        }
+    }
+
+    protected record Key(List<Object> parts) {
+    }
+
+    protected class CachedResult {
+
+        protected final Object result;
+        protected final int weight;
+        protected final long expiresAt;
+        protected final Map<String, Long> snapshot;
+
+        protected CachedResult(Object result, int weight, long expiresAt, Map<String, Long> snapshot) {
+            this.result = result;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+            this.snapshot = snapshot;
+        }
+
+        protected Object result() {
+            return result;
+        }
+
+        protected int weight() {
+            return weight;
+        }
+
+        protected boolean isValid(long now) {
+            if (now >= expiresAt) {
+                return false;
+            }
+            for (Map.Entry<String, Long> entry : snapshot.entrySet()) {
+                if (!entry.getValue().equals(generations.getOrDefault(entry.getKey(), 0L))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.core.datastore;
+
+import io.jmix.core.cluster.ClusterApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * Event published cluster-wide when entities are changed, so that each application instance discards
+ * the results depending on them from its {@link DataStoreResultCache}.
+ */
+public class DataStoreResultCacheInvalidationEvent extends ClusterApplicationEvent {
+
+    private static final long serialVersionUID = -3180442513094725183L;
+
+    private final Set<String> entityNames;
+
+    public DataStoreResultCacheInvalidationEvent(Object source, Set<String> entityNames) {
+        super(source);
+        this.entityNames = entityNames;
+    }
+
+    /**
+     * @return names of changed entities
+     */
+    public Set<String> getEntityNames() {
+        return entityNames;
+    }
+
+    @Override
+    public String toString() {
+        return "DataStoreResultCacheInvalidationEvent{entityNames=" + entityNames + "}";
+    }
+}
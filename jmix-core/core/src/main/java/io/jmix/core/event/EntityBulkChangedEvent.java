@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.core.event;
+
+import io.jmix.core.BulkOperationContext;
+import io.jmix.core.annotation.Internal;
+import io.jmix.core.metamodel.model.MetaClass;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+import java.util.List;
+
+/**
+ * A Spring application event that is sent when entities are updated or removed by a bulk operation, see
+ * {@link BulkOperationContext}. The event is sent only if requested by
+ * {@link BulkOperationContext#setChangeEventBatchSize(int)}, once per batch of affected entities.
+ * <p>
+ * Like {@link EntityChangedEvent}, it can be handled by {@code @EventListener} inside the transaction of the
+ * operation or by {@code @TransactionalEventListener} after commit.
+ *
+ * @param <E> entity type
+ */
+public class EntityBulkChangedEvent<E> extends ApplicationEvent implements ResolvableTypeProvider {
+
+    private final MetaClass metaClass;
+    private final BulkOperationContext.Type type;
+    private final List<Object> ids;
+
+    /**
+     * INTERNAL.
+     */
+    @Internal
+    public EntityBulkChangedEvent(Object source, MetaClass metaClass, BulkOperationContext.Type type, List<Object> ids) {
+        super(source);
+        this.metaClass = metaClass;
+        this.type = type;
+        this.ids = ids;
+    }
+
+    /**
+     * Returns the metaclass of the affected entities.
+     */
+    public MetaClass getMetaClass() {
+        return metaClass;
+    }
+
+    /**
+     * Returns the type of the operation.
+     */
+    public BulkOperationContext.Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns ids of the affected entities.
+     */
+    public List<Object> getIds() {
+        return ids;
+    }
+
+    /**
+     * INTERNAL.
+     */
+    @Internal
+    @Override
+    public ResolvableType getResolvableType() {
+        return ResolvableType.forClassWithGenerics(getClass(), ResolvableType.forClass(metaClass.getJavaClass()));
+    }
+
+    @Override
+    public String toString() {
+        return "EntityBulkChangedEvent{" +
+                "entity=" + metaClass.getName() +
+                ", type=" + type +
+                ", ids=" + ids.size() +
+                '}';
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.core.filestorage;
+
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+import io.jmix.core.FileAttributes;
+import io.jmix.core.FileRef;
+import io.jmix.core.FileStorage;
+import io.jmix.core.FileStorageException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * {@link FileStorage} decorator that stores each distinct file content only once.
+ * <p>
+ * The content of a saved file is hashed with SHA-256 while it is spooled to a temporary file. If the content is
+ * already stored, only a reference to it is added to the {@link FileContentIndex} and nothing is written to the
+ * underlying storage. Otherwise, the content is saved to the underlying storage and registered in the index.
+ * <p>
+ * The path of a {@link FileRef} returned by this storage is the content digest. Each {@link #saveStream} call adds
+ * a reference to the content and each {@link #removeFile(FileRef)} call removes one, so a file reference must be
+ * removed only once. The blob is deleted from the underlying storage when its last reference is removed.
+ * <p>
+ * Example of registering the storage:
+ * <pre>
+ * &#64;Bean
+ * public FileStorage deduplicatingFileStorage(LocalFileStorage localFileStorage, CoreProperties coreProperties) {
+ *     return new DeduplicatingFileStorage("dedup", localFileStorage,
+ *             new JournalFileContentIndex(Path.of(coreProperties.getWorkDir(), "dedup")),
+ *             Path.of(coreProperties.getTempDir()));
+ * }
+ * </pre>
+ * The storage implements {@link MeterBinder}, so its metrics are registered automatically if a meter registry
+ * is configured in the application.
+ */
+public class DeduplicatingFileStorage implements FileStorage, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(DeduplicatingFileStorage.class);
+
+    protected static final Pattern DIGEST_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    protected final String storageName;
+    protected final FileStorage delegate;
+    protected final FileContentIndex index;
+    protected final Path tempDir;
+
+    protected final LongAdder storedFiles = new LongAdder();
+    protected final LongAdder deduplicatedFiles = new LongAdder();
+    protected final LongAdder deduplicatedBytes = new LongAdder();
+    protected final LongAdder reclaimedBlobs = new LongAdder();
+    protected final LongAdder reclaimedBytes = new LongAdder();
+
+    /**
+     * @param storageName name of this storage, must differ from the name of the underlying storage
+     * @param delegate    underlying storage keeping the distinct contents
+     * @param index       index of the stored contents
+     * @param tempDir     directory for temporary files the saved contents are spooled to
+     */
+    public DeduplicatingFileStorage(String storageName, FileStorage delegate, FileContentIndex index, Path tempDir) {
+        this.storageName = storageName;
+        this.delegate = delegate;
+        this.index = index;
+        this.tempDir = tempDir;
+    }
+
+    @Override
+    public String getStorageName() {
+        return storageName;
+    }
+
+    @Override
+    public FileRef saveStream(String fileName, InputStream inputStream, Map<String, Object> parameters) {
+        Path tempFile = null;
+        try {
+            Files.createDirectories(tempDir);
+            tempFile = Files.createTempFile(tempDir, "dedup-", ".tmp");
+
+            HashingInputStream hashingInputStream = new HashingInputStream(Hashing.sha256(), inputStream);
+            long size;
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                size = ByteStreams.copy(hashingInputStream, outputStream);
+            }
+            String digest = hashingInputStream.hash().toString();
+
+            Map<String, String> fileRefParameters = Maps.toMap(parameters.keySet(), key -> parameters.get(key).toString());
+            FileRef fileRef = new FileRef(storageName, digest, fileName, fileRefParameters);
+
+            if (index.acquire(digest) != null) {
+                log.debug("Content of {} is already stored, digest {}", fileName, digest);
+                deduplicatedFiles.increment();
+                deduplicatedBytes.add(size);
+                return fileRef;
+            }
+
+            FileRef blobRef;
+            try (InputStream blobStream = Files.newInputStream(tempFile)) {
+                blobRef = delegate.saveStream(createBlobName(digest, fileName), blobStream, parameters);
+            }
+            FileContentIndex.Entry entry = index.register(digest, blobRef, size);
+            if (!entry.getBlobRef().equals(blobRef)) {
+                // the same content has been saved concurrently
+                delegate.removeFile(blobRef);
+                deduplicatedFiles.increment();
+                deduplicatedBytes.add(size);
+            } else {
+                storedFiles.increment();
+            }
+            return fileRef;
+        } catch (IOException e) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, fileName, e);
+        } finally {
+            deleteTempFile(tempFile);
+        }
+    }
+
+    @Override
+    public InputStream openStream(FileRef reference) {
+        return delegate.openStream(getEntry(reference).getBlobRef());
+    }
+
+    @Override
+    public InputStream openStream(FileRef reference, long offset, long length) {
+        return delegate.openStream(getEntry(reference).getBlobRef(), offset, length);
+    }
+
+    @Override
+    public void transferTo(FileRef reference, long offset, long length, OutputStream outputStream) throws IOException {
+        delegate.transferTo(getEntry(reference).getBlobRef(), offset, length, outputStream);
+    }
+
+    @Nullable
+    @Override
+    public FileAttributes getFileAttributes(FileRef reference) {
+        return delegate.getFileAttributes(getEntry(reference).getBlobRef());
+    }
+
+    @Override
+    public void removeFile(FileRef reference) {
+        String digest = reference.getPath();
+        if (!isDigest(digest)) {
+            log.debug("Ignoring removal of {}: not a reference of the deduplicating storage", reference);
+            return;
+        }
+        FileContentIndex.Entry released = index.release(digest);
+        if (released != null) {
+            delegate.removeFile(released.getBlobRef());
+            reclaimedBlobs.increment();
+            reclaimedBytes.add(released.getSize());
+            log.debug("Removed the last reference to content {}, blob {} is deleted", digest, released.getBlobRef());
+        }
+    }
+
+    @Override
+    public boolean fileExists(FileRef reference) {
+        String digest = reference.getPath();
+        if (!isDigest(digest)) {
+            return false;
+        }
+        FileContentIndex.Entry entry = index.find(digest);
+        return entry != null && delegate.fileExists(entry.getBlobRef());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jmix.FileStorage.dedup.files", storedFiles, LongAdder::sum)
+                .tag("storage", storageName)
+                .tag("result", "stored")
+                .description("Saved files whose content has been written to the underlying storage")
+                .register(registry);
+        FunctionCounter.builder("jmix.FileStorage.dedup.files", deduplicatedFiles, LongAdder::sum)
+                .tag("storage", storageName)
+                .tag("result", "deduplicated")
+                .description("Saved files whose content has already been stored")
+                .register(registry);
+        FunctionCounter.builder("jmix.FileStorage.dedup.deduplicatedBytes", deduplicatedBytes, LongAdder::sum)
+                .tag("storage", storageName)
+                .baseUnit("bytes")
+                .description("Bytes not written to the underlying storage because the content has already been stored")
+                .register(registry);
+        FunctionCounter.builder("jmix.FileStorage.dedup.reclaimedBytes", reclaimedBytes, LongAdder::sum)
+                .tag("storage", storageName)
+                .baseUnit("bytes")
+                .description("Bytes deleted from the underlying storage after the last reference has been removed")
+                .register(registry);
+        Gauge.builder("jmix.FileStorage.dedup.blobs", index, FileContentIndex::getBlobCount)
+                .tag("storage", storageName)
+                .description("Distinct contents stored in the underlying storage")
+                .register(registry);
+        Gauge.builder("jmix.FileStorage.dedup.references", index, FileContentIndex::getReferenceCount)
+                .tag("storage", storageName)
+                .description("File references to the stored contents")
+                .register(registry);
+    }
+
+    /**
+     * @return number of saved files whose content has been written to the underlying storage
+     */
+    public long getStoredFiles() {
+        return storedFiles.sum();
+    }
+
+    /**
+     * @return number of saved files whose content has already been stored
+     */
+    public long getDeduplicatedFiles() {
+        return deduplicatedFiles.sum();
+    }
+
+    /**
+     * @return number of bytes not written to the underlying storage because the content has already been stored
+     */
+    public long getDeduplicatedBytes() {
+        return deduplicatedBytes.sum();
+    }
+
+    /**
+     * @return number of blobs deleted from the underlying storage after their last reference has been removed
+     */
+    public long getReclaimedBlobs() {
+        return reclaimedBlobs.sum();
+    }
+
+    /**
+     * @return number of bytes deleted from the underlying storage after the last reference has been removed
+     */
+    public long getReclaimedBytes() {
+        return reclaimedBytes.sum();
+    }
+
+    /**
+     * @return index entry of the content referenced by the file reference
+     * @throws FileStorageException if the content is not stored
+     */
+    protected FileContentIndex.Entry getEntry(FileRef reference) {
+        String digest = reference.getPath();
+        FileContentIndex.Entry entry = isDigest(digest) ? index.find(digest) : null;
+        if (entry == null) {
+            throw new FileStorageException(FileStorageException.Type.FILE_NOT_FOUND, reference.toString());
+        }
+        return entry;
+    }
+
+    protected boolean isDigest(String path) {
+        return DIGEST_PATTERN.matcher(path).matches();
+    }
+
+    /**
+     * @return name of the file in the underlying storage, keeps the extension of the saved file
+     */
+    protected String createBlobName(String digest, String fileName) {
+        String extension = FilenameUtils.getExtension(fileName);
+        return StringUtils.isNotEmpty(extension) ? digest + "." + extension : digest;
+    }
+
+    protected void deleteTempFile(@Nullable Path tempFile) {
+        if (tempFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary file {}", tempFile, e);
+        }
+    }
+}
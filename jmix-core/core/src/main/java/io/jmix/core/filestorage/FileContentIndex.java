@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.core.filestorage;
+
+import io.jmix.core.FileRef;
+import org.springframework.lang.Nullable;
+
+/**
+ * Index of file contents stored by {@link DeduplicatingFileStorage}. Maps content digests to the stored blobs
+ * and counts references to each blob.
+ * <p>
+ * Implementations must be thread-safe. Each method must be atomic with respect to the others,
+ * so that a blob is never released while another reference to it is being acquired.
+ */
+public interface FileContentIndex {
+
+    /**
+     * Adds a reference to the stored content.
+     *
+     * @param digest content digest
+     * @return entry of the content with the incremented reference count, or null if the content is not stored
+     */
+    @Nullable
+    Entry acquire(String digest);
+
+    /**
+     * Registers newly stored content with a single reference. If the same content has been registered concurrently,
+     * adds a reference to the existing entry instead; the caller must then remove the blob it has stored.
+     *
+     * @param digest  content digest
+     * @param blobRef reference to the blob in the underlying storage
+     * @param size    content size in bytes
+     * @return entry of the content, its blob reference differs from the given one if the content was already stored
+     */
+    Entry register(String digest, FileRef blobRef, long size);
+
+    /**
+     * Removes a reference to the stored content.
+     *
+     * @param digest content digest
+     * @return entry of the content if its last reference has been removed and the blob must be deleted, null otherwise
+     */
+    @Nullable
+    Entry release(String digest);
+
+    /**
+     * @param digest content digest
+     * @return entry of the content or null if the content is not stored
+     */
+    @Nullable
+    Entry find(String digest);
+
+    /**
+     * @return number of distinct stored contents
+     */
+    long getBlobCount();
+
+    /**
+     * @return total number of references to the stored contents
+     */
+    long getReferenceCount();
+
+    /**
+     * Stored content.
+     */
+    class Entry {
+
+        private final String digest;
+        private final FileRef blobRef;
+        private final long size;
+        private final long referenceCount;
+
+        public Entry(String digest, FileRef blobRef, long size, long referenceCount) {
+            this.digest = digest;
+            this.blobRef = blobRef;
+            this.size = size;
+            this.referenceCount = referenceCount;
+        }
+
+        /**
+         * @return content digest
+         */
+        public String getDigest() {
+            return digest;
+        }
+
+        /**
+         * @return reference to the blob in the underlying storage
+         */
+        public FileRef getBlobRef() {
+            return blobRef;
+        }
+
+        /**
+         * @return content size in bytes
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return number of file references to the content
+         */
+        public long getReferenceCount() {
+            return referenceCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{digest=" + digest + ", blobRef=" + blobRef + ", size=" + size
+                    + ", referenceCount=" + referenceCount + "}";
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.core.filestorage;
+
+import io.jmix.core.FileRef;
+import io.jmix.core.FileStorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link FileContentIndex} kept in memory and persisted to an append-only journal file.
+ * <p>
+ * Each change of an entry appends a line with the current state of the entry to the journal. The journal is read
+ * on creation, the last line of each digest wins. When the journal grows much larger than the number of entries,
+ * it is rewritten with the current entries only.
+ * <p>
+ * The journal is not shared between processes, so a storage using this index must be used by a single application
+ * instance. Use an index backed by a shared database in a cluster.
+ */
+public class JournalFileContentIndex implements FileContentIndex, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalFileContentIndex.class);
+
+    public static final String JOURNAL_FILE_NAME = "content-index.journal";
+
+    protected static final char SEPARATOR = '\t';
+
+    protected final Path journalFile;
+    protected final Map<String, Entry> entries = new HashMap<>();
+    protected long referenceCount;
+
+    protected Writer journalWriter;
+    protected long journalRecords;
+    protected int compactionThreshold = 10_000;
+
+    /**
+     * @param directory directory of the journal file, created if it does not exist
+     */
+    public JournalFileContentIndex(Path directory) {
+        this.journalFile = directory.resolve(JOURNAL_FILE_NAME);
+        try {
+            Files.createDirectories(directory);
+            if (Files.exists(journalFile)) {
+                load();
+            }
+            journalWriter = openJournalWriter();
+            if (endsWithIncompleteRecord()) {
+                journalWriter.write('\n');
+                journalWriter.flush();
+            }
+        } catch (IOException e) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, journalFile.toString(), e);
+        }
+    }
+
+    /**
+     * Sets the number of obsolete journal records after which the journal is rewritten.
+     */
+    public void setCompactionThreshold(int compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    @Nullable
+    @Override
+    public synchronized Entry acquire(String digest) {
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            return null;
+        }
+        return update(new Entry(digest, entry.getBlobRef(), entry.getSize(), entry.getReferenceCount() + 1));
+    }
+
+    @Override
+    public synchronized Entry register(String digest, FileRef blobRef, long size) {
+        Entry entry = entries.get(digest);
+        if (entry != null) {
+            return update(new Entry(digest, entry.getBlobRef(), entry.getSize(), entry.getReferenceCount() + 1));
+        }
+        return update(new Entry(digest, blobRef, size, 1));
+    }
+
+    @Nullable
+    @Override
+    public synchronized Entry release(String digest) {
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            return null;
+        }
+        Entry released = update(new Entry(digest, entry.getBlobRef(), entry.getSize(), entry.getReferenceCount() - 1));
+        return released.getReferenceCount() == 0 ? released : null;
+    }
+
+    @Nullable
+    @Override
+    public synchronized Entry find(String digest) {
+        return entries.get(digest);
+    }
+
+    @Override
+    public synchronized long getBlobCount() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized long getReferenceCount() {
+        return referenceCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        journalWriter.close();
+    }
+
+    protected Entry update(Entry entry) {
+        try {
+            journalWriter.write(formatRecord(entry));
+            journalWriter.flush();
+        } catch (IOException e) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, journalFile.toString(), e);
+        }
+        apply(entry);
+        journalRecords++;
+        if (journalRecords > entries.size() + compactionThreshold) {
+            compact();
+        }
+        return entry;
+    }
+
+    protected void apply(Entry entry) {
+        Entry previous = entry.getReferenceCount() > 0
+                ? entries.put(entry.getDigest(), entry)
+                : entries.remove(entry.getDigest());
+        referenceCount += entry.getReferenceCount() - (previous != null ? previous.getReferenceCount() : 0);
+    }
+
+    protected void load() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                journalRecords++;
+                Entry entry = parseRecord(line);
+                if (entry == null) {
+                    // the last record may be incomplete if the application was stopped while writing it
+                    log.warn("Skipping malformed record of file content index {}: {}", journalFile, line);
+                    continue;
+                }
+                apply(entry);
+            }
+        }
+        log.debug("Loaded {} entries of file content index {}", entries.size(), journalFile);
+    }
+
+    /**
+     * Rewrites the journal with the current entries only.
+     */
+    protected void compact() {
+        Path compactedFile = journalFile.resolveSibling(JOURNAL_FILE_NAME + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(compactedFile, StandardCharsets.UTF_8)) {
+                for (Entry entry : entries.values()) {
+                    writer.write(formatRecord(entry));
+                }
+            }
+            journalWriter.close();
+            Files.move(compactedFile, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journalWriter = openJournalWriter();
+            journalRecords = entries.size();
+        } catch (IOException e) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, journalFile.toString(), e);
+        }
+    }
+
+    protected boolean endsWithIncompleteRecord() throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(journalFile)) {
+            if (channel.size() == 0) {
+                return false;
+            }
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(lastByte);
+            return lastByte.get(0) != '\n';
+        }
+    }
+
+    protected Writer openJournalWriter() throws IOException {
+        return Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    protected String formatRecord(Entry entry) {
+        return entry.getDigest() + SEPARATOR + entry.getReferenceCount() + SEPARATOR + entry.getSize()
+                + SEPARATOR + entry.getBlobRef().toString() + '\n';
+    }
+
+    @Nullable
+    protected Entry parseRecord(String line) {
+        String[] fields = line.split(String.valueOf(SEPARATOR));
+        if (fields.length != 4) {
+            return null;
+        }
+        try {
+            return new Entry(fields[0], FileRef.fromString(fields[3]),
+                    Long.parseLong(fields[2]), Long.parseLong(fields[1]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.core.impl;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import io.jmix.core.CoreProperties;
+import io.jmix.core.FetchPlan;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps canonical instances of fetch plans, so that structurally equal plans built by
+ * {@link io.jmix.core.FetchPlanBuilder} are the same object and can be compared by identity.
+ * <p>
+ * Canonical instances are weakly referenced and are discarded when no longer used by the application.
+ * Interning is performed only if {@link CoreProperties#isFetchPlanInterningEnabled()} is true.
+ */
+@Component("core_FetchPlanInterner")
+public class FetchPlanInterner {
+
+    protected final boolean enabled;
+
+    protected final Interner<FetchPlan> interner = Interners.newWeakInterner();
+
+    protected final LongAdder hitCount = new LongAdder();
+    protected final LongAdder missCount = new LongAdder();
+
+    public FetchPlanInterner(CoreProperties coreProperties) {
+        this.enabled = coreProperties.isFetchPlanInterningEnabled();
+    }
+
+    /**
+     * Returns the canonical instance of the fetch plan. If there is no instance equal to the given one yet,
+     * the given instance becomes canonical.
+     * <p>
+     * Nested fetch plans are not interned by this method, the builder interns them when building
+     * the nested plans.
+     *
+     * @param fetchPlan fetch plan
+     * @return canonical instance equal to the given fetch plan
+     */
+    public FetchPlan intern(FetchPlan fetchPlan) {
+        if (!enabled) {
+            return fetchPlan;
+        }
+        FetchPlan canonical = interner.intern(fetchPlan);
+        if (canonical == fetchPlan) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return canonical;
+    }
+
+    /**
+     * @return whether interning is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return statistics of interning since the application start
+     */
+    public Stats getStats() {
+        return new Stats(hitCount.sum(), missCount.sum());
+    }
+
+    /**
+     * Interning statistics.
+     *
+     * @param hitCount  number of times an existing canonical instance was returned
+     * @param missCount number of times the given instance became canonical
+     */
+    public record Stats(long hitCount, long missCount) {
+
+        /**
+         * @return ratio of hits to all interning requests, or 1.0 if there were no requests
+         */
+        public double hitRate() {
+            long requestCount = hitCount + missCount;
+            return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+        }
+    }
+}
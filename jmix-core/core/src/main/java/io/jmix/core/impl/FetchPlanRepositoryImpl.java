@@ -29,6 +29,7 @@ import org.dom4j.io.SAXReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
@@ -82,6 +83,8 @@ public class FetchPlanRepositoryImpl implements FetchPlanRepository {
     protected FetchPlans fetchPlans;
     @Autowired
     protected FetchPlanLoader fetchPlanLoader;
+    @Autowired
+    protected ApplicationEventPublisher eventPublisher;
 
     protected volatile boolean initialized;
 
@@ -162,6 +165,7 @@ public class FetchPlanRepositoryImpl implements FetchPlanRepository {
     @Order(JmixOrder.HIGHEST_PRECEDENCE + 40)
     public void reset() {
         initialized = false;
+        eventPublisher.publishEvent(new FetchPlanRepositoryResetEvent(this));
     }
 
     /**
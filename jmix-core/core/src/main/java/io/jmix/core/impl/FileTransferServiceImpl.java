@@ -17,6 +17,7 @@
 package io.jmix.core.impl;
 
 import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
 import io.jmix.core.*;
 import io.jmix.core.common.util.URLEncodeUtils;
 import org.apache.commons.io.IOUtils;
@@ -26,6 +27,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
@@ -38,10 +40,17 @@ import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 @Component("core_FileTransferService")
@@ -49,45 +58,280 @@ public class FileTransferServiceImpl implements FileTransferService {
 
     private static final Logger log = LoggerFactory.getLogger(FileTransferServiceImpl.class);
 
+    private static final String MULTIPART_BOUNDARY_PREFIX = "jmix-byteranges-";
+
     @Autowired
     private FileStorageLocator fileStorageLocator;
 
+    @Autowired
+    private CoreProperties coreProperties;
+
     @Override
     public void downloadAndWriteResponse(FileRef fileReference,
                                          String fileStorageName,
                                          Boolean attachment,
                                          HttpServletResponse response) throws FileTransferException {
         FileStorage fileStorage = getFileStorageByNameOrDefault(fileStorageName);
+        checkFileExists(fileStorage, fileReference);
 
-        if (!fileStorage.fileExists(fileReference)) {
-            throw new FileTransferException("File not found", "File not found. File reference: " +
-                    fileReference, HttpStatus.NOT_FOUND);
+        try {
+            writeWholeFile(fileStorage, fileReference, attachment, fileReference.getFileName(),
+                    fileReference.getContentType(), response);
+        } catch (Exception e) {
+            log.error("Error on downloading the file {}", fileReference, e);
+            throw new FileTransferException("Error on downloading the file", "", HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
+    }
+
+    @Override
+    public void downloadAndWriteResponse(FileRef fileReference,
+                                         String fileStorageName,
+                                         Boolean attachment,
+                                         HttpServletRequest request,
+                                         HttpServletResponse response) throws FileTransferException {
+        downloadAndWriteResponse(fileReference, fileStorageName, attachment, null, null, request, response);
+    }
+
+    @Override
+    public void downloadAndWriteResponse(FileRef fileReference,
+                                         String fileStorageName,
+                                         Boolean attachment,
+                                         @Nullable String fileName,
+                                         @Nullable String contentType,
+                                         HttpServletRequest request,
+                                         HttpServletResponse response) throws FileTransferException {
+        FileStorage fileStorage = getFileStorageByNameOrDefault(fileStorageName);
+        String actualFileName = fileName != null ? fileName : fileReference.getFileName();
+        String actualContentType = contentType != null ? contentType : fileReference.getContentType();
+        checkFileExists(fileStorage, fileReference);
 
         try {
-            response.setHeader("Cache-Control", "no-cache");
-            response.setHeader("Pragma", "no-cache");
-            response.setDateHeader("Expires", 0);
-            response.setHeader("Content-Type", fileReference.getContentType());
-
-            String filename = fileReference.getFileName();
-            String contentDisposition = BooleanUtils.isTrue(attachment) ? "attachment" : "inline";
-            if (StringUtils.isNotEmpty(filename)) {
-                contentDisposition += "; " + getContentDispositionFilename(filename);
+            FileAttributes attributes = fileStorage.getFileAttributes(fileReference);
+            if (attributes == null) {
+                writeWholeFile(fileStorage, fileReference, attachment, actualFileName, actualContentType, response);
+                return;
             }
-            response.setHeader("Content-Disposition", contentDisposition);
 
+            String eTag = createETag(fileReference, attributes);
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            if (attributes.getLastModified() != null) {
+                response.setDateHeader(HttpHeaders.LAST_MODIFIED, attributes.getLastModified().toEpochMilli());
+            }
+            writeCacheHeaders(response);
+
+            if (isNotModified(request, eTag, attributes)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+
+            writeContentHeaders(actualFileName, actualContentType, attachment, response);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+            long size = attributes.getSize();
+            List<ByteRange> ranges = getRequestedRanges(request, eTag, attributes);
             ServletOutputStream os = response.getOutputStream();
-            InputStream is = fileStorage.openStream(fileReference);
-            IOUtils.copy(is, os);
+            if (ranges == null) {
+                response.setContentLengthLong(size);
+                fileStorage.transferTo(fileReference, 0, size, os);
+            } else if (ranges.isEmpty()) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            } else if (ranges.size() == 1) {
+                ByteRange range = ranges.get(0);
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, range.toContentRange(size));
+                response.setContentLengthLong(range.getLength());
+                fileStorage.transferTo(fileReference, range.start, range.getLength(), os);
+            } else {
+                writeMultipartRanges(fileStorage, fileReference, actualContentType, ranges, size, response);
+            }
             os.flush();
-
+        } catch (FileTransferException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error on downloading the file {}", fileReference, e);
             throw new FileTransferException("Error on downloading the file", "", HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
     }
 
+    private void checkFileExists(FileStorage fileStorage, FileRef fileReference) {
+        if (!fileStorage.fileExists(fileReference)) {
+            throw new FileTransferException("File not found", "File not found. File reference: " +
+                    fileReference, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    private void writeWholeFile(FileStorage fileStorage, FileRef fileReference, @Nullable Boolean attachment,
+                                @Nullable String filename, @Nullable String contentType,
+                                HttpServletResponse response) throws IOException {
+        writeCacheHeaders(response);
+        writeContentHeaders(filename, contentType, attachment, response);
+
+        ServletOutputStream os = response.getOutputStream();
+        try (InputStream is = fileStorage.openStream(fileReference)) {
+            IOUtils.copy(is, os);
+        }
+        os.flush();
+    }
+
+    private void writeCacheHeaders(HttpServletResponse response) {
+        Duration maxAge = coreProperties.getFileDownloadCacheMaxAge();
+        if (maxAge != null && maxAge.getSeconds() > 0) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + maxAge.getSeconds());
+        } else {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            response.setHeader(HttpHeaders.PRAGMA, "no-cache");
+            response.setDateHeader(HttpHeaders.EXPIRES, 0);
+        }
+    }
+
+    private void writeContentHeaders(@Nullable String filename, @Nullable String contentType,
+                                     @Nullable Boolean attachment, HttpServletResponse response) {
+        response.setHeader("Content-Type", contentType);
+
+        String contentDisposition = BooleanUtils.isTrue(attachment) ? "attachment" : "inline";
+        if (StringUtils.isNotEmpty(filename)) {
+            contentDisposition += "; " + getContentDispositionFilename(filename);
+        }
+        response.setHeader("Content-Disposition", contentDisposition);
+    }
+
+    /**
+     * Creates a strong entity tag. Files referenced by a {@link FileRef} are not supposed to change, the size and
+     * the modification time are included to detect files replaced in the storage.
+     */
+    private String createETag(FileRef fileReference, FileAttributes attributes) {
+        String source = fileReference.toString() + ":" + attributes.getSize() + ":"
+                + (attributes.getLastModified() != null ? attributes.getLastModified().toEpochMilli() : "");
+        return "\"" + Hashing.murmur3_128().hashString(source, UTF_8) + "\"";
+    }
+
+    private boolean isNotModified(HttpServletRequest request, String eTag, FileAttributes attributes) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = StringUtils.removeStart(tag.trim(), "W/");
+                if (tag.equals("*") || tag.equals(eTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Instant lastModified = attributes.getLastModified();
+        if (lastModified != null) {
+            long ifModifiedSince = getDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince >= 0 && truncateToSeconds(lastModified) <= ifModifiedSince;
+        }
+        return false;
+    }
+
+    /**
+     * @return satisfiable ranges requested by the {@code Range} header, an empty list if none of the ranges
+     * can be satisfied, or null if the whole file must be sent
+     */
+    @Nullable
+    private List<ByteRange> getRequestedRanges(HttpServletRequest request, String eTag, FileAttributes attributes) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !isIfRangeSatisfied(request, eTag, attributes)) {
+            return null;
+        }
+
+        List<HttpRange> httpRanges;
+        try {
+            httpRanges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring invalid Range header '{}'", rangeHeader);
+            return null;
+        }
+
+        long size = attributes.getSize();
+        List<ByteRange> ranges = new ArrayList<>(httpRanges.size());
+        long totalLength = 0;
+        for (HttpRange httpRange : httpRanges) {
+            if (size == 0) {
+                break;
+            }
+            try {
+                long start = httpRange.getRangeStart(size);
+                long end = httpRange.getRangeEnd(size);
+                if (start <= end) {
+                    ByteRange range = new ByteRange(start, end);
+                    ranges.add(range);
+                    totalLength += range.getLength();
+                }
+            } catch (IllegalArgumentException e) {
+                // the range starts after the end of the file
+            }
+        }
+        if (totalLength > size) {
+            // overlapping ranges, it is cheaper to send the whole file
+            return null;
+        }
+        return ranges;
+    }
+
+    private boolean isIfRangeSatisfied(HttpServletRequest request, String eTag, FileAttributes attributes) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+        long date = getDateHeader(request, HttpHeaders.IF_RANGE);
+        return attributes.getLastModified() != null && truncateToSeconds(attributes.getLastModified()) == date;
+    }
+
+    private void writeMultipartRanges(FileStorage fileStorage, FileRef fileReference, @Nullable String contentType,
+                                      List<ByteRange> ranges, long size,
+                                      HttpServletResponse response) throws IOException {
+        String boundary = MULTIPART_BOUNDARY_PREFIX + UUID.randomUUID();
+
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (ByteRange range : ranges) {
+            StringBuilder partHeader = new StringBuilder()
+                    .append("\r\n--").append(boundary).append("\r\n");
+            if (StringUtils.isNotEmpty(contentType)) {
+                partHeader.append(HttpHeaders.CONTENT_TYPE).append(": ").append(contentType).append("\r\n");
+            }
+            partHeader.append(HttpHeaders.CONTENT_RANGE).append(": ").append(range.toContentRange(size))
+                    .append("\r\n\r\n");
+            byte[] partHeaderBytes = partHeader.toString().getBytes(US_ASCII);
+            partHeaders.add(partHeaderBytes);
+            contentLength += partHeaderBytes.length + range.getLength();
+        }
+        byte[] closingBoundary = ("\r\n--" + boundary + "--\r\n").getBytes(US_ASCII);
+        contentLength += closingBoundary.length;
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+
+        ServletOutputStream os = response.getOutputStream();
+        for (int i = 0; i < ranges.size(); i++) {
+            ByteRange range = ranges.get(i);
+            os.write(partHeaders.get(i));
+            fileStorage.transferTo(fileReference, range.start, range.getLength(), os);
+        }
+        os.write(closingBoundary);
+    }
+
+    private long getDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private long truncateToSeconds(Instant instant) {
+        return instant.getEpochSecond() * 1000;
+    }
+
     private String getContentDispositionFilename(String filename) {
         String encodedFilename = rfc5987Encode(filename);
 
@@ -189,6 +433,25 @@ public class FileTransferServiceImpl implements FileTransferService {
         }
     }
 
+    private static class ByteRange {
+
+        private final long start;
+        private final long end;
+
+        private ByteRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private long getLength() {
+            return end - start + 1;
+        }
+
+        private String toContentRange(long size) {
+            return "bytes " + start + "-" + end + "/" + size;
+        }
+    }
+
     @Override
     public ResponseEntity<FileInfoResponse> fileUpload(String name,
                                                        String fileStorageName,
@@ -73,6 +73,12 @@ public class UnconstrainedDataManagerImpl implements UnconstrainedDataManager {
     @Autowired
     protected ObjectProvider<FluentValuesLoader> fluentValuesLoaderProvider;
 
+    @Autowired
+    protected ObjectProvider<FluentBulkUpdate> fluentBulkUpdateProvider;
+
+    @Autowired
+    protected ObjectProvider<FluentBulkDelete> fluentBulkDeleteProvider;
+
     @Autowired
     protected ObjectProvider<CrossDataStoreReferenceLoader> crossDataStoreReferenceLoaderProvider;
 
@@ -155,6 +161,32 @@ public class UnconstrainedDataManagerImpl implements UnconstrainedDataManager {
         remove(getReference(entityId));
     }
 
+    @Override
+    public long executeBulk(BulkOperationContext context) {
+        MetaClass metaClass = extendedEntities.getEffectiveMetaClass(context.getEntityMetaClass());
+        context.setEntityMetaClass(metaClass);
+        context.setAccessConstraints(mergeConstraints(context.getAccessConstraints()));
+
+        DataStore store = dataStoreFactory.get(getStoreName(metaClass));
+        return store.executeBulk(context);
+    }
+
+    @Override
+    public <E> FluentBulkUpdate<E> update(Class<E> entityClass) {
+        //noinspection unchecked
+        FluentBulkUpdate<E> fluentBulkUpdate = fluentBulkUpdateProvider.getObject(entityClass);
+        fluentBulkUpdate.setDataManager(this);
+        return fluentBulkUpdate;
+    }
+
+    @Override
+    public <E> FluentBulkDelete<E> delete(Class<E> entityClass) {
+        //noinspection unchecked
+        FluentBulkDelete<E> fluentBulkDelete = fluentBulkDeleteProvider.getObject(entityClass);
+        fluentBulkDelete.setDataManager(this);
+        return fluentBulkDelete;
+    }
+
     @Override
     public EntitySet save(SaveContext context) {
         context.setAccessConstraints(mergeConstraints(context.getAccessConstraints()));
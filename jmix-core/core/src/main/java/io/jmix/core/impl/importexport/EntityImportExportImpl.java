@@ -16,6 +16,12 @@
 
 package io.jmix.core.impl.importexport;
 
+import com.google.common.collect.Iterables;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import io.jmix.core.*;
 import io.jmix.core.accesscontext.InMemoryCrudEntityContext;
 import io.jmix.core.common.datastruct.Pair;
@@ -34,6 +40,8 @@ import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
@@ -46,10 +54,15 @@ import jakarta.validation.groups.Default;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import java.util.zip.CRC32;
 
 import static io.jmix.core.entity.EntitySystemAccess.getSecurityState;
@@ -58,6 +71,11 @@ import static java.lang.String.format;
 @Component("core_EntityImportExport")
 public class EntityImportExportImpl implements EntityImportExport {
 
+    /**
+     * Maximum number of ids passed to a single query when preloading entities.
+     */
+    protected static final int PRELOAD_BATCH_SIZE = 500;
+
     @Autowired
     protected EntitySerialization entitySerialization;
 
@@ -141,16 +159,101 @@ public class EntityImportExportImpl implements EntityImportExport {
                 EntitySerializationOption.COMPACT_REPEATED_ENTITIES, EntitySerializationOption.PRETTY_PRINT);
     }
 
+    @Override
+    public void exportEntitiesToZIP(Iterator<?> ids, FetchPlan fetchPlan, OutputStream outputStream, int batchSize,
+                                    @Nullable BatchProgressListener progressListener) {
+        checkBatchSize(batchSize);
+
+        ZipArchiveOutputStream zipOutputStream = new ZipArchiveOutputStream(CloseShieldOutputStream.wrap(outputStream));
+        zipOutputStream.setMethod(ZipArchiveOutputStream.STORED);
+        zipOutputStream.setEncoding(StandardCharsets.UTF_8.name());
+        try {
+            long exportedCount = 0;
+            int batchNumber = 0;
+            List<Object> batchIds;
+            while (!(batchIds = nextBatch(ids, batchSize)).isEmpty()) {
+                Collection<Object> entities = loadEntitiesByIds(batchIds, fetchPlan);
+                byte[] jsonBytes = entitySerialization.toJson(entities, null, EntitySerializationOption.COMPACT_REPEATED_ENTITIES)
+                        .getBytes(StandardCharsets.UTF_8);
+
+                zipOutputStream.putArchiveEntry(newStoredEntry(format("entities-%d.json", ++batchNumber), jsonBytes));
+                zipOutputStream.write(jsonBytes);
+                zipOutputStream.closeArchiveEntry();
+
+                exportedCount += entities.size();
+                if (progressListener != null) {
+                    progressListener.batchProcessed(entities.size(), exportedCount);
+                }
+            }
+            zipOutputStream.finish();
+        } catch (IOException e) {
+            throw new RuntimeException("Error on creating zip archive during entities export", e);
+        } finally {
+            IOUtils.closeQuietly(zipOutputStream);
+        }
+    }
+
+    @Override
+    public void exportEntitiesToJSON(Iterator<?> ids, FetchPlan fetchPlan, Writer writer, int batchSize,
+                                     @Nullable BatchProgressListener progressListener) {
+        checkBatchSize(batchSize);
+
+        try {
+            writer.write('[');
+            long exportedCount = 0;
+            List<Object> batchIds;
+            while (!(batchIds = nextBatch(ids, batchSize)).isEmpty()) {
+                Collection<Object> entities = loadEntitiesByIds(batchIds, fetchPlan);
+                if (!entities.isEmpty()) {
+                    String json = entitySerialization.toJson(entities, null, EntitySerializationOption.COMPACT_REPEATED_ENTITIES)
+                            .trim();
+                    if (exportedCount > 0) {
+                        writer.write(',');
+                    }
+                    // batches are serialized as separate arrays, so their brackets are stripped
+                    writer.write(json, 1, json.length() - 2);
+                    writer.flush();
+                }
+
+                exportedCount += entities.size();
+                if (progressListener != null) {
+                    progressListener.batchProcessed(entities.size(), exportedCount);
+                }
+            }
+            writer.write(']');
+            writer.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Error on writing JSON during entities export", e);
+        }
+    }
+
+    protected void checkBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+    }
+
+    protected List<Object> nextBatch(Iterator<?> ids, int batchSize) {
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && ids.hasNext()) {
+            batch.add(ids.next());
+        }
+        return batch;
+    }
+
     protected Collection reloadEntities(Collection<Object> entities, FetchPlan fetchPlan) {
         List ids = new ArrayList(entities.size());
         for (Object entity : entities) {
             ids.add(EntityValues.getId(entity));
         }
+        return loadEntitiesByIds(ids, fetchPlan);
+    }
 
+    protected Collection<Object> loadEntitiesByIds(List<?> ids, FetchPlan fetchPlan) {
         MetaClass metaClass = metadata.getClass(fetchPlan.getEntityClass());
         LoadContext.Query query = new LoadContext.Query("select e from " + metaClass.getName() + " e where e.id in :ids")
                 .setParameter("ids", ids);
-        LoadContext<?> ctx = new LoadContext(metadata.getClass(fetchPlan.getEntityClass()))
+        LoadContext<Object> ctx = new LoadContext<>(metaClass)
                 .setHint("jmix.softDeletion", false)
                 .setQuery(query)
                 .setFetchPlan(fetchPlan);
@@ -205,6 +308,127 @@ public class EntityImportExportImpl implements EntityImportExport {
         return IOUtils.toByteArray(archiveReader);
     }
 
+    @Override
+    public long importEntitiesFromJson(Reader reader, EntityImportPlan importPlan, int batchSize,
+                                       @Nullable BatchProgressListener progressListener) {
+        checkBatchSize(batchSize);
+        try {
+            return importJsonBatches(reader, importPlan, batchSize, progressListener, 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Exception occurred while importing entities", e);
+        }
+    }
+
+    @Override
+    public long importEntitiesFromZIP(InputStream inputStream, EntityImportPlan importPlan, int batchSize,
+                                      @Nullable BatchProgressListener progressListener) {
+        checkBatchSize(batchSize);
+
+        ZipArchiveInputStream archiveReader = new ZipArchiveInputStream(CloseShieldInputStream.wrap(inputStream));
+        long importedCount = 0;
+        try {
+            while (archiveReader.getNextZipEntry() != null) {
+                Reader reader = new InputStreamReader(archiveReader, StandardCharsets.UTF_8);
+                importedCount = importJsonBatches(reader, importPlan, batchSize, progressListener, importedCount);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Exception occurred while importing entities", e);
+        } finally {
+            IOUtils.closeQuietly(archiveReader);
+        }
+        return importedCount;
+    }
+
+    /**
+     * Parses JSON array of entities element by element and imports the entities in batches.
+     *
+     * @return total number of imported entities including {@code importedCount}
+     */
+    protected long importJsonBatches(Reader reader, EntityImportPlan importPlan, int batchSize,
+                                     @Nullable BatchProgressListener progressListener, long importedCount) throws IOException {
+        JsonReader jsonReader = new JsonReader(reader);
+        jsonReader.beginArray();
+        JsonArray batch = new JsonArray();
+        Map<String, JsonObject> definitions = new HashMap<>();
+        while (jsonReader.hasNext()) {
+            batch.add(resolveCompactedEntities(JsonParser.parseReader(jsonReader), definitions, true));
+            if (batch.size() == batchSize) {
+                importedCount = importJsonBatch(batch, importPlan, progressListener, importedCount);
+                batch = new JsonArray();
+            }
+        }
+        jsonReader.endArray();
+        if (batch.size() > 0) {
+            importedCount = importJsonBatch(batch, importPlan, progressListener, importedCount);
+        }
+        return importedCount;
+    }
+
+    /**
+     * Replaces entities written without attributes by {@link EntitySerializationOption#COMPACT_REPEATED_ENTITIES}
+     * with their definitions met before in the stream, so that a batch can be deserialized without the previous ones.
+     * Definitions of nested entities are kept until the end of the stream.
+     *
+     * @param element     JSON element to process
+     * @param definitions entity definitions met before by entity name and id
+     * @param topLevel    whether the element is an entity of the imported array
+     * @return the element or the definition replacing it
+     */
+    protected JsonElement resolveCompactedEntities(JsonElement element, Map<String, JsonObject> definitions,
+                                                   boolean topLevel) {
+        if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, resolveCompactedEntities(array.get(i), definitions, false));
+            }
+            return array;
+        }
+        if (!element.isJsonObject()) {
+            return element;
+        }
+
+        JsonObject jsonObject = element.getAsJsonObject();
+        JsonElement entityName = jsonObject.get(EntitySerialization.ENTITY_NAME_PROP);
+        JsonElement id = jsonObject.get("id");
+        String key = entityName != null && id != null ? entityName + ":" + id : null;
+        if (key != null && !hasEntityAttributes(jsonObject)) {
+            JsonObject definition = definitions.get(key);
+            return definition != null ? definition : jsonObject;
+        }
+
+        for (Map.Entry<String, JsonElement> entry : jsonObject.entrySet()) {
+            entry.setValue(resolveCompactedEntities(entry.getValue(), definitions, false));
+        }
+        if (key != null && !topLevel) {
+            definitions.putIfAbsent(key, jsonObject);
+        }
+        return jsonObject;
+    }
+
+    protected boolean hasEntityAttributes(JsonObject jsonObject) {
+        for (String name : jsonObject.keySet()) {
+            if (!EntitySerialization.ENTITY_NAME_PROP.equals(name) && !EntitySerialization.INSTANCE_NAME_PROP.equals(name)
+                    && !"id".equals(name) && !"__securityToken".equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected long importJsonBatch(JsonArray batch, EntityImportPlan importPlan,
+                                   @Nullable BatchProgressListener progressListener, long importedCount) {
+        Collection<Object> entities = entitySerialization.entitiesCollectionFromJson(batch.toString(),
+                null,
+                EntitySerializationOption.COMPACT_REPEATED_ENTITIES);
+        importEntities(entities, importPlan);
+
+        importedCount += entities.size();
+        if (progressListener != null) {
+            progressListener.batchProcessed(entities.size(), importedCount);
+        }
+        return importedCount;
+    }
+
     @Override
     public Collection importEntities(Collection entities, EntityImportPlan importPlan) {
         return importEntities(entities, importPlan, false, false);
@@ -230,31 +454,23 @@ public class EntityImportExportImpl implements EntityImportExport {
         //the reference that is imported in the same batch.
         //
         //1. entities that should be persisted are processed first, fields that should be references to existing entities
-        //are stored in the referenceInfoList variable
+        //are stored in the referenceInfoList variable. Existing entities are loaded beforehand with a query per
+        //meta-class instead of a query per entity
+        FetchPlan fetchPlan = constructFetchPlanFromImportPlan(importPlan).build();
+        LoadedEntities dstEntities = loadDestinationEntities(entities, fetchPlan);
         for (Object srcEntity : entities) {
-            EntityPreconditions.checkEntityType(srcEntity);
-            FetchPlan fetchPlan = constructFetchPlanFromImportPlan(importPlan).build();
-            //set softDeletion to false because we can import deleted entity, so we'll restore it and update
-
             Object dstEntity = null;
             Object entityId = EntityValues.getId(srcEntity);
             if (entityId != null) {
-                LoadContext<?> ctx = new LoadContext<>(metadata.getClass(srcEntity))
-                        .setFetchPlan(fetchPlan)
-                        .setHint("jmix.dynattr", true)
-                        .setHint("jmix.softDeletion", false)
-                        .setId(entityId)
-                        .setAccessConstraints(accessConstraintsRegistry.getConstraints());
-                dstEntity = dataManager.load(ctx);
+                dstEntity = dstEntities.get(metadata.getClass(srcEntity), entityId);
             }
             importEntity(srcEntity, dstEntity, importPlan, fetchPlan, saveContext, referenceInfoList, optimisticLocking, additionComposition);
         }
 
         //2. references to existing entities are processed
 
-        //store a list of loaded entities in the collection to prevent unnecessary database requests for searching the
-        //same instance
-        Set<Object> loadedEntities = new HashSet<>();
+        //referenced entities are loaded beforehand, so that searching for them doesn't require database requests
+        LoadedEntities loadedEntities = loadReferencedEntities(referenceInfoList, saveContext);
         for (ReferenceInfo referenceInfo : referenceInfoList) {
             processReferenceInfo(referenceInfo, saveContext, loadedEntities);
         }
@@ -312,7 +528,7 @@ public class EntityImportExportImpl implements EntityImportExport {
 
         importEntity(srcEntity, dstEntity, importPlan, fetchPlan, saveContext, referenceInfoList, optimisticLocking, additionComposition);
 
-        Set<Object> loadedEntities = new HashSet<>();
+        LoadedEntities loadedEntities = loadReferencedEntities(referenceInfoList, saveContext);
         for (ReferenceInfo referenceInfo : referenceInfoList) {
             processReferenceInfo(referenceInfo, saveContext, loadedEntities);
         }
@@ -632,7 +848,7 @@ public class EntityImportExportImpl implements EntityImportExport {
      * Method finds and set a reference value to the entity or throws EntityImportException if ERROR_ON_MISSING policy
      * is violated
      */
-    protected void processReferenceInfo(ReferenceInfo referenceInfo, SaveContext saveContext, Set<Object> loadedEntities) {
+    protected void processReferenceInfo(ReferenceInfo referenceInfo, SaveContext saveContext, LoadedEntities loadedEntities) {
         Object entity = referenceInfo.getEntity();
         EntityImportPlanProperty importPlanProperty = referenceInfo.getPlanProperty();
         MetaProperty metaProperty = metadata.getClass(entity).getProperty(importPlanProperty.getName());
@@ -749,25 +965,147 @@ public class EntityImportExportImpl implements EntityImportExport {
 
     @Nullable
     protected Object findReferenceEntity(Object entity, EntityImportPlanProperty importPlanProperty, SaveContext saveContext,
-                                         Set<Object> loadedEntities) {
-        Object result = Stream.concat(loadedEntities.stream(), saveContext.getEntitiesToSave().stream())
-                .filter(item -> item.equals(entity))
-                .findFirst().orElse(null);
-        if (result == null) {
-            LoadContext<?> ctx = new LoadContext<>(metadata.getClass(entity))
+                                         LoadedEntities loadedEntities) {
+        MetaClass metaClass = metadata.getClass(entity);
+        Object entityId = EntityValues.getId(entity);
+        Object result = loadedEntities.get(metaClass, entityId);
+        if (result == null && !loadedEntities.isMissing(metaClass, entityId)) {
+            LoadContext<?> ctx = new LoadContext<>(metaClass)
                     .setHint("jmix.softDeletion", false)
-                    .setFetchPlan(fetchPlanRepository.getFetchPlan(metadata.getClass(entity).getJavaClass(), FetchPlan.INSTANCE_NAME))
-                    .setId(EntityValues.getId(entity));
+                    .setFetchPlan(fetchPlanRepository.getFetchPlan(metaClass.getJavaClass(), FetchPlan.INSTANCE_NAME))
+                    .setId(entityId);
             result = dataManager.load(ctx);
             if (result == null) {
-                if (importPlanProperty.getReferenceImportBehaviour() == ReferenceImportBehaviour.ERROR_ON_MISSING) {
-                    throw new EntityImportException(String.format("Referenced entity for property '%s' is missing",
-                            importPlanProperty.getName()));
-                }
+                loadedEntities.setMissing(metaClass, entityId);
             } else {
-                loadedEntities.add(result);
+                loadedEntities.put(metaClass, entityId, result);
             }
         }
+        if (result == null && importPlanProperty.getReferenceImportBehaviour() == ReferenceImportBehaviour.ERROR_ON_MISSING) {
+            throw new EntityImportException(String.format("Referenced entity for property '%s' is missing",
+                    importPlanProperty.getName()));
+        }
+        return result;
+    }
+
+    /**
+     * Loads existing entities having the same ids as the imported ones, a query per meta-class.
+     *
+     * @param entities  entities that came to the {@code EntityImportExport} bean
+     * @param fetchPlan fetch plan constructed from the import plan
+     * @return loaded entities
+     */
+    protected LoadedEntities loadDestinationEntities(Collection<Object> entities, FetchPlan fetchPlan) {
+        Map<MetaClass, Set<Object>> idsByMetaClass = new LinkedHashMap<>();
+        for (Object entity : entities) {
+            EntityPreconditions.checkEntityType(entity);
+            Object entityId = EntityValues.getId(entity);
+            if (entityId != null) {
+                idsByMetaClass.computeIfAbsent(metadata.getClass(entity), k -> new LinkedHashSet<>()).add(entityId);
+            }
+        }
+
+        LoadedEntities loadedEntities = new LoadedEntities();
+        for (Map.Entry<MetaClass, Set<Object>> entry : idsByMetaClass.entrySet()) {
+            //set softDeletion to false because we can import deleted entity, so we'll restore it and update
+            List<Object> loaded = loadByIds(entry.getKey(), entry.getValue(), ctx -> ctx
+                    .setFetchPlan(fetchPlan)
+                    .setHint("jmix.dynattr", true)
+                    .setHint("jmix.softDeletion", false)
+                    .setAccessConstraints(accessConstraintsRegistry.getConstraints()));
+            for (Object entity : loaded) {
+                loadedEntities.put(entry.getKey(), EntityValues.getId(entity), entity);
+            }
+        }
+        return loadedEntities;
+    }
+
+    /**
+     * Collects entities referenced by the imported ones and loads the entities that are not being saved,
+     * a query per meta-class.
+     *
+     * @param referenceInfoList references collected while importing the entities
+     * @param saveContext       context containing the imported entities
+     * @return entities being saved and loaded referenced entities
+     */
+    protected LoadedEntities loadReferencedEntities(Collection<ReferenceInfo> referenceInfoList, SaveContext saveContext) {
+        LoadedEntities loadedEntities = new LoadedEntities();
+        for (Object entity : saveContext.getEntitiesToSave()) {
+            Object entityId = EntityValues.getId(entity);
+            if (entityId != null) {
+                loadedEntities.put(metadata.getClass(entity), entityId, entity);
+            }
+        }
+
+        Map<MetaClass, Set<Object>> idsByMetaClass = new LinkedHashMap<>();
+        for (ReferenceInfo referenceInfo : referenceInfoList) {
+            Object propertyValue = referenceInfo.getPropertyValue();
+            Collection<?> references = propertyValue instanceof Collection<?> collection
+                    ? collection
+                    : Collections.singletonList(propertyValue);
+            for (Object reference : references) {
+                if (reference == null) {
+                    continue;
+                }
+                MetaClass metaClass = metadata.getClass(reference);
+                Object referenceId = EntityValues.getId(reference);
+                if (referenceId != null && loadedEntities.get(metaClass, referenceId) == null) {
+                    idsByMetaClass.computeIfAbsent(metaClass, k -> new LinkedHashSet<>()).add(referenceId);
+                }
+            }
+        }
+
+        for (Map.Entry<MetaClass, Set<Object>> entry : idsByMetaClass.entrySet()) {
+            MetaClass metaClass = entry.getKey();
+            List<Object> loaded = loadByIds(metaClass, entry.getValue(), ctx -> ctx
+                    .setHint("jmix.softDeletion", false)
+                    .setFetchPlan(fetchPlanRepository.getFetchPlan(metaClass.getJavaClass(), FetchPlan.INSTANCE_NAME)));
+            for (Object entity : loaded) {
+                loadedEntities.put(metaClass, EntityValues.getId(entity), entity);
+            }
+            for (Object id : entry.getValue()) {
+                if (loadedEntities.get(metaClass, id) == null) {
+                    loadedEntities.setMissing(metaClass, id);
+                }
+            }
+        }
+        return loadedEntities;
+    }
+
+    /**
+     * Loads existing entities with the given ids. Unlike {@link LoadContext#setIds(Collection)}, missing ids don't
+     * cause an exception, the corresponding entities are just absent from the result.
+     *
+     * @param metaClass          meta-class of the entities
+     * @param ids                ids of the entities
+     * @param contextInitializer sets fetch plan, hints and constraints of the load contexts
+     * @return loaded entities
+     */
+    protected List<Object> loadByIds(MetaClass metaClass, Collection<Object> ids,
+                                     Consumer<LoadContext<Object>> contextInitializer) {
+        List<Object> result = new ArrayList<>(ids.size());
+        String primaryKeyName = metadataTools.getPrimaryKeyName(metaClass);
+        if (primaryKeyName == null || !metadataTools.isJpaEntity(metaClass)
+                || metadataTools.hasCompositePrimaryKey(metaClass)) {
+            // the query is not supported by the data store, so the entities are loaded one by one
+            for (Object id : ids) {
+                LoadContext<Object> ctx = new LoadContext<>(metaClass).setId(id);
+                contextInitializer.accept(ctx);
+                Object entity = dataManager.load(ctx);
+                if (entity != null) {
+                    result.add(entity);
+                }
+            }
+            return result;
+        }
+
+        String queryString = format("select e from %s e where e.%s in :ids", metaClass.getName(), primaryKeyName);
+        for (List<Object> batch : Iterables.partition(ids, PRELOAD_BATCH_SIZE)) {
+            LoadContext<Object> ctx = new LoadContext<>(metaClass)
+                    .setQuery(new LoadContext.Query(queryString).setParameter("ids", batch));
+            contextInitializer.accept(ctx);
+            result.addAll(dataManager.loadList(ctx));
+        }
         return result;
     }
 
@@ -829,4 +1167,35 @@ public class EntityImportExportImpl implements EntityImportExport {
             return propertyValue;
         }
     }
+
+    /**
+     * Entities found by id during the import.
+     */
+    protected static class LoadedEntities {
+
+        protected final Map<MetaClass, Map<Object, Object>> entities = new HashMap<>();
+        protected final Map<MetaClass, Set<Object>> missingIds = new HashMap<>();
+
+        @Nullable
+        public Object get(MetaClass metaClass, Object id) {
+            Map<Object, Object> entitiesById = entities.get(metaClass);
+            return entitiesById != null ? entitiesById.get(id) : null;
+        }
+
+        public void put(MetaClass metaClass, Object id, Object entity) {
+            entities.computeIfAbsent(metaClass, k -> new HashMap<>()).put(id, entity);
+        }
+
+        /**
+         * @return true if the entity has been searched for and doesn't exist
+         */
+        public boolean isMissing(MetaClass metaClass, Object id) {
+            Set<Object> ids = missingIds.get(metaClass);
+            return ids != null && ids.contains(id);
+        }
+
+        public void setMissing(MetaClass metaClass, Object id) {
+            missingIds.computeIfAbsent(metaClass, k -> new HashSet<>()).add(id);
+        }
+    }
 }
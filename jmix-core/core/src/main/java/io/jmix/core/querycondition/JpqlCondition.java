@@ -148,6 +148,11 @@ public class JpqlCondition extends SkippableCondition<JpqlCondition> {
         return excludedParameters;
     }
 
+    @Override
+    public String toString() {
+        return "[" + (join != null ? "join " + join + " " : "") + "where " + where + "]";
+    }
+
     protected void parseParameters(String value) {
         Matcher matcher = PARAMETER_PATTERN.matcher(value);
         while (matcher.find()) {
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package file_storage
+
+import io.jmix.core.FileRef
+import io.jmix.core.FileStorageException
+import io.jmix.core.filestorage.DeduplicatingFileStorage
+import io.jmix.core.filestorage.JournalFileContentIndex
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+import test_support.app.TestFileStorage
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+
+class DeduplicatingFileStorageTest extends Specification {
+
+    Path workDir
+    TestFileStorage delegate
+    JournalFileContentIndex index
+    DeduplicatingFileStorage storage
+
+    void setup() {
+        workDir = Files.createTempDirectory('dedup-test')
+        delegate = new TestFileStorage()
+        index = new JournalFileContentIndex(workDir.resolve('index'))
+        storage = new DeduplicatingFileStorage('dedup', delegate, index, workDir.resolve('temp'))
+    }
+
+    void cleanup() {
+        index.close()
+        workDir.toFile().deleteDir()
+    }
+
+    def "same content is stored once"() {
+        when:
+        FileRef first = save('report.pdf', 'content')
+        FileRef second = save('copy-of-report.pdf', 'content')
+
+        then:
+        delegate.files.size() == 1
+        first.path == second.path
+        first.path ==~ /[0-9a-f]{64}/
+        second.fileName == 'copy-of-report.pdf'
+        read(first) == 'content'
+        read(second) == 'content'
+        storage.storedFiles == 1
+        storage.deduplicatedFiles == 1
+        storage.deduplicatedBytes == 'content'.length()
+        index.blobCount == 1
+        index.referenceCount == 2
+        !Files.list(workDir.resolve('temp')).findAny().isPresent()
+    }
+
+    def "blob is deleted when the last reference is removed"() {
+        FileRef first = save('a.txt', 'content')
+        FileRef second = save('b.txt', 'content')
+
+        when:
+        storage.removeFile(first)
+
+        then:
+        delegate.files.size() == 1
+        storage.fileExists(second)
+
+        when:
+        storage.removeFile(second)
+
+        then:
+        delegate.files.isEmpty()
+        !storage.fileExists(second)
+        storage.reclaimedBlobs == 1
+        storage.reclaimedBytes == 'content'.length()
+        index.blobCount == 0
+
+        when:
+        storage.openStream(second)
+
+        then:
+        thrown(FileStorageException)
+    }
+
+    def "index is restored from the journal"() {
+        FileRef first = save('a.txt', 'first')
+        FileRef second = save('b.txt', 'second')
+        save('c.txt', 'second')
+        storage.removeFile(first)
+        index.close()
+
+        when:
+        index = new JournalFileContentIndex(workDir.resolve('index'))
+        storage = new DeduplicatingFileStorage('dedup', delegate, index, workDir.resolve('temp'))
+
+        then:
+        index.blobCount == 1
+        index.referenceCount == 2
+        !storage.fileExists(first)
+        read(second) == 'second'
+    }
+
+    def "journal is compacted"() {
+        index.compactionThreshold = 5
+
+        when:
+        10.times {
+            FileRef fileRef = save("file${it}.txt", "content ${it % 2}")
+            if (it < 8) {
+                storage.removeFile(fileRef)
+            }
+        }
+        index.close()
+        index = new JournalFileContentIndex(workDir.resolve('index'))
+
+        then:
+        Files.readAllLines(workDir.resolve('index').resolve(JournalFileContentIndex.JOURNAL_FILE_NAME)).size() <= 7
+        index.blobCount == 2
+        index.referenceCount == 2
+    }
+
+    def "metrics are registered"() {
+        def registry = new SimpleMeterRegistry()
+        storage.bindTo(registry)
+
+        when:
+        save('a.txt', 'content')
+        save('b.txt', 'content')
+
+        then:
+        registry.get('jmix.FileStorage.dedup.files').tag('result', 'deduplicated').functionCounter().count() == 1
+        registry.get('jmix.FileStorage.dedup.deduplicatedBytes').functionCounter().count() == 'content'.length()
+        registry.get('jmix.FileStorage.dedup.references').gauge().value() == 2
+    }
+
+    private FileRef save(String fileName, String content) {
+        storage.saveStream(fileName, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)))
+    }
+
+    private String read(FileRef fileRef) {
+        storage.openStream(fileRef).withCloseable { new String(it.bytes, StandardCharsets.UTF_8) }
+    }
+}
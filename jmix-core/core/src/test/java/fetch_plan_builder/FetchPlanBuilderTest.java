@@ -17,6 +17,7 @@
 package fetch_plan_builder;
 
 import io.jmix.core.*;
+import io.jmix.core.impl.FetchPlanInterner;
 import io.jmix.core.metamodel.model.MetaProperty;
 import io.jmix.core.metamodel.model.MetadataObject;
 import org.junit.jupiter.api.Test;
@@ -48,6 +49,12 @@ public class FetchPlanBuilderTest {
     @Autowired
     private Metadata metadata;
 
+    @Autowired
+    private FetchPlanInterner fetchPlanInterner;
+
+    @Autowired
+    private FetchPlanRepository fetchPlanRepository;
+
     @Test
     public void testBuild() {
         FetchPlan view = fetchPlans.builder(Pet.class).build();
@@ -274,6 +281,44 @@ public class FetchPlanBuilderTest {
         assertEquals(FetchMode.UNDEFINED, orderFP.getProperty("orderLines").getFetchPlan().getProperty("product").getFetchMode());
     }
 
+    @Test
+    public void testInterning() {
+        long hitCount = fetchPlanInterner.getStats().hitCount();
+
+        FetchPlan orderFP1 = fetchPlans.builder(Order.class)
+                .addFetchPlan(FetchPlan.BASE)
+                .add("orderLines", FetchPlan.BASE)
+                .build();
+        FetchPlan orderFP2 = fetchPlans.builder(Order.class)
+                .addFetchPlan(FetchPlan.BASE)
+                .add("orderLines", FetchPlan.BASE)
+                .build();
+
+        assertSame(orderFP1, orderFP2);
+        assertSame(orderFP1.getProperty("orderLines").getFetchPlan(), orderFP2.getProperty("orderLines").getFetchPlan());
+        assertTrue(fetchPlanInterner.getStats().hitCount() > hitCount);
+
+        FetchPlan orderFP3 = fetchPlans.builder(Order.class)
+                .addFetchPlan(FetchPlan.BASE)
+                .add("orderLines", FetchPlan.INSTANCE_NAME)
+                .build();
+
+        assertNotSame(orderFP1, orderFP3);
+        assertNotEquals(orderFP1, orderFP3);
+    }
+
+    @Test
+    public void testRepositoryFetchPlansAreInterned() {
+        FetchPlan baseFP = fetchPlanRepository.getFetchPlan(Order.class, FetchPlan.BASE);
+
+        FetchPlan builtFP = fetchPlans.builder(Order.class)
+                .addFetchPlan(baseFP)
+                .name(FetchPlan.BASE)
+                .build();
+
+        assertSame(baseFP, builtFP);
+    }
+
     private boolean containsBaseProperties(FetchPlan fetchPlan) {
         Collection<MetaProperty> properties = metadata.getClass(fetchPlan.getEntityClass()).getProperties();
         return properties.stream()
@@ -53,6 +53,17 @@ public class PersistenceHints {
      */
     public static final String MSSQL_RECOMPILE_HINT = "jmix.mssql.recompile";
 
+    /**
+     * Defines a Jmix load hint which enables loading from a read replica if the data source of the data store is
+     * {@link io.jmix.data.impl.ReadReplicaRoutingDataSource}. Loads that do not join a transaction use replicas
+     * without the hint, the {@code false} value of the hint makes them use the primary data source.
+     * <p>Usage examples:
+     * <pre>
+     *    dataManager.load(Customer.class).all().hint(PersistenceHints.READ_REPLICA, true).list();
+     * </pre>
+     */
+    public static final String READ_REPLICA = "jmix.readReplica";
+
     public static boolean isSoftDeletion(EntityManager entityManager) {
         Boolean softDeletion = (Boolean) entityManager.getProperties().get(SOFT_DELETION);
         return softDeletion == null || softDeletion;
@@ -17,6 +17,7 @@
 package io.jmix.data.impl;
 
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.jmix.core.Metadata;
 import io.jmix.core.MetadataTools;
 import io.jmix.core.annotation.Internal;
@@ -24,22 +25,37 @@ import io.jmix.core.entity.annotation.JmixGeneratedValue;
 import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetaProperty;
 import io.jmix.data.DataProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import org.springframework.lang.Nullable;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Intermediate cache for generated ids of entities with long/integer PK.
  * The cache size is determined by the {@code jmix.data.numberIdCacheSize} property.
+ * <p>
+ * Ids are taken from blocks of sequence values without locking. When half of a block is taken, the next block
+ * is requested from the sequence in background, so that threads rarely wait for the database.
  */
 @Component("data_NumberIdCache")
 public class NumberIdCache {
 
+    private static final Logger log = LoggerFactory.getLogger(NumberIdCache.class);
+
     @Autowired
     protected Metadata metadata;
     @Autowired
@@ -49,49 +65,130 @@ public class NumberIdCache {
     @Autowired
     private MetadataTools metadataTools;
 
+    // sequence name or entity name -> generator
     protected ConcurrentMap<String, Generator> cache = new ConcurrentHashMap<>();
+    // entity name -> generator, to avoid resolving sequence parameters on each call
+    protected ConcurrentMap<String, Generator> entityGenerators = new ConcurrentHashMap<>();
+
+    protected ExecutorService prefetchExecutor = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("NumberIdCache-%d")
+                    .setDaemon(true)
+                    .build());
+
+    @PreDestroy
+    public void destroy() {
+        prefetchExecutor.shutdownNow();
+    }
 
     protected class Generator {
-        protected long counter;
-        protected long sequenceValue;
         protected String entityName;
         protected String sequenceName;
         protected boolean cached;
 
+        protected final AtomicReference<Block> currentBlock = new AtomicReference<>(new Block(0, 0));
+        protected final AtomicReference<CompletableFuture<Block>> nextBlock = new AtomicReference<>();
+
         public Generator(String entityName,
                          @Nullable String sequenceName,
                          boolean cached) {
             this.entityName = entityName;
             this.sequenceName = sequenceName;
             this.cached = cached;
-            if (useIdCache()) {
-                createCachedCounter();
-            }
         }
 
         protected boolean useIdCache() {
             return dataProperties.getNumberIdCacheSize() != 0 && cached;
         }
 
-        protected void createCachedCounter() {
-            sequenceValue = numberIdWorker.createCachedLongId(entityName, sequenceName);
-            counter = sequenceValue;
-        }
-
-        public synchronized long getNext() {
+        public long getNext() {
             if (!useIdCache()) {
                 return numberIdWorker.createLongId(entityName, sequenceName);
-            } else {
-                long next = ++counter;
-                if (next > sequenceValue + dataProperties.getNumberIdCacheSize()) {
-                    createCachedCounter();
-                    next = ++counter;
+            }
+            while (true) {
+                Block block = currentBlock.get();
+                long next = block.counter.incrementAndGet();
+                if (next <= block.limit) {
+                    if (next == block.prefetchAt) {
+                        requestNextBlock(true);
+                    }
+                    return next;
+                }
+
+                // the block is exhausted, all threads wait for the same next block
+                CompletableFuture<Block> future = requestNextBlock(false);
+                Block fetchedBlock = await(future);
+                if (currentBlock.compareAndSet(block, fetchedBlock)) {
+                    nextBlock.compareAndSet(future, null);
+                }
+                // otherwise another block has been installed, and the fetched one remains the next block
+            }
+        }
+
+        protected CompletableFuture<Block> requestNextBlock(boolean async) {
+            while (true) {
+                CompletableFuture<Block> future = nextBlock.get();
+                if (future != null) {
+                    return future;
+                }
+                CompletableFuture<Block> created = new CompletableFuture<>();
+                if (nextBlock.compareAndSet(null, created)) {
+                    if (async) {
+                        try {
+                            prefetchExecutor.execute(() -> fetchBlock(created));
+                        } catch (RejectedExecutionException e) {
+                            fetchBlock(created);
+                        }
+                    } else {
+                        fetchBlock(created);
+                    }
+                    return created;
+                }
+            }
+        }
+
+        protected void fetchBlock(CompletableFuture<Block> future) {
+            try {
+                int size = dataProperties.getNumberIdCacheSize();
+                long sequenceValue = numberIdWorker.createCachedLongId(entityName, sequenceName);
+                future.complete(new Block(sequenceValue, size));
+            } catch (RuntimeException e) {
+                log.debug("Cannot get next block of ids for {}", entityName, e);
+                // let the next call request the block again
+                nextBlock.compareAndSet(future, null);
+                future.completeExceptionally(e);
+            }
+        }
+
+        protected Block await(CompletableFuture<Block> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
                 }
-                return next;
+                throw e;
             }
         }
     }
 
+    /**
+     * Range of ids {@code (counter, limit]} obtained from a sequence.
+     */
+    protected static class Block {
+
+        protected final AtomicLong counter;
+        protected final long limit;
+        // id on taking which the next block is requested
+        protected final long prefetchAt;
+
+        protected Block(long sequenceValue, int size) {
+            this.counter = new AtomicLong(sequenceValue);
+            this.limit = sequenceValue + size;
+            this.prefetchAt = size > 1 ? sequenceValue + size / 2 : Long.MAX_VALUE;
+        }
+    }
+
     protected static class SequenceParams {
 
         public final String name;
@@ -115,6 +212,11 @@ public class NumberIdCache {
      * @return next id
      */
     public Long createLongId(String entityName) {
+        Generator gen = entityGenerators.computeIfAbsent(entityName, this::getGenerator);
+        return gen.getNext();
+    }
+
+    protected Generator getGenerator(String entityName) {
         MetaClass metaClass = metadata.findClass(entityName);
         SequenceParams sequenceParams;
         if (metaClass != null) {
@@ -123,11 +225,10 @@ public class NumberIdCache {
             sequenceParams = new SequenceParams();
         }
 
-        Generator gen = cache.computeIfAbsent(
+        return cache.computeIfAbsent(
                 getCacheKey(entityName, sequenceParams.name),
                 s -> new Generator(entityName, sequenceParams.name, sequenceParams.cached)
         );
-        return gen.getNext();
     }
 
     protected SequenceParams getSequenceParams(MetaClass metaClass) {
@@ -151,6 +252,7 @@ public class NumberIdCache {
      */
     @Internal
     public void reset() {
+        entityGenerators.clear();
         cache.clear();
     }
 
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.data.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.lang.Nullable;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data source that routes connections of read-only loads to read replicas of the primary database.
+ * <p>
+ * Connections are obtained from the primary data source unless replica reads are enabled for the current thread
+ * by {@link #setReplicaRoute(boolean)}. {@code JpaDataStore} enables them for loads that do not join a transaction
+ * or have the {@link io.jmix.data.PersistenceHints#READ_REPLICA} hint, if the data source of the store is an
+ * instance of this class. Loads executed inside write transactions and loads of users that saved data during the
+ * last {@link #setReadYourWritesWindow(Duration) read-your-writes window} always go to the primary data source.
+ * <p>
+ * Replicas are used in turn. A replica that failed to provide a valid connection is excluded from routing
+ * until the {@link #setHealthCheckInterval(Duration) health check interval} passes, and the connection is obtained
+ * from the primary data source instead.
+ * <p>
+ * Routing is reported to Micrometer by the {@code jmix.data.read-replica.connections} counter with the
+ * {@code datasource} and {@code route} tags and the {@code jmix.data.read-replica.healthy} gauge.
+ * <p>
+ * Example of configuration of the main data store:
+ * <pre>
+ * &#64;Bean
+ * &#64;Primary
+ * DataSource dataSource(...) {
+ *     return new ReadReplicaRoutingDataSource("main", primaryDataSource, List.of(replicaDataSource));
+ * }
+ * </pre>
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource {
+
+    public static final String PRIMARY_ROUTE = "primary";
+    public static final String REPLICA_ROUTE_PREFIX = "replica-";
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> replicaRoute = new ThreadLocal<>();
+
+    protected final String name;
+    protected final DataSource primary;
+    protected final List<Replica> replicas = new ArrayList<>();
+
+    protected final AtomicInteger nextReplica = new AtomicInteger();
+
+    protected Duration readYourWritesWindow = Duration.ofSeconds(5);
+    protected Duration healthCheckInterval = Duration.ofSeconds(10);
+    protected int healthCheckTimeoutSec = 1;
+
+    // user key -> time of the last commit
+    protected volatile Cache<String, Long> recentWriters;
+
+    protected MeterRegistry meterRegistry = Metrics.globalRegistry;
+    protected Counter primaryCounter;
+    protected Counter fallbackCounter;
+
+    /**
+     * @param name     name of the data source used in metrics, for example the data store name
+     * @param primary  data source of the primary database
+     * @param replicas data sources of read replicas
+     */
+    public ReadReplicaRoutingDataSource(String name, DataSource primary, List<DataSource> replicas) {
+        this.name = name;
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica(REPLICA_ROUTE_PREFIX + (i + 1), replicas.get(i)));
+        }
+        recentWriters = createRecentWritersCache();
+        registerMeters();
+    }
+
+    /**
+     * Sets whether connections obtained in the current thread go to replicas.
+     *
+     * @return previous value
+     */
+    public static boolean setReplicaRoute(boolean enabled) {
+        boolean previous = isReplicaRoute();
+        if (enabled) {
+            replicaRoute.set(Boolean.TRUE);
+        } else {
+            replicaRoute.remove();
+        }
+        return previous;
+    }
+
+    /**
+     * @return whether connections obtained in the current thread go to replicas
+     */
+    public static boolean isReplicaRoute() {
+        return replicaRoute.get() != null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * @return period after a user's commit during which the user's loads go to the primary data source
+     */
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    /**
+     * Sets period after a user's commit during which the user's loads go to the primary data source. Default is 5 sec.
+     */
+    public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.recentWriters = createRecentWritersCache();
+    }
+
+    /**
+     * @return period during which a failed replica is excluded from routing
+     */
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    /**
+     * Sets period during which a failed replica is excluded from routing. Default is 10 sec.
+     */
+    public void setHealthCheckInterval(Duration healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    /**
+     * Sets timeout in seconds of the connection validation performed when a replica is used after
+     * the health check interval. Default is 1 sec.
+     */
+    public void setHealthCheckTimeoutSec(int healthCheckTimeoutSec) {
+        this.healthCheckTimeoutSec = healthCheckTimeoutSec;
+    }
+
+    /**
+     * Sets the registry to report routing metrics to. Default is {@link Metrics#globalRegistry}.
+     */
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        registerMeters();
+    }
+
+    /**
+     * Registers a commit of the user, so that the user's loads go to the primary data source during
+     * the read-your-writes window.
+     */
+    public void registerWrite(String userKey) {
+        recentWriters.put(userKey, System.nanoTime());
+    }
+
+    /**
+     * @return whether the user has committed changes during the read-your-writes window
+     */
+    public boolean isRecentWriter(String userKey) {
+        return recentWriters.getIfPresent(userKey) != null;
+    }
+
+    /**
+     * @return number of replicas currently used for routing
+     */
+    public int getHealthyReplicasCount() {
+        long now = System.nanoTime();
+        return (int) replicas.stream().filter(replica -> replica.isAvailable(now)).count();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(@Nullable String username, @Nullable String password) throws SQLException {
+        if (isReplicaRoute() && !replicas.isEmpty()) {
+            Connection connection = getReplicaConnection(username, password);
+            if (connection != null) {
+                return connection;
+            }
+            fallbackCounter.increment();
+        }
+        primaryCounter.increment();
+        return getConnection(primary, username, password);
+    }
+
+    @Nullable
+    protected Connection getReplicaConnection(@Nullable String username, @Nullable String password) {
+        long now = System.nanoTime();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.isAvailable(now)) {
+                continue;
+            }
+            Connection connection = null;
+            try {
+                connection = getConnection(replica.dataSource, username, password);
+                if (replica.failedAt != 0 && !connection.isValid(healthCheckTimeoutSec)) {
+                    throw new SQLException("Connection is not valid");
+                }
+                replica.failedAt = 0;
+                replica.counter.increment();
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Read replica {} of {} is unavailable: {}", replica.route, name, e.toString());
+                closeQuietly(connection);
+                // zero means healthy
+                replica.failedAt = now == 0 ? 1 : now;
+            }
+        }
+        return null;
+    }
+
+    protected Connection getConnection(DataSource dataSource, @Nullable String username, @Nullable String password)
+            throws SQLException {
+        return username != null ? dataSource.getConnection(username, password) : dataSource.getConnection();
+    }
+
+    protected void closeQuietly(@Nullable Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Unable to close connection", e);
+            }
+        }
+    }
+
+    protected Cache<String, Long> createRecentWritersCache() {
+        return CacheBuilder.newBuilder()
+                .expireAfterWrite(readYourWritesWindow.toNanos(), TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    protected void registerMeters() {
+        primaryCounter = createCounter(PRIMARY_ROUTE);
+        fallbackCounter = Counter.builder("jmix.data.read-replica.fallbacks")
+                .tag("datasource", name)
+                .register(meterRegistry);
+        for (Replica replica : replicas) {
+            replica.counter = createCounter(replica.route);
+        }
+        Gauge.builder("jmix.data.read-replica.healthy", this, ReadReplicaRoutingDataSource::getHealthyReplicasCount)
+                .tag("datasource", name)
+                .register(meterRegistry);
+    }
+
+    protected Counter createCounter(String route) {
+        return Counter.builder("jmix.data.read-replica.connections")
+                .tag("datasource", name)
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    protected class Replica {
+
+        protected final String route;
+        protected final DataSource dataSource;
+
+        protected Counter counter;
+        // System.nanoTime() of the last failure, 0 if the replica is healthy
+        protected volatile long failedAt;
+
+        protected Replica(String route, DataSource dataSource) {
+            this.route = route;
+            this.dataSource = dataSource;
+        }
+
+        protected boolean isAvailable(long now) {
+            return failedAt == 0 || now - failedAt >= healthCheckInterval.toNanos();
+        }
+    }
+}
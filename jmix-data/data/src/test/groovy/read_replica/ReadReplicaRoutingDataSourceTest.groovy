@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package read_replica
+
+import io.jmix.data.impl.ReadReplicaRoutingDataSource
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.sql.SQLException
+import java.time.Duration
+
+class ReadReplicaRoutingDataSourceTest extends Specification {
+
+    EmbeddedDatabase primary
+    EmbeddedDatabase replica
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    ReadReplicaRoutingDataSource dataSource
+
+    void setup() {
+        primary = createDatabase('primary')
+        replica = createDatabase('replica')
+        dataSource = new ReadReplicaRoutingDataSource('test', primary, [replica as DataSource])
+        dataSource.setMeterRegistry(meterRegistry)
+    }
+
+    void cleanup() {
+        ReadReplicaRoutingDataSource.setReplicaRoute(false)
+        primary.shutdown()
+        replica.shutdown()
+    }
+
+    def "connections go to the primary by default and to the replica on replica route"() {
+        def jdbcTemplate = new JdbcTemplate(dataSource)
+
+        expect:
+        jdbcTemplate.queryForObject('select NAME from TEST_SERVER', String) == 'primary'
+
+        when:
+        ReadReplicaRoutingDataSource.setReplicaRoute(true)
+
+        then:
+        jdbcTemplate.queryForObject('select NAME from TEST_SERVER', String) == 'replica'
+        connectionsCount('primary') == 1
+        connectionsCount('replica-1') == 1
+    }
+
+    def "replica route is restored"() {
+        when:
+        def previous = ReadReplicaRoutingDataSource.setReplicaRoute(true)
+        def current = ReadReplicaRoutingDataSource.setReplicaRoute(previous)
+
+        then:
+        !previous
+        current
+        !ReadReplicaRoutingDataSource.isReplicaRoute()
+    }
+
+    def "failing replica is excluded and connections fall back to the primary"() {
+        def failingReplica = Mock(DataSource) {
+            getConnection() >> { throw new SQLException('Connection refused') }
+        }
+        dataSource = new ReadReplicaRoutingDataSource('failing', primary, [failingReplica])
+        dataSource.setMeterRegistry(meterRegistry)
+        dataSource.setHealthCheckInterval(Duration.ofMinutes(1))
+        def jdbcTemplate = new JdbcTemplate(dataSource)
+        ReadReplicaRoutingDataSource.setReplicaRoute(true)
+
+        expect:
+        dataSource.healthyReplicasCount == 1
+
+        when:
+        def first = jdbcTemplate.queryForObject('select NAME from TEST_SERVER', String)
+        def second = jdbcTemplate.queryForObject('select NAME from TEST_SERVER', String)
+
+        then:
+        first == 'primary'
+        second == 'primary'
+        dataSource.healthyReplicasCount == 0
+        meterRegistry.get('jmix.data.read-replica.fallbacks').tag('datasource', 'failing').counter().count() == 2
+    }
+
+    def "recent writers are remembered during the read-your-writes window"() {
+        dataSource.setReadYourWritesWindow(Duration.ofMillis(100))
+
+        when:
+        dataSource.registerWrite('user1')
+
+        then:
+        dataSource.isRecentWriter('user1')
+        !dataSource.isRecentWriter('user2')
+
+        when:
+        Thread.sleep(200)
+
+        then:
+        !dataSource.isRecentWriter('user1')
+    }
+
+    private double connectionsCount(String route) {
+        meterRegistry.get('jmix.data.read-replica.connections')
+                .tag('datasource', 'test')
+                .tag('route', route)
+                .counter().count()
+    }
+
+    private static EmbeddedDatabase createDatabase(String serverName) {
+        def database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.HSQL)
+                .build()
+        def jdbcTemplate = new JdbcTemplate(database)
+        jdbcTemplate.execute('create table TEST_SERVER (NAME varchar(50))')
+        jdbcTemplate.update('insert into TEST_SERVER (NAME) values (?)', serverName)
+        return database
+    }
+}
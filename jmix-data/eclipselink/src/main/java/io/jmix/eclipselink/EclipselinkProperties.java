@@ -23,11 +23,71 @@ import org.springframework.boot.context.properties.bind.DefaultValue;
 public class EclipselinkProperties {
     boolean queryCacheEnabled;
 
-    public EclipselinkProperties(@DefaultValue("true") boolean queryCacheEnabled) {
+    /**
+     * Whether a lazy loaded reference or collection is loaded at once for all entities of the same load when it is
+     * accessed in one of them.
+     */
+    boolean batchLazyLoadingEnabled;
+
+    /**
+     * Maximum number of fetch group descriptions calculated for fetch plans and queries kept in the cache.
+     * Zero disables the cache.
+     */
+    int fetchGroupCacheSize;
+
+    /**
+     * Whether inserts, updates and deletes are sent to the database in JDBC batches, and new entities are persisted
+     * in the order of dependencies between their types. Explicitly set {@code eclipselink.jdbc.batch-writing}
+     * property takes precedence.
+     */
+    boolean batchWritingEnabled;
+
+    /**
+     * Maximum number of statements in a JDBC batch if {@link #batchWritingEnabled} is true.
+     */
+    int batchWritingSize;
+
+    public EclipselinkProperties(@DefaultValue("true") boolean queryCacheEnabled,
+                                 @DefaultValue("true") boolean batchLazyLoadingEnabled,
+                                 @DefaultValue("1000") int fetchGroupCacheSize,
+                                 @DefaultValue("false") boolean batchWritingEnabled,
+                                 @DefaultValue("100") int batchWritingSize) {
         this.queryCacheEnabled = queryCacheEnabled;
+        this.batchLazyLoadingEnabled = batchLazyLoadingEnabled;
+        this.fetchGroupCacheSize = fetchGroupCacheSize;
+        this.batchWritingEnabled = batchWritingEnabled;
+        this.batchWritingSize = batchWritingSize;
     }
 
     public boolean isQueryCacheEnabled() {
         return queryCacheEnabled;
     }
+
+    /**
+     * @see #batchLazyLoadingEnabled
+     */
+    public boolean isBatchLazyLoadingEnabled() {
+        return batchLazyLoadingEnabled;
+    }
+
+    /**
+     * @see #fetchGroupCacheSize
+     */
+    public int getFetchGroupCacheSize() {
+        return fetchGroupCacheSize;
+    }
+
+    /**
+     * @see #batchWritingEnabled
+     */
+    public boolean isBatchWritingEnabled() {
+        return batchWritingEnabled;
+    }
+
+    /**
+     * @see #batchWritingSize
+     */
+    public int getBatchWritingSize() {
+        return batchWritingSize;
+    }
 }
@@ -16,6 +16,8 @@
 
 package io.jmix.eclipselink.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.jmix.core.*;
 import io.jmix.core.common.util.Preconditions;
 import io.jmix.core.metamodel.model.MetaClass;
@@ -24,6 +26,8 @@ import io.jmix.core.metamodel.model.MetaPropertyPath;
 import io.jmix.core.metamodel.model.Range;
 import io.jmix.data.QueryParser;
 import io.jmix.data.QueryTransformerFactory;
+import io.jmix.eclipselink.EclipselinkProperties;
+import jakarta.annotation.PostConstruct;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.persistence.config.QueryHints;
 import org.eclipse.persistence.jpa.JpaQuery;
@@ -33,6 +37,7 @@ import org.eclipse.persistence.queries.LoadGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ClassUtils;
 
@@ -64,6 +69,28 @@ public class FetchGroupManager {
     @Autowired
     private FetchPlans fetchPlans;
 
+    @Autowired
+    private EclipselinkProperties properties;
+
+    // null if caching is disabled
+    private Cache<FetchGroupKey, FetchGroupDescription> fetchGroupCache;
+
+    @PostConstruct
+    protected void init() {
+        if (properties.getFetchGroupCacheSize() > 0) {
+            fetchGroupCache = CacheBuilder.newBuilder()
+                    .maximumSize(properties.getFetchGroupCacheSize())
+                    .build();
+        }
+    }
+
+    @EventListener
+    public void onFetchPlanRepositoryReset(FetchPlanRepositoryResetEvent event) {
+        if (fetchGroupCache != null) {
+            fetchGroupCache.invalidateAll();
+        }
+    }
+
     public void setFetchPlan(JpaQuery query, String queryString, @Nullable FetchPlan fetchPlan, boolean singleResultExpected) {
         Preconditions.checkNotNullArgument(query, "query is null");
         if (fetchPlan != null) {
@@ -133,10 +160,33 @@ public class FetchGroupManager {
         }
     }
 
+    /**
+     * Calculates attributes and fetch hints of the query for the fetch plan. Results are cached by the fetch plan,
+     * query string and flags until {@link FetchPlanRepository} is reset.
+     *
+     * @return description that cannot be modified
+     */
     public FetchGroupDescription calculateFetchGroup(String queryString,
                                                      FetchPlan fetchPlan,
                                                      boolean singleResultExpected,
                                                      boolean useFetchGroup) {
+        if (fetchGroupCache == null) {
+            return createFetchGroupDescription(queryString, fetchPlan, singleResultExpected, useFetchGroup).freeze();
+        }
+
+        FetchGroupKey key = new FetchGroupKey(fetchPlan, queryString, singleResultExpected, useFetchGroup);
+        FetchGroupDescription description = fetchGroupCache.getIfPresent(key);
+        if (description == null) {
+            description = createFetchGroupDescription(queryString, fetchPlan, singleResultExpected, useFetchGroup).freeze();
+            fetchGroupCache.put(key, description);
+        }
+        return description;
+    }
+
+    private FetchGroupDescription createFetchGroupDescription(String queryString,
+                                                              FetchPlan fetchPlan,
+                                                              boolean singleResultExpected,
+                                                              boolean useFetchGroup) {
         Set<FetchGroupField> fetchGroupFields = new LinkedHashSet<>();
 
         fetchPlan = completeFetchPlan(fetchPlan);
@@ -678,4 +728,12 @@ public class FetchGroupManager {
 
     }
 
+
+    /**
+     * Cache key. Fetch plans cache their hash codes, and a plan taken from the repository is usually the same instance,
+     * so lookups do not compare the plan graphs.
+     */
+    private record FetchGroupKey(FetchPlan fetchPlan, String queryString,
+                                 boolean singleResultExpected, boolean useFetchGroup) {
+    }
 }
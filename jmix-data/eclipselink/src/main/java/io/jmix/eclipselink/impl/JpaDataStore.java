@@ -20,23 +20,41 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import io.jmix.core.Id;
 import io.jmix.core.*;
+import io.jmix.core.accesscontext.CrudEntityContext;
+import io.jmix.core.accesscontext.InMemoryCrudEntityContext;
 import io.jmix.core.datastore.AbstractDataStore;
 import io.jmix.core.entity.EntityValues;
+import io.jmix.core.entity.KeyValueEntity;
+import io.jmix.core.entity.annotation.OnDelete;
+import io.jmix.core.entity.annotation.OnDeleteInverse;
+import io.jmix.core.event.EntityBulkChangedEvent;
 import io.jmix.core.event.EntityChangedEvent;
 import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetaProperty;
+import io.jmix.core.security.AccessDeniedException;
+import io.jmix.core.security.CurrentAuthentication;
+import io.jmix.data.AuditInfoProvider;
 import io.jmix.data.DataProperties;
 import io.jmix.data.PersistenceHints;
+import io.jmix.data.QueryTransformer;
 import io.jmix.data.QueryTransformerFactory;
 import io.jmix.data.StoreAwareLocator;
 import io.jmix.data.accesscontext.ReadEntityQueryContext;
 import io.jmix.data.exception.UniqueConstraintViolationException;
 import io.jmix.data.impl.EntityChangedEventInfo;
 import io.jmix.data.impl.EntityEventManager;
+import io.jmix.data.impl.GeneratedNumberIdEntityInitializer;
 import io.jmix.data.impl.JpqlQueryBuilder;
 import io.jmix.data.impl.QueryResultsManager;
+import io.jmix.data.impl.ReadReplicaRoutingDataSource;
+import io.jmix.data.impl.converters.AuditConversionService;
 import io.jmix.data.persistence.DbmsSpecifics;
+import io.jmix.eclipselink.EclipselinkProperties;
 import io.jmix.eclipselink.impl.lazyloading.LazyLoadingContext;
+import io.jmix.eclipselink.impl.support.WriteStatementsCounter;
+import io.jmix.eclipselink.persistence.AdditionalCriteriaProvider;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.*;
 import org.apache.commons.lang3.StringUtils;
@@ -54,9 +72,14 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -120,8 +143,35 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
     @Autowired
     protected FetchPlanRepository fetchPlanRepository;
 
+    @Autowired
+    protected CurrentAuthentication currentAuthentication;
+
+    @Autowired
+    protected ObjectProvider<AdditionalCriteriaProvider> additionalCriteriaProviders;
+
+    @Autowired
+    protected EclipselinkProperties eclipselinkProperties;
+
+    @Autowired
+    protected GeneratedNumberIdEntityInitializer generatedNumberIdEntityInitializer;
+
+    @Autowired
+    protected TimeSource timeSource;
+
+    @Autowired
+    protected AuditInfoProvider auditInfoProvider;
+
+    @Autowired
+    protected AuditConversionService auditConverter;
+
+    @Autowired
+    protected MeterRegistry meterRegistry;
+
     protected String storeName;
 
+    protected volatile ReadReplicaRoutingDataSource routingDataSource;
+    protected volatile boolean routingDataSourceResolved;
+
     protected static final AtomicLong txCount = new AtomicLong();
 
     @Override
@@ -134,6 +184,102 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
         this.storeName = name;
     }
 
+    @Nullable
+    @Override
+    public Object load(LoadContext<?> context) {
+        return loadWithRoute(context.getHints(), context.isJoinTransaction(), () -> super.load(context));
+    }
+
+    @Override
+    public List<Object> loadList(LoadContext<?> context) {
+        return loadWithRoute(context.getHints(), context.isJoinTransaction(), () -> super.loadList(context));
+    }
+
+    @Override
+    public long getCount(LoadContext<?> context) {
+        return loadWithRoute(context.getHints(), context.isJoinTransaction(), () -> super.getCount(context));
+    }
+
+    @Override
+    public List<KeyValueEntity> loadValues(ValueLoadContext context) {
+        return loadWithRoute(context.getHints(), context.isJoinTransaction(), () -> super.loadValues(context));
+    }
+
+    @Override
+    public long getCount(ValueLoadContext context) {
+        return loadWithRoute(context.getHints(), context.isJoinTransaction(), () -> super.getCount(context));
+    }
+
+    /**
+     * Performs the load on a read replica if the data source of the store is {@link ReadReplicaRoutingDataSource}
+     * and {@link #isReadReplicaAllowed(Map, boolean)} returns true.
+     */
+    protected <T> T loadWithRoute(Map<String, Object> hints, boolean joinTransaction, Supplier<T> loader) {
+        ReadReplicaRoutingDataSource routingDataSource = getRoutingDataSource();
+        if (routingDataSource == null) {
+            return loader.get();
+        }
+        boolean replicaRoute = isReadReplicaAllowed(hints, joinTransaction)
+                && !routingDataSource.isRecentWriter(getCurrentUserKey());
+        boolean previous = ReadReplicaRoutingDataSource.setReplicaRoute(replicaRoute);
+        try {
+            return loader.get();
+        } finally {
+            ReadReplicaRoutingDataSource.setReplicaRoute(previous);
+        }
+    }
+
+    /**
+     * Returns true if the load can be performed on a read replica: it does not join a transaction or has the
+     * {@link PersistenceHints#READ_REPLICA} hint, and it is not performed inside a write transaction.
+     */
+    protected boolean isReadReplicaAllowed(Map<String, Object> hints, boolean joinTransaction) {
+        Object hint = hints.get(PersistenceHints.READ_REPLICA);
+        if (Boolean.FALSE.equals(hint)) {
+            return false;
+        }
+        if (!joinTransaction) {
+            return true;
+        }
+        return Boolean.TRUE.equals(hint)
+                && (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    @Nullable
+    protected ReadReplicaRoutingDataSource getRoutingDataSource() {
+        if (!routingDataSourceResolved) {
+            DataSource dataSource = storeAwareLocator.getDataSource(storeName);
+            try {
+                if (dataSource.isWrapperFor(ReadReplicaRoutingDataSource.class)) {
+                    routingDataSource = dataSource.unwrap(ReadReplicaRoutingDataSource.class);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Unable to unwrap data source of store " + storeName, e);
+            }
+            routingDataSourceResolved = true;
+        }
+        return routingDataSource;
+    }
+
+    protected String getCurrentUserKey() {
+        return currentAuthentication.isSet() ? currentAuthentication.getAuthentication().getName() : "";
+    }
+
+    /**
+     * Adds parameters of additional criteria, for example the current tenant, to the result cache key,
+     * as they are applied to all queries.
+     */
+    @Override
+    protected List<Object> getResultCacheKeyParts() {
+        List<Object> keyParts = new ArrayList<>();
+        additionalCriteriaProviders.orderedStream().forEach(provider -> {
+            Map<String, Object> criteriaParameters = provider.getCriteriaParameters();
+            keyParts.add(criteriaParameters == null ? null : normalizeResultCacheValue(criteriaParameters));
+        });
+        return keyParts;
+    }
+
     @Nullable
     @Override
     protected Object loadOne(LoadContext<?> context) {
@@ -283,14 +429,30 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
     @Override
     protected Set<Object> saveAll(SaveContext context) {
         EntityManager em = storeAwareLocator.getEntityManager(storeName);
+        boolean batchWriting = eclipselinkProperties.isBatchWritingEnabled();
+        if (batchWriting) {
+            startWriteStatementsCount();
+        }
 
-        Set<Object> result = new HashSet<>();
+        List<Object> newEntities = new ArrayList<>();
         for (Object entity : context.getEntitiesToSave()) {
             if (entityStates.isNew(entity)) {
-                entityEventManager.publishEntitySavingEvent(entity, true);
-                em.persist(entity);
-                result.add(entity);
+                newEntities.add(entity);
+            }
+        }
+        if (batchWriting) {
+            newEntities = sortForInsert(newEntities);
+        }
+
+        Set<Object> result = new HashSet<>();
+        for (Object entity : newEntities) {
+            if (batchWriting) {
+                // generated ids must be known before flush to send inserts in batches
+                generatedNumberIdEntityInitializer.initEntity(entity);
             }
+            entityEventManager.publishEntitySavingEvent(entity, true);
+            em.persist(entity);
+            result.add(entity);
         }
 
         for (Object entity : context.getEntitiesToSave()) {
@@ -304,6 +466,74 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
         return result;
     }
 
+    /**
+     * Orders new entities so that entities of referenced types are persisted first and entities of the same type
+     * go together.
+     */
+    protected List<Object> sortForInsert(List<Object> entities) {
+        Map<MetaClass, List<Object>> entitiesByClass = new LinkedHashMap<>();
+        for (Object entity : entities) {
+            entitiesByClass.computeIfAbsent(metadata.getClass(entity), metaClass -> new ArrayList<>()).add(entity);
+        }
+        if (entitiesByClass.size() < 2) {
+            return entities;
+        }
+        List<Object> result = new ArrayList<>(entities.size());
+        Set<MetaClass> visited = new HashSet<>();
+        for (MetaClass metaClass : entitiesByClass.keySet()) {
+            addInDependencyOrder(metaClass, entitiesByClass, visited, result);
+        }
+        return result;
+    }
+
+    protected void addInDependencyOrder(MetaClass metaClass, Map<MetaClass, List<Object>> entitiesByClass,
+                                        Set<MetaClass> visited, List<Object> result) {
+        // visited classes are skipped, so cyclic references keep the original order
+        if (!visited.add(metaClass)) {
+            return;
+        }
+        for (MetaProperty property : metaClass.getProperties()) {
+            if (property.getRange().isClass()
+                    && !property.getRange().getCardinality().isMany()
+                    && metadataTools.isJpa(property)
+                    && metadataTools.isOwningSide(property)) {
+                MetaClass referencedClass = property.getRange().asClass();
+                for (MetaClass candidate : entitiesByClass.keySet()) {
+                    if (candidate.equals(referencedClass) || candidate.getAncestors().contains(referencedClass)) {
+                        addInDependencyOrder(candidate, entitiesByClass, visited, result);
+                    }
+                }
+            }
+        }
+        List<Object> classEntities = entitiesByClass.get(metaClass);
+        if (classEntities != null) {
+            result.addAll(classEntities);
+        }
+    }
+
+    /**
+     * Counts statements modifying data until the end of the current transaction and records their number
+     * to the {@code jmix.eclipselink.flush.statements} distribution summary.
+     */
+    protected void startWriteStatementsCount() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || !WriteStatementsCounter.start()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                long count = WriteStatementsCounter.stop();
+                if (status == STATUS_COMMITTED && count > 0) {
+                    DistributionSummary.builder("jmix.eclipselink.flush.statements")
+                            .description("Number of statements modifying data sent to the database by a transaction")
+                            .tag("store", storeName)
+                            .register(meterRegistry)
+                            .record(count);
+                }
+            }
+        });
+    }
+
     @Override
     protected Set<Object> deleteAll(SaveContext context) {
         JpaSaveContext jpaContext = (JpaSaveContext) context;
@@ -430,6 +660,18 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
         PlatformTransactionManager txManager = storeAwareLocator.getTransactionManager(storeName);
         Object transaction = txManager.getTransaction(def);
         LazyLoadingContext.setDisabled();
+
+        ReadReplicaRoutingDataSource routingDataSource = getRoutingDataSource();
+        if (routingDataSource != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            String userKey = getCurrentUserKey();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // subsequent loads of the user go to the primary until replicas catch up
+                    routingDataSource.registerWrite(userKey);
+                }
+            });
+        }
         return transaction;
     }
 
@@ -481,6 +723,197 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
         super.beforeSaveTransactionRollback(context);
     }
 
+    @Override
+    protected long executeBulkStatements(BulkOperationContext context) {
+        MetaClass metaClass = context.getEntityMetaClass();
+        if (metadataTools.hasCompositePrimaryKey(metaClass)) {
+            throw new UnsupportedOperationException("Bulk operations are not supported for entities with composite " +
+                    "primary key: " + metaClass.getName());
+        }
+        if (context.getType() == BulkOperationContext.Type.DELETE && hasDeletePolicies(metaClass)) {
+            throw new UnsupportedOperationException("Bulk delete is not supported for entities with deletion " +
+                    "policies: " + metaClass.getName());
+        }
+        checkBulkOperationPermitted(context);
+
+        EntityManager em = storeAwareLocator.getEntityManager(storeName);
+        boolean softDeletionBefore = PersistenceHints.isSoftDeletion(em);
+        try {
+            em.setProperty(PersistenceHints.SOFT_DELETION, context.getHints().get(PersistenceHints.SOFT_DELETION));
+
+            JpqlQueryBuilder<JmixEclipseLinkQuery<?>> queryBuilder = jpqlQueryBuilderProvider.getObject();
+            queryBuilder.setEntityName(metaClass.getName())
+                    .setCondition(context.getCondition())
+                    .setQueryParameters(new HashMap<>(context.getParameters()));
+
+            JmixEclipseLinkQuery<?> selectQuery = queryBuilder.getQuery(em);
+            ReadEntityQueryContext queryContext = new ReadEntityQueryContext(selectQuery, metaClass, queryTransformerFactory);
+            accessManager.applyConstraints(queryContext, context.getAccessConstraints());
+
+            // the selection with conditions and row-level constraints is used as a subquery on ids
+            String primaryKeyName = metadataTools.getPrimaryKeyName(metaClass);
+            QueryTransformer transformer = queryTransformerFactory.transformer(queryContext.getResultQuery().getQueryString());
+            transformer.replaceWithSelectId(primaryKeyName);
+            String idsQueryString = transformer.getResult();
+            Map<String, Object> selectionParameters = queryBuilder.getResultParameters();
+
+            Map<String, Object> statementParameters = new HashMap<>();
+            String statement = createBulkStatement(context, em, statementParameters);
+
+            if (context.getChangeEventBatchSize() <= 0) {
+                String queryString = String.format("%s where b.%s in (%s)", statement, primaryKeyName, idsQueryString);
+                Query query = em.createQuery(queryString);
+                setBulkQueryParameters(query, queryString, selectionParameters);
+                setBulkQueryParameters(query, queryString, statementParameters);
+                return query.executeUpdate();
+            }
+
+            Query idsQuery = em.createQuery(idsQueryString);
+            setBulkQueryParameters(idsQuery, idsQueryString, selectionParameters);
+            //noinspection unchecked
+            List<Object> ids = idsQuery.getResultList();
+
+            MetaClass originalMetaClass = extendedEntities.getOriginalOrThisMetaClass(metaClass);
+            String queryString = String.format("%s where b.%s in :bulkIds", statement, primaryKeyName);
+            long count = 0;
+            for (List<Object> batch : Lists.partition(ids, context.getChangeEventBatchSize())) {
+                Query query = em.createQuery(queryString);
+                setBulkQueryParameters(query, queryString, statementParameters);
+                query.setParameter("bulkIds", batch);
+                count += query.executeUpdate();
+
+                applicationContext.publishEvent(new EntityBulkChangedEvent<>(this, originalMetaClass,
+                        context.getType(), new ArrayList<>(batch)));
+            }
+            return count;
+        } finally {
+            em.setProperty(PersistenceHints.SOFT_DELETION, softDeletionBefore);
+        }
+    }
+
+    protected void checkBulkOperationPermitted(BulkOperationContext context) {
+        if (context.getAccessConstraints().isEmpty()) {
+            return;
+        }
+        MetaClass metaClass = context.getEntityMetaClass();
+        CrudEntityContext entityContext = new CrudEntityContext(metaClass);
+        accessManager.applyConstraints(entityContext, context.getAccessConstraints());
+
+        if (context.getType() == BulkOperationContext.Type.UPDATE && !entityContext.isUpdatePermitted()) {
+            throw new AccessDeniedException("entity", metaClass.getName(), "update");
+        }
+        if (context.getType() == BulkOperationContext.Type.DELETE && !entityContext.isDeletePermitted()) {
+            throw new AccessDeniedException("entity", metaClass.getName(), "delete");
+        }
+
+        // in-memory predicates cannot be evaluated for the entities which are not loaded
+        InMemoryCrudEntityContext inMemoryContext = new InMemoryCrudEntityContext(metaClass, applicationContext);
+        accessManager.applyConstraints(inMemoryContext, context.getAccessConstraints());
+
+        if (context.getType() == BulkOperationContext.Type.UPDATE && inMemoryContext.updatePredicate() != null) {
+            throw new AccessDeniedException("entity", metaClass.getName(), "update");
+        }
+        if (context.getType() == BulkOperationContext.Type.DELETE && inMemoryContext.deletePredicate() != null) {
+            throw new AccessDeniedException("entity", metaClass.getName(), "delete");
+        }
+    }
+
+    /**
+     * @return whether {@link OnDelete} or {@link OnDeleteInverse} policies are defined for the entity or its ancestors
+     */
+    protected boolean hasDeletePolicies(MetaClass metaClass) {
+        List<MetaClass> metaClasses = new ArrayList<>(metaClass.getAncestors());
+        metaClasses.add(metaClass);
+        for (MetaClass aClass : metaClasses) {
+            if (aClass.getAnnotations().get(OnDelete.class.getName()) != null
+                    || aClass.getAnnotations().get(OnDeleteInverse.class.getName()) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the update or delete statement without the where clause. The affected entities are referenced
+     * by the {@code b} alias.
+     */
+    protected String createBulkStatement(BulkOperationContext context, EntityManager em, Map<String, Object> parameters) {
+        MetaClass metaClass = context.getEntityMetaClass();
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        if (context.getType() == BulkOperationContext.Type.UPDATE) {
+            if (context.getValues().isEmpty()) {
+                throw new IllegalArgumentException("No values to update for " + metaClass.getName());
+            }
+            values.putAll(context.getValues());
+        } else {
+            if (!metadataTools.isSoftDeletable(metaClass.getJavaClass()) || !PersistenceHints.isSoftDeletion(em)) {
+                return String.format("delete from %s b", metaClass.getName());
+            }
+            // soft deletion marks the entities as deleted like EntityManager.remove() does
+            String deletedDateProperty = metadataTools.findDeletedDateProperty(metaClass.getJavaClass());
+            if (deletedDateProperty != null) {
+                values.put(deletedDateProperty, auditConverter.convert(timeSource.currentTimestamp(),
+                        metaClass.getProperty(deletedDateProperty).getJavaType()));
+            }
+            String deletedByProperty = metadataTools.findDeletedByProperty(metaClass.getJavaClass());
+            if (deletedByProperty != null) {
+                values.put(deletedByProperty, auditConverter.convert(auditInfoProvider.getCurrentUser(),
+                        metaClass.getProperty(deletedByProperty).getJavaType()));
+            }
+        }
+
+        StringBuilder sb = new StringBuilder(String.format("update %s b set ", metaClass.getName()));
+        int index = 0;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            MetaProperty property = metaClass.findProperty(entry.getKey());
+            if (property == null) {
+                throw new IllegalArgumentException(String.format("Property '%s' not found in %s",
+                        entry.getKey(), metaClass.getName()));
+            }
+            if (property.getRange().getCardinality().isMany() || !metadataTools.isJpa(property)) {
+                throw new IllegalArgumentException(String.format("Property '%s' of %s cannot be updated by bulk operation",
+                        entry.getKey(), metaClass.getName()));
+            }
+            if (index > 0) {
+                sb.append(", ");
+            }
+            if (entry.getValue() == null) {
+                sb.append("b.").append(property.getName()).append(" = NULL");
+            } else {
+                String paramName = "bulkValue" + index;
+                sb.append("b.").append(property.getName()).append(" = :").append(paramName);
+                parameters.put(paramName, entry.getValue());
+            }
+            index++;
+        }
+
+        // increment version to make optimistic locking fail for the entities loaded before the operation
+        for (MetaProperty property : metaClass.getProperties()) {
+            if (property.getAnnotatedElement().isAnnotationPresent(Version.class)
+                    && !values.containsKey(property.getName())) {
+                sb.append(", b.").append(property.getName()).append(" = b.").append(property.getName()).append(" + 1");
+            }
+        }
+
+        return sb.toString();
+    }
+
+    protected void setBulkQueryParameters(Query query, String queryString, Map<String, Object> parameters) {
+        Set<String> paramNames = queryTransformerFactory.parser(queryString).getParamNames();
+        for (Map.Entry<String, Object> entry : parameters.entrySet()) {
+            if (paramNames.contains(entry.getKey())) {
+                query.setParameter(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    protected void beforeBulkTransactionRollback(BulkOperationContext context) {
+        LazyLoadingContext.setEnabled();
+        super.beforeBulkTransactionRollback(context);
+    }
+
     protected Query createQuery(EntityManager em, LoadContext<?> context, boolean countQuery) {
         MetaClass metaClass = extendedEntities.getEffectiveMetaClass(context.getEntityMetaClass());
 
@@ -34,6 +34,8 @@ import org.springframework.beans.factory.BeanFactory;
 
 import java.io.Serializable;
 import java.rmi.server.ObjID;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 public abstract class AbstractValueHolder extends UnitOfWorkValueHolder implements ValueHolderInterface, WeavedAttributeValueHolderInterface,
@@ -47,6 +49,7 @@ public abstract class AbstractValueHolder extends UnitOfWorkValueHolder implemen
     private volatile boolean isInstantiated;
     private volatile Object value;
     private LoadOptions loadOptions;
+    private transient BatchLoadingGroup batchLoadingGroup;
 
     public AbstractValueHolder(BeanFactory beanFactory,
                                ValueHolderInterface originalValueHolder,
@@ -276,6 +279,7 @@ public abstract class AbstractValueHolder extends UnitOfWorkValueHolder implemen
                 synchronized (this) {
                     value = loadValue();
                     afterLoadValue(value);
+                    batchLoadingGroup = null;
                 }
             }
             isInstantiated = true;
@@ -285,6 +289,36 @@ public abstract class AbstractValueHolder extends UnitOfWorkValueHolder implemen
 
     protected abstract Object loadValue();
 
+    /**
+     * Sets the value loaded by a sibling holder of the same {@link BatchLoadingGroup}.
+     * Does nothing if the value is already loaded.
+     */
+    protected void setBatchLoadedValue(Object value) {
+        synchronized (this) {
+            if (!isInstantiated) {
+                this.value = value;
+                afterLoadValue(value);
+                isInstantiated = true;
+            }
+            batchLoadingGroup = null;
+        }
+    }
+
+    /**
+     * @return not loaded holders of the same property created by the same load, taken from the group,
+     * so that their values are loaded together with the value of this holder
+     */
+    protected List<AbstractValueHolder> takeBatchSiblings() {
+        if (batchLoadingGroup == null) {
+            return Collections.emptyList();
+        }
+        List<AbstractValueHolder> siblings = batchLoadingGroup.takeSiblings(this);
+        siblings.removeIf(sibling -> sibling.getClass() != getClass()
+                || !Objects.equals(sibling.getLoadOptions().getHints(), getLoadOptions().getHints())
+                || !Objects.equals(sibling.getLoadOptions().getAccessConstraints(), getLoadOptions().getAccessConstraints()));
+        return siblings;
+    }
+
     protected abstract void afterLoadValue(Object value);
 
     @Override
@@ -304,6 +338,10 @@ public abstract class AbstractValueHolder extends UnitOfWorkValueHolder implemen
         return loadOptions;
     }
 
+    public void setBatchLoadingGroup(BatchLoadingGroup batchLoadingGroup) {
+        this.batchLoadingGroup = batchLoadingGroup;
+    }
+
     public Object getOwner() {
         return owner;
     }
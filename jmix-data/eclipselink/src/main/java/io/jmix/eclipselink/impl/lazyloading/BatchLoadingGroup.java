@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.eclipselink.impl.lazyloading;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Value holders created for the entities of the same load.
+ * <p>
+ * When the value of one holder is requested, the holder takes its not yet loaded siblings for the same property
+ * from the group and loads the values for all of them at once.
+ * <p>
+ * The group references the holders weakly, so that it does not keep the loaded entities in memory while one of
+ * them is still used. A holder releases the group as soon as its value is loaded.
+ */
+public class BatchLoadingGroup {
+
+    protected final Map<String, List<WeakReference<AbstractValueHolder>>> holders = new HashMap<>();
+
+    public synchronized void add(AbstractValueHolder holder) {
+        holders.computeIfAbsent(getKey(holder), key -> new ArrayList<>()).add(new WeakReference<>(holder));
+        holder.setBatchLoadingGroup(this);
+    }
+
+    /**
+     * Removes the holders of the same property from the group and returns the ones not loaded yet, except the given
+     * holder. Subsequent calls for this property return an empty list.
+     */
+    public synchronized List<AbstractValueHolder> takeSiblings(AbstractValueHolder holder) {
+        List<WeakReference<AbstractValueHolder>> propertyHolders = holders.remove(getKey(holder));
+        if (propertyHolders == null) {
+            return new ArrayList<>();
+        }
+
+        List<AbstractValueHolder> siblings = new ArrayList<>(propertyHolders.size());
+        for (WeakReference<AbstractValueHolder> reference : propertyHolders) {
+            AbstractValueHolder propertyHolder = reference.get();
+            if (propertyHolder != null && propertyHolder != holder && !propertyHolder.isInstantiated()) {
+                siblings.add(propertyHolder);
+            }
+        }
+        return siblings;
+    }
+
+    protected String getKey(AbstractValueHolder holder) {
+        return holder.getOwner().getClass().getName() + "." + holder.getPropertyInfo().getName();
+    }
+}
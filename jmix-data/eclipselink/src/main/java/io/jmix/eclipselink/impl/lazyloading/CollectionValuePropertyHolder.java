@@ -56,9 +56,48 @@ public class CollectionValuePropertyHolder extends AbstractValueHolder {
     protected Object loadValue() {
         MetaClass metaClass = getMetadata().getClass(getOwner());
 
+        List<AbstractValueHolder> siblings = takeBatchSiblings();
+        if (!siblings.isEmpty()) {
+            return loadValues(metaClass, siblings);
+        }
+
         LoadContext<?> loadContext = createLoadContextByOwner(metaClass);
 
         Object reloadedOwner = getDataManager().load(loadContext);
+        return getValueFromReloadedOwner(reloadedOwner);
+    }
+
+    /**
+     * Reloads the owners of this holder and of the siblings with the collection by one query and passes
+     * the collections to the siblings. The query is split into batches by the data store if there are too many ids.
+     */
+    protected Object loadValues(MetaClass metaClass, List<AbstractValueHolder> siblings) {
+        Set<Object> ids = new LinkedHashSet<>();
+        ids.add(Objects.requireNonNull(EntityValues.getId(getOwner())));
+        for (AbstractValueHolder sibling : siblings) {
+            ids.add(Objects.requireNonNull(EntityValues.getId(sibling.getOwner())));
+        }
+
+        LoadContext<?> loadContext = createLoadContextByOwner(metaClass);
+        loadContext.setId(null);
+        loadContext.setIds(ids);
+
+        Map<Object, Object> reloadedOwners = new HashMap<>();
+        for (Object reloadedOwner : getDataManager().loadList(loadContext)) {
+            reloadedOwners.put(EntityValues.getId(reloadedOwner), reloadedOwner);
+        }
+
+        for (AbstractValueHolder sibling : siblings) {
+            Object reloadedOwner = reloadedOwners.get(EntityValues.getId(sibling.getOwner()));
+            if (reloadedOwner != null) {
+                sibling.setBatchLoadedValue(((CollectionValuePropertyHolder) sibling).getValueFromReloadedOwner(reloadedOwner));
+            }
+        }
+
+        return getValueFromReloadedOwner(reloadedOwners.get(EntityValues.getId(getOwner())));
+    }
+
+    protected Collection<Object> getValueFromReloadedOwner(Object reloadedOwner) {
         Collection<Object> value = EntityValues.getValue(reloadedOwner, getPropertyInfo().getName());
 
         getSecurityState(getOwner()).addErasedIds(getPropertyInfo().getName(),
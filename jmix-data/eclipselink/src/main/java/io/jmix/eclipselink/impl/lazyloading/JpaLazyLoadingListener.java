@@ -25,12 +25,14 @@ import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetaProperty;
 import io.jmix.core.metamodel.model.Range;
 import io.jmix.data.PersistenceHints;
+import io.jmix.eclipselink.EclipselinkProperties;
 import jakarta.persistence.Basic;
 import jakarta.persistence.FetchType;
 import org.eclipse.persistence.indirection.ValueHolderInterface;
 import org.eclipse.persistence.internal.indirection.QueryBasedValueHolder;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
@@ -60,6 +62,8 @@ public class JpaLazyLoadingListener implements DataStoreEventListener {
     protected ExtendedEntities extendedEntities;
     @Autowired
     protected FetchPlans fetchPlans;
+    @Autowired
+    protected EclipselinkProperties properties;
 
     @Override
     public void afterEntityLoad(DataStoreAfterEntityLoadEvent event) {
@@ -71,12 +75,27 @@ public class JpaLazyLoadingListener implements DataStoreEventListener {
         if (fetchPlan == null) {
             fetchPlan = fetchPlanRepository.getFetchPlan(metaClass, FetchPlan.LOCAL);
         }
+        BatchLoadingGroup batchLoadingGroup = properties.isBatchLazyLoadingEnabled() && event.getResultEntities().size() > 1
+                ? new BatchLoadingGroup()
+                : null;
         for (Object entity : event.getResultEntities()) {
-            processValueHolders(entity, context, fetchPlan);
+            processValueHolders(entity, context, fetchPlan, batchLoadingGroup);
         }
     }
 
     public void processValueHolders(Object entity, LoadContext<?> loadContext, FetchPlan fetchPlan) {
+        processValueHolders(entity, loadContext, fetchPlan, null);
+    }
+
+    /**
+     * Installs lazy loading value holders for unfetched references and collections of the entity and the entities
+     * it refers to.
+     *
+     * @param batchLoadingGroup group the created holders are added to, so that they are loaded together with
+     *                          the holders of the same properties of other entities, or null
+     */
+    public void processValueHolders(Object entity, LoadContext<?> loadContext, FetchPlan fetchPlan,
+                                    @Nullable BatchLoadingGroup batchLoadingGroup) {
         Map<Object, Set<FetchPlan>> collectedFetchPlans = new HashMap<>();
 
         if (fetchPlan != null) {
@@ -107,12 +126,17 @@ public class JpaLazyLoadingListener implements DataStoreEventListener {
                         !isPropertyContainedInFetchPlans(property, entry.getValue()) &&
                         metadataTools.getCrossDataStoreReferenceIdProperty(property.getStore().getName(), property) == null) {
                     if (!entityStates.isLoaded(entry.getKey(), property.getName())) {
+                        AbstractValueHolder valueHolder = null;
                         if (property.getRange().getCardinality().isMany()) {
-                            processCollectionValueHolder(entry.getKey(), property, loadOptions);
+                            valueHolder = processCollectionValueHolder(entry.getKey(), property, loadOptions);
                         } else if (property.getRange().getCardinality() == Range.Cardinality.ONE_TO_ONE) {
-                            processOneToOneValueHolder(entry.getKey(), property, loadOptions);
+                            valueHolder = processOneToOneValueHolder(entry.getKey(), property, loadOptions);
                         } else if (property.getRange().getCardinality() == Range.Cardinality.MANY_TO_ONE) {
-                            processManyToOneValueHolder(entry.getKey(), property, loadOptions);
+                            valueHolder = processManyToOneValueHolder(entry.getKey(), property, loadOptions);
+                        }
+
+                        if (batchLoadingGroup != null && isBatchLoadingSupported(valueHolder)) {
+                            batchLoadingGroup.add(valueHolder);
                         }
                     }
                 }
@@ -134,7 +158,16 @@ public class JpaLazyLoadingListener implements DataStoreEventListener {
         }
     }
 
-    protected void processCollectionValueHolder(Object owner, MetaProperty property, LoadOptions loadOptions) {
+    /**
+     * Holders loading mapped-by references query by the inverse property, so they are loaded one by one.
+     */
+    protected boolean isBatchLoadingSupported(@Nullable AbstractValueHolder valueHolder) {
+        return valueHolder instanceof CollectionValuePropertyHolder
+                || valueHolder instanceof SingleValueOwningPropertyHolder;
+    }
+
+    @Nullable
+    protected AbstractValueHolder processCollectionValueHolder(Object owner, MetaProperty property, LoadOptions loadOptions) {
         Object valueHolder = getCollectionValueHolder(owner, property.getName());
         if (valueHolder != null && !(valueHolder instanceof AbstractValueHolder)) {
             AbstractValueHolder wrappedValueHolder =
@@ -143,10 +176,13 @@ public class JpaLazyLoadingListener implements DataStoreEventListener {
             wrappedValueHolder.setLoadOptions(LoadOptions.with(loadOptions));
 
             setCollectionValueHolder(owner, property.getName(), wrappedValueHolder);
+            return wrappedValueHolder;
         }
+        return null;
     }
 
-    protected void processOneToOneValueHolder(Object owner, MetaProperty property, LoadOptions loadOptions) {
+    @Nullable
+    protected AbstractValueHolder processOneToOneValueHolder(Object owner, MetaProperty property, LoadOptions loadOptions) {
         Object originalValueHolder = getSingleValueHolder(owner, property.getName());
 
         if (originalValueHolder != null && !(originalValueHolder instanceof AbstractValueHolder)) {
@@ -172,10 +208,13 @@ public class JpaLazyLoadingListener implements DataStoreEventListener {
             }
 
             setSingleValueHolder(owner, property.getName(), wrappedValueHolder);
+            return wrappedValueHolder;
         }
+        return null;
     }
 
-    protected void processManyToOneValueHolder(Object owner, MetaProperty property, LoadOptions loadOptions) {
+    @Nullable
+    protected AbstractValueHolder processManyToOneValueHolder(Object owner, MetaProperty property, LoadOptions loadOptions) {
         Object originalValueHolder = getSingleValueHolder(owner, property.getName());
 
         if (originalValueHolder != null && !(originalValueHolder instanceof AbstractValueHolder)) {
@@ -190,8 +229,10 @@ public class JpaLazyLoadingListener implements DataStoreEventListener {
                 wrappedValueHolder.setLoadOptions(LoadOptions.with(loadOptions));
 
                 setSingleValueHolder(owner, property.getName(), wrappedValueHolder);
+                return wrappedValueHolder;
             }
         }
+        return null;
     }
 
     protected void collectFetchPlans(Object instance, FetchPlan fetchPlan, Map<Object, Set<FetchPlan>> collectedFetchPlans) {
@@ -18,6 +18,7 @@ package io.jmix.eclipselink.impl.lazyloading;
 
 import io.jmix.core.LoadContext;
 import io.jmix.core.UuidProvider;
+import io.jmix.core.entity.EntityValues;
 import io.jmix.core.impl.SerializationContext;
 import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetaProperty;
@@ -26,6 +27,12 @@ import org.eclipse.persistence.indirection.ValueHolderInterface;
 import org.springframework.beans.factory.BeanFactory;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static io.jmix.core.entity.EntitySystemAccess.getSecurityState;
@@ -52,6 +59,13 @@ public class SingleValueOwningPropertyHolder extends AbstractSingleValueHolder {
         MetaClass metaClass = getMetadata().getClass(getPropertyInfo().getJavaType());
         LoadOptions loadOptions = getLoadOptions();
 
+        List<AbstractValueHolder> siblings = entityId != null ? takeBatchSiblings() : Collections.emptyList();
+        // siblings without a referenced entity are loaded separately
+        siblings.removeIf(sibling -> ((SingleValueOwningPropertyHolder) sibling).entityId == null);
+        if (!siblings.isEmpty()) {
+            return loadValues(metaClass, siblings);
+        }
+
         LoadContext<?> loadContext = new LoadContext<>(metaClass)
                 .setId(getEntityId())
                 .setHint(PersistenceHints.SOFT_DELETION, false)
@@ -61,12 +75,55 @@ public class SingleValueOwningPropertyHolder extends AbstractSingleValueHolder {
         Object value = getDataManager().load(loadContext);
 
         if (value == null) {
-            getSecurityState(getOwner()).addErasedId(getPropertyInfo().getName(), getEntityId());
+            eraseValue();
         }
 
         return value;
     }
 
+    /**
+     * Loads the referenced entities of this holder and of the siblings by one query and passes them to the siblings.
+     * The query is split into batches by the data store if there are too many ids.
+     */
+    protected Object loadValues(MetaClass metaClass, List<AbstractValueHolder> siblings) {
+        Set<Object> ids = new LinkedHashSet<>();
+        ids.add(getEntityId());
+        for (AbstractValueHolder sibling : siblings) {
+            ids.add(((SingleValueOwningPropertyHolder) sibling).getEntityId());
+        }
+
+        LoadOptions loadOptions = getLoadOptions();
+        LoadContext<?> loadContext = new LoadContext<>(metaClass)
+                .setIds(ids)
+                .setHint(PersistenceHints.SOFT_DELETION, false)
+                .setHints(loadOptions.getHints())
+                .setAccessConstraints(loadOptions.getAccessConstraints());
+
+        Map<Object, Object> entitiesById = new HashMap<>();
+        for (Object entity : getDataManager().loadList(loadContext)) {
+            entitiesById.put(EntityValues.getId(entity), entity);
+        }
+
+        for (AbstractValueHolder sibling : siblings) {
+            SingleValueOwningPropertyHolder casted = (SingleValueOwningPropertyHolder) sibling;
+            Object value = entitiesById.get(casted.getEntityId());
+            if (value == null) {
+                casted.eraseValue();
+            }
+            casted.setBatchLoadedValue(value);
+        }
+
+        Object value = entitiesById.get(getEntityId());
+        if (value == null) {
+            eraseValue();
+        }
+        return value;
+    }
+
+    protected void eraseValue() {
+        getSecurityState(getOwner()).addErasedId(getPropertyInfo().getName(), getEntityId());
+    }
+
     protected Object convertId(Object entityId, MetaClass metaClass) {
         MetaProperty primaryKeyProperty = getMetadataTools().getPrimaryKeyProperty(metaClass);
         if (primaryKeyProperty != null && UUID.class.equals(primaryKeyProperty.getJavaType())) {
@@ -17,6 +17,7 @@ package io.jmix.eclipselink.impl.support;
 
 import io.jmix.core.EnvironmentUtils;
 import io.jmix.core.MetadataTools;
+import io.jmix.eclipselink.EclipselinkProperties;
 import io.jmix.eclipselink.impl.JmixPersistenceProvider;
 import jakarta.persistence.spi.PersistenceProvider;
 import jakarta.validation.ValidatorFactory;
@@ -50,6 +51,8 @@ public class JmixEclipseLinkJpaVendorAdapter extends EclipseLinkJpaVendorAdapter
 
     protected final ValidatorFactory validatorFactory;
 
+    protected final EclipselinkProperties eclipselinkProperties;
+
     @Autowired
     public JmixEclipseLinkJpaVendorAdapter(Environment environment,
                                            JmixEclipseLinkJpaDialect jpaDialect,
@@ -57,13 +60,15 @@ public class JmixEclipseLinkJpaVendorAdapter extends EclipseLinkJpaVendorAdapter
                                            ObjectProvider<JmixEclipseLinkTransportManager> transportManagerProvider,
                                            ListableBeanFactory beanFactory,
                                            MetadataTools metadataTools,
-                                           ValidatorFactory validatorFactory) {
+                                           ValidatorFactory validatorFactory,
+                                           EclipselinkProperties eclipselinkProperties) {
         this.environment = environment;
         this.jpaDialect = jpaDialect;
         this.persistenceProvider = new JmixPersistenceProvider(beanFactory, metadataTools);
         this.sessionEventListener = sessionEventListener;
         this.transportManagerProvider = transportManagerProvider;
         this.validatorFactory = validatorFactory;
+        this.eclipselinkProperties = eclipselinkProperties;
 
         setGenerateDdl(false);
         setShowSql(true);
@@ -89,6 +94,11 @@ public class JmixEclipseLinkJpaVendorAdapter extends EclipseLinkJpaVendorAdapter
         map.put("eclipselink.session.customizer", new JmixEclipseLinkSessionCustomizer());
         map.put("eclipselink.application-id", Integer.toString(System.identityHashCode(this)));
 
+        if (eclipselinkProperties.isBatchWritingEnabled()) {
+            map.put("eclipselink.jdbc.batch-writing", "JDBC");
+            map.put("eclipselink.jdbc.batch-writing.size", Integer.toString(eclipselinkProperties.getBatchWritingSize()));
+        }
+
         for (String name : EnvironmentUtils.getPropertyNames(environment)) {
             if (name.startsWith("eclipselink.")) {
                 map.put(name, environment.getProperty(name));
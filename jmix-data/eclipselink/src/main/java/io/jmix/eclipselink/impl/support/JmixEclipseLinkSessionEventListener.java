@@ -85,6 +85,13 @@ public class JmixEclipseLinkSessionEventListener extends SessionEventAdapter {
         }
     }
 
+    @Override
+    public void postExecuteQuery(SessionEvent event) {
+        if (event.getQuery() != null && event.getQuery().isModifyQuery()) {
+            WriteStatementsCounter.increment();
+        }
+    }
+
     protected void setCacheable(MetaClass metaClass, ClassDescriptor desc, Session session) {
         String property = (String) session.getProperty("eclipselink.cache.shared.default");
         boolean defaultCache = property == null || Boolean.parseBoolean(property);
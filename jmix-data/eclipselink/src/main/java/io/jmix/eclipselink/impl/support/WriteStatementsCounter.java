@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.eclipselink.impl.support;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+
+/**
+ * Counts statements modifying data which are executed by EclipseLink in the current thread.
+ */
+public class WriteStatementsCounter {
+    private static final ThreadLocal<MutableLong> count = new ThreadLocal<>();
+
+    /**
+     * Starts counting in the current thread.
+     *
+     * @return false if counting has already been started
+     */
+    public static boolean start() {
+        if (count.get() != null) {
+            return false;
+        }
+        count.set(new MutableLong());
+        return true;
+    }
+
+    /**
+     * Stops counting in the current thread.
+     *
+     * @return number of statements executed since the start, or 0 if counting has not been started
+     */
+    public static long stop() {
+        MutableLong value = count.get();
+        count.remove();
+        return value != null ? value.longValue() : 0;
+    }
+
+    public static void increment() {
+        MutableLong value = count.get();
+        if (value != null) {
+            value.increment();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package data_manager
+
+import io.jmix.core.BulkOperationContext
+import io.jmix.core.DataManager
+import io.jmix.core.accesscontext.InMemoryCrudEntityContext
+import io.jmix.core.constraint.InMemoryConstraint
+import io.jmix.core.event.EntityBulkChangedEvent
+import io.jmix.core.querycondition.PropertyCondition
+import io.jmix.core.security.AccessDeniedException
+import io.jmix.data.PersistenceHints
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.entity.sales.Customer
+import test_support.entity.sales.Order
+import test_support.listeners.TestCustomerListener
+
+class DataManagerBulkOperationTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+
+    @Autowired
+    TestCustomerListener listener
+
+    List<Customer> customers
+
+    void setup() {
+        customers = (1..5).collect { i ->
+            def customer = dataManager.create(Customer)
+            customer.name = i <= 3 ? "a$i" : "b$i"
+            dataManager.save(customer)
+        }
+    }
+
+    void cleanup() {
+        listener.bulkChangedEventConsumer = null
+    }
+
+    def "update entities matching condition"() {
+        when:
+        def count = dataManager.update(Customer)
+                .set('name', 'updated')
+                .where(PropertyCondition.startsWith('name', 'a'))
+                .execute()
+
+        then:
+        count == 3
+        loadCustomers('updated')*.id as Set == customers[0..2]*.id as Set
+        loadCustomers('updated').every { it.version == 2 }
+        dataManager.load(Customer).id(customers[4].id).one().name == 'b5'
+    }
+
+    def "update all entities"() {
+        when:
+        def count = dataManager.update(Customer)
+                .set('name', null)
+                .execute()
+
+        then:
+        count == 5
+        dataManager.load(Customer).all().list().every { it.name == null }
+    }
+
+    def "update of unknown property is rejected"() {
+        when:
+        dataManager.update(Customer)
+                .set('unknown', 'value')
+                .execute()
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "delete marks soft-deletable entities as deleted"() {
+        when:
+        def count = dataManager.delete(Customer)
+                .where(PropertyCondition.startsWith('name', 'a'))
+                .execute()
+
+        then:
+        count == 3
+        dataManager.load(Customer).all().list()*.id as Set == customers[3..4]*.id as Set
+
+        def deleted = dataManager.load(Customer)
+                .id(customers[0].id)
+                .hint(PersistenceHints.SOFT_DELETION, false)
+                .one()
+        deleted.deleteTs != null
+    }
+
+    def "delete removes entities if soft deletion is off"() {
+        when:
+        def count = dataManager.delete(Customer)
+                .where(PropertyCondition.startsWith('name', 'a'))
+                .softDeletion(false)
+                .execute()
+
+        then:
+        count == 3
+        jdbc.queryForObject('select count(*) from SALES_CUSTOMER', Integer) == 2
+    }
+
+    def "change events are sent by batches"() {
+        List<EntityBulkChangedEvent<Customer>> events = []
+        listener.bulkChangedEventConsumer = { events.add(it) }
+
+        when:
+        def count = dataManager.update(Customer)
+                .set('name', 'updated')
+                .where(PropertyCondition.startsWith('name', 'a'))
+                .publishChangeEvents(2)
+                .execute()
+
+        then:
+        count == 3
+        events*.type == [BulkOperationContext.Type.UPDATE, BulkOperationContext.Type.UPDATE]
+        events*.ids.flatten() as Set == customers[0..2]*.id as Set
+        events[0].ids.size() == 2
+    }
+
+    def "update is denied by in-memory update predicate"() {
+        def constraint = new CustomerConstraint({ context ->
+            context.addUpdatePredicate({ entity, applicationContext -> entity.name.startsWith('a') })
+        })
+
+        when:
+        dataManager.update(Customer)
+                .set('name', 'updated')
+                .where(PropertyCondition.startsWith('name', 'a'))
+                .accessConstraints([constraint])
+                .execute()
+
+        then:
+        thrown(AccessDeniedException)
+        loadCustomers('updated').isEmpty()
+    }
+
+    def "delete is denied by in-memory delete predicate"() {
+        def constraint = new CustomerConstraint({ context ->
+            context.addDeletePredicate({ entity, applicationContext -> false })
+        })
+
+        when:
+        dataManager.delete(Customer)
+                .accessConstraints([constraint])
+                .execute()
+
+        then:
+        thrown(AccessDeniedException)
+        dataManager.load(Customer).all().list().size() == 5
+    }
+
+    def "delete is not supported for entities with deletion policies"() {
+        def order = dataManager.create(Order)
+        order.number = '1'
+        dataManager.save(order)
+
+        when:
+        dataManager.delete(Order).execute()
+
+        then:
+        thrown(UnsupportedOperationException)
+        dataManager.load(Order).id(order.id).optional().isPresent()
+    }
+
+    private List<Customer> loadCustomers(String name) {
+        dataManager.load(Customer)
+                .condition(PropertyCondition.equal('name', name))
+                .list()
+    }
+
+    static class CustomerConstraint implements InMemoryConstraint<InMemoryCrudEntityContext> {
+
+        Closure applier
+
+        CustomerConstraint(Closure applier) {
+            this.applier = applier
+        }
+
+        @Override
+        Class<InMemoryCrudEntityContext> getContextType() {
+            InMemoryCrudEntityContext
+        }
+
+        @Override
+        void applyTo(InMemoryCrudEntityContext context) {
+            if (context.entityClass.javaClass == Customer) {
+                applier.call(context)
+            }
+        }
+    }
+}
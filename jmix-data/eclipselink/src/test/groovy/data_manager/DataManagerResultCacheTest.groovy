@@ -0,0 +1,237 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package data_manager
+
+import io.jmix.core.DataManager
+import io.jmix.core.EntityStates
+import io.jmix.core.FetchPlan
+import io.jmix.core.LoadContext
+import io.jmix.core.Metadata
+import io.jmix.core.datastore.DataStoreResultCache
+import io.jmix.core.querycondition.Condition
+import io.jmix.core.querycondition.JpqlCondition
+import io.jmix.core.querycondition.PropertyCondition
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.test.context.TestPropertySource
+import test_support.DataSpec
+import test_support.entity.sales.Customer
+import test_support.entity.sales.Order
+
+import java.time.Duration
+
+@TestPropertySource(properties = ["jmix.core.data-store-result-cache-enabled = true"])
+class DataManagerResultCacheTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+
+    @Autowired
+    Metadata metadata
+
+    @Autowired
+    DataStoreResultCache resultCache
+
+    @Autowired
+    EntityStates entityStates
+
+    Customer customer
+
+    void setup() {
+        resultCache.invalidateAll()
+
+        customer = dataManager.create(Customer)
+        customer.name = 'c1'
+        customer = dataManager.save(customer)
+    }
+
+    def "cached result is returned until the entity is saved"() {
+        when:
+        def loaded = loadCustomers('c1')
+
+        then:
+        loaded == [customer]
+
+        when:
+        jdbc.update('update SALES_CUSTOMER set NAME = ? where ID = ?', 'c2', customer.id)
+
+        then: "the result is taken from the cache"
+        loadCustomers('c1') == [customer]
+        loadCustomers('c2').isEmpty()
+
+        when:
+        customer = dataManager.load(Customer).id(customer.id).one()
+        customer.name = 'c3'
+        dataManager.save(customer)
+
+        then: "the results are discarded"
+        loadCustomers('c1').isEmpty()
+        loadCustomers('c3') == [customer]
+    }
+
+    def "result is discarded when referenced entity is saved"() {
+        def order = dataManager.create(Order)
+        order.number = '1'
+        order.customer = customer
+        dataManager.save(order)
+
+        when:
+        def orders = loadOrders('c1')
+
+        then:
+        orders.size() == 1
+
+        when:
+        customer.name = 'c2'
+        dataManager.save(customer)
+
+        then:
+        loadOrders('c1').isEmpty()
+        loadOrders('c2').size() == 1
+    }
+
+    def "cached entities are copied"() {
+        when:
+        def loaded = loadCustomers('c1')
+        loaded[0].name = 'changed'
+
+        then:
+        loadCustomers('c1')[0].name == 'c1'
+    }
+
+    def "references not in fetch plan are lazily loaded for cached entities"() {
+        def order = dataManager.create(Order)
+        order.number = '1'
+        order.customer = customer
+        dataManager.save(order)
+
+        when:
+        loadOrdersWithoutCustomer()
+        def cached = loadOrdersWithoutCustomer()
+
+        then:
+        cached.size() == 1
+        entityStates.isDetached(cached[0])
+        !entityStates.isLoaded(cached[0], 'customer')
+        cached[0].customer == customer
+    }
+
+    def "changed condition value is part of the key"() {
+        def customer2 = dataManager.create(Customer)
+        customer2.name = 'c2'
+        dataManager.save(customer2)
+
+        // a filter reuses its condition and changes the value
+        def condition = PropertyCondition.equal('name', 'c1')
+
+        when:
+        def loaded1 = loadCustomers(condition)
+        condition.parameterValue = 'c2'
+        def loaded2 = loadCustomers(condition)
+
+        then:
+        loaded1 == [customer]
+        loaded2 == [customer2]
+    }
+
+    def "changed JPQL condition value is part of the key"() {
+        def condition = JpqlCondition.createWithParameters('{E}.name = :name', null, [name: 'c1'])
+
+        when:
+        def loaded1 = loadCustomers(condition)
+        condition.parameterValuesMap = [name: 'unknown']
+        def loaded2 = loadCustomers(condition)
+
+        then:
+        loaded1 == [customer]
+        loaded2.isEmpty()
+    }
+
+    def "count and values are cached"() {
+        when:
+        def count = dataManager.getCount(createCountContext())
+        def values = dataManager.loadValues('select c.name from sales_Customer c')
+                .properties('name')
+                .cacheable(Duration.ofMinutes(1))
+                .list()
+
+        then:
+        count == 1
+        values*.getValue('name') == ['c1']
+
+        when:
+        jdbc.update('delete from SALES_CUSTOMER')
+
+        then:
+        dataManager.getCount(createCountContext()) == 1
+        dataManager.loadValues('select c.name from sales_Customer c')
+                .properties('name')
+                .cacheable(Duration.ofMinutes(1))
+                .list()*.getValue('name') == ['c1']
+    }
+
+    def "result is not cached without hint"() {
+        when:
+        loadCustomers('c1')
+        jdbc.update('update SALES_CUSTOMER set NAME = ? where ID = ?', 'c2', customer.id)
+
+        then:
+        dataManager.load(Customer)
+                .query('select c from sales_Customer c where c.name = :name')
+                .parameter('name', 'c1')
+                .list()
+                .isEmpty()
+    }
+
+    private List<Customer> loadCustomers(String name) {
+        dataManager.load(Customer)
+                .query('select c from sales_Customer c where c.name = :name')
+                .parameter('name', name)
+                .cacheable(Duration.ofMinutes(1))
+                .list()
+    }
+
+    private List<Order> loadOrdersWithoutCustomer() {
+        dataManager.load(Order)
+                .query('select o from sales_Order o')
+                .fetchPlan(FetchPlan.BASE)
+                .cacheable(Duration.ofMinutes(1))
+                .list()
+    }
+
+    private List<Customer> loadCustomers(Condition condition) {
+        dataManager.load(Customer)
+                .condition(condition)
+                .cacheable(Duration.ofMinutes(1))
+                .list()
+    }
+
+    private LoadContext<Customer> createCountContext() {
+        new LoadContext<Customer>(metadata.getClass(Customer))
+                .setQuery(new LoadContext.Query('select c from sales_Customer c where c.name = :name')
+                        .setParameter('name', 'c1'))
+                .setHint(DataStoreResultCache.TTL_HINT, Duration.ofMinutes(1))
+    }
+
+    private List<Order> loadOrders(String customerName) {
+        dataManager.load(Order)
+                .query('select o from sales_Order o where o.customer.name = :name')
+                .parameter('name', customerName)
+                .cacheable(Duration.ofMinutes(1))
+                .list()
+    }
+}
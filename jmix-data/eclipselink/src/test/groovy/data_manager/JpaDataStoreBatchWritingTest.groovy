@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package data_manager
+
+import io.jmix.core.DataManager
+import io.jmix.core.Metadata
+import io.jmix.core.SaveContext
+import io.jmix.core.Stores
+import io.micrometer.core.instrument.MeterRegistry
+import jakarta.persistence.EntityManagerFactory
+import jakarta.persistence.PersistenceUnit
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory
+import org.eclipse.persistence.queries.InsertObjectQuery
+import org.eclipse.persistence.sessions.SessionEvent
+import org.eclipse.persistence.sessions.SessionEventAdapter
+import org.eclipse.persistence.sessions.SessionEventListener
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.test.context.TestPropertySource
+import test_support.DataSpec
+import test_support.entity.number_id_generation.TestLongIdEntity
+import test_support.entity.sales.Customer
+import test_support.entity.sales.Order
+import test_support.entity.sales.OrderLine
+import test_support.entity.sales.Product
+
+@TestPropertySource(properties = ["jmix.eclipselink.batch-writing-enabled = true"])
+class JpaDataStoreBatchWritingTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+
+    @Autowired
+    Metadata metadata
+
+    @Autowired
+    MeterRegistry meterRegistry
+
+    @PersistenceUnit
+    EntityManagerFactory entityManagerFactory
+
+    void cleanup() {
+        jdbc.update('delete from TEST_LONG_ID_ENTITY')
+    }
+
+    def "new entities are inserted in dependency order with ids assigned before flush"() {
+        def customer = metadata.create(Customer)
+        customer.name = 'c1'
+        def order = metadata.create(Order)
+        order.number = '1'
+        order.customer = customer
+        def product = metadata.create(Product)
+        product.name = 'p1'
+        def line = metadata.create(OrderLine)
+        line.order = order
+        line.product = product
+        line.quantity = 1
+        // created without initializers, so the id is generated only by the data store
+        def longIdEntity = new TestLongIdEntity()
+        longIdEntity.name = 'e1'
+
+        def inserted = []
+        def longIdsOnInsert = []
+        SessionEventListener listener = new SessionEventAdapter() {
+            @Override
+            void preExecuteQuery(SessionEvent event) {
+                if (event.query instanceof InsertObjectQuery) {
+                    def object = ((InsertObjectQuery) event.query).object
+                    inserted << object
+                    if (object instanceof TestLongIdEntity) {
+                        longIdsOnInsert << object.id
+                    }
+                }
+            }
+        }
+        def eventManager = entityManagerFactory.unwrap(JpaEntityManagerFactory).serverSession.eventManager
+        eventManager.addListener(listener)
+
+        def flushSummaryCount = getFlushSummaryCount()
+
+        when:
+        try {
+            dataManager.save(new SaveContext().saving(line, longIdEntity, order, product, customer))
+        } finally {
+            eventManager.removeListener(listener)
+        }
+
+        then: "generated id is set when the insert is executed"
+        longIdsOnInsert.size() == 1
+        longIdsOnInsert[0] != null
+        dataManager.load(TestLongIdEntity).id(longIdsOnInsert[0]).one().name == 'e1'
+
+        and: "referenced entities are inserted first"
+        def insertedIds = inserted*.id
+        insertedIds.indexOf(customer.id) < insertedIds.indexOf(order.id)
+        insertedIds.indexOf(order.id) < insertedIds.indexOf(line.id)
+        insertedIds.indexOf(product.id) < insertedIds.indexOf(line.id)
+
+        and: "number of statements is recorded"
+        getFlushSummaryCount() == flushSummaryCount + 1
+    }
+
+    private long getFlushSummaryCount() {
+        def summary = meterRegistry.find('jmix.eclipselink.flush.statements')
+                .tag('store', Stores.MAIN)
+                .summary()
+        summary == null ? 0 : summary.count()
+    }
+}
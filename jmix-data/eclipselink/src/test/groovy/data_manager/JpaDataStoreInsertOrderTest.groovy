@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package data_manager
+
+import io.jmix.core.Metadata
+import io.jmix.core.Stores
+import io.jmix.core.impl.DataStoreFactory
+import io.jmix.eclipselink.impl.JpaDataStore
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.entity.sales.Customer
+import test_support.entity.sales.Order
+import test_support.entity.sales.OrderLine
+import test_support.entity.sales.Product
+
+class JpaDataStoreInsertOrderTest extends DataSpec {
+
+    @Autowired
+    Metadata metadata
+
+    @Autowired
+    DataStoreFactory dataStoreFactory
+
+    def "new entities are sorted by dependencies of their types"() {
+        def customer = metadata.create(Customer)
+        def order1 = metadata.create(Order)
+        def order2 = metadata.create(Order)
+        def product = metadata.create(Product)
+        def line1 = metadata.create(OrderLine)
+        def line2 = metadata.create(OrderLine)
+
+        JpaDataStore dataStore = dataStoreFactory.get(Stores.MAIN) as JpaDataStore
+
+        when:
+        def sorted = dataStore.sortForInsert([line1, order1, line2, customer, order2, product])
+
+        then: "referenced types go first and the order within a type is kept"
+        sorted.size() == 6
+        sorted.indexOf(customer) < sorted.indexOf(order1)
+        sorted.indexOf(order1) + 1 == sorted.indexOf(order2)
+        sorted.indexOf(order2) < sorted.indexOf(line1)
+        sorted.indexOf(product) < sorted.indexOf(line1)
+        sorted.indexOf(line1) + 1 == sorted.indexOf(line2)
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package entity_import_export
+
+import io.jmix.core.CollectionImportPolicy
+import io.jmix.core.DataManager
+import io.jmix.core.EntityImportExport
+import io.jmix.core.EntityImportPlan
+import io.jmix.core.EntityImportPlans
+import io.jmix.core.Metadata
+import io.jmix.core.ReferenceImportBehaviour
+import io.jmix.core.Stores
+import io.jmix.core.datastore.AbstractDataStore
+import io.jmix.core.datastore.DataStoreBeforeEntityLoadEvent
+import io.jmix.core.datastore.DataStoreEventListener
+import io.jmix.core.impl.DataStoreFactory
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.entity.sales.Customer
+import test_support.entity.sales.Order
+import test_support.entity.sales.OrderLine
+import test_support.entity.sales.Product
+
+class EntityImportPreloadTest extends DataSpec {
+
+    @Autowired
+    EntityImportExport entityImportExport
+
+    @Autowired
+    EntityImportPlans entityImportPlans
+
+    @Autowired
+    DataManager dataManager
+
+    @Autowired
+    Metadata metadata
+
+    @Autowired
+    DataStoreFactory dataStoreFactory
+
+    Customer customer1, customer2
+    Product product1, product2
+    Order existingOrder
+
+    void setup() {
+        customer1 = saveCustomer('c1')
+        customer2 = saveCustomer('c2')
+        product1 = saveProduct('p1')
+        product2 = saveProduct('p2')
+
+        existingOrder = dataManager.create(Order)
+        existingOrder.number = '1'
+        existingOrder.customer = customer1
+        def line = dataManager.create(OrderLine)
+        line.order = existingOrder
+        line.product = product1
+        line.quantity = 1
+        dataManager.save(existingOrder, line)
+    }
+
+    def "existing and referenced entities are loaded by one query per entity type"() {
+        def missingCustomer = metadata.create(Customer)
+        def srcOrders = [
+                createSrcOrder(existingOrder.id, '1-updated', customer2, [(product2): 5]),
+                createSrcOrder(UUID.randomUUID(), '2', customer1, [(product1): 1, (product2): 2]),
+                createSrcOrder(UUID.randomUUID(), '3', missingCustomer, [(product1): 3]),
+                createSrcOrder(UUID.randomUUID(), '4', customer2, [:])
+        ]
+
+        def loadCounter = new LoadCounter()
+        def dataStore = dataStoreFactory.get(Stores.MAIN) as AbstractDataStore
+        dataStore.registerInterceptor(loadCounter)
+
+        when:
+        try {
+            entityImportExport.importEntities(srcOrders, createImportPlan())
+        } finally {
+            dataStore.listeners.remove(loadCounter)
+        }
+
+        then: "existing orders and referenced customers and products are loaded by one query each"
+        loadCounter.counts == [(Order): 1, (Customer): 1, (Product): 1]
+
+        and: "existing order is updated and new orders are created"
+        def orders = loadOrders()
+        orders*.number == ['1-updated', '2', '3', '4']
+        orders[0].id == existingOrder.id
+
+        and: "references are resolved, missing references are ignored"
+        orders*.customer == [customer2, customer1, null, customer2]
+        orders.collect { toQuantities(it) } == [[p2: 5], [p1: 1, p2: 2], [p1: 3], [:]]
+    }
+
+    def "entity referenced several times is loaded once"() {
+        def srcOrders = (1..5).collect {
+            createSrcOrder(UUID.randomUUID(), "$it", customer1, [(product1): it])
+        }
+
+        def loadCounter = new LoadCounter()
+        def dataStore = dataStoreFactory.get(Stores.MAIN) as AbstractDataStore
+        dataStore.registerInterceptor(loadCounter)
+
+        when:
+        try {
+            entityImportExport.importEntities(srcOrders, createImportPlan())
+        } finally {
+            dataStore.listeners.remove(loadCounter)
+        }
+
+        then:
+        loadCounter.counts == [(Order): 1, (Customer): 1, (Product): 1]
+        loadOrders().findAll { it.id != existingOrder.id }*.customer.every { it == customer1 }
+    }
+
+    protected EntityImportPlan createImportPlan() {
+        return entityImportPlans.builder(Order)
+                .addLocalProperties()
+                .addManyToOneProperty('customer', ReferenceImportBehaviour.IGNORE_MISSING)
+                .addOneToManyProperty('orderLines',
+                        entityImportPlans.builder(OrderLine)
+                                .addLocalProperties()
+                                .addManyToOneProperty('product', ReferenceImportBehaviour.ERROR_ON_MISSING)
+                                .build(),
+                        CollectionImportPolicy.REMOVE_ABSENT_ITEMS)
+                .build()
+    }
+
+    protected Order createSrcOrder(UUID id, String number, Customer customer, Map<Product, Integer> quantities) {
+        def order = metadata.create(Order)
+        order.id = id
+        order.number = number
+        order.customer = referenceTo(Customer, customer.id)
+        order.orderLines = quantities.collect { product, quantity ->
+            def line = metadata.create(OrderLine)
+            line.order = order
+            line.product = referenceTo(Product, product.id)
+            line.quantity = quantity
+            line
+        }
+        return order
+    }
+
+    protected <T> T referenceTo(Class<T> entityClass, UUID id) {
+        def entity = metadata.create(entityClass)
+        entity.id = id
+        return entity
+    }
+
+    protected List<Order> loadOrders() {
+        return dataManager.load(Order)
+                .query('select e from sales_Order e order by e.number')
+                .fetchPlan { it.addAll('number', 'customer', 'orderLines.quantity', 'orderLines.product.name') }
+                .list()
+    }
+
+    protected static Map<String, Integer> toQuantities(Order order) {
+        return order.orderLines.collectEntries { [(it.product.name): it.quantity] }
+    }
+
+    protected Customer saveCustomer(String name) {
+        def customer = dataManager.create(Customer)
+        customer.name = name
+        return dataManager.save(customer)
+    }
+
+    protected Product saveProduct(String name) {
+        def product = dataManager.create(Product)
+        product.name = name
+        return dataManager.save(product)
+    }
+
+    static class LoadCounter implements DataStoreEventListener {
+
+        Map<Class, Integer> counts = [:]
+
+        @Override
+        void beforeEntityLoad(DataStoreBeforeEntityLoadEvent event) {
+            counts.merge(event.loadContext.entityMetaClass.javaClass, 1, Integer::sum)
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package entity_import_export
+
+import io.jmix.core.CollectionImportPolicy
+import io.jmix.core.DataManager
+import io.jmix.core.EntityImportExport
+import io.jmix.core.EntityImportPlan
+import io.jmix.core.EntityImportPlans
+import io.jmix.core.FetchPlan
+import io.jmix.core.FetchPlans
+import io.jmix.core.ReferenceImportBehaviour
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.entity.sales.Customer
+import test_support.entity.sales.Order
+import test_support.entity.sales.OrderLine
+import test_support.entity.sales.Product
+
+import java.nio.charset.StandardCharsets
+
+class EntityStreamingImportExportTest extends DataSpec {
+
+    @Autowired
+    EntityImportExport entityImportExport
+
+    @Autowired
+    EntityImportPlans entityImportPlans
+
+    @Autowired
+    FetchPlans fetchPlans
+
+    @Autowired
+    DataManager dataManager
+
+    List<UUID> orderIds
+    List<Map> originalOrders
+
+    void setup() {
+        def customer1 = saveCustomer('c1')
+        def customer2 = saveCustomer('c2')
+        def product1 = saveProduct('p1')
+        def product2 = saveProduct('p2')
+        def product3 = saveProduct('p3')
+
+        orderIds = [
+                saveOrder('1', customer1, [(product1): 1, (product2): 2]),
+                saveOrder('2', customer2, [(product2): 3]),
+                saveOrder('3', customer1, [(product1): 4, (product2): 5, (product3): 6]),
+                saveOrder('4', customer2, [:]),
+                saveOrder('5', customer1, [(product3): 7])
+        ]
+        originalOrders = loadOrderSnapshots()
+    }
+
+    def "entities exported to JSON stream are imported from JSON stream"() {
+        def exportedBatches = []
+        def importedBatches = []
+
+        when:
+        def writer = new StringWriter()
+        entityImportExport.exportEntitiesToJSON(orderIds.iterator(), createFetchPlan(), writer, 2,
+                { size, processed -> exportedBatches << size } as EntityImportExport.BatchProgressListener)
+        deleteOrders()
+        def count = entityImportExport.importEntitiesFromJson(new StringReader(writer.toString()), createImportPlan(), 2,
+                { size, processed -> importedBatches << size } as EntityImportExport.BatchProgressListener)
+
+        then: "the entities are restored with nested collections"
+        count == 5
+        exportedBatches == [2, 2, 1]
+        importedBatches == [2, 2, 1]
+        loadOrderSnapshots() == originalOrders
+
+        and: "the result is the same as of the non-streaming API"
+        importWithNonStreamingApi() == originalOrders
+    }
+
+    def "entities exported to ZIP stream are imported from ZIP stream"() {
+        when:
+        def outputStream = new ByteArrayOutputStream()
+        entityImportExport.exportEntitiesToZIP(orderIds.iterator(), createFetchPlan(), outputStream, 2, null)
+        deleteOrders()
+        def count = entityImportExport.importEntitiesFromZIP(new ByteArrayInputStream(outputStream.toByteArray()),
+                createImportPlan(), 3, null)
+
+        then:
+        count == 5
+        loadOrderSnapshots() == originalOrders
+
+        and:
+        importWithNonStreamingApi() == originalOrders
+    }
+
+    def "repeated entities are resolved when import batches differ from export batches"() {
+        when: "the third order repeats the customer and product of the first one in the same export batch"
+        def writer = new StringWriter()
+        entityImportExport.exportEntitiesToJSON(orderIds.iterator(), createFetchPlan(), writer, 3, null)
+        deleteOrders()
+        def count = entityImportExport.importEntitiesFromJson(new StringReader(writer.toString()), createImportPlan(), 2,
+                null)
+
+        then: "the repeated entities are resolved in the next import batch"
+        count == 5
+        loadOrderSnapshots() == originalOrders
+    }
+
+    def "JSON exported by the non-streaming API is imported from JSON stream"() {
+        def orders = dataManager.load(Order).ids(orderIds).fetchPlan(createFetchPlan()).list()
+        def json = entityImportExport.exportEntitiesToJSON(orders as Collection<Object>, createFetchPlan())
+
+        when:
+        deleteOrders()
+        def count = entityImportExport.importEntitiesFromJson(
+                new InputStreamReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8),
+                createImportPlan(), 2, null)
+
+        then:
+        count == 5
+        loadOrderSnapshots() == originalOrders
+    }
+
+    protected List<Map> importWithNonStreamingApi() {
+        def orders = dataManager.load(Order).ids(orderIds).fetchPlan(createFetchPlan()).list()
+        def json = entityImportExport.exportEntitiesToJSON(orders as Collection<Object>, createFetchPlan())
+        deleteOrders()
+        entityImportExport.importEntitiesFromJson(json, createImportPlan())
+        return loadOrderSnapshots()
+    }
+
+    protected FetchPlan createFetchPlan() {
+        return fetchPlans.builder(Order)
+                .addFetchPlan(FetchPlan.LOCAL)
+                .add('customer', FetchPlan.INSTANCE_NAME)
+                .add('orderLines', line -> line
+                        .addFetchPlan(FetchPlan.LOCAL)
+                        .add('product', FetchPlan.INSTANCE_NAME))
+                .build()
+    }
+
+    protected EntityImportPlan createImportPlan() {
+        return entityImportPlans.builder(Order)
+                .addLocalProperties()
+                .addManyToOneProperty('customer', ReferenceImportBehaviour.ERROR_ON_MISSING)
+                .addOneToManyProperty('orderLines',
+                        entityImportPlans.builder(OrderLine)
+                                .addLocalProperties()
+                                .addManyToOneProperty('product', ReferenceImportBehaviour.ERROR_ON_MISSING)
+                                .build(),
+                        CollectionImportPolicy.REMOVE_ABSENT_ITEMS)
+                .build()
+    }
+
+    protected List<Map> loadOrderSnapshots() {
+        return dataManager.load(Order)
+                .query('select e from sales_Order e order by e.number')
+                .fetchPlan(createFetchPlan())
+                .list()
+                .collect { order ->
+                    [
+                            id      : order.id,
+                            number  : order.number,
+                            customer: order.customer?.name,
+                            lines   : order.orderLines.collectEntries { [(it.id): [it.product.name, it.quantity]] }
+                    ]
+                }
+    }
+
+    protected void deleteOrders() {
+        jdbc.update('delete from SALES_ORDER_LINE')
+        jdbc.update('delete from SALES_ORDER')
+    }
+
+    protected UUID saveOrder(String number, Customer customer, Map<Product, Integer> quantities) {
+        def order = dataManager.create(Order)
+        order.number = number
+        order.customer = customer
+        def lines = quantities.collect { product, quantity ->
+            def line = dataManager.create(OrderLine)
+            line.order = order
+            line.product = product
+            line.quantity = quantity
+            line
+        }
+        dataManager.save(([order] + lines) as Object[])
+        return order.id
+    }
+
+    protected Customer saveCustomer(String name) {
+        def customer = dataManager.create(Customer)
+        customer.name = name
+        return dataManager.save(customer)
+    }
+
+    protected Product saveProduct(String name) {
+        def product = dataManager.create(Product)
+        product.name = name
+        return dataManager.save(product)
+    }
+}
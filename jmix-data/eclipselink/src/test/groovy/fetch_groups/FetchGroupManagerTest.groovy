@@ -17,6 +17,7 @@
 package fetch_groups
 
 import io.jmix.core.*
+import io.jmix.core.impl.FetchPlanRepositoryImpl
 import io.jmix.eclipselink.impl.FetchGroupManager
 import org.eclipse.persistence.config.QueryHints
 import org.springframework.beans.factory.annotation.Autowired
@@ -33,6 +34,8 @@ class FetchGroupManagerTest extends DataSpec {
     FetchPlans fetchPlans
     @Autowired
     FetchGroupManager fetchGroupManager
+    @Autowired
+    FetchPlanRepositoryImpl fetchPlanRepository
 
     Customer customer
     Order order
@@ -212,4 +215,44 @@ class FetchGroupManagerTest extends DataSpec {
         entityStates.isLoaded(order.orderLines[0], 'product')
         entityStates.isLoaded(order.orderLines[0].product, 'quantity')
     }
+
+    def "fetch group descriptions are cached for equal fetch plans"() {
+        def fetchPlan1 = fetchPlans.builder(Order)
+                .addFetchPlan(FetchPlan.BASE)
+                .add('customer', { it.addFetchPlan(FetchPlan.BASE) }, FetchMode.JOIN)
+                .build()
+        def fetchPlan2 = fetchPlans.builder(Order)
+                .addFetchPlan(FetchPlan.BASE)
+                .add('customer', { it.addFetchPlan(FetchPlan.BASE) }, FetchMode.JOIN)
+                .build()
+
+        when:
+        def description1 = fetchGroupManager.calculateFetchGroup('select o from sales_Order o', fetchPlan1, false, true)
+        def description2 = fetchGroupManager.calculateFetchGroup('select o from sales_Order o', fetchPlan2, false, true)
+
+        then:
+        fetchPlan1.hashCode() == fetchPlan2.hashCode()
+        description1.is(description2)
+        description1.frozen
+
+        when:
+        description1.addHint('o.orderLines', QueryHints.BATCH)
+
+        then:
+        thrown(IllegalStateException)
+
+        when:
+        def description3 = fetchGroupManager.calculateFetchGroup('select o from sales_Order o', fetchPlan1, true, true)
+
+        then:
+        !description3.is(description1)
+
+        when:
+        fetchPlanRepository.reset()
+        def description4 = fetchGroupManager.calculateFetchGroup('select o from sales_Order o', fetchPlan1, false, true)
+
+        then:
+        !description4.is(description1)
+        description4.hints == description1.hints
+    }
 }
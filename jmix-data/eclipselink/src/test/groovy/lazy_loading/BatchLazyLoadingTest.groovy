@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package lazy_loading
+
+import io.jmix.core.DataManager
+import io.jmix.eclipselink.impl.lazyloading.AbstractValueHolder
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.entity.lazyloading.ManyToOneEntity
+import test_support.entity.lazyloading.OneToManyEntity
+
+import static io.jmix.eclipselink.impl.lazyloading.ValueHoldersSupport.getCollectionValueHolder
+import static io.jmix.eclipselink.impl.lazyloading.ValueHoldersSupport.getSingleValueHolder
+
+class BatchLazyLoadingTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+
+    List<OneToManyEntity> owners = []
+
+    void setup() {
+        3.times { i ->
+            def owner = dataManager.create(OneToManyEntity)
+            owner.name = "owner-$i"
+
+            def item1 = dataManager.create(ManyToOneEntity)
+            item1.name = "item-$i-1"
+            item1.oneToManyEntity = owner
+
+            def item2 = dataManager.create(ManyToOneEntity)
+            item2.name = "item-$i-2"
+            item2.oneToManyEntity = owner
+
+            dataManager.save(owner, item1, item2)
+            owners << owner
+        }
+    }
+
+    void deleteEntities() {
+        jdbc.update("delete from TEST_MANY_TO_ONE_ENTITY where NAME like 'item-%'")
+        jdbc.update("delete from TEST_ONE_TO_MANY_ENTITY where NAME like 'owner-%'")
+    }
+
+    def "reference is loaded for all entities of the same load"() {
+        def items = dataManager.load(ManyToOneEntity)
+                .query("select e from test_ManyToOneEntity e where e.name like 'item-%' order by e.name")
+                .fetchPlan("ManyToOneEntity")
+                .list()
+
+        when: "reference of one entity is accessed"
+        def owner = items[0].oneToManyEntity
+
+        then: "references of other entities are loaded too"
+        owner == owners[0]
+        items.every { ((AbstractValueHolder) getSingleValueHolder(it, "oneToManyEntity")).isInstantiated() }
+        items.every { it.oneToManyEntity.name == "owner-" + it.name.split("-")[1] }
+
+        and: "entities referring to the same entity get the same instance"
+        items[0].oneToManyEntity.is(items[1].oneToManyEntity)
+
+        cleanup:
+        deleteEntities()
+    }
+
+    def "collection is loaded for all entities of the same load"() {
+        def loadedOwners = dataManager.load(OneToManyEntity)
+                .query("select e from test_OneToManyEntity e where e.name like 'owner-%' order by e.name")
+                .fetchPlan("OneToManyEntity")
+                .list()
+
+        when: "collection of one entity is accessed"
+        def items = loadedOwners[0].manyToOneEntities
+
+        then: "collections of other entities are loaded too"
+        items*.name.toSorted() == ["item-0-1", "item-0-2"]
+        loadedOwners.every { ((AbstractValueHolder) getCollectionValueHolder(it, "manyToOneEntities")).isInstantiated() }
+        loadedOwners[2].manyToOneEntities*.name.toSorted() == ["item-2-1", "item-2-2"]
+
+        cleanup:
+        deleteEntities()
+    }
+
+    def "loaded holders release the batch loading group"() {
+        def items = dataManager.load(ManyToOneEntity)
+                .query("select e from test_ManyToOneEntity e where e.name like 'item-%' order by e.name")
+                .fetchPlan("ManyToOneEntity")
+                .list()
+
+        when: "reference of one entity is accessed"
+        items[0].oneToManyEntity
+
+        then: "holders loaded with the batch do not keep the group and its entities"
+        items.every { getBatchLoadingGroup(getSingleValueHolder(it, "oneToManyEntity")) == null }
+
+        cleanup:
+        deleteEntities()
+    }
+
+    def "entity loaded alone loads its reference separately"() {
+        def item = dataManager.load(ManyToOneEntity)
+                .query("select e from test_ManyToOneEntity e where e.name = 'item-1-1'")
+                .fetchPlan("ManyToOneEntity")
+                .one()
+
+        expect:
+        item.oneToManyEntity == owners[1]
+
+        cleanup:
+        deleteEntities()
+    }
+
+    private static Object getBatchLoadingGroup(Object holder) {
+        def field = AbstractValueHolder.getDeclaredField("batchLoadingGroup")
+        field.accessible = true
+        return field.get(holder)
+    }
+}
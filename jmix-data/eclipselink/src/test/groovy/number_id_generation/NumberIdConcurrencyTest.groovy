@@ -33,6 +33,7 @@ import test_support.DataSpec
 import test_support.entity.number_id_generation.NumberIdSingleTableRoot
 
 import javax.sql.DataSource
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
@@ -119,6 +120,35 @@ class NumberIdConcurrencyTest extends DataSpec {
         DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 100)
     }
 
+    def "ids taken concurrently from cache are unique"() {
+
+        DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 20)
+
+        when:
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet()
+        ExecutorService executorService = Executors.newFixedThreadPool(10)
+        10.times {
+            executorService.submit({
+                1000.times {
+                    ids.add(numberIdCache.createLongId('test$NumberIdSingleTableRoot'))
+                }
+            })
+        }
+        executorService.shutdown()
+        executorService.awaitTermination(30, TimeUnit.SECONDS)
+
+        then:
+
+        ids.size() == 10000
+        ids.min() == 1
+        ids.max() < 10000 + 20 * 10
+
+        cleanup:
+
+        DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 100)
+    }
+
     def "generate with zero size cache"() {
         DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 0)
 
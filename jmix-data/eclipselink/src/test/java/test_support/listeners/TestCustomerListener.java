@@ -16,6 +16,7 @@
 
 package test_support.listeners;
 
+import io.jmix.core.event.EntityBulkChangedEvent;
 import io.jmix.core.event.EntityChangedEvent;
 import io.jmix.core.event.EntitySavingEvent;
 import io.jmix.data.listener.BeforeDetachEntityListener;
@@ -37,6 +38,8 @@ public class TestCustomerListener implements BeforeDetachEntityListener<Customer
 
     public Consumer<Customer> beforeDetachConsumer;
 
+    public Consumer<EntityBulkChangedEvent<Customer>> bulkChangedEventConsumer;
+
     public Consumer<EntityChangedEvent<Customer>> getChangedEventConsumer() {
         return changedEventConsumer;
     }
@@ -67,6 +70,13 @@ public class TestCustomerListener implements BeforeDetachEntityListener<Customer
         }
     }
 
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCustomersBulkChanged(EntityBulkChangedEvent<Customer> event) {
+        if (bulkChangedEventConsumer != null) {
+            bulkChangedEventConsumer.accept(event);
+        }
+    }
+
     @EventListener
     public void onCustomerCreate(EntitySavingEvent<Customer> event) {
         if (event.getEntity().getStatus() == null) {
@@ -69,4 +69,29 @@ public interface DuplicateEntityManager {
      */
     @Nullable
     Object load(Class entityClass, Map<String, Object> propertyValues, @Nullable FetchPlan fetchPlan);
+
+    /**
+     * Loads entities having the given values of the property with one query, so that subsequent lookups by this
+     * property during the current import run do not query the database for each value. Does nothing if no import
+     * is running in the current thread.
+     *
+     * @param entityClass  class of entities to load
+     * @param propertyName property name
+     * @param values       property values
+     */
+    default void prefetch(Class entityClass, String propertyName, Collection<Object> values) {
+    }
+
+    /**
+     * Loads entities having the given combinations of property values by a few queries, so that subsequent
+     * {@link #load(Object, UniqueEntityConfiguration, FetchPlan)} calls with the same values during the current
+     * import run do not query the database for each entity. The prefetched entity is used by the lookup if it is
+     * loaded with the fetch plan requested there. Does nothing if no import is running in the current thread.
+     *
+     * @param entityClass    class of entities to load
+     * @param propertyValues combinations of property values, each containing the same properties
+     * @param fetchPlan      fetch plan with which the entities are loaded
+     */
+    default void prefetch(Class entityClass, Collection<Map<String, Object>> propertyValues, @Nullable FetchPlan fetchPlan) {
+    }
 }
@@ -20,6 +20,7 @@ package io.jmix.dataimport.extractor.data;
 import io.jmix.dataimport.configuration.ImportConfiguration;
 
 import java.io.InputStream;
+import java.util.Iterator;
 
 /**
  * Parses the data from source and returns an instance of {@link ImportedData} containing list of {@link ImportedDataItem} with raw values
@@ -44,6 +45,18 @@ public interface ImportedDataExtractor {
      */
     ImportedData extract(ImportConfiguration importConfiguration, byte[] inputData);
 
+    /**
+     * Parses input data specified as input stream lazily: the items are read from the stream as the returned
+     * iterator is advanced. The default implementation parses the whole input data first.
+     *
+     * @param importConfiguration import configuration
+     * @param inputStream input data
+     * @return iterator over {@link ImportedDataItem}s with raw values for entity properties
+     */
+    default Iterator<ImportedDataItem> extractItems(ImportConfiguration importConfiguration, InputStream inputStream) {
+        return extract(importConfiguration, inputStream).getItems().iterator();
+    }
+
     /**
      * @return supported format of input data
      */
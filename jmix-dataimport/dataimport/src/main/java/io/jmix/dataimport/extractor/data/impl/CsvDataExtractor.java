@@ -18,6 +18,7 @@ package io.jmix.dataimport.extractor.data.impl;
 
 import com.opencsv.CSVReader;
 import com.opencsv.exceptions.CsvException;
+import com.opencsv.exceptions.CsvValidationException;
 import io.jmix.dataimport.InputDataFormat;
 import io.jmix.dataimport.configuration.ImportConfiguration;
 import io.jmix.dataimport.exception.ImportException;
@@ -28,8 +29,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.stereotype.Component;
 
 import java.io.*;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
 @Component("datimp_CsvDataExtractor")
 public class CsvDataExtractor implements ImportedDataExtractor {
@@ -56,6 +56,40 @@ public class CsvDataExtractor implements ImportedDataExtractor {
         return getImportedData(csvReader);
     }
 
+    @Override
+    public Iterator<ImportedDataItem> extractItems(ImportConfiguration importConfiguration, InputStream inputStream) {
+        CSVReader csvReader;
+        try {
+            csvReader = new CSVReader(new InputStreamReader(inputStream, importConfiguration.getInputDataCharset()));
+        } catch (UnsupportedEncodingException e) {
+            throw new ImportException(e, "Unable to read lines from CSV: " + e.getMessage());
+        }
+        String[] header = readNext(csvReader);
+        if (header == null) {
+            return Collections.emptyIterator();
+        }
+        List<String> columnNames = Arrays.asList(header);
+        return new Iterator<>() {
+            private int itemIndex = 0;
+            private String[] nextValues = readNext(csvReader);
+
+            @Override
+            public boolean hasNext() {
+                return nextValues != null;
+            }
+
+            @Override
+            public ImportedDataItem next() {
+                if (nextValues == null) {
+                    throw new NoSuchElementException();
+                }
+                ImportedDataItem importedDataItem = createImportedDataItem(columnNames, nextValues, ++itemIndex);
+                nextValues = readNext(csvReader);
+                return importedDataItem;
+            }
+        };
+    }
+
     @Override
     public String getSupportedDataFormat() {
         return InputDataFormat.CSV;
@@ -73,16 +107,27 @@ public class CsvDataExtractor implements ImportedDataExtractor {
             List<String> columnNames = Arrays.asList(strings.get(0));
             importedData.setDataFieldNames(columnNames);
             for (int i = 1; i < strings.size(); i++) {
-                ImportedDataItem importedDataItem = new ImportedDataItem();
-                importedDataItem.setItemIndex(i);
-                String[] values = strings.get(i);
-                for (int j = 0; j < values.length; j++) {
-                    importedDataItem.addRawValue(columnNames.get(j), values[j]);
-                }
-                importedData.addItem(importedDataItem);
+                importedData.addItem(createImportedDataItem(columnNames, strings.get(i), i));
             }
 
         }
         return importedData;
     }
+
+    protected ImportedDataItem createImportedDataItem(List<String> columnNames, String[] values, int itemIndex) {
+        ImportedDataItem importedDataItem = new ImportedDataItem();
+        importedDataItem.setItemIndex(itemIndex);
+        for (int j = 0; j < values.length; j++) {
+            importedDataItem.addRawValue(columnNames.get(j), values[j]);
+        }
+        return importedDataItem;
+    }
+
+    protected String[] readNext(CSVReader csvReader) {
+        try {
+            return csvReader.readNext();
+        } catch (IOException | CsvValidationException e) {
+            throw new ImportException(e, "Unable to read lines from CSV: " + e.getMessage());
+        }
+    }
 }
@@ -27,10 +27,7 @@ import io.jmix.dataimport.configuration.DuplicateEntityPolicy;
 import io.jmix.dataimport.configuration.ImportConfiguration;
 import io.jmix.dataimport.configuration.ImportTransactionStrategy;
 import io.jmix.dataimport.configuration.UniqueEntityConfiguration;
-import io.jmix.dataimport.configuration.mapping.PropertyMapping;
-import io.jmix.dataimport.configuration.mapping.ReferenceMultiFieldPropertyMapping;
-import io.jmix.dataimport.configuration.mapping.ReferencePropertyMapping;
-import io.jmix.dataimport.configuration.mapping.SimplePropertyMapping;
+import io.jmix.dataimport.configuration.mapping.*;
 import io.jmix.dataimport.exception.ImportUniqueAbortException;
 import io.jmix.dataimport.extractor.data.ImportedData;
 import io.jmix.dataimport.extractor.data.ImportedDataItem;
@@ -38,6 +35,8 @@ import io.jmix.dataimport.extractor.entity.EntityExtractionResult;
 import io.jmix.dataimport.extractor.entity.EntityExtractor;
 import io.jmix.dataimport.property.populator.EntityInfo;
 import io.jmix.dataimport.property.populator.EntityPropertiesPopulator;
+import io.jmix.dataimport.property.populator.PropertyMappingContext;
+import io.jmix.dataimport.property.populator.PropertyMappingUtils;
 import io.jmix.dataimport.result.EntityImportError;
 import io.jmix.dataimport.result.EntityImportErrorType;
 import io.jmix.dataimport.result.ImportResult;
@@ -51,14 +50,14 @@ import org.springframework.stereotype.Component;
 
 import org.springframework.lang.Nullable;
 import jakarta.persistence.PersistenceException;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * Executes import for a given import configuration and {@link ImportedData}.
+ * <p>
+ * If the executor is created for an iterator of imported data items, the items are read and imported by batches
+ * of {@link ImportConfiguration#getImportBatchSize()} items, so the whole input data is never kept in memory.
  */
 @Component("datimp_DataImportExecutor")
 @Scope(BeanDefinition.SCOPE_PROTOTYPE)
@@ -83,28 +82,51 @@ public class DataImportExecutor {
     protected EntityPropertiesPopulator entityPropertiesPopulator;
     @Autowired
     protected EntityExtractor entityExtractor;
+    @Autowired
+    protected PropertyMappingUtils propertyMappingUtils;
 
     protected ImportResult importResult = new ImportResult();
 
     protected ImportConfiguration importConfiguration;
     protected ImportedData importedData;
+    protected Iterator<ImportedDataItem> importedDataItems;
+
+    protected ImportLookupCache lookupCache = new ImportLookupCache();
 
     public DataImportExecutor(ImportConfiguration importConfiguration, ImportedData importedData) {
         this.importConfiguration = importConfiguration;
         this.importedData = importedData;
+        this.importedDataItems = importedData.getItems().iterator();
+    }
+
+    /**
+     * Creates an executor importing the items read lazily from the input data. Such items can be imported
+     * only with {@link ImportTransactionStrategy#TRANSACTION_PER_BATCH} strategy.
+     */
+    public DataImportExecutor(ImportConfiguration importConfiguration, Iterator<ImportedDataItem> importedDataItems) {
+        this.importConfiguration = importConfiguration;
+        this.importedDataItems = importedDataItems;
     }
 
     public ImportResult importData() {
         if (importConfiguration == null) {
             throw new IllegalStateException("Import configuration is not set to execute data import");
         }
+        if (importedData == null && importConfiguration.getTransactionStrategy() != ImportTransactionStrategy.TRANSACTION_PER_BATCH) {
+            throw new IllegalStateException("Lazily read data can be imported only with transaction per batch strategy");
+        }
 
-        if (importConfiguration.getTransactionStrategy() == ImportTransactionStrategy.SINGLE_TRANSACTION) {
-            importInOneTransaction();
-        } else if (importConfiguration.getTransactionStrategy() == ImportTransactionStrategy.TRANSACTION_PER_BATCH) {
-            importByBatches();
-        } else {
-            importInMultipleTransactions();
+        ImportLookupCache.bind(lookupCache);
+        try {
+            if (importConfiguration.getTransactionStrategy() == ImportTransactionStrategy.SINGLE_TRANSACTION) {
+                importInOneTransaction();
+            } else if (importConfiguration.getTransactionStrategy() == ImportTransactionStrategy.TRANSACTION_PER_BATCH) {
+                importByBatches();
+            } else {
+                importInMultipleTransactions();
+            }
+        } finally {
+            ImportLookupCache.unbind();
         }
 
         return importResult;
@@ -114,12 +136,14 @@ public class DataImportExecutor {
         try {
             List<EntityExtractionResult> extractionResults = null;
             try {
+                prefetchReferences(importedData.getItems());
                 extractionResults = entityExtractor.extractEntities(importConfiguration, importedData);
             } catch (Exception e) {
                 createErrorResult(e, "Entities extraction failed: " + e.getMessage());
             }
 
             if (extractionResults != null) {
+                prefetchDuplicates(extractionResults);
                 List<Object> entitiesToImport = checkExtractionResults(extractionResults);
                 List<Object> importedEntities = importEntities(entitiesToImport);
                 importResult.setImportedEntityIds(importedEntities);
@@ -134,12 +158,19 @@ public class DataImportExecutor {
     }
 
     protected void importByBatches() {
-        int offset = 0;
         int batchSize = importConfiguration.getImportBatchSize();
-        List<ImportedDataItem> allItems = importedData.getItems();
-        while (true) {
-            int end = offset + batchSize;
-            List<ImportedDataItem> importedDataItemsBatch = allItems.subList(offset, Math.min(end, allItems.size()));
+        boolean hasItems = true;
+        while (hasItems) {
+            List<ImportedDataItem> importedDataItemsBatch = new ArrayList<>(batchSize);
+            try {
+                while (importedDataItemsBatch.size() < batchSize && importedDataItems.hasNext()) {
+                    importedDataItemsBatch.add(importedDataItems.next());
+                }
+            } catch (Exception e) {
+                createErrorResult(e, "Unable to read the data to import: " + e.getMessage());
+                break;
+            }
+            hasItems = importedDataItems.hasNext();
             try {
                 processBatch(importedDataItemsBatch);
             } catch (ImportUniqueAbortException e) {
@@ -148,11 +179,6 @@ public class DataImportExecutor {
                         e.getExistingEntity()));
                 break;
             }
-            if (end >= allItems.size()) {
-                break;
-            } else {
-                offset += batchSize;
-            }
         }
     }
 
@@ -160,6 +186,7 @@ public class DataImportExecutor {
         List<EntityExtractionResult> extractionResults = null;
         try {
             try {
+                prefetchReferences(importedDataItemsBatch);
                 extractionResults = entityExtractor.extractEntities(importConfiguration, importedDataItemsBatch);
             } catch (Exception e) {
                 importResult.setSuccess(false);
@@ -170,6 +197,7 @@ public class DataImportExecutor {
             }
 
             if (extractionResults != null) {
+                prefetchDuplicates(extractionResults);
                 List<Object> entitiesToImport = checkExtractionResults(extractionResults);
                 Collection<Object> importedEntities = importEntities(entitiesToImport);
                 importedEntities.stream()
@@ -221,6 +249,69 @@ public class DataImportExecutor {
         }
     }
 
+    /**
+     * Loads the entities referenced by the data items with one query per reference property mapping.
+     */
+    protected void prefetchReferences(List<ImportedDataItem> dataItems) {
+        if (dataItems.size() < 2) {
+            return;
+        }
+        MetaClass entityMetaClass = metadata.getClass(importConfiguration.getEntityClass());
+        for (PropertyMapping propertyMapping : importConfiguration.getPropertyMappings()) {
+            if (!(propertyMapping instanceof ReferencePropertyMapping)) {
+                continue;
+            }
+            ReferencePropertyMapping referenceMapping = (ReferencePropertyMapping) propertyMapping;
+            MetaProperty property = entityMetaClass.getProperty(referenceMapping.getEntityPropertyName());
+            if (referenceMapping.getReferenceImportPolicy() == ReferenceImportPolicy.CREATE
+                    || !property.getRange().isClass()
+                    || metadataTools.isEmbedded(property)) {
+                continue;
+            }
+
+            Set<Object> lookupValues = new LinkedHashSet<>();
+            for (ImportedDataItem dataItem : dataItems) {
+                PropertyMappingContext context = new PropertyMappingContext(referenceMapping)
+                        .setImportConfiguration(importConfiguration)
+                        .setRawValuesSource(dataItem)
+                        .setOwnerEntityMetaClass(entityMetaClass);
+                try {
+                    Object lookupValue = propertyMappingUtils.getPropertyValues(context).get(referenceMapping.getLookupPropertyName());
+                    if (lookupValue != null) {
+                        lookupValues.add(lookupValue);
+                    }
+                } catch (Exception e) {
+                    // the error is reported when the entity is extracted
+                    log.trace("Unable to get lookup value for prefetching", e);
+                }
+            }
+            duplicateEntityManager.prefetch(property.getRange().asClass().getJavaClass(),
+                    referenceMapping.getLookupPropertyName(), lookupValues);
+        }
+    }
+
+    /**
+     * Loads the duplicates of the extracted entities with a few queries per unique entity configuration, so that
+     * the duplicates are not searched for each entity separately. The duplicates are loaded for every batch, even
+     * if they have been loaded for a previous one, because they could have been updated by the import since then.
+     */
+    protected void prefetchDuplicates(List<EntityExtractionResult> extractionResults) {
+        if (extractionResults.isEmpty() || CollectionUtils.isEmpty(importConfiguration.getUniqueEntityConfigurations())) {
+            return;
+        }
+        FetchPlan fetchPlan = getFetchPlanBuilder(createEntityImportPlan(extractionResults.get(0).getEntity())).build();
+        for (UniqueEntityConfiguration configuration : importConfiguration.getUniqueEntityConfigurations()) {
+            List<Map<String, Object>> propertyValues = new ArrayList<>(extractionResults.size());
+            for (EntityExtractionResult extractionResult : extractionResults) {
+                Map<String, Object> values = new LinkedHashMap<>();
+                configuration.getEntityPropertyNames().forEach(propertyName ->
+                        values.put(propertyName, EntityValues.getValueEx(extractionResult.getEntity(), propertyName)));
+                propertyValues.add(values);
+            }
+            duplicateEntityManager.prefetch(importConfiguration.getEntityClass(), propertyValues, fetchPlan);
+        }
+    }
+
     protected List<Object> checkExtractionResults(List<EntityExtractionResult> extractionResults) {
         List<EntityExtractionResult> processedResults = new ArrayList<>(); //to search duplicates
         return extractionResults.stream()
@@ -361,6 +452,9 @@ public class DataImportExecutor {
                     .collect(Collectors.toList());
             resultList.add(filteredImportedEntities.iterator().next());
         });
+        if (!entitiesToImport.isEmpty()) {
+            lookupCache.clearMissing();
+        }
         return resultList.stream()
                 .map(EntityValues::getId)
                 .collect(Collectors.toList());
@@ -18,9 +18,11 @@ package io.jmix.dataimport.impl;
 
 import io.jmix.dataimport.DataImporter;
 import io.jmix.dataimport.configuration.ImportConfiguration;
+import io.jmix.dataimport.configuration.ImportTransactionStrategy;
 import io.jmix.dataimport.extractor.data.ImportedData;
 import io.jmix.dataimport.extractor.data.ImportedDataExtractor;
 import io.jmix.dataimport.extractor.data.ImportedDataExtractors;
+import io.jmix.dataimport.extractor.data.ImportedDataItem;
 import io.jmix.dataimport.result.ImportResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,6 +31,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
+import java.util.Iterator;
 
 @Component("datimp_DataImporter")
 public class DataImporterImpl implements DataImporter {
@@ -61,6 +64,10 @@ public class DataImporterImpl implements DataImporter {
         try {
             importConfigurationValidator.validate(configuration);
             ImportedDataExtractor dataExtractor = importedDataExtractors.getExtractor(configuration.getInputDataFormat());
+            if (configuration.getTransactionStrategy() == ImportTransactionStrategy.TRANSACTION_PER_BATCH) {
+                Iterator<ImportedDataItem> importedDataItems = dataExtractor.extractItems(configuration, inputStream);
+                return dataImportExecutors.getObject(configuration, importedDataItems).importData();
+            }
             ImportedData importedData = dataExtractor.extract(configuration, inputStream);
             return importData(configuration, importedData);
         } catch (Exception e) {
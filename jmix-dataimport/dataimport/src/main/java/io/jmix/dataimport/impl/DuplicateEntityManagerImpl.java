@@ -17,37 +17,53 @@
 package io.jmix.dataimport.impl;
 
 import io.jmix.core.DataManager;
+import io.jmix.core.EntityStates;
+import io.jmix.core.ExtendedEntities;
 import io.jmix.core.FetchPlan;
 import io.jmix.core.entity.EntityValues;
+import io.jmix.core.querycondition.Condition;
 import io.jmix.core.querycondition.LogicalCondition;
 import io.jmix.core.querycondition.PropertyCondition;
 import io.jmix.dataimport.DuplicateEntityManager;
 import io.jmix.dataimport.configuration.UniqueEntityConfiguration;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
-import java.util.Collection;
-import java.util.Map;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Component("datimp_DuplicateEntityManager")
 public class DuplicateEntityManagerImpl implements DuplicateEntityManager {
+    protected static final int PREFETCH_PARTITION_SIZE = 500;
+
     @Autowired
     protected DataManager dataManager;
+    @Autowired
+    protected ExtendedEntities extendedEntities;
+    @Autowired
+    protected EntityStates entityStates;
 
     @Override
     public Object load(Object entity, UniqueEntityConfiguration configuration, FetchPlan fetchPlan) {
-        LogicalCondition condition = LogicalCondition.and();
-        configuration.getEntityPropertyNames().forEach(propertyName -> {
-            Object propertyValue = EntityValues.getValueEx(entity, propertyName);
-            if (propertyValue != null) {
-                condition.add(PropertyCondition.equal(propertyName, propertyValue).skipNullOrEmpty());
-            } else {
-                condition.add(PropertyCondition.isSet(propertyName, false).skipNullOrEmpty());
+        Map<String, Object> propertyValues = new LinkedHashMap<>();
+        configuration.getEntityPropertyNames().forEach(propertyName ->
+                propertyValues.put(propertyName, EntityValues.getValueEx(entity, propertyName)));
+        Class<?> entityClass = getLookupClass(entity.getClass());
+
+        ImportLookupCache lookupCache = ImportLookupCache.current();
+        if (lookupCache != null) {
+            if (lookupCache.isMissing(entityClass, propertyValues)) {
+                return null;
             }
-        });
-        return loadByCondition(entity.getClass(), fetchPlan, condition);
+            Object prefetchedEntity = lookupCache.get(entityClass, propertyValues);
+            if (prefetchedEntity != null && entityStates.isLoadedWithFetchPlan(prefetchedEntity, fetchPlan)) {
+                return prefetchedEntity;
+            }
+        }
+        return loadByCondition(entityClass, fetchPlan, createCondition(propertyValues));
     }
 
     @Override
@@ -77,6 +93,26 @@ public class DuplicateEntityManagerImpl implements DuplicateEntityManager {
         return null;
     }
 
+    protected LogicalCondition createCondition(Map<String, Object> propertyValues) {
+        LogicalCondition condition = LogicalCondition.and();
+        propertyValues.forEach((propertyName, propertyValue) -> {
+            if (propertyValue != null) {
+                condition.add(PropertyCondition.equal(propertyName, propertyValue).skipNullOrEmpty());
+            } else {
+                condition.add(PropertyCondition.isSet(propertyName, false).skipNullOrEmpty());
+            }
+        });
+        return condition;
+    }
+
+    /**
+     * @return class the lookups are cached under, so that the lookups by the class configured in the import and
+     * by the class of an extracted entity share the cache
+     */
+    protected Class<?> getLookupClass(Class<?> entityClass) {
+        return extendedEntities.getEffectiveClass(entityClass);
+    }
+
     @Override
     public Object find(Collection<Object> existingEntities, Map<String, Object> propertyValues) {
         if (!propertyValues.isEmpty()) {
@@ -98,14 +134,112 @@ public class DuplicateEntityManagerImpl implements DuplicateEntityManager {
 
     @Override
     public Object load(Class entityClass, Map<String, Object> propertyValues, @Nullable FetchPlan fetchPlan) {
-        LogicalCondition condition = LogicalCondition.and();
-        propertyValues.forEach((propertyName, propertyValue) -> {
-            if (propertyValue != null) {
-                condition.add(PropertyCondition.equal(propertyName, propertyValue).skipNullOrEmpty());
-            } else {
-                condition.add(PropertyCondition.isSet(propertyName, false).skipNullOrEmpty());
+        Class<?> lookupClass = getLookupClass(entityClass);
+        ImportLookupCache lookupCache = ImportLookupCache.current();
+        if (lookupCache != null) {
+            if (lookupCache.isMissing(lookupClass, propertyValues)) {
+                return null;
             }
-        });
-        return loadByCondition(entityClass, fetchPlan, condition);
+            Object foundEntity = lookupCache.get(lookupClass, propertyValues);
+            if (foundEntity != null && (fetchPlan == null || entityStates.isLoadedWithFetchPlan(foundEntity, fetchPlan))) {
+                return foundEntity;
+            }
+        }
+
+        Object entity = loadByCondition(lookupClass, fetchPlan, createCondition(propertyValues));
+        if (lookupCache != null && fetchPlan == null) {
+            lookupCache.put(lookupClass, propertyValues, entity);
+        }
+        return entity;
+    }
+
+    @Override
+    public void prefetch(Class entityClass, String propertyName, Collection<Object> values) {
+        ImportLookupCache lookupCache = ImportLookupCache.current();
+        if (lookupCache == null) {
+            return;
+        }
+        Class<?> lookupClass = getLookupClass(entityClass);
+        List<Map<String, Object>> valuesToLoad = values.stream()
+                .filter(ImportLookupCache::isNormalizable)
+                .map(value -> Collections.singletonMap(propertyName, value))
+                .filter(propertyValues -> !lookupCache.contains(lookupClass, propertyValues))
+                .distinct()
+                .collect(Collectors.toList());
+        prefetchEntities(lookupCache, lookupClass, Collections.singletonList(propertyName), valuesToLoad, null);
+    }
+
+    @Override
+    public void prefetch(Class entityClass, Collection<Map<String, Object>> propertyValues, @Nullable FetchPlan fetchPlan) {
+        ImportLookupCache lookupCache = ImportLookupCache.current();
+        if (lookupCache == null || propertyValues.isEmpty()) {
+            return;
+        }
+        List<String> propertyNames = new ArrayList<>(propertyValues.iterator().next().keySet());
+        List<Map<String, Object>> valuesToLoad = propertyValues.stream()
+                .filter(values -> values.keySet().equals(new HashSet<>(propertyNames)))
+                .filter(values -> values.values().stream().allMatch(value -> value == null || ImportLookupCache.isNormalizable(value)))
+                .filter(values -> values.values().stream().anyMatch(Objects::nonNull))
+                .distinct()
+                .collect(Collectors.toList());
+        prefetchEntities(lookupCache, getLookupClass(entityClass), propertyNames, valuesToLoad, fetchPlan);
+    }
+
+    /**
+     * Loads the entities having the given combinations of property values by partitions and stores the lookup
+     * results in the cache by the combinations.
+     */
+    @SuppressWarnings("unchecked")
+    protected void prefetchEntities(ImportLookupCache lookupCache, Class<?> entityClass, List<String> propertyNames,
+                                    List<Map<String, Object>> valuesToLoad, @Nullable FetchPlan fetchPlan) {
+        if (valuesToLoad.isEmpty()) {
+            return;
+        }
+
+        int partitionSize = Math.max(PREFETCH_PARTITION_SIZE / propertyNames.size(), 1);
+        Map<List<Object>, List<Object>> entitiesByNormalizedValues = new HashMap<>();
+        for (List<Map<String, Object>> valuesPartition : ListUtils.partition(valuesToLoad, partitionSize)) {
+            List<Object> entities = dataManager.load((Class<Object>) entityClass)
+                    .condition(createPrefetchCondition(propertyNames, valuesPartition))
+                    .fetchPlan(fetchPlan)
+                    .list();
+            for (Object entity : entities) {
+                Map<String, Object> entityValues = new HashMap<>();
+                propertyNames.forEach(propertyName -> entityValues.put(propertyName, EntityValues.getValueEx(entity, propertyName)));
+                entitiesByNormalizedValues.computeIfAbsent(normalize(propertyNames, entityValues), v -> new ArrayList<>())
+                        .add(entity);
+            }
+        }
+
+        for (Map<String, Object> propertyValues : valuesToLoad) {
+            List<Object> candidates = entitiesByNormalizedValues.get(normalize(propertyNames, propertyValues));
+            if (candidates == null) {
+                lookupCache.put(entityClass, propertyValues, null);
+            } else if (candidates.size() == 1 && !findNotEqualValue(propertyValues, candidates.get(0))) {
+                lookupCache.put(entityClass, propertyValues, candidates.get(0));
+            }
+            // otherwise the database comparison result is ambiguous and the entity is loaded on lookup
+        }
+    }
+
+    protected Condition createPrefetchCondition(List<String> propertyNames, List<Map<String, Object>> valuesPartition) {
+        if (propertyNames.size() == 1) {
+            String propertyName = propertyNames.get(0);
+            return PropertyCondition.inList(propertyName, valuesPartition.stream()
+                    .map(propertyValues -> propertyValues.get(propertyName))
+                    .collect(Collectors.toList()));
+        }
+        LogicalCondition condition = LogicalCondition.or();
+        valuesPartition.forEach(propertyValues -> condition.add(createCondition(propertyValues)));
+        return condition;
+    }
+
+    protected List<Object> normalize(List<String> propertyNames, Map<String, Object> propertyValues) {
+        List<Object> normalizedValues = new ArrayList<>(propertyNames.size());
+        for (String propertyName : propertyNames) {
+            Object value = propertyValues.get(propertyName);
+            normalizedValues.add(value == null ? null : ImportLookupCache.normalize(value));
+        }
+        return normalizedValues;
     }
 }
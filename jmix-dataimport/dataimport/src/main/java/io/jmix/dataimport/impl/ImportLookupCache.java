@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.dataimport.impl;
+
+import org.springframework.lang.Nullable;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Results of entity lookups performed during a single import run.
+ * <p>
+ * At most {@link #getMaxFoundEntities()} recently used found entities are kept, so that the memory used by
+ * the cache does not grow with the size of the imported data. Lookups that found nothing are kept only until
+ * the next save, because the saved entities can match them. The cache is bound to the thread executing the import
+ * by {@link DataImportExecutor}.
+ */
+public class ImportLookupCache {
+
+    private static final ThreadLocal<ImportLookupCache> CURRENT = new ThreadLocal<>();
+
+    public static final int DEFAULT_MAX_FOUND_ENTITIES = 10_000;
+
+    protected final int maxFoundEntities;
+    protected final Map<LookupKey, Object> foundEntities;
+    protected final Set<LookupKey> missingEntities = new HashSet<>();
+
+    public ImportLookupCache() {
+        this(DEFAULT_MAX_FOUND_ENTITIES);
+    }
+
+    /**
+     * @param maxFoundEntities maximum number of found entities kept in the cache
+     */
+    public ImportLookupCache(int maxFoundEntities) {
+        if (maxFoundEntities <= 0) {
+            throw new IllegalArgumentException("maxFoundEntities must be positive");
+        }
+        this.maxFoundEntities = maxFoundEntities;
+        // access order, so that the least recently used entity is evicted first
+        this.foundEntities = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LookupKey, Object> eldest) {
+                return size() > ImportLookupCache.this.maxFoundEntities;
+            }
+        };
+    }
+
+    /**
+     * @return lookup cache of the import running in the current thread or null if no import is running
+     */
+    @Nullable
+    public static ImportLookupCache current() {
+        return CURRENT.get();
+    }
+
+    static void bind(ImportLookupCache cache) {
+        CURRENT.set(cache);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return maximum number of found entities kept in the cache
+     */
+    public int getMaxFoundEntities() {
+        return maxFoundEntities;
+    }
+
+    /**
+     * @return number of found entities kept in the cache
+     */
+    public int getFoundEntitiesCount() {
+        return foundEntities.size();
+    }
+
+    /**
+     * @return true if the result of the lookup by the given property values is known
+     */
+    public boolean contains(Class<?> entityClass, Map<String, Object> propertyValues) {
+        LookupKey key = new LookupKey(entityClass, propertyValues);
+        return foundEntities.containsKey(key) || missingEntities.contains(key);
+    }
+
+    /**
+     * @return entity found by the given property values or null if it was not found or was not looked up yet
+     */
+    @Nullable
+    public Object get(Class<?> entityClass, Map<String, Object> propertyValues) {
+        return foundEntities.get(new LookupKey(entityClass, propertyValues));
+    }
+
+    public boolean isMissing(Class<?> entityClass, Map<String, Object> propertyValues) {
+        return missingEntities.contains(new LookupKey(entityClass, propertyValues));
+    }
+
+    /**
+     * Stores the result of the lookup.
+     *
+     * @param entity found entity or null if nothing is found
+     */
+    public void put(Class<?> entityClass, Map<String, Object> propertyValues, @Nullable Object entity) {
+        LookupKey key = new LookupKey(entityClass, propertyValues);
+        if (entity != null) {
+            foundEntities.put(key, entity);
+            missingEntities.remove(key);
+        } else {
+            missingEntities.add(key);
+        }
+    }
+
+    /**
+     * Forgets the lookups that found nothing. Must be called after entities are saved.
+     */
+    public void clearMissing() {
+        missingEntities.clear();
+    }
+
+    /**
+     * @return true if the database comparison of the value can be reproduced by comparing normalized values
+     * @see #normalize(Object)
+     */
+    public static boolean isNormalizable(@Nullable Object value) {
+        return value instanceof String || value instanceof Number || value instanceof UUID
+                || value instanceof Boolean || value instanceof Enum;
+    }
+
+    /**
+     * Brings a lookup value to the form the database compares values in the worst case: strings are compared
+     * ignoring case and trailing spaces by some collations, numbers are compared regardless of their type and scale.
+     */
+    public static Object normalize(Object value) {
+        if (value instanceof String) {
+            return ((String) value).stripTrailing().toLowerCase(Locale.ROOT);
+        }
+        if (value instanceof Number) {
+            try {
+                return new BigDecimal(value.toString()).stripTrailingZeros();
+            } catch (NumberFormatException e) {
+                return value;
+            }
+        }
+        return value;
+    }
+
+    protected static class LookupKey {
+
+        protected final Class<?> entityClass;
+        protected final Map<String, Object> propertyValues;
+
+        protected LookupKey(Class<?> entityClass, Map<String, Object> propertyValues) {
+            this.entityClass = entityClass;
+            this.propertyValues = new HashMap<>(propertyValues);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            LookupKey that = (LookupKey) o;
+            return entityClass.equals(that.entityClass) && propertyValues.equals(that.propertyValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityClass, propertyValues);
+        }
+    }
+}
@@ -18,6 +18,14 @@ package data_importer
 
 import io.jmix.core.FetchPlan
 import io.jmix.core.Resources
+import io.jmix.core.Stores
+import io.jmix.core.datastore.AbstractDataStore
+import io.jmix.core.datastore.DataStoreBeforeEntityLoadEvent
+import io.jmix.core.datastore.DataStoreEventListener
+import io.jmix.core.impl.DataStoreFactory
+import io.jmix.core.querycondition.Condition
+import io.jmix.core.querycondition.LogicalCondition
+import io.jmix.core.querycondition.PropertyCondition
 import io.jmix.dataimport.DataImporter
 import io.jmix.dataimport.InputDataFormat
 import io.jmix.dataimport.configuration.DuplicateEntityPolicy
@@ -27,6 +35,7 @@ import io.jmix.dataimport.configuration.UniqueEntityConfiguration
 import io.jmix.dataimport.configuration.mapping.ReferenceImportPolicy
 import io.jmix.dataimport.configuration.mapping.ReferenceMultiFieldPropertyMapping
 import io.jmix.dataimport.configuration.mapping.SimplePropertyMapping
+import io.jmix.dataimport.impl.ImportLookupCache
 import io.jmix.dataimport.result.EntityImportErrorType
 import org.springframework.beans.factory.annotation.Autowired
 import test_support.DataImportSpec
@@ -44,6 +53,8 @@ class ImportInTransactionsPerBatchTest extends DataImportSpec {
     protected DataImporter dataImporter
     @Autowired
     protected Resources resources
+    @Autowired
+    protected DataStoreFactory dataStoreFactory
 
     def 'test successful import without references'() {
         given:
@@ -132,13 +143,25 @@ class ImportInTransactionsPerBatchTest extends DataImportSpec {
         customer.name = 'John Dow'
         customer = dataManager.save(customer)
 
+        def lookupCounter = new CustomerLookupCounter()
+        def dataStore = dataStoreFactory.get(Stores.MAIN) as AbstractDataStore
+        dataStore.registerInterceptor(lookupCounter)
+
         when: 'data imported'
-        def result = dataImporter.importData(importConfig, csvContent)
+        def result
+        try {
+            result = dataImporter.importData(importConfig, csvContent)
+        } finally {
+            dataStore.listeners.remove(lookupCounter)
+        }
 
         then:
         result.success
         result.importedEntityIds.size() == 3
 
+        and: 'customers are looked up once per batch, the found customer is taken from the cache in the second batch'
+        lookupCounter.count == 2
+
         def order1 = loadEntity(Order, result.importedEntityIds[0], "order-with-customer") as Order
         order1.customer != null
         order1.customer == customer
@@ -152,6 +175,58 @@ class ImportInTransactionsPerBatchTest extends DataImportSpec {
         checkCustomer(order3.customer, 'Tom Smith', 't.smith@mail.com', null)
     }
 
+    def 'test import with references looked up by one property in several batches'() {
+        given:
+        def importConfig = ImportConfiguration.builder(Order, InputDataFormat.CSV)
+                .addSimplePropertyMapping("orderNumber", "Order Num")
+                .addSimplePropertyMapping("date", "Order Date")
+                .addReferencePropertyMapping("customer", "Customer Name", "name", ReferenceImportPolicy.IGNORE_IF_MISSING)
+                .withDateFormat('dd/MM/yyyy HH:mm')
+                .withTransactionStrategy(ImportTransactionStrategy.TRANSACTION_PER_BATCH)
+                .withImportBatchSize(2)
+                .build()
+
+        def csvContent = resources.getResourceAsStream("/test_support/input_data_files/csv/orders.csv")
+
+        def customer = dataManager.create(Customer)
+        customer.name = 'John Dow'
+        customer = dataManager.save(customer)
+
+        when: 'data imported'
+        def result = dataImporter.importData(importConfig, csvContent)
+
+        then:
+        result.success
+        result.importedEntityIds.size() == 3
+
+        def order1 = loadEntity(Order, result.importedEntityIds[0], "order-with-customer") as Order
+        order1.customer == customer
+
+        def order2 = loadEntity(Order, result.importedEntityIds[1], "order-with-customer") as Order
+        order2.customer == customer
+
+        def order3 = loadEntity(Order, result.importedEntityIds[2], "order-with-customer") as Order
+        order3.orderNumber == '#237'
+        order3.customer == null
+    }
+
+    def 'test lookup cache keeps limited number of found entities'() {
+        given:
+        def cache = new ImportLookupCache(2)
+
+        when:
+        cache.put(Customer, [name: 'a'], new Customer())
+        cache.put(Customer, [name: 'b'], new Customer())
+        cache.get(Customer, [name: 'a'])
+        cache.put(Customer, [name: 'c'], new Customer())
+
+        then: 'the least recently used entity is evicted'
+        cache.foundEntitiesCount == 2
+        cache.contains(Customer, [name: 'a'])
+        !cache.contains(Customer, [name: 'b'])
+        cache.contains(Customer, [name: 'c'])
+    }
+
     def 'test import with one-to-many composition for new entity to import'() {
         given:
         def importConfig = ImportConfiguration.builder(Customer, InputDataFormat.CSV)
@@ -522,6 +597,43 @@ class ImportInTransactionsPerBatchTest extends DataImportSpec {
         customer1.email == 'robinson@mail.com'
     }
 
+    def 'test duplicates by several properties are prefetched once per batch'() {
+        given:
+        def importConfig = ImportConfiguration.builder(Customer, InputDataFormat.CSV)
+                .addSimplePropertyMapping("name", "Name")
+                .addSimplePropertyMapping("email", "Email")
+                .withTransactionStrategy(ImportTransactionStrategy.TRANSACTION_PER_BATCH)
+                .withImportBatchSize(2)
+                .addUniqueEntityConfiguration(DuplicateEntityPolicy.UPDATE, 'name', 'email')
+                .build()
+        def csvContent = resources.getResourceAsStream("/test_support/input_data_files/csv/customers.csv")
+
+        def customer = dataManager.create(Customer)
+        customer.name = 'Tom Smith'
+        customer.email = 't.smith@mail.com'
+        customer = dataManager.save(customer)
+
+        def lookupCounter = new CustomerLookupCounter()
+        def dataStore = dataStoreFactory.get(Stores.MAIN) as AbstractDataStore
+        dataStore.registerInterceptor(lookupCounter)
+
+        when: 'data imported'
+        def result
+        try {
+            result = dataImporter.importData(importConfig, csvContent)
+        } finally {
+            dataStore.listeners.remove(lookupCounter)
+        }
+
+        then:
+        result.success
+        result.importedEntityIds.size() == 2
+        result.importedEntityIds.contains(customer.id)
+
+        and: 'both the found and the missing duplicate are taken from the prefetched results'
+        lookupCounter.count == 1
+    }
+
     def 'test unique entity configuration with ABORT policy if duplicate exists in db'() {
         given:
         def configuration = ImportConfiguration.builder(Order, InputDataFormat.XLSX)
@@ -618,4 +730,28 @@ class ImportInTransactionsPerBatchTest extends DataImportSpec {
         def customer2 = loadEntity(Customer, importResult.importedEntityIds[1], FetchPlan.LOCAL) as Customer
         checkCustomer(customer2, 'Tom Smith', 't.smith@mail.com', CustomerGrade.BRONZE)
     }
+
+    static class CustomerLookupCounter implements DataStoreEventListener {
+
+        int count
+
+        @Override
+        void beforeEntityLoad(DataStoreBeforeEntityLoadEvent event) {
+            def context = event.loadContext
+            if (context.entityMetaClass.javaClass == Customer && context.query != null
+                    && isNameCondition(context.query.condition)) {
+                count++
+            }
+        }
+
+        private static boolean isNameCondition(Condition condition) {
+            if (condition instanceof PropertyCondition) {
+                return condition.property == 'name'
+            }
+            if (condition instanceof LogicalCondition) {
+                return condition.conditions.any { isNameCondition(it) }
+            }
+            return false
+        }
+    }
 }
@@ -20,6 +20,7 @@ import io.jmix.email.entity.SendingAttachment;
 import io.jmix.email.entity.SendingMessage;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface provides methods to load, store and update email message and attachment entities
@@ -38,6 +39,15 @@ public interface EmailDataProvider {
      */
     void updateStatus(SendingMessage sendingMessage, SendingStatus status);
 
+    /**
+     * Update statuses of several messages, in a single transaction if possible.
+     *
+     * @param statuses new statuses by messages
+     */
+    default void updateStatuses(Map<SendingMessage, SendingStatus> statuses) {
+        statuses.forEach(this::updateStatus);
+    }
+
     /**
      * Loads content text for given message.
      *
@@ -18,6 +18,7 @@ package io.jmix.email;
 
 import io.jmix.email.entity.SendingAttachment;
 import io.jmix.email.entity.SendingMessage;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.DefaultValue;
@@ -118,6 +119,34 @@ public class EmailerProperties {
      */
     boolean cleanFileStorage;
 
+    /**
+     * Maximum number of queued messages sent by one sending task. Messages of a batch are sent reusing SMTP connections
+     * and their statuses are updated in one transaction. Value 1 means that each message is sent by a separate task.
+     */
+    @Positive
+    int sendingBatchSize;
+
+    /**
+     * Maximum number of idle SMTP connections kept open between sending messages. Zero value (0) means that a new
+     * connection is opened for each message.
+     */
+    @PositiveOrZero
+    int smtpConnectionPoolSize;
+
+    /**
+     * Time in seconds an idle SMTP connection is kept open in the pool. Expired connections are closed by a background
+     * thread checking the pool every half of this time, but at most once a second.
+     */
+    @PositiveOrZero
+    int smtpConnectionKeepAliveSec;
+
+    /**
+     * Maximum number of messages per second sent to recipients of one domain. Zero value (0) means that the rate is
+     * not limited.
+     */
+    @PositiveOrZero
+    double sendingRatePerDomain;
+
     public EmailerProperties(@DefaultValue("DoNotReply@localhost") String fromAddress,
                              @DefaultValue("2") int scheduledSendingDelayCallCount,
                              @DefaultValue("100") int messageQueueCapacity,
@@ -131,7 +160,11 @@ public class EmailerProperties {
                              @DefaultValue("0") int maxAgeOfImportantMessages,
                              @DefaultValue("0") int maxAgeOfNonImportantMessages,
                              @DefaultValue("0 0 0 * * ?") String emailCleaningCron,
-                             @DefaultValue("false") boolean cleanFileStorage) {
+                             @DefaultValue("false") boolean cleanFileStorage,
+                             @DefaultValue("50") int sendingBatchSize,
+                             @DefaultValue("0") int smtpConnectionPoolSize,
+                             @DefaultValue("60") int smtpConnectionKeepAliveSec,
+                             @DefaultValue("0") double sendingRatePerDomain) {
         this.fromAddress = fromAddress;
         this.scheduledSendingDelayCallCount = scheduledSendingDelayCallCount;
         this.messageQueueCapacity = messageQueueCapacity;
@@ -146,6 +179,10 @@ public class EmailerProperties {
         this.maxAgeOfNonImportantMessages = maxAgeOfNonImportantMessages;
         this.emailCleaningCron = emailCleaningCron;
         this.cleanFileStorage = cleanFileStorage;
+        this.sendingBatchSize = sendingBatchSize;
+        this.smtpConnectionPoolSize = smtpConnectionPoolSize;
+        this.smtpConnectionKeepAliveSec = smtpConnectionKeepAliveSec;
+        this.sendingRatePerDomain = sendingRatePerDomain;
     }
 
     /**
@@ -259,4 +296,32 @@ public class EmailerProperties {
     public boolean getCleanFileStorage() {
         return cleanFileStorage;
     }
+
+    /**
+     * @see #sendingBatchSize
+     */
+    public int getSendingBatchSize() {
+        return sendingBatchSize;
+    }
+
+    /**
+     * @see #smtpConnectionPoolSize
+     */
+    public int getSmtpConnectionPoolSize() {
+        return smtpConnectionPoolSize;
+    }
+
+    /**
+     * @see #smtpConnectionKeepAliveSec
+     */
+    public int getSmtpConnectionKeepAliveSec() {
+        return smtpConnectionKeepAliveSec;
+    }
+
+    /**
+     * @see #sendingRatePerDomain
+     */
+    public double getSendingRatePerDomain() {
+        return sendingRatePerDomain;
+    }
 }
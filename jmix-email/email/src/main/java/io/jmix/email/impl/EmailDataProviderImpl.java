@@ -43,6 +43,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Component("email_EmailDataProvider")
@@ -116,27 +117,43 @@ public class EmailDataProviderImpl implements EmailDataProvider {
     @Override
     public void updateStatus(SendingMessage sendingMessage, SendingStatus status) {
         try {
-            transaction.executeWithoutResult(transactionStatus -> {
-                SendingMessage msg = entityManager.merge(sendingMessage);
-
-                msg.setAttemptsMade(msg.getAttemptsMade() + 1);
-                msg.setStatus(status);
-
-                if(status == SendingStatus.QUEUE && shouldMarkNotSent(msg)) {
-                    msg.setStatus(SendingStatus.NOT_SENT);
-                }
-                if (status == SendingStatus.SENT) {
-                    msg.setDateSent(timeSource.currentTimestamp());
-                }
-                if (emailerProperties.isUseFileStorage()) {
-                    msg.setContentText(null);
-                }
-            });
+            transaction.executeWithoutResult(transactionStatus -> mergeStatus(sendingMessage, status));
         } catch (Exception e) {
             log.error(buildErrorMessage(status), sendingMessage.getAddress(), e);
         }
     }
 
+    @Override
+    public void updateStatuses(Map<SendingMessage, SendingStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+        try {
+            transaction.executeWithoutResult(transactionStatus -> statuses.forEach(this::mergeStatus));
+        } catch (Exception e) {
+            log.warn("Failed to update statuses of {} messages in one transaction, updating them one by one",
+                    statuses.size(), e);
+            statuses.forEach(this::updateStatus);
+        }
+    }
+
+    protected void mergeStatus(SendingMessage sendingMessage, SendingStatus status) {
+        SendingMessage msg = entityManager.merge(sendingMessage);
+
+        msg.setAttemptsMade(msg.getAttemptsMade() + 1);
+        msg.setStatus(status);
+
+        if(status == SendingStatus.QUEUE && shouldMarkNotSent(msg)) {
+            msg.setStatus(SendingStatus.NOT_SENT);
+        }
+        if (status == SendingStatus.SENT) {
+            msg.setDateSent(timeSource.currentTimestamp());
+        }
+        if (emailerProperties.isUseFileStorage()) {
+            msg.setContentText(null);
+        }
+    }
+
     @Override
     public String loadContentText(SendingMessage sendingMessage) {
         SendingMessage msg = dataManager.load(SendingMessage.class)
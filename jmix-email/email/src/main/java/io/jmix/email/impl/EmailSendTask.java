@@ -26,6 +26,10 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Component("email_EmailSendTask")
 @Scope(BeanDefinition.SCOPE_PROTOTYPE)
 public class EmailSendTask implements Runnable {
@@ -40,10 +44,17 @@ public class EmailSendTask implements Runnable {
     @Autowired
     private EmailerProperties emailerProperties;
 
-    private SendingMessage sendingMessage;
+    private List<SendingMessage> sendingMessages;
 
     public EmailSendTask(SendingMessage sendingMessage) {
-        this.sendingMessage = sendingMessage;
+        this.sendingMessages = Collections.singletonList(sendingMessage);
+    }
+
+    /**
+     * Creates a task sending the messages as one batch.
+     */
+    public EmailSendTask(List<SendingMessage> sendingMessages) {
+        this.sendingMessages = sendingMessages;
     }
 
     @Override
@@ -51,12 +62,22 @@ public class EmailSendTask implements Runnable {
         try {
             authenticator.begin(emailerProperties.getAsyncSendingUsername());
             try {
-                emailer.sendSendingMessage(sendingMessage);
+                if (sendingMessages.size() == 1) {
+                    emailer.sendSendingMessage(sendingMessages.get(0));
+                } else {
+                    emailer.sendSendingMessages(sendingMessages);
+                }
             } finally {
                 authenticator.end();
             }
         } catch (Exception e) {
-            log.error("Exception while sending email to '{}': ", sendingMessage.getAddress(), e);
+            log.error("Exception while sending email to '{}': ", getAddresses(), e);
         }
     }
+
+    private String getAddresses() {
+        return sendingMessages.stream()
+                .map(SendingMessage::getAddress)
+                .collect(Collectors.joining(", "));
+    }
 }
@@ -18,31 +18,43 @@ package io.jmix.email.impl;
 
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Splitter;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.jmix.core.CoreProperties;
 import io.jmix.core.FileTypesHelper;
 import io.jmix.core.TimeSource;
 import io.jmix.email.EmailHeader;
 import io.jmix.email.EmailSender;
+import io.jmix.email.EmailerProperties;
 import io.jmix.email.entity.SendingAttachment;
 import io.jmix.email.entity.SendingMessage;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.stereotype.Component;
 
 import jakarta.activation.DataHandler;
 import jakarta.activation.DataSource;
-import jakarta.mail.Message;
-import jakarta.mail.MessagingException;
-import jakarta.mail.Part;
+import jakarta.mail.*;
 import jakarta.mail.internet.*;
 import java.io.*;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Component("email_EmailSender")
 public class EmailSenderImpl implements EmailSender {
@@ -61,9 +73,61 @@ public class EmailSenderImpl implements EmailSender {
     @Autowired
     protected MeterRegistry meterRegistry;
 
+    @Autowired
+    protected EmailerProperties emailerProperties;
+
+    protected SmtpTransportPool transportPool;
+    protected ScheduledExecutorService evictionExecutor;
+
+    protected final ConcurrentMap<String, RateLimiter> domainRateLimiters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    protected void init() {
+        if (emailerProperties.getSmtpConnectionPoolSize() > 0) {
+            if (mailSender instanceof JavaMailSenderImpl) {
+                long keepAliveMillis = emailerProperties.getSmtpConnectionKeepAliveSec() * 1000L;
+                transportPool = new SmtpTransportPool((JavaMailSenderImpl) mailSender,
+                        emailerProperties.getSmtpConnectionPoolSize(), keepAliveMillis);
+                startEviction(Math.max(1000L, keepAliveMillis / 2));
+            } else {
+                log.warn("SMTP connections are not pooled: {} is not supported", mailSender.getClass().getName());
+            }
+        }
+    }
+
+    /**
+     * Starts closing idle connections of the pool that have exceeded the keep-alive time.
+     *
+     * @param periodMillis period of checking the pool in milliseconds
+     */
+    protected void startEviction(long periodMillis) {
+        evictionExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("SmtpConnectionEviction-%d")
+                .setDaemon(true)
+                .build());
+        evictionExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                transportPool.evictExpired();
+            } catch (RuntimeException e) {
+                log.warn("Failed to close expired SMTP connections", e);
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    protected void destroy() {
+        if (evictionExecutor != null) {
+            evictionExecutor.shutdownNow();
+        }
+        if (transportPool != null) {
+            transportPool.close();
+        }
+    }
+
     @Override
     public void sendEmail(SendingMessage sendingMessage) throws MessagingException {
         MimeMessage msg = createMimeMessage(sendingMessage);
+        acquireDomainPermit(getDestinationDomain(sendingMessage));
 
         Timer.Sample sample = Timer.start(meterRegistry);
         mailSender.send(msg);
@@ -72,6 +136,97 @@ public class EmailSenderImpl implements EmailSender {
         log.info("Email '{}' to '{}' has been sent successfully", msg.getSubject(), sendingMessage.getAddress());
     }
 
+    /**
+     * Sends the messages grouped by the destination domain. If SMTP connection pooling is enabled, the messages of
+     * a group are sent through one connection taken from the pool.
+     */
+    @Override
+    public Map<SendingMessage, Exception> sendEmails(List<SendingMessage> sendingMessages) {
+        Map<String, List<SendingMessage>> messagesByDomain = new LinkedHashMap<>();
+        for (SendingMessage sendingMessage : sendingMessages) {
+            messagesByDomain.computeIfAbsent(getDestinationDomain(sendingMessage), domain -> new ArrayList<>())
+                    .add(sendingMessage);
+        }
+
+        Map<SendingMessage, Exception> failures = new LinkedHashMap<>();
+        for (Map.Entry<String, List<SendingMessage>> entry : messagesByDomain.entrySet()) {
+            if (transportPool != null) {
+                sendThroughPool(entry.getKey(), entry.getValue(), failures);
+            } else {
+                failures.putAll(EmailSender.super.sendEmails(entry.getValue()));
+            }
+        }
+        return failures;
+    }
+
+    protected void sendThroughPool(String domain, List<SendingMessage> sendingMessages,
+                                   Map<SendingMessage, Exception> failures) {
+        Transport transport = null;
+        try {
+            for (SendingMessage sendingMessage : sendingMessages) {
+                try {
+                    MimeMessage msg = createMimeMessage(sendingMessage);
+                    acquireDomainPermit(domain);
+                    if (transport == null) {
+                        transport = transportPool.borrow();
+                    }
+
+                    Timer.Sample sample = Timer.start(meterRegistry);
+                    transport.sendMessage(msg, msg.getAllRecipients());
+                    sample.stop(meterRegistry.timer("jmix.EmailSender.send"));
+
+                    log.info("Email '{}' to '{}' has been sent successfully", msg.getSubject(), sendingMessage.getAddress());
+                } catch (Exception e) {
+                    // a failure of one message, e.g. when its attachments cannot be read, must not abort the batch
+                    failures.put(sendingMessage, e instanceof MessagingException ? toSendException((MessagingException) e) : e);
+                    if (transport != null && !transport.isConnected()) {
+                        transportPool.invalidate(transport);
+                        transport = null;
+                    }
+                }
+            }
+        } finally {
+            if (transport != null) {
+                transportPool.release(transport);
+            }
+        }
+    }
+
+    /**
+     * Converts an exception thrown by the transport to the form {@link JavaMailSender} reports failures,
+     * so that rejected recipients can be distinguished from temporary failures.
+     */
+    protected Exception toSendException(MessagingException e) {
+        if (e instanceof AddressException) {
+            return e;
+        }
+        Exception cause = e;
+        if (e instanceof SendFailedException && e.getNextException() instanceof SMTPAddressFailedException) {
+            cause = e.getNextException();
+        }
+        return new MailSendException("Failed to send message", cause);
+    }
+
+    protected void acquireDomainPermit(String domain) {
+        double rate = emailerProperties.getSendingRatePerDomain();
+        if (rate > 0) {
+            domainRateLimiters.computeIfAbsent(domain, d -> RateLimiter.create(rate)).acquire();
+        }
+    }
+
+    /**
+     * @return domain of the first recipient address, in lower case
+     */
+    protected String getDestinationDomain(SendingMessage sendingMessage) {
+        if (StringUtils.isBlank(sendingMessage.getAddress())) {
+            return "";
+        }
+        Iterator<String> addresses = splitAddresses(sendingMessage.getAddress()).iterator();
+        String address = addresses.hasNext() ? addresses.next() : "";
+        address = StringUtils.removeEnd(address, ">");
+        return StringUtils.substringAfterLast(address, "@").toLowerCase(Locale.ROOT);
+    }
+
     protected MimeMessage createMimeMessage(SendingMessage sendingMessage) throws MessagingException {
         MimeMessage msg = mailSender.createMimeMessage();
         assignRecipient(Message.RecipientType.TO, sendingMessage.getAddress(), msg);
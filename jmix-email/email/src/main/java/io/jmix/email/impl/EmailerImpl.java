@@ -23,6 +23,7 @@ import io.jmix.email.*;
 import io.jmix.email.entity.SendingAttachment;
 import io.jmix.email.entity.SendingMessage;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
 import org.slf4j.Logger;
@@ -174,11 +175,7 @@ public class EmailerImpl implements Emailer {
     }
 
     protected void sendSendingMessage(SendingMessage sendingMessage) {
-        Objects.requireNonNull(sendingMessage, "sendingMessage is null");
-        Objects.requireNonNull(sendingMessage.getAddress(), "sendingMessage.address is null");
-        Objects.requireNonNull(sendingMessage.getSubject(), "sendingMessage.subject is null");
-        Objects.requireNonNull(sendingMessage.getContentText(), "sendingMessage.contentText is null");
-        Objects.requireNonNull(sendingMessage.getFrom(), "sendingMessage.from is null");
+        checkSendingMessage(sendingMessage);
         try {
             emailSender.sendEmail(sendingMessage);
             emailDataProvider.updateStatus(sendingMessage, SendingStatus.SENT);
@@ -189,6 +186,59 @@ public class EmailerImpl implements Emailer {
         }
     }
 
+    /**
+     * Sends the messages with the help of {@link EmailSender#sendEmails(List)} and updates their statuses
+     * in one transaction. The statuses are updated even if sending fails unexpectedly, so that no message is left
+     * in the {@link SendingStatus#SENDING} status.
+     */
+    protected void sendSendingMessages(List<SendingMessage> sendingMessages) {
+        Map<SendingMessage, SendingStatus> statuses = new LinkedHashMap<>();
+        List<SendingMessage> messagesToSend = new ArrayList<>(sendingMessages.size());
+        for (SendingMessage sendingMessage : sendingMessages) {
+            try {
+                checkSendingMessage(sendingMessage);
+                messagesToSend.add(sendingMessage);
+            } catch (Exception e) {
+                log.error("Exception while sending email to '{}': ", sendingMessage.getAddress(), e);
+                statuses.put(sendingMessage, SendingStatus.NOT_SENT);
+            }
+        }
+
+        Map<SendingMessage, Exception> failures = null;
+        Exception batchException = null;
+        try {
+            failures = emailSender.sendEmails(messagesToSend);
+        } catch (Exception e) {
+            log.error("Exception while sending {} emails: ", messagesToSend.size(), e);
+            batchException = e;
+        } finally {
+            for (SendingMessage sendingMessage : messagesToSend) {
+                if (failures == null) {
+                    // it is unknown which messages have been sent, so all of them are retried
+                    boolean retry = batchException == null || isNeedToRetry(batchException);
+                    statuses.put(sendingMessage, retry ? SendingStatus.QUEUE : SendingStatus.NOT_SENT);
+                    continue;
+                }
+                Exception e = failures.get(sendingMessage);
+                if (e == null) {
+                    statuses.put(sendingMessage, SendingStatus.SENT);
+                } else {
+                    log.warn("Unable to send email to '{}'", sendingMessage.getAddress(), e);
+                    statuses.put(sendingMessage, isNeedToRetry(e) ? SendingStatus.QUEUE : SendingStatus.NOT_SENT);
+                }
+            }
+            emailDataProvider.updateStatuses(statuses);
+        }
+    }
+
+    protected void checkSendingMessage(SendingMessage sendingMessage) {
+        Objects.requireNonNull(sendingMessage, "sendingMessage is null");
+        Objects.requireNonNull(sendingMessage.getAddress(), "sendingMessage.address is null");
+        Objects.requireNonNull(sendingMessage.getSubject(), "sendingMessage.subject is null");
+        Objects.requireNonNull(sendingMessage.getContentText(), "sendingMessage.contentText is null");
+        Objects.requireNonNull(sendingMessage.getFrom(), "sendingMessage.from is null");
+    }
+
     protected void persistAndSendEmail(EmailInfo emailInfo) throws EmailException {
         Objects.requireNonNull(emailInfo.getAddresses(), "addresses are null");
         Objects.requireNonNull(emailInfo.getSubject(), "subject is null");
@@ -281,7 +331,12 @@ public class EmailerImpl implements Emailer {
         List<SendingMessage> messagesToSend = emailDataProvider.loadEmailsToSend();
         log.trace("Found {} messages to be sent", messagesToSend.size());
 
-        messagesToSend.forEach(this::submitExecutorTask);
+        int batchSize = emailerProperties.getSendingBatchSize();
+        if (batchSize > 1) {
+            ListUtils.partition(messagesToSend, batchSize).forEach(this::submitExecutorTask);
+        } else {
+            messagesToSend.forEach(this::submitExecutorTask);
+        }
 
         if (messagesToSend.isEmpty()) {
             return "";
@@ -304,6 +359,19 @@ public class EmailerImpl implements Emailer {
         }
     }
 
+    protected void submitExecutorTask(List<SendingMessage> messages) {
+        try {
+            Runnable mailSendTask = applicationContext.getBean(EmailSendTask.class, new ArrayList<>(messages));
+            mailSendTaskExecutor.execute(mailSendTask);
+        } catch (RejectedExecutionException e) {
+            emailDataProvider.updateStatuses(messages.stream()
+                    .collect(Collectors.toMap(msg -> msg, msg -> SendingStatus.QUEUE, (s1, s2) -> s1, LinkedHashMap::new)));
+        } catch (Exception e) {
+            log.error("Exception while sending emails: ", e);
+            messages.forEach(msg -> emailDataProvider.updateStatus(msg, isNeedToRetry(e) ? SendingStatus.QUEUE : SendingStatus.NOT_SENT));
+        }
+    }
+
     protected String getContentBodyType(SendingMessage sendingMessage) {
         String bodyContentType;
         String text = sendingMessage.getContentText();
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.email.impl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps connected and authenticated SMTP {@link Transport}s, so that many messages can be sent without opening
+ * a new connection for each of them.
+ * <p>
+ * Connections are opened with the settings of the given {@link JavaMailSenderImpl}. An idle connection is checked
+ * with the {@code NOOP} command before it is reused and is closed if it has been idle longer than the keep-alive time.
+ */
+public class SmtpTransportPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    protected final JavaMailSenderImpl mailSender;
+    protected final int maxIdle;
+    protected final long keepAliveMillis;
+
+    protected final Deque<IdleTransport> idleTransports = new ArrayDeque<>();
+    protected final AtomicLong openedConnections = new AtomicLong();
+
+    protected volatile boolean closed;
+
+    /**
+     * @param mailSender      mail sender providing the session and connection settings
+     * @param maxIdle         maximum number of idle connections kept open
+     * @param keepAliveMillis time an idle connection is kept open
+     */
+    public SmtpTransportPool(JavaMailSenderImpl mailSender, int maxIdle, long keepAliveMillis) {
+        this.mailSender = mailSender;
+        this.maxIdle = maxIdle;
+        this.keepAliveMillis = keepAliveMillis;
+    }
+
+    /**
+     * Returns a connected transport for exclusive use. The transport must be returned by {@link #release(Transport)}
+     * or {@link #invalidate(Transport)}.
+     *
+     * @throws MessagingException if a new connection cannot be opened
+     */
+    public Transport borrow() throws MessagingException {
+        if (closed) {
+            throw new IllegalStateException("SMTP connection pool is closed");
+        }
+        IdleTransport idleTransport;
+        while ((idleTransport = pollIdle()) != null) {
+            if (System.currentTimeMillis() - idleTransport.releasedAt <= keepAliveMillis
+                    && idleTransport.transport.isConnected()) {
+                return idleTransport.transport;
+            }
+            closeQuietly(idleTransport.transport);
+        }
+        return connect();
+    }
+
+    /**
+     * Returns the transport to the pool or closes it if the pool is full or the connection is broken.
+     */
+    public void release(Transport transport) {
+        if (!closed && transport.isConnected()) {
+            synchronized (idleTransports) {
+                if (idleTransports.size() < maxIdle) {
+                    idleTransports.addFirst(new IdleTransport(transport, System.currentTimeMillis()));
+                    return;
+                }
+            }
+        }
+        closeQuietly(transport);
+    }
+
+    /**
+     * Closes the transport that must not be reused, e.g. after a connection failure.
+     */
+    public void invalidate(Transport transport) {
+        closeQuietly(transport);
+    }
+
+    /**
+     * Closes idle connections that have exceeded the keep-alive time.
+     */
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (idleTransports) {
+            idleTransports.removeIf(idleTransport -> {
+                if (now - idleTransport.releasedAt > keepAliveMillis) {
+                    closeQuietly(idleTransport.transport);
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    /**
+     * Closes all idle connections. Transports borrowed at the moment are closed when released.
+     */
+    public void close() {
+        closed = true;
+        IdleTransport idleTransport;
+        while ((idleTransport = pollIdle()) != null) {
+            closeQuietly(idleTransport.transport);
+        }
+    }
+
+    /**
+     * @return number of SMTP connections opened by the pool
+     */
+    public long getOpenedConnections() {
+        return openedConnections.get();
+    }
+
+    protected IdleTransport pollIdle() {
+        synchronized (idleTransports) {
+            return idleTransports.pollFirst();
+        }
+    }
+
+    protected Transport connect() throws MessagingException {
+        Session session = mailSender.getSession();
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        Transport transport = session.getTransport(protocol);
+
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        openedConnections.incrementAndGet();
+        log.debug("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return transport;
+    }
+
+    protected void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP connection", e);
+        }
+    }
+
+    protected static class IdleTransport {
+
+        protected final Transport transport;
+        protected final long releasedAt;
+
+        protected IdleTransport(Transport transport, long releasedAt) {
+            this.transport = transport;
+            this.releasedAt = releasedAt;
+        }
+    }
+}
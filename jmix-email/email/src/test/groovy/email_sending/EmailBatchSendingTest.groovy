@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package email_sending
+
+import io.jmix.core.DataManager
+import io.jmix.core.Metadata
+import io.jmix.core.TimeSource
+import io.jmix.email.EmailInfoBuilder
+import io.jmix.email.EmailSender
+import io.jmix.email.Emailer
+import io.jmix.email.EmailerConfigPropertiesAccess
+import io.jmix.email.EmailerProperties
+import io.jmix.email.SendingStatus
+import io.jmix.email.entity.SendingMessage
+import io.jmix.email.impl.EmailSenderImpl
+import io.jmix.email.impl.SmtpTransportPool
+import io.micrometer.core.instrument.MeterRegistry
+import jakarta.mail.MessagingException
+import jakarta.mail.internet.MimeMessage
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.mail.javamail.JavaMailSenderImpl
+import spock.util.concurrent.PollingConditions
+import test_support.EmailSpecification
+import test_support.TestMailSender
+import test_support.TestSmtpServer
+
+class EmailBatchSendingTest extends EmailSpecification {
+
+    @Autowired
+    Emailer emailer
+
+    @Autowired
+    EmailerProperties emailerProperties
+
+    @Autowired
+    TestMailSender testMailSender
+
+    @Autowired
+    DataManager dataManager
+
+    @Autowired
+    Metadata metadata
+
+    @Autowired
+    TimeSource timeSource
+
+    @Autowired
+    MeterRegistry meterRegistry
+
+    def setup() {
+        EmailerConfigPropertiesAccess.setScheduledSendingDelayCallCount(emailerProperties, 0)
+        testMailSender.clearBuffer()
+    }
+
+    def "queued emails are sent by one batch"() {
+        given:
+        def messages = (1..3).collect { emailer.sendEmailAsync(createEmailInfo("user$it@example.com")) }
+
+        when:
+        emailer.processQueuedEmails()
+
+        then:
+        testMailSender.bufferSize == 3
+        messages.every { reload(it).status == SendingStatus.SENT }
+    }
+
+    def "statuses are updated if batch sending fails unexpectedly"() {
+        given:
+        def messages = (1..3).collect { emailer.sendEmailAsync(createEmailInfo("user$it@example.com")) }
+
+        EmailSender emailSender = emailer.emailSender
+        emailer.emailSender = Stub(EmailSender) {
+            sendEmails(_) >> { throw new IllegalStateException('Unexpected failure') }
+        }
+
+        when:
+        try {
+            emailer.processQueuedEmails()
+        } finally {
+            emailer.emailSender = emailSender
+        }
+
+        then: "no message is left in the sending status"
+        messages.every {
+            def message = reload(it)
+            message.status == SendingStatus.QUEUE && message.attemptsMade == 1
+        }
+    }
+
+    def "failure of one message does not abort sending through pooled connection"() {
+        given:
+        def server = new TestSmtpServer()
+        def smtpMailSender = new JavaMailSenderImpl()
+        smtpMailSender.host = 'localhost'
+        smtpMailSender.port = server.port
+
+        def sender = new EmailSenderImpl() {
+            @Override
+            protected MimeMessage createMimeMessage(SendingMessage sendingMessage) throws MessagingException {
+                if (sendingMessage.address.startsWith('broken')) {
+                    throw new IllegalStateException('Unable to read attachment')
+                }
+                return super.createMimeMessage(sendingMessage)
+            }
+        }
+        sender.mailSender = smtpMailSender
+        sender.timeSource = timeSource
+        sender.meterRegistry = meterRegistry
+        sender.emailerProperties = emailerProperties
+        sender.transportPool = new SmtpTransportPool(smtpMailSender, 1, 60_000)
+
+        def message1 = createSendingMessage('user1@example.com')
+        def brokenMessage = createSendingMessage('broken@example.com')
+        def message2 = createSendingMessage('user2@example.com')
+
+        when:
+        def failures = sender.sendEmails([message1, brokenMessage, message2])
+
+        then:
+        failures.keySet() == [brokenMessage] as Set
+        failures[brokenMessage] instanceof IllegalStateException
+        server.receivedMessages.size() == 2
+        server.connectionCount == 1
+
+        cleanup:
+        sender.transportPool.close()
+        server.close()
+    }
+
+    def "expired idle connections are closed"() {
+        given:
+        def server = new TestSmtpServer()
+        def smtpMailSender = new JavaMailSenderImpl()
+        smtpMailSender.host = 'localhost'
+        smtpMailSender.port = server.port
+
+        def sender = new EmailSenderImpl()
+        sender.mailSender = smtpMailSender
+        sender.timeSource = timeSource
+        sender.meterRegistry = meterRegistry
+        sender.emailerProperties = emailerProperties
+        sender.transportPool = new SmtpTransportPool(smtpMailSender, 1, 200)
+        sender.startEviction(100)
+
+        when:
+        def failures = sender.sendEmails([createSendingMessage('user@example.com')])
+
+        then:
+        failures.isEmpty()
+        server.receivedMessages.size() == 1
+        new PollingConditions(timeout: 5).eventually {
+            assert sender.transportPool.idleTransports.isEmpty()
+        }
+
+        cleanup:
+        sender.destroy()
+        server.close()
+    }
+
+    private static createEmailInfo(String address) {
+        EmailInfoBuilder.create()
+                .setAddresses(address)
+                .setFrom('sender@example.com')
+                .setSubject('Test Email')
+                .setBody('Test Body')
+                .build()
+    }
+
+    private SendingMessage createSendingMessage(String address) {
+        def message = metadata.create(SendingMessage)
+        message.address = address
+        message.from = 'sender@example.com'
+        message.subject = 'Test Email'
+        message.contentText = 'Test Body'
+        message.bodyContentType = 'text/plain; charset=UTF-8'
+        message.attachments = []
+        return message
+    }
+
+    private SendingMessage reload(SendingMessage message) {
+        dataManager.load(SendingMessage).id(message.id).one()
+    }
+}
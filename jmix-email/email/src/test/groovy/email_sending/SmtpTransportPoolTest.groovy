@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package email_sending
+
+import io.jmix.email.impl.SmtpTransportPool
+import jakarta.mail.Message
+import jakarta.mail.SendFailedException
+import jakarta.mail.Transport
+import jakarta.mail.internet.InternetAddress
+import jakarta.mail.internet.MimeMessage
+import org.springframework.mail.javamail.JavaMailSenderImpl
+import spock.lang.Specification
+import test_support.TestSmtpServer
+
+class SmtpTransportPoolTest extends Specification {
+
+    TestSmtpServer server
+    JavaMailSenderImpl mailSender
+
+    def setup() {
+        server = new TestSmtpServer()
+        mailSender = new JavaMailSenderImpl()
+        mailSender.host = 'localhost'
+        mailSender.port = server.port
+    }
+
+    def cleanup() {
+        server.close()
+    }
+
+    def "messages are sent through one pooled connection"() {
+        given:
+        def pool = new SmtpTransportPool(mailSender, 2, 60_000)
+
+        when:
+        def transport = pool.borrow()
+        3.times { send(transport, "user$it@example.com") }
+        pool.release(transport)
+
+        def reusedTransport = pool.borrow()
+        send(reusedTransport, 'user3@example.com')
+        pool.release(reusedTransport)
+        pool.close()
+
+        then:
+        reusedTransport.is(transport)
+        server.connectionCount == 1
+        pool.openedConnections == 1
+        server.receivedMessages.size() == 4
+    }
+
+    def "rejected recipient does not break the connection"() {
+        given:
+        def pool = new SmtpTransportPool(mailSender, 2, 60_000)
+        def transport = pool.borrow()
+
+        when:
+        send(transport, 'reject@example.com')
+
+        then:
+        thrown(SendFailedException)
+        transport.isConnected()
+
+        when:
+        send(transport, 'user@example.com')
+        pool.release(transport)
+        pool.close()
+
+        then:
+        server.connectionCount == 1
+        server.receivedMessages.size() == 1
+    }
+
+    def "expired connection is not reused"() {
+        given:
+        def pool = new SmtpTransportPool(mailSender, 2, 0)
+
+        when:
+        def transport = pool.borrow()
+        pool.release(transport)
+        sleep(10)
+        def newTransport = pool.borrow()
+        pool.release(newTransport)
+        pool.close()
+
+        then:
+        !newTransport.is(transport)
+        pool.openedConnections == 2
+    }
+
+    private void send(Transport transport, String address) {
+        def message = new MimeMessage(mailSender.session)
+        message.setFrom(new InternetAddress('noreply@example.com'))
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(address))
+        message.setSubject('Test')
+        message.setText('Test message')
+        message.saveChanges()
+        transport.sendMessage(message, message.allRecipients)
+    }
+}
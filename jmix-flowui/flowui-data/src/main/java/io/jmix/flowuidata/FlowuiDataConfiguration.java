@@ -31,11 +31,13 @@ import io.jmix.flowui.UiComponentProperties;
 import io.jmix.flowui.UiComponents;
 import io.jmix.flowui.component.genericfilter.FilterMetadataTools;
 import io.jmix.flowui.component.genericfilter.GenericFilterSupport;
+import io.jmix.flowui.data.grid.TreeDataGridChildCountQueryBuilder;
 import io.jmix.flowui.model.DataComponents;
 import io.jmix.flowui.sys.ActionsConfiguration;
 import io.jmix.flowuidata.genericfilter.GenericFilterConfigurationConverter;
 import io.jmix.flowuidata.genericfilter.UiDataFilterMetadataTools;
 import io.jmix.flowuidata.genericfilter.UiDataGenericFilterSupport;
+import io.jmix.flowuidata.grid.UiDataTreeDataGridChildCountQueryBuilder;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -82,4 +84,11 @@ public class FlowuiDataConfiguration {
         return new UiDataFilterMetadataTools(metadataTools, uiComponentProperties, accessManager,
                 queryTransformerFactory, metadata);
     }
+
+    @Bean("flowui_UiDataTreeDataGridChildCountQueryBuilder")
+    @Primary
+    public TreeDataGridChildCountQueryBuilder treeDataGridChildCountQueryBuilder(MetadataTools metadataTools,
+                                                                               QueryTransformerFactory queryTransformerFactory) {
+        return new UiDataTreeDataGridChildCountQueryBuilder(metadataTools, queryTransformerFactory);
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.flowuidata.grid;
+
+import com.google.common.base.Strings;
+import io.jmix.core.LoadContext;
+import io.jmix.core.MetadataTools;
+import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.data.QueryTransformer;
+import io.jmix.data.QueryTransformerFactory;
+import io.jmix.flowui.data.grid.TreeDataGridChildCountQueryBuilder;
+import org.springframework.lang.Nullable;
+
+/**
+ * Builds the query counting children of tree nodes among the entities selected by the whole query of the loader.
+ * The query of the loader is transformed to select ids and used as a subquery.
+ */
+public class UiDataTreeDataGridChildCountQueryBuilder extends TreeDataGridChildCountQueryBuilder {
+
+    protected QueryTransformerFactory queryTransformerFactory;
+
+    public UiDataTreeDataGridChildCountQueryBuilder(MetadataTools metadataTools,
+                                                    QueryTransformerFactory queryTransformerFactory) {
+        super(metadataTools);
+        this.queryTransformerFactory = queryTransformerFactory;
+    }
+
+    @Override
+    protected String buildQueryString(@Nullable LoadContext.Query query, MetaClass metaClass,
+                                      String hierarchyProperty, String primaryKeyName) {
+        if (query == null || Strings.isNullOrEmpty(query.getQueryString())) {
+            return super.buildQueryString(query, metaClass, hierarchyProperty, primaryKeyName);
+        }
+
+        QueryTransformer transformer = queryTransformerFactory.transformer(query.getQueryString());
+        transformer.replaceWithSelectId(primaryKeyName);
+        transformer.removeOrderBy();
+
+        // the alias differs from the one of the loader query used as a subquery
+        String parentIdPath = "treeNode." + hierarchyProperty + "." + primaryKeyName;
+        return String.format("select %s, count(treeNode) from %s treeNode where %s in :%s and treeNode.%s in (%s) "
+                        + "group by %s",
+                parentIdPath, metaClass.getName(), parentIdPath, PARENT_IDS_PARAMETER,
+                primaryKeyName, transformer.getResult(), parentIdPath);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package treedatagrid_child_count;
+
+import io.jmix.core.DataManager;
+import io.jmix.core.LoadContext;
+import io.jmix.core.Metadata;
+import io.jmix.core.ValueLoadContext;
+import io.jmix.core.entity.KeyValueEntity;
+import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.core.security.SystemAuthenticator;
+import io.jmix.flowui.data.grid.TreeDataGridChildCountQueryBuilder;
+import io.jmix.flowui.testassist.FlowuiTestAssistConfiguration;
+import io.jmix.flowui.testassist.UiTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import test_support.FlowuiDataTestConfiguration;
+import test_support.entity.Folder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@UiTest(viewBasePackages = "test_support.view")
+@SpringBootTest(classes = {FlowuiDataTestConfiguration.class, FlowuiTestAssistConfiguration.class})
+public class TreeDataGridChildCountQueryTest {
+
+    @Autowired
+    DataManager dataManager;
+    @Autowired
+    Metadata metadata;
+    @Autowired
+    SystemAuthenticator authenticator;
+    @Autowired
+    TreeDataGridChildCountQueryBuilder childCountQueryBuilder;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @AfterEach
+    public void afterEach() {
+        jdbc.update("delete from TEST_FOLDER where PARENT_ID is not null");
+        jdbc.update("delete from TEST_FOLDER");
+    }
+
+    @Test
+    @DisplayName("Child count query applies the where clause of the loader query")
+    public void childCountQueryAppliesLoaderQueryTest() {
+        Folder root1 = createFolder("root1", null, 0);
+        Folder root2 = createFolder("root2", null, 0);
+        createFolder("big1", root1, 10);
+        createFolder("big2", root1, 20);
+        createFolder("small1", root1, 1);
+        createFolder("small2", root2, 1);
+
+        MetaClass metaClass = metadata.getClass(Folder.class);
+        LoadContext<Folder> loadContext = new LoadContext<>(metaClass);
+        loadContext.setQuery(new LoadContext.Query("select e from " + metaClass.getName()
+                + " e where e.size > :minSize order by e.name")
+                .setParameter("minSize", 5));
+
+        ValueLoadContext valueLoadContext = ValueLoadContext.create()
+                .setQuery(childCountQueryBuilder.build(loadContext, "parent",
+                        List.of(root1.getId(), root2.getId())));
+        valueLoadContext.setProperties(List.of("parentId", "count"));
+
+        List<KeyValueEntity> values = authenticator.withSystem(() -> dataManager.loadValues(valueLoadContext));
+        Map<Object, Number> counts = new HashMap<>();
+        for (KeyValueEntity value : values) {
+            counts.put(value.getValue("parentId"), value.getValue("count"));
+        }
+
+        assertEquals(2, counts.get(root1.getId()).intValue());
+        assertNull(counts.get(root2.getId()));
+    }
+
+    private Folder createFolder(String name, Folder parent, int size) {
+        Folder folder = dataManager.create(Folder.class);
+        folder.setName(name);
+        folder.setParent(parent);
+        folder.setSize(size);
+        return authenticator.withSystem(() -> dataManager.save(folder));
+    }
+}
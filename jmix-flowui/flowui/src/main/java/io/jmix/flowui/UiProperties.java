@@ -75,6 +75,12 @@ public class UiProperties {
      */
     boolean websocketRequestSecurityContextProvided;
 
+    /**
+     * Maximum number of threads executing asynchronous loads of data loaders if virtual threads are not available
+     * in the running JVM. Default is 10.
+     */
+    int asyncDataLoadThreadsCount;
+
     public UiProperties(@DefaultValue("login") String loginViewId,
                         @DefaultValue("main") String mainViewId,
                         @Nullable String defaultViewId,
@@ -86,7 +92,8 @@ public class UiProperties {
                         @DefaultValue({"htm", "html", "jpg", "png", "jpeg", "pdf"}) List<String> viewFileExtensions,
                         @DefaultValue("102400") int saveExportedByteArrayDataThresholdBytes,
                         @DefaultValue("true") boolean useSessionFixationProtection,
-                        @DefaultValue("true") boolean websocketRequestSecurityContextProvided
+                        @DefaultValue("true") boolean websocketRequestSecurityContextProvided,
+                        @DefaultValue("10") int asyncDataLoadThreadsCount
     ) {
         this.loginViewId = loginViewId;
         this.mainViewId = mainViewId;
@@ -100,6 +107,7 @@ public class UiProperties {
         this.saveExportedByteArrayDataThresholdBytes = saveExportedByteArrayDataThresholdBytes;
         this.useSessionFixationProtection = useSessionFixationProtection;
         this.websocketRequestSecurityContextProvided = websocketRequestSecurityContextProvided;
+        this.asyncDataLoadThreadsCount = asyncDataLoadThreadsCount;
     }
 
     /**
@@ -180,4 +188,11 @@ public class UiProperties {
     public boolean isWebsocketRequestSecurityContextProvided() {
         return websocketRequestSecurityContextProvided;
     }
+
+    /**
+     * @see #asyncDataLoadThreadsCount
+     */
+    public int getAsyncDataLoadThreadsCount() {
+        return asyncDataLoadThreadsCount;
+    }
 }
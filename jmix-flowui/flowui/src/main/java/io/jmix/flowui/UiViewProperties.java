@@ -51,6 +51,17 @@ public class UiViewProperties {
      */
     boolean reloadUnfetchedAttributesFromLookupViews;
 
+    /**
+     * Maximum number of view XML descriptors with resolved inheritance kept in the cache.
+     */
+    int descriptorCacheSize;
+
+    /**
+     * Whether XML descriptors of all registered views are parsed and their inheritance is resolved on application
+     * startup, so that views opened for the first time do not parse XML.
+     */
+    boolean descriptorPrecompilationEnabled;
+
     public UiViewProperties(
             String closeShortcut,
             String saveShortcut,
@@ -59,7 +70,9 @@ public class UiViewProperties {
             @DefaultValue("DEFAULT") String validationNotificationType,
             @DefaultValue("BOTTOM_END") String validationNotificationPosition,
             @DefaultValue("3000") Integer validationNotificationDuration,
-            @DefaultValue("true") boolean reloadUnfetchedAttributesFromLookupViews
+            @DefaultValue("true") boolean reloadUnfetchedAttributesFromLookupViews,
+            @DefaultValue("100") int descriptorCacheSize,
+            @DefaultValue("false") boolean descriptorPrecompilationEnabled
     ) {
         this.closeShortcut = closeShortcut;
         this.saveShortcut = saveShortcut;
@@ -69,6 +82,8 @@ public class UiViewProperties {
         this.validationNotificationPosition = validationNotificationPosition;
         this.validationNotificationDuration = validationNotificationDuration;
         this.reloadUnfetchedAttributesFromLookupViews = reloadUnfetchedAttributesFromLookupViews;
+        this.descriptorCacheSize = descriptorCacheSize;
+        this.descriptorPrecompilationEnabled = descriptorPrecompilationEnabled;
     }
 
     public String getCloseShortcut() {
@@ -114,4 +129,18 @@ public class UiViewProperties {
     public boolean isReloadUnfetchedAttributesFromLookupViews() {
         return reloadUnfetchedAttributesFromLookupViews;
     }
-}
\ No newline at end of file
+
+    /**
+     * @see #descriptorCacheSize
+     */
+    public int getDescriptorCacheSize() {
+        return descriptorCacheSize;
+    }
+
+    /**
+     * @see #descriptorPrecompilationEnabled
+     */
+    public boolean isDescriptorPrecompilationEnabled() {
+        return descriptorPrecompilationEnabled;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.flowui.backgroundtask;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+
+/**
+ * Strategy executing the tasks started by {@link BackgroundWorker}.
+ * <p>
+ * The default implementation is registered under the {@code flowui_BackgroundTaskExecutionStrategy} name and can be
+ * replaced by defining a bean with the same name.
+ */
+public interface BackgroundTaskExecutionStrategy {
+
+    /**
+     * Submits the task for execution. The task can be started later, for example if too many tasks are running.
+     * Tasks cancelled before start are not run. The strategy may cancel a submitted task, for example to free the
+     * queue, by {@link RunnableFuture#cancel(boolean)}: {@link BackgroundWorker} then handles the task as cancelled
+     * by its {@link BackgroundTaskHandler}, so the task is unregistered and its cancel callbacks are invoked.
+     *
+     * @param task  task to execute
+     * @param owner key of the user or session that started the task
+     * @throws RejectedExecutionException if the task cannot be accepted for execution
+     */
+    void execute(RunnableFuture<?> task, String owner);
+
+    /**
+     * Cancels waiting tasks and interrupts running ones. No tasks are accepted afterwards.
+     */
+    void shutdown();
+}
@@ -43,14 +43,54 @@ public class UiBackgroundTaskProperties {
      */
     Duration timeoutExpirationCheckInterval;
 
+    /**
+     * Whether each background task is executed in a new virtual thread instead of a pool of {@link #threadsCount}
+     * threads. Suits I/O-bound tasks. Has effect only if the JVM supports virtual threads. The number of tasks
+     * running at the same time is limited by {@link #threadsCount} in both cases.
+     */
+    boolean virtualThreadsEnabled;
+
+    /**
+     * Defines whose tasks are queued and limited together: tasks of the same user or of the same session.
+     */
+    TaskOwnerScope taskOwnerScope;
+
+    /**
+     * Maximum number of tasks of one owner (see {@link #taskOwnerScope}) running at the same time. Other tasks of
+     * the owner wait in the queue while tasks of other owners are started. The time a task waits in the queue
+     * counts toward its timeout. Zero means no limit.
+     */
+    int maxConcurrentTasksPerOwner;
+
+    /**
+     * Maximum number of tasks waiting for execution. When the queue is full, a new task is handled according to
+     * {@link #rejectionPolicy}. Zero means no limit.
+     */
+    int queueCapacity;
+
+    /**
+     * Defines how a new task is handled when the queue is full.
+     */
+    RejectionPolicy rejectionPolicy;
+
     public UiBackgroundTaskProperties(
             @DefaultValue("10") int threadsCount,
             @DefaultValue("60") @DurationUnit(ChronoUnit.SECONDS) Duration taskKillingLatency,
-            @DefaultValue("5000") Duration timeoutExpirationCheckInterval
+            @DefaultValue("5000") Duration timeoutExpirationCheckInterval,
+            @DefaultValue("false") boolean virtualThreadsEnabled,
+            @DefaultValue("USER") TaskOwnerScope taskOwnerScope,
+            @DefaultValue("0") int maxConcurrentTasksPerOwner,
+            @DefaultValue("0") int queueCapacity,
+            @DefaultValue("ABORT") RejectionPolicy rejectionPolicy
     ) {
         this.threadsCount = threadsCount;
         this.taskKillingLatency = taskKillingLatency;
         this.timeoutExpirationCheckInterval = timeoutExpirationCheckInterval;
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+        this.taskOwnerScope = taskOwnerScope;
+        this.maxConcurrentTasksPerOwner = maxConcurrentTasksPerOwner;
+        this.queueCapacity = queueCapacity;
+        this.rejectionPolicy = rejectionPolicy;
     }
 
     /**
@@ -73,4 +113,63 @@ public class UiBackgroundTaskProperties {
     public Duration getTimeoutExpirationCheckInterval() {
         return timeoutExpirationCheckInterval;
     }
+
+    /**
+     * @see #virtualThreadsEnabled
+     */
+    public boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    /**
+     * @see #taskOwnerScope
+     */
+    public TaskOwnerScope getTaskOwnerScope() {
+        return taskOwnerScope;
+    }
+
+    /**
+     * @see #maxConcurrentTasksPerOwner
+     */
+    public int getMaxConcurrentTasksPerOwner() {
+        return maxConcurrentTasksPerOwner;
+    }
+
+    /**
+     * @see #queueCapacity
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * @see #rejectionPolicy
+     */
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    public enum TaskOwnerScope {
+        /**
+         * Tasks started by the same user in all sessions.
+         */
+        USER,
+        /**
+         * Tasks started in the same session.
+         */
+        SESSION
+    }
+
+    public enum RejectionPolicy {
+        /**
+         * The new task is not started, {@link BackgroundTaskHandler#execute()} throws
+         * {@link java.util.concurrent.RejectedExecutionException}.
+         */
+        ABORT,
+        /**
+         * The oldest waiting task of the owner having the most waiting tasks is cancelled to free a place
+         * for the new task.
+         */
+        CANCEL_OLDEST
+    }
 }
@@ -16,10 +16,10 @@
 
 package io.jmix.flowui.backgroundtask.impl;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.WrappedSession;
 import io.jmix.core.TimeSource;
 import io.jmix.core.security.CurrentAuthentication;
 import io.jmix.core.security.SecurityContextHelper;
@@ -34,7 +34,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import org.springframework.lang.Nullable;
-import jakarta.annotation.PreDestroy;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -64,41 +63,17 @@ public class BackgroundWorkerImpl implements BackgroundWorker {
     protected ApplicationEventPublisher applicationEventPublisher;
     @Autowired
     protected TimeSource timeSource;
+    @Autowired
+    protected BackgroundTaskExecutionStrategy executionStrategy;
 
     protected UiBackgroundTaskProperties properties;
 
-    protected ExecutorService executorService;
-
     public BackgroundWorkerImpl() {
     }
 
     @Autowired
     public void setProperties(UiBackgroundTaskProperties properties) {
         this.properties = properties;
-
-        createThreadPoolExecutor();
-    }
-
-    protected void createThreadPoolExecutor() {
-        if (executorService != null) {
-            return;
-        }
-
-        this.executorService = new ThreadPoolExecutor(
-                properties.getThreadsCount(),
-                properties.getThreadsCount(),
-                10L, TimeUnit.MINUTES,
-                new LinkedBlockingQueue<>(),
-                new ThreadFactoryBuilder()
-                        .setNameFormat(THREAD_NAME_PREFIX + "%d")
-                        .build()
-        );
-        ((ThreadPoolExecutor) this.executorService).allowCoreThreadTimeOut(true);
-    }
-
-    @PreDestroy
-    public void destroy() {
-        executorService.shutdownNow();
     }
 
     @Override
@@ -117,7 +92,7 @@ public class BackgroundWorkerImpl implements BackgroundWorker {
         UI ui = UI.getCurrent();
 
         // create task executor
-        TaskExecutorImpl<T, V> taskExecutor = new TaskExecutorImpl<>(ui, taskManager, task);
+        TaskExecutorImpl<T, V> taskExecutor = new TaskExecutorImpl<>(ui, taskManager, task, getTaskOwner(ui));
 
         // add thread to taskSet
         taskManager.addTask(taskExecutor.getFuture());
@@ -131,6 +106,19 @@ public class BackgroundWorkerImpl implements BackgroundWorker {
         return taskHandler;
     }
 
+    /**
+     * Returns the key the tasks are queued and limited by, see {@link UiBackgroundTaskProperties#getTaskOwnerScope()}.
+     */
+    protected String getTaskOwner(UI ui) {
+        if (properties.getTaskOwnerScope() == UiBackgroundTaskProperties.TaskOwnerScope.SESSION) {
+            WrappedSession session = ui.getSession().getSession();
+            if (session != null) {
+                return session.getId();
+            }
+        }
+        return currentAuthentication.getUser().getUsername();
+    }
+
     @Override
     public UIAccessor getUIAccessor() {
         checkUIAccess();
@@ -162,14 +150,17 @@ public class BackgroundWorkerImpl implements BackgroundWorker {
 
         private Authentication authentication;
         private String username;
+        private String owner;
 
         private Map<String, Object> params;
         private TaskHandlerImpl<T, V> taskHandler;
 
-        private TaskExecutorImpl(UI ui, BackgroundTaskManager taskManager, BackgroundTask<T, V> runnableTask) {
+        private TaskExecutorImpl(UI ui, BackgroundTaskManager taskManager, BackgroundTask<T, V> runnableTask,
+                                 String owner) {
             this.runnableTask = runnableTask;
             this.ui = ui;
             this.taskManager = taskManager;
+            this.owner = owner;
 
             this.params = runnableTask.getParams() != null ?
                     Collections.unmodifiableMap(runnableTask.getParams()) :
@@ -260,6 +251,12 @@ public class BackgroundWorkerImpl implements BackgroundWorker {
         @ExecutedOnUIThread
         protected final void handleDone() {
             if (isCancelled()) {
+                if (!isClosed) {
+                    // cancelled by the execution strategy, e.g. evicted from the full queue
+                    log.debug("Task is cancelled by the execution strategy. User: {}", username);
+                    taskHandler.cancel();
+                    return;
+                }
                 // handle cancel from EDT before execution start
                 log.trace("Done statement is not processed because it is canceled task");
                 return;
@@ -384,10 +381,21 @@ public class BackgroundWorkerImpl implements BackgroundWorker {
         @ExecutedOnUIThread
         @Override
         public final void startExecution() {
-            // Start thread
-            executorService.execute(() ->
-                    future.run()
-            );
+            try {
+                executionStrategy.execute(future, owner);
+            } catch (RejectedExecutionException e) {
+                log.debug("Task is rejected. User: {}", username);
+
+                isClosed = true;
+                unregister();
+                future.cancel(false);
+
+                if (finalizer != null) {
+                    finalizer.run();
+                    finalizer = null;
+                }
+                throw e;
+            }
         }
 
         @Override
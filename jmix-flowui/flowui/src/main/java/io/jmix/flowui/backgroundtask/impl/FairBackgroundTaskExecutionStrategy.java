@@ -0,0 +1,333 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.flowui.backgroundtask.impl;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.jmix.flowui.backgroundtask.BackgroundTaskExecutionStrategy;
+import io.jmix.flowui.backgroundtask.UiBackgroundTaskProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default {@link BackgroundTaskExecutionStrategy}.
+ * <p>
+ * Runs at most {@link UiBackgroundTaskProperties#getThreadsCount()} tasks at the same time, either on a pool of
+ * threads or on virtual threads, see {@link UiBackgroundTaskProperties#isVirtualThreadsEnabled()}. Other tasks wait
+ * in per-owner queues which are served in turn, so that an owner starting many tasks does not delay the tasks of
+ * other owners. The number of running tasks of one owner and the total number of waiting tasks can be limited.
+ * <p>
+ * Registers the following meters:
+ * <ul>
+ *     <li>{@code jmix.ui.background-tasks} timer with the {@code stage} tag equal to {@code wait} or {@code run},
+ *     measuring the time tasks spend in the queue and running</li>
+ *     <li>{@code jmix.ui.background-tasks.waiting} and {@code jmix.ui.background-tasks.running} gauges</li>
+ *     <li>{@code jmix.ui.background-tasks.rejected} counter</li>
+ * </ul>
+ */
+@Component("flowui_BackgroundTaskExecutionStrategy")
+public class FairBackgroundTaskExecutionStrategy implements BackgroundTaskExecutionStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(FairBackgroundTaskExecutionStrategy.class);
+
+    protected static final String THREAD_NAME_PREFIX = "BackgroundTask-";
+
+    protected static final String METER_BASE_NAME = "jmix.ui.background-tasks";
+    protected static final String STAGE_TAG = "stage";
+
+    protected final int maxRunningTasks;
+    protected final int maxRunningTasksPerOwner;
+    protected final int queueCapacity;
+    protected final UiBackgroundTaskProperties.RejectionPolicy rejectionPolicy;
+
+    protected final Executor executor;
+    @Nullable
+    protected ThreadPoolExecutor threadPoolExecutor;
+
+    protected final MeterRegistry meterRegistry;
+    protected final Timer waitTimer;
+    protected final Timer runTimer;
+    protected final Counter rejectedCounter;
+
+    // owner -> waiting tasks, in the order owners are served
+    protected final Map<String, Deque<QueuedTask>> queues = new LinkedHashMap<>();
+    protected final Map<String, Integer> runningCounts = new HashMap<>();
+    protected final Set<RunnableFuture<?>> runningTasks = new LinkedHashSet<>();
+    protected int waitingCount;
+    protected boolean shutdown;
+
+    public FairBackgroundTaskExecutionStrategy(UiBackgroundTaskProperties properties, MeterRegistry meterRegistry) {
+        this.maxRunningTasks = properties.getThreadsCount();
+        this.maxRunningTasksPerOwner = properties.getMaxConcurrentTasksPerOwner() > 0
+                ? properties.getMaxConcurrentTasksPerOwner()
+                : Integer.MAX_VALUE;
+        this.queueCapacity = properties.getQueueCapacity() > 0 ? properties.getQueueCapacity() : Integer.MAX_VALUE;
+        this.rejectionPolicy = properties.getRejectionPolicy();
+
+        Executor virtualThreadExecutor = properties.isVirtualThreadsEnabled() ? createVirtualThreadExecutor() : null;
+        this.executor = virtualThreadExecutor != null ? virtualThreadExecutor : createThreadPoolExecutor();
+
+        this.meterRegistry = meterRegistry;
+        this.waitTimer = meterRegistry.timer(METER_BASE_NAME, STAGE_TAG, "wait");
+        this.runTimer = meterRegistry.timer(METER_BASE_NAME, STAGE_TAG, "run");
+        this.rejectedCounter = meterRegistry.counter(METER_BASE_NAME + ".rejected");
+        meterRegistry.gauge(METER_BASE_NAME + ".waiting", this, FairBackgroundTaskExecutionStrategy::getWaitingCount);
+        meterRegistry.gauge(METER_BASE_NAME + ".running", this, FairBackgroundTaskExecutionStrategy::getRunningCount);
+    }
+
+    @Nullable
+    protected Executor createVirtualThreadExecutor() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, THREAD_NAME_PREFIX, 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+            log.debug("Background tasks are executed on virtual threads");
+            return command -> threadFactory.newThread(command).start();
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not supported by the JVM, background tasks are executed on a thread pool");
+            return null;
+        }
+    }
+
+    protected Executor createThreadPoolExecutor() {
+        threadPoolExecutor = new ThreadPoolExecutor(
+                maxRunningTasks,
+                maxRunningTasks,
+                10L, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat(THREAD_NAME_PREFIX + "%d")
+                        .build()
+        );
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+    @Override
+    public void execute(RunnableFuture<?> task, String owner) {
+        QueuedTask cancelledTask = enqueue(task, owner);
+        if (cancelledTask != null) {
+            // cancelled outside the lock, since BackgroundWorker handles the cancellation in the UI of the task
+            cancelledTask.task().cancel(true);
+        }
+    }
+
+    /**
+     * Adds the task to the queue of the owner and starts waiting tasks if possible.
+     *
+     * @return the task removed from the full queue according to the rejection policy, or null
+     */
+    @Nullable
+    protected synchronized QueuedTask enqueue(RunnableFuture<?> task, String owner) {
+        if (shutdown) {
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Background task executor is shut down");
+        }
+
+        if (waitingCount >= queueCapacity) {
+            // the queue may be occupied by tasks cancelled while waiting
+            removeCancelledTasks();
+        }
+        QueuedTask cancelledTask = null;
+        if (waitingCount >= queueCapacity) {
+            cancelledTask = rejectionPolicy == UiBackgroundTaskProperties.RejectionPolicy.CANCEL_OLDEST
+                    ? pollOldestTaskOfBusiestOwner()
+                    : null;
+            rejectedCounter.increment();
+            if (cancelledTask == null) {
+                throw new RejectedExecutionException(String.format(
+                        "Background task queue is full: %d tasks are waiting. Owner: %s", waitingCount, owner));
+            }
+            log.debug("Background task queue is full, cancel the oldest task of {}", cancelledTask.owner());
+        }
+
+        queues.computeIfAbsent(owner, __ -> new ArrayDeque<>())
+                .add(new QueuedTask(task, owner, Timer.start(meterRegistry)));
+        waitingCount++;
+
+        startTasks();
+        return cancelledTask;
+    }
+
+    /**
+     * Starts waiting tasks while there are free slots, taking one task of each owner in turn.
+     */
+    protected void startTasks() {
+        while (runningTasks.size() < maxRunningTasks) {
+            QueuedTask task = pollNextTask();
+            if (task == null) {
+                return;
+            }
+            start(task);
+        }
+    }
+
+    @Nullable
+    protected QueuedTask pollNextTask() {
+        // copy owners since served owners are moved to the end of the queue
+        for (String owner : new ArrayList<>(queues.keySet())) {
+            if (runningCounts.getOrDefault(owner, 0) >= maxRunningTasksPerOwner) {
+                continue;
+            }
+
+            Deque<QueuedTask> queue = queues.remove(owner);
+            QueuedTask task = queue.poll();
+            while (task != null && task.task().isDone()) {
+                waitingCount--;
+                task = queue.poll();
+            }
+            if (!queue.isEmpty()) {
+                queues.put(owner, queue);
+            }
+            if (task != null) {
+                waitingCount--;
+                return task;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    protected QueuedTask pollOldestTaskOfBusiestOwner() {
+        Deque<QueuedTask> busiestQueue = null;
+        for (Deque<QueuedTask> queue : queues.values()) {
+            if (busiestQueue == null || queue.size() > busiestQueue.size()) {
+                busiestQueue = queue;
+            }
+        }
+        if (busiestQueue == null) {
+            return null;
+        }
+
+        QueuedTask task = busiestQueue.poll();
+        waitingCount--;
+        if (busiestQueue.isEmpty()) {
+            queues.remove(task.owner());
+        }
+        return task;
+    }
+
+    protected void removeCancelledTasks() {
+        Iterator<Deque<QueuedTask>> iterator = queues.values().iterator();
+        while (iterator.hasNext()) {
+            Deque<QueuedTask> queue = iterator.next();
+            int size = queue.size();
+            queue.removeIf(task -> task.task().isDone());
+            waitingCount -= size - queue.size();
+            if (queue.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    protected void start(QueuedTask task) {
+        task.waitSample().stop(waitTimer);
+
+        runningTasks.add(task.task());
+        runningCounts.merge(task.owner(), 1, Integer::sum);
+        try {
+            executor.execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            log.debug("Background task is not started because the executor is shut down");
+            task.task().cancel(false);
+            finish(task);
+        }
+    }
+
+    protected void run(QueuedTask task) {
+        Timer.Sample runSample = Timer.start(meterRegistry);
+        try {
+            task.task().run();
+        } finally {
+            runSample.stop(runTimer);
+            synchronized (this) {
+                finish(task);
+                startTasks();
+            }
+        }
+    }
+
+    protected void finish(QueuedTask task) {
+        runningTasks.remove(task.task());
+        runningCounts.computeIfPresent(task.owner(), (__, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * @return number of tasks waiting for execution
+     */
+    public synchronized int getWaitingCount() {
+        return waitingCount;
+    }
+
+    /**
+     * @return number of running tasks
+     */
+    public synchronized int getRunningCount() {
+        return runningTasks.size();
+    }
+
+    @PreDestroy
+    @Override
+    public void shutdown() {
+        List<RunnableFuture<?>> tasks = new ArrayList<>();
+        synchronized (this) {
+            shutdown = true;
+            for (Deque<QueuedTask> queue : queues.values()) {
+                queue.forEach(task -> tasks.add(task.task()));
+            }
+            queues.clear();
+            waitingCount = 0;
+            tasks.addAll(runningTasks);
+        }
+
+        for (RunnableFuture<?> task : tasks) {
+            task.cancel(true);
+        }
+        if (threadPoolExecutor != null) {
+            threadPoolExecutor.shutdownNow();
+        }
+    }
+
+    protected record QueuedTask(RunnableFuture<?> task, String owner, Timer.Sample waitSample) {
+    }
+}
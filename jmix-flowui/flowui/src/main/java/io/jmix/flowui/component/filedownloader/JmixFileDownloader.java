@@ -23,10 +23,13 @@ import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.server.*;
 import com.vaadin.flow.shared.Registration;
 import io.jmix.core.annotation.Internal;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.apache.logging.log4j.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ContentDisposition;
+import org.springframework.lang.Nullable;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -56,6 +59,8 @@ public class JmixFileDownloader extends Composite<Anchor> {
 
     protected Predicate<FileNotFoundContext> fileNotFoundExceptionHandler;
 
+    protected FileTransferHandler fileTransferHandler;
+
     public JmixFileDownloader() {
         runBeforeClientResponse(this::beforeClientResponseDownloadHandler);
     }
@@ -84,6 +89,19 @@ public class JmixFileDownloader extends Composite<Anchor> {
         return fileNotFoundExceptionHandler;
     }
 
+    /**
+     * Sets a handler writing the whole response for a download request instead of copying the resource content.
+     * Allows serving byte range and conditional requests, e.g. when a browser seeks in a video.
+     */
+    public void setFileTransferHandler(@Nullable FileTransferHandler fileTransferHandler) {
+        this.fileTransferHandler = fileTransferHandler;
+    }
+
+    @Nullable
+    public FileTransferHandler getFileTransferHandler() {
+        return fileTransferHandler;
+    }
+
     /**
      * Adds a listener that is executed when the file content has been streamed.
      * Note that the UI changes done in the listener don't necessarily happen
@@ -138,6 +156,27 @@ public class JmixFileDownloader extends Composite<Anchor> {
 
         requestHandler = (session, request, response) -> {
             if (request.getPathInfo().endsWith(identifier)) {
+                if (fileTransferHandler != null
+                        && request instanceof VaadinServletRequest
+                        && response instanceof VaadinServletResponse) {
+                    try {
+                        fileTransferHandler.transfer(((VaadinServletRequest) request).getHttpServletRequest(),
+                                ((VaadinServletResponse) response).getHttpServletResponse(),
+                                isViewDocumentRequest);
+                        afterWriteHandler(response.getOutputStream());
+                        log.debug("response {} has been sent", response);
+                    } catch (IOException | RuntimeException e) {
+                        if (!isViewDocumentRequest
+                                || fileNotFoundExceptionHandler == null
+                                || !fileNotFoundExceptionHandler.test(new FileNotFoundContext(e, response))) {
+                            // send exception further
+                            throw e;
+                        }
+                    } finally {
+                        response.getOutputStream().close();
+                    }
+                    return true;
+                }
 
                 String type = isViewDocumentRequest ? "inline" : "attachment";
 
@@ -219,6 +258,20 @@ public class JmixFileDownloader extends Composite<Anchor> {
 
     }
 
+    /**
+     * Writes the file requested by a download request to the response.
+     */
+    @FunctionalInterface
+    public interface FileTransferHandler {
+
+        /**
+         * @param request  download request
+         * @param response response to write the status, headers and content to
+         * @param inline   whether the file is shown in the browser rather than saved
+         */
+        void transfer(HttpServletRequest request, HttpServletResponse response, boolean inline) throws IOException;
+    }
+
     public static class FileNotFoundContext {
 
         protected final Exception exception;
@@ -31,6 +31,10 @@ import com.vaadin.flow.shared.Registration;
 import io.jmix.core.common.util.Preconditions;
 import io.jmix.core.metamodel.model.MetaProperty;
 import io.jmix.core.metamodel.model.MetaPropertyPath;
+import io.jmix.flowui.backgroundtask.BackgroundTask;
+import io.jmix.flowui.backgroundtask.BackgroundTaskHandler;
+import io.jmix.flowui.backgroundtask.BackgroundWorker;
+import io.jmix.flowui.backgroundtask.TaskLifeCycle;
 import io.jmix.flowui.component.AggregationInfo;
 import io.jmix.flowui.component.ListDataComponent;
 import io.jmix.flowui.component.LookupComponent.MultiSelectLookupComponent;
@@ -41,10 +45,14 @@ import io.jmix.flowui.component.delegate.GridDelegate;
 import io.jmix.flowui.component.grid.editor.DataGridEditor;
 import io.jmix.flowui.component.grid.editor.DataGridEditorImpl;
 import io.jmix.flowui.data.grid.DataGridItems;
+import io.jmix.flowui.data.grid.LazyContainerDataGridItems;
 import io.jmix.flowui.kit.component.KeyCombination;
 import io.jmix.flowui.kit.component.grid.GridActionsSupport;
 import io.jmix.flowui.kit.component.grid.JmixGrid;
 import io.jmix.flowui.kit.component.grid.JmixGridContextMenu;
+import io.jmix.flowui.view.View;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -60,6 +68,8 @@ import java.util.function.Consumer;
 public class DataGrid<E> extends JmixGrid<E> implements ListDataComponent<E>, MultiSelectLookupComponent<E>,
         EnhancedDataGrid<E>, SupportsEnterPress<DataGrid<E>>, ApplicationContextAware, InitializingBean {
 
+    private static final Logger log = LoggerFactory.getLogger(DataGrid.class);
+
     protected ApplicationContext applicationContext;
 
     protected GridDelegate<E, DataGridItems<E>> gridDelegate;
@@ -67,6 +77,9 @@ public class DataGrid<E> extends JmixGrid<E> implements ListDataComponent<E>, Mu
 
     protected boolean editorCreated = false;
 
+    protected Registration lazyItemSetChangeRegistration;
+    protected BackgroundTaskHandler<Long> itemsCountTaskHandler;
+
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) {
         this.applicationContext = applicationContext;
@@ -90,11 +103,79 @@ public class DataGrid<E> extends JmixGrid<E> implements ListDataComponent<E>, Mu
     @SuppressWarnings("unchecked")
     @Override
     public GridDataView<E> setItems(DataProvider<E, Void> dataProvider) {
+        unbindLazyItems();
+
         if (dataProvider instanceof DataGridItems) {
             gridDelegate.setItems((DataGridItems<E>) dataProvider);
         }
 
-        return super.setItems(dataProvider);
+        GridDataView<E> dataView = super.setItems(dataProvider);
+
+        if (dataProvider instanceof LazyContainerDataGridItems) {
+            bindLazyItems((LazyContainerDataGridItems<E>) dataProvider);
+        }
+        return dataView;
+    }
+
+    /**
+     * Rows of lazy items are requested while scrolling until the end is reached, and the total number of rows
+     * is loaded in the background after each refresh.
+     */
+    protected void bindLazyItems(LazyContainerDataGridItems<E> lazyItems) {
+        getLazyDataView().setItemCountUnknown();
+        lazyItemSetChangeRegistration = lazyItems.addItemSetChangeListener(__ -> loadItemsCount(lazyItems));
+    }
+
+    protected void unbindLazyItems() {
+        if (lazyItemSetChangeRegistration != null) {
+            lazyItemSetChangeRegistration.remove();
+            lazyItemSetChangeRegistration = null;
+        }
+        cancelItemsCountTask();
+
+        if (getDataProvider() instanceof LazyContainerDataGridItems<?> lazyItems) {
+            lazyItems.unbind();
+        }
+    }
+
+    protected void loadItemsCount(LazyContainerDataGridItems<E> lazyItems) {
+        cancelItemsCountTask();
+        getLazyDataView().setItemCountUnknown();
+
+        itemsCountTaskHandler = applicationContext.getBean(BackgroundWorker.class)
+                .handle(createItemsCountTask(lazyItems));
+        itemsCountTaskHandler.execute();
+    }
+
+    protected BackgroundTask<Void, Long> createItemsCountTask(LazyContainerDataGridItems<E> lazyItems) {
+        View<?> view = UiComponentUtils.findView(this);
+        return new BackgroundTask<>(30, view) {
+            @Override
+            public Long run(TaskLifeCycle<Void> taskLifeCycle) {
+                return lazyItems.getCount();
+            }
+
+            @Override
+            public void done(Long result) {
+                int count = Math.toIntExact(result);
+                getLazyDataView().setItemCountCallback(query -> count);
+            }
+
+            @Override
+            public boolean handleTimeoutException() {
+                log.warn("Time out while loading items count of DataGrid '{}'", getId().orElse(null));
+                return true;
+            }
+        };
+    }
+
+    protected void cancelItemsCountTask() {
+        if (itemsCountTaskHandler != null) {
+            if (itemsCountTaskHandler.isAlive()) {
+                itemsCountTaskHandler.cancel();
+            }
+            itemsCountTaskHandler = null;
+        }
     }
 
     @Nullable
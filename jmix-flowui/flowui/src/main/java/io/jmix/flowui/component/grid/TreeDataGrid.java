@@ -39,6 +39,7 @@ import io.jmix.flowui.component.delegate.AbstractGridDelegate;
 import io.jmix.flowui.component.delegate.TreeGridDelegate;
 import io.jmix.flowui.component.grid.editor.DataGridEditor;
 import io.jmix.flowui.component.grid.editor.DataGridEditorImpl;
+import io.jmix.flowui.data.grid.LazyContainerTreeDataGridItems;
 import io.jmix.flowui.data.grid.TreeDataGridItems;
 import io.jmix.flowui.kit.component.KeyCombination;
 import io.jmix.flowui.kit.component.grid.GridActionsSupport;
@@ -49,6 +50,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.lang.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -89,6 +91,11 @@ public class TreeDataGrid<E> extends JmixTreeGrid<E> implements ListDataComponen
     @SuppressWarnings("unchecked")
     @Override
     public void setDataProvider(HierarchicalDataProvider<E, ?> dataProvider) {
+        if (gridDelegate != null && getItems() instanceof LazyContainerTreeDataGridItems<?> lazyItems
+                && lazyItems != dataProvider) {
+            lazyItems.unbind();
+        }
+
         if (dataProvider instanceof TreeDataGridItems) {
             gridDelegate.setItems((TreeDataGridItems<E>) dataProvider);
         }
@@ -96,6 +103,43 @@ public class TreeDataGrid<E> extends JmixTreeGrid<E> implements ListDataComponen
         super.setDataProvider(dataProvider);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the component is bound to {@link LazyContainerTreeDataGridItems}, the children of all passed items are
+     * loaded by one query.
+     */
+    @Override
+    public void expand(Collection<E> items) {
+        if (getItems() instanceof LazyContainerTreeDataGridItems<E> lazyItems) {
+            lazyItems.preloadChildren(items);
+        }
+        super.expand(items);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the component is bound to {@link LazyContainerTreeDataGridItems}, the children of each level are
+     * loaded by one query.
+     */
+    @Override
+    public void expandRecursively(Collection<E> items, int depth) {
+        if (getItems() instanceof LazyContainerTreeDataGridItems<E> lazyItems) {
+            Collection<E> level = items;
+            for (int i = 0; i <= depth && !level.isEmpty(); i++) {
+                lazyItems.preloadChildren(level);
+
+                List<E> nextLevel = new ArrayList<>();
+                for (E item : level) {
+                    lazyItems.getChildren(item).forEach(nextLevel::add);
+                }
+                level = nextLevel;
+            }
+        }
+        super.expandRecursively(items, depth);
+    }
+
     @Nullable
     @Override
     public E getSingleSelectedItem() {
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.flowui.data.grid;
+
+import com.vaadin.flow.data.provider.BackEndDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import io.jmix.core.DataManager;
+import io.jmix.core.LoadContext;
+import io.jmix.core.Sort;
+import io.jmix.core.common.event.Subscription;
+import io.jmix.core.common.util.Preconditions;
+import io.jmix.flowui.data.BindingState;
+import io.jmix.flowui.model.CollectionContainer;
+import io.jmix.flowui.model.CollectionLoader;
+import io.jmix.flowui.model.DataContext;
+import io.jmix.flowui.model.MergeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Data provider of a {@code DataGrid} that loads only the rows requested by the grid.
+ * <p>
+ * Each window of rows requested by the grid when it is scrolled is loaded by the {@code LoadContext} of the
+ * collection loader with {@code firstResult} and {@code maxResults} set to the window bounds. The container of the
+ * loader holds only the recently requested windows, the other windows are evicted from it.
+ * <p>
+ * Calling {@link CollectionLoader#load()} does not load the data, it discards the loaded windows instead, so that the
+ * grid requests the visible rows again with the current loader conditions and parameters.
+ * {@link CollectionLoader.PostLoadEvent} is not sent in this mode.
+ *
+ * @param <T> entity type
+ */
+public class LazyContainerDataGridItems<T> extends ContainerDataGridItems<T> implements BackEndDataProvider<T, Void> {
+
+    private static final Logger log = LoggerFactory.getLogger(LazyContainerDataGridItems.class);
+
+    protected final CollectionLoader<T> loader;
+    protected final DataManager dataManager;
+
+    protected int maxCachedWindows = 5;
+
+    // offset -> loaded entities, in the order of access
+    protected Map<Integer, List<T>> windows = new LinkedHashMap<>(16, 0.75f, true);
+    protected Sort sort;
+
+    protected boolean updatingContainer;
+    protected Subscription preLoadSubscription;
+
+    public LazyContainerDataGridItems(CollectionLoader<T> loader, DataManager dataManager) {
+        super(loader.getContainer());
+        Preconditions.checkNotNullArgument(dataManager);
+
+        this.loader = loader;
+        this.dataManager = dataManager;
+
+        preLoadSubscription = loader.addPreLoadListener(this::onLoaderPreLoad);
+    }
+
+    /**
+     * @return loader the data is loaded by
+     */
+    public CollectionLoader<T> getLoader() {
+        return loader;
+    }
+
+    /**
+     * @return maximum number of loaded windows kept in the container
+     */
+    public int getMaxCachedWindows() {
+        return maxCachedWindows;
+    }
+
+    /**
+     * Sets the maximum number of loaded windows kept in the container. Default value is 5.
+     */
+    public void setMaxCachedWindows(int maxCachedWindows) {
+        if (maxCachedWindows <= 0) {
+            throw new IllegalArgumentException("maxCachedWindows must be positive");
+        }
+        this.maxCachedWindows = maxCachedWindows;
+    }
+
+    protected void onLoaderPreLoad(CollectionLoader.PreLoadEvent<T> event) {
+        event.preventLoad();
+        refresh();
+    }
+
+    /**
+     * Discards the loaded rows, so that the grid requests them again.
+     */
+    public void refresh() {
+        windows.clear();
+        updateContainer();
+        getEventBus().fireEvent(new ItemSetChangeEvent<>(this));
+    }
+
+    @Override
+    protected void containerCollectionChanged(CollectionContainer.CollectionChangeEvent<T> event) {
+        if (updatingContainer) {
+            return;
+        }
+        // the container has been changed by the application, so the loaded windows may be stale
+        windows.clear();
+        super.containerCollectionChanged(event);
+    }
+
+    @Override
+    public boolean isInMemory() {
+        return false;
+    }
+
+    @Override
+    public int size(Query<T, Void> query) {
+        if (getState() == BindingState.INACTIVE) {
+            return 0;
+        }
+        return Math.toIntExact(getCount());
+    }
+
+    /**
+     * Loads the total number of rows by the current loader conditions and parameters.
+     */
+    public long getCount() {
+        return dataManager.getCount(loader.createLoadContext());
+    }
+
+    @Override
+    public Stream<T> fetch(Query<T, Void> query) {
+        if (getState() == BindingState.INACTIVE) {
+            return Stream.empty();
+        }
+
+        int offset = query.getOffset();
+        List<T> entities = load(createLoadContext(offset, query.getLimit(), query.getSortOrders()));
+
+        windows.put(offset, entities);
+        if (windows.size() > maxCachedWindows) {
+            // the map is in the access order, so the first window is the least recently requested
+            Integer eldestOffset = windows.keySet().iterator().next();
+            windows.remove(eldestOffset);
+            log.trace("Evicted window at {} of {}", eldestOffset, container);
+        }
+        updateContainer();
+
+        return entities.stream();
+    }
+
+    protected LoadContext<T> createLoadContext(int offset, int limit, List<QuerySortOrder> sortOrders) {
+        LoadContext<T> loadContext = loader.createLoadContext();
+        LoadContext.Query query = loadContext.getQuery();
+        if (query != null) {
+            query.setFirstResult(offset);
+            query.setMaxResults(limit);
+
+            Sort querySort = sort != null ? sort : createSort(sortOrders);
+            if (querySort != null) {
+                query.setSort(querySort);
+            }
+        }
+        return loadContext;
+    }
+
+    protected List<T> load(LoadContext<T> loadContext) {
+        Function<LoadContext<T>, List<T>> loadDelegate = loader.getLoadDelegate();
+        List<T> entities = loadDelegate != null ? loadDelegate.apply(loadContext) : dataManager.loadList(loadContext);
+        if (entities == null) {
+            return new ArrayList<>();
+        }
+
+        DataContext dataContext = loader.getDataContext();
+        if (dataContext == null) {
+            return entities;
+        }
+        List<T> mergedEntities = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            mergedEntities.add(dataContext.merge(entity, new MergeOptions().setFresh(true)));
+        }
+        return mergedEntities;
+    }
+
+    /**
+     * Sets the entities of the loaded windows to the container, keeping the selected entity.
+     */
+    protected void updateContainer() {
+        Set<T> entities = new LinkedHashSet<>();
+        for (List<T> window : new TreeMap<>(windows).values()) {
+            entities.addAll(window);
+        }
+        T selectedItem = container.getItemOrNull();
+        if (selectedItem != null) {
+            entities.add(selectedItem);
+        }
+
+        updatingContainer = true;
+        try {
+            container.setItems(entities);
+        } finally {
+            updatingContainer = false;
+        }
+    }
+
+    @Override
+    public void sort(Object[] propertyId, boolean[] ascending) {
+        sort = createSort(propertyId, ascending);
+        refresh();
+    }
+
+    @Override
+    public void resetSortOrder() {
+        sort = null;
+        refresh();
+    }
+
+    @Override
+    public void setSortOrders(List<QuerySortOrder> sortOrders) {
+        sort = createSort(sortOrders);
+        refresh();
+    }
+
+    @Nullable
+    protected Sort createSort(Collection<QuerySortOrder> sortOrders) {
+        if (sortOrders.isEmpty()) {
+            return null;
+        }
+        List<Sort.Order> orders = new ArrayList<>(sortOrders.size());
+        for (QuerySortOrder sortOrder : sortOrders) {
+            orders.add(sortOrder.getDirection() == SortDirection.DESCENDING
+                    ? Sort.Order.desc(sortOrder.getSorted())
+                    : Sort.Order.asc(sortOrder.getSorted()));
+        }
+        return Sort.by(orders);
+    }
+
+    /**
+     * Stops intercepting the loads of the loader.
+     */
+    public void unbind() {
+        if (preLoadSubscription != null) {
+            preLoadSubscription.remove();
+            preLoadSubscription = null;
+        }
+    }
+}
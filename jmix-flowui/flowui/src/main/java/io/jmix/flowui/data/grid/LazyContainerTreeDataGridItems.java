@@ -0,0 +1,422 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.flowui.data.grid;
+
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery;
+import io.jmix.core.DataManager;
+import io.jmix.core.LoadContext;
+import io.jmix.core.Sort;
+import io.jmix.core.ValueLoadContext;
+import io.jmix.core.common.event.Subscription;
+import io.jmix.core.common.util.Preconditions;
+import io.jmix.core.entity.EntityValues;
+import io.jmix.core.entity.KeyValueEntity;
+import io.jmix.core.querycondition.Condition;
+import io.jmix.core.querycondition.LogicalCondition;
+import io.jmix.core.querycondition.PropertyCondition;
+import io.jmix.flowui.data.BindingState;
+import io.jmix.flowui.model.CollectionContainer;
+import io.jmix.flowui.model.CollectionLoader;
+import io.jmix.flowui.model.DataContext;
+import io.jmix.flowui.model.MergeOptions;
+import org.apache.commons.collections4.ListUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Data provider of a {@code TreeDataGrid} that loads the children of a node only when the node is expanded.
+ * <p>
+ * The root nodes are loaded by the {@code LoadContext} of the collection loader with the condition that the
+ * hierarchy property is not set. The children of expanded nodes are loaded by the same {@code LoadContext} with the
+ * condition that the hierarchy property is in the list of expanded nodes, so expanding several nodes at once takes
+ * one query per {@link #getParentsPartitionSize()} nodes. Along with the children, the numbers of their own children
+ * are loaded by grouping queries built by {@link TreeDataGridChildCountQueryBuilder}, so that the grid can show
+ * expand toggles without loading the next level.
+ * <p>
+ * The container of the loader holds only the recently loaded child lists, the other lists are evicted from it and
+ * loaded again when their parents are expanded.
+ * <p>
+ * Calling {@link CollectionLoader#load()} does not load the data, it discards the loaded nodes instead.
+ * {@link CollectionLoader.PostLoadEvent} is not sent in this mode. Orphan nodes are not shown.
+ *
+ * @param <E> entity type
+ */
+public class LazyContainerTreeDataGridItems<E> extends ContainerTreeDataGridItems<E> {
+
+    private static final Logger log = LoggerFactory.getLogger(LazyContainerTreeDataGridItems.class);
+
+    // key of the root nodes list
+    protected static final Object ROOT_KEY = new Object();
+
+    protected final CollectionLoader<E> loader;
+    protected final DataManager dataManager;
+    protected final TreeDataGridChildCountQueryBuilder childCountQueryBuilder;
+
+    protected int maxCachedSubtrees = 50;
+    protected int parentsPartitionSize = 500;
+
+    // parent id -> loaded children, in the order of access
+    protected Map<Object, List<E>> children = new LinkedHashMap<>(16, 0.75f, true);
+    // parent id -> number of children
+    protected Map<Object, Integer> childCounts = new HashMap<>();
+    protected Sort sort;
+
+    protected boolean updatingContainer;
+    protected Subscription preLoadSubscription;
+
+    public LazyContainerTreeDataGridItems(CollectionLoader<E> loader, String hierarchyProperty,
+                                          DataManager dataManager,
+                                          TreeDataGridChildCountQueryBuilder childCountQueryBuilder) {
+        super(loader.getContainer(), hierarchyProperty, false);
+        Preconditions.checkNotNullArgument(dataManager);
+        Preconditions.checkNotNullArgument(childCountQueryBuilder);
+
+        this.loader = loader;
+        this.dataManager = dataManager;
+        this.childCountQueryBuilder = childCountQueryBuilder;
+
+        preLoadSubscription = loader.addPreLoadListener(this::onLoaderPreLoad);
+    }
+
+    /**
+     * @return loader the data is loaded by
+     */
+    public CollectionLoader<E> getLoader() {
+        return loader;
+    }
+
+    /**
+     * @return maximum number of loaded child lists kept in the container
+     */
+    public int getMaxCachedSubtrees() {
+        return maxCachedSubtrees;
+    }
+
+    /**
+     * Sets the maximum number of loaded child lists kept in the container. The list of root nodes is not counted
+     * and never evicted. Default value is 50.
+     */
+    public void setMaxCachedSubtrees(int maxCachedSubtrees) {
+        if (maxCachedSubtrees <= 0) {
+            throw new IllegalArgumentException("maxCachedSubtrees must be positive");
+        }
+        this.maxCachedSubtrees = maxCachedSubtrees;
+    }
+
+    /**
+     * @return maximum number of parent nodes passed to one query loading children or their numbers
+     */
+    public int getParentsPartitionSize() {
+        return parentsPartitionSize;
+    }
+
+    /**
+     * Sets the maximum number of parent nodes passed to one query loading children or their numbers, so that
+     * the {@code in} clause of the query stays within the limits of the database. Default value is 500.
+     */
+    public void setParentsPartitionSize(int parentsPartitionSize) {
+        if (parentsPartitionSize <= 0) {
+            throw new IllegalArgumentException("parentsPartitionSize must be positive");
+        }
+        this.parentsPartitionSize = parentsPartitionSize;
+    }
+
+    protected void onLoaderPreLoad(CollectionLoader.PreLoadEvent<E> event) {
+        event.preventLoad();
+        refresh();
+    }
+
+    /**
+     * Discards the loaded nodes, so that the grid requests them again.
+     */
+    public void refresh() {
+        children.clear();
+        childCounts.clear();
+        updateContainer();
+        getEventBus().fireEvent(new ItemSetChangeEvent<>(this));
+    }
+
+    @Override
+    protected void containerCollectionChanged(CollectionContainer.CollectionChangeEvent<E> event) {
+        if (updatingContainer) {
+            return;
+        }
+        // the container has been changed by the application, so the loaded nodes may be stale
+        children.clear();
+        childCounts.clear();
+        super.containerCollectionChanged(event);
+    }
+
+    @Override
+    public boolean isInMemory() {
+        return false;
+    }
+
+    @Override
+    public int getChildCount(HierarchicalQuery<E, Void> query) {
+        if (getState() == BindingState.INACTIVE) {
+            return 0;
+        }
+
+        E parent = query.getParent();
+        if (parent == null) {
+            return getChildList(null).size();
+        }
+        return countChildren(parent);
+    }
+
+    @Override
+    public Stream<E> getChildren(@Nullable E item) {
+        return getChildList(item).stream();
+    }
+
+    @Override
+    public boolean hasChildren(E item) {
+        if (getState() == BindingState.INACTIVE) {
+            return false;
+        }
+        return countChildren(item) > 0;
+    }
+
+    protected int countChildren(E parent) {
+        Object parentId = EntityValues.getId(parent);
+        List<E> loadedChildren = children.get(parentId);
+        if (loadedChildren != null) {
+            return loadedChildren.size();
+        }
+
+        Integer count = childCounts.get(parentId);
+        if (count == null) {
+            childCounts.putAll(loadChildCounts(Collections.singletonList(parent)));
+            count = childCounts.getOrDefault(parentId, 0);
+        }
+        return count;
+    }
+
+    protected List<E> getChildList(@Nullable E parent) {
+        Object key = parent == null ? ROOT_KEY : EntityValues.getId(parent);
+        List<E> loadedChildren = children.get(key);
+        if (loadedChildren != null) {
+            return loadedChildren;
+        }
+
+        if (parent == null) {
+            List<E> roots = load(createLoadContext(PropertyCondition.isSet(hierarchyProperty, false)));
+            putChildren(Collections.singletonMap(ROOT_KEY, roots));
+            return roots;
+        }
+        return loadChildren(Collections.singletonList(parent)).getOrDefault(key, Collections.emptyList());
+    }
+
+    /**
+     * Loads the children of the given nodes by one query, unless they are already loaded.
+     * <p>
+     * Call this method before expanding several nodes at once to avoid loading the children of each node
+     * separately.
+     *
+     * @param parents nodes to load the children of
+     */
+    public void preloadChildren(Collection<E> parents) {
+        if (getState() == BindingState.INACTIVE) {
+            return;
+        }
+
+        List<E> notLoaded = new ArrayList<>();
+        for (E parent : parents) {
+            Object parentId = EntityValues.getId(parent);
+            if (!children.containsKey(parentId) && childCounts.getOrDefault(parentId, -1) != 0) {
+                notLoaded.add(parent);
+            }
+        }
+        if (!notLoaded.isEmpty()) {
+            loadChildren(notLoaded);
+        }
+    }
+
+    protected Map<Object, List<E>> loadChildren(List<E> parents) {
+        Map<Object, List<E>> loadedChildren = new LinkedHashMap<>();
+        for (E parent : parents) {
+            loadedChildren.put(EntityValues.getId(parent), new ArrayList<>());
+        }
+
+        for (List<E> parentsPartition : ListUtils.partition(parents, parentsPartitionSize)) {
+            Condition condition = parentsPartition.size() == 1
+                    ? PropertyCondition.equal(hierarchyProperty, parentsPartition.get(0))
+                    : PropertyCondition.inList(hierarchyProperty, parentsPartition);
+            for (E child : load(createLoadContext(condition))) {
+                E parent = getParent(child);
+                if (parent != null) {
+                    loadedChildren.computeIfAbsent(EntityValues.getId(parent), id -> new ArrayList<>()).add(child);
+                }
+            }
+        }
+
+        putChildren(loadedChildren);
+        return loadedChildren;
+    }
+
+    protected void putChildren(Map<Object, List<E>> loadedChildren) {
+        List<E> nodes = new ArrayList<>();
+        for (Map.Entry<Object, List<E>> entry : loadedChildren.entrySet()) {
+            children.put(entry.getKey(), entry.getValue());
+            if (entry.getKey() != ROOT_KEY) {
+                childCounts.put(entry.getKey(), entry.getValue().size());
+            }
+            nodes.addAll(entry.getValue());
+        }
+        if (!nodes.isEmpty()) {
+            childCounts.putAll(loadChildCounts(nodes));
+        }
+
+        evictChildren(loadedChildren.keySet());
+        updateContainer();
+    }
+
+    protected void evictChildren(Set<Object> retainedKeys) {
+        int subtrees = children.containsKey(ROOT_KEY) ? children.size() - 1 : children.size();
+        // the map is in the access order, so the first lists are the least recently requested
+        Iterator<Object> iterator = children.keySet().iterator();
+        while (subtrees > maxCachedSubtrees && iterator.hasNext()) {
+            Object key = iterator.next();
+            if (key != ROOT_KEY && !retainedKeys.contains(key)) {
+                iterator.remove();
+                subtrees--;
+                log.trace("Evicted children of {} from {}", key, container);
+            }
+        }
+    }
+
+    /**
+     * Loads the numbers of children of the given nodes by grouping queries built from the load context of the
+     * loader, one query per {@link #getParentsPartitionSize()} nodes.
+     *
+     * @return parent id -> number of children
+     */
+    protected Map<Object, Integer> loadChildCounts(Collection<E> parents) {
+        Map<Object, Integer> counts = new HashMap<>();
+        for (E parent : parents) {
+            counts.put(EntityValues.getId(parent), 0);
+        }
+
+        LoadContext<E> entityLoadContext = loader.createLoadContext();
+        for (List<Object> idsPartition : ListUtils.partition(new ArrayList<>(counts.keySet()), parentsPartitionSize)) {
+            ValueLoadContext loadContext = ValueLoadContext.create()
+                    .setStoreName(entityLoadContext.getEntityMetaClass().getStore().getName())
+                    .setQuery(childCountQueryBuilder.build(entityLoadContext, hierarchyProperty, idsPartition));
+            loadContext.setProperties(List.of("parentId", "count"));
+
+            for (KeyValueEntity value : dataManager.loadValues(loadContext)) {
+                Number count = value.getValue("count");
+                counts.put(value.getValue("parentId"), count == null ? 0 : count.intValue());
+            }
+        }
+        return counts;
+    }
+
+    protected LoadContext<E> createLoadContext(Condition hierarchyCondition) {
+        LoadContext<E> loadContext = loader.createLoadContext();
+        LoadContext.Query query = loadContext.getQuery();
+        if (query != null) {
+            Condition condition = query.getCondition();
+            query.setCondition(condition == null
+                    ? hierarchyCondition
+                    : LogicalCondition.and(condition, hierarchyCondition));
+            // children are loaded entirely
+            query.setFirstResult(0);
+            query.setMaxResults(0);
+            if (sort != null) {
+                query.setSort(sort);
+            }
+        }
+        return loadContext;
+    }
+
+    protected List<E> load(LoadContext<E> loadContext) {
+        Function<LoadContext<E>, List<E>> loadDelegate = loader.getLoadDelegate();
+        List<E> entities = loadDelegate != null ? loadDelegate.apply(loadContext) : dataManager.loadList(loadContext);
+        if (entities == null) {
+            return new ArrayList<>();
+        }
+
+        DataContext dataContext = loader.getDataContext();
+        if (dataContext == null) {
+            return entities;
+        }
+        List<E> mergedEntities = new ArrayList<>(entities.size());
+        for (E entity : entities) {
+            mergedEntities.add(dataContext.merge(entity, new MergeOptions().setFresh(true)));
+        }
+        return mergedEntities;
+    }
+
+    /**
+     * Sets the entities of the loaded child lists to the container, keeping the selected entity.
+     */
+    protected void updateContainer() {
+        Set<E> entities = new LinkedHashSet<>();
+        for (List<E> list : children.values()) {
+            entities.addAll(list);
+        }
+        E selectedItem = container.getItemOrNull();
+        if (selectedItem != null) {
+            entities.add(selectedItem);
+        }
+
+        updatingContainer = true;
+        try {
+            container.setItems(entities);
+        } finally {
+            updatingContainer = false;
+        }
+    }
+
+    @Override
+    public void sort(Object[] propertyId, boolean[] ascending) {
+        sort = createSort(propertyId, ascending);
+        refresh();
+    }
+
+    @Override
+    public void resetSortOrder() {
+        sort = null;
+        refresh();
+    }
+
+    /**
+     * Stops intercepting the loads of the loader.
+     */
+    public void unbind() {
+        if (preLoadSubscription != null) {
+            preLoadSubscription.remove();
+            preLoadSubscription = null;
+        }
+    }
+}
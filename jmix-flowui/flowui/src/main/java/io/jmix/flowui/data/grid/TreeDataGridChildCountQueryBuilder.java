@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.jmix.flowui.data.grid;
+
+import io.jmix.core.LoadContext;
+import io.jmix.core.MetadataTools;
+import io.jmix.core.ValueLoadContext;
+import io.jmix.core.metamodel.model.MetaClass;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Builds the query that loads the numbers of children of tree nodes for {@link LazyContainerTreeDataGridItems}.
+ * <p>
+ * The query applies the condition and parameters of the loader, but not the {@code where} clause of its query
+ * string, because the query string cannot be transformed without a query parser. The bean is replaced in the
+ * {@code flowui-data} module by the one restricting the counted nodes by the whole query of the loader.
+ */
+@Component("flowui_TreeDataGridChildCountQueryBuilder")
+public class TreeDataGridChildCountQueryBuilder {
+
+    /**
+     * Name of the query parameter holding the ids of the parent nodes.
+     */
+    public static final String PARENT_IDS_PARAMETER = "lazyTreeParentIds";
+
+    protected final MetadataTools metadataTools;
+
+    public TreeDataGridChildCountQueryBuilder(MetadataTools metadataTools) {
+        this.metadataTools = metadataTools;
+    }
+
+    /**
+     * Creates the grouping query returning pairs of a parent id and the number of its children.
+     *
+     * @param loadContext       load context of the tree nodes
+     * @param hierarchyProperty property referencing the parent node
+     * @param parentIds         ids of the parent nodes
+     * @return value query
+     */
+    public ValueLoadContext.Query build(LoadContext<?> loadContext, String hierarchyProperty,
+                                        Collection<?> parentIds) {
+        MetaClass metaClass = loadContext.getEntityMetaClass();
+        String primaryKeyName = metadataTools.getPrimaryKeyName(metaClass);
+        if (primaryKeyName == null) {
+            throw new IllegalStateException("Cannot determine primary key of " + metaClass.getName());
+        }
+
+        LoadContext.Query query = loadContext.getQuery();
+        ValueLoadContext.Query valueQuery = ValueLoadContext.createQuery(
+                buildQueryString(query, metaClass, hierarchyProperty, primaryKeyName));
+        if (query != null) {
+            query.getParameters().forEach(valueQuery::setParameter);
+            valueQuery.setCondition(query.getCondition());
+        }
+        valueQuery.setParameter(PARENT_IDS_PARAMETER, new ArrayList<>(parentIds));
+        return valueQuery;
+    }
+
+    protected String buildQueryString(@Nullable LoadContext.Query query, MetaClass metaClass,
+                                      String hierarchyProperty, String primaryKeyName) {
+        String parentIdPath = "e." + hierarchyProperty + "." + primaryKeyName;
+        return String.format("select %s, count(e) from %s e where %s in :%s group by %s",
+                parentIdPath, metaClass.getName(), parentIdPath, PARENT_IDS_PARAMETER, parentIdPath);
+    }
+}
@@ -25,6 +25,8 @@ import io.jmix.core.FileRef;
 import io.jmix.core.FileStorage;
 import io.jmix.core.FileStorageException;
 import io.jmix.core.FileStorageLocator;
+import io.jmix.core.FileTransferException;
+import io.jmix.core.FileTransferService;
 import io.jmix.core.FileTypesHelper;
 import io.jmix.core.Messages;
 import io.jmix.flowui.UiProperties;
@@ -37,6 +39,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
 import org.springframework.lang.Nullable;
@@ -62,6 +65,7 @@ public class DownloaderImpl implements Downloader {
 
     protected FileStorageLocator fileStorageLocator;
     protected FileStorage fileStorage;
+    protected FileTransferService fileTransferService;
 
     protected boolean newWindow;
 
@@ -105,6 +109,11 @@ public class DownloaderImpl implements Downloader {
         this.fileStorageLocator = fileStorageLocator;
     }
 
+    @Autowired
+    public void setFileTransferService(FileTransferService fileTransferService) {
+        this.fileTransferService = fileTransferService;
+    }
+
     @Override
     public void setFileStorage(FileStorage fileStorage) {
         this.fileStorage = fileStorage;
@@ -171,16 +180,21 @@ public class DownloaderImpl implements Downloader {
 
         log.debug("added {} in {}", JmixFileDownloader.class.getSimpleName(), ui);
 
+        String contentType = downloadFormat != null && StringUtils.isNotEmpty(downloadFormat.getContentType())
+                ? downloadFormat.getContentType()
+                : FileTypesHelper.getMIMEType(resourceName);
+
         fileDownloader.setFileName(resourceName);
         fileDownloader.setFileNotFoundExceptionHandler(this::handleFileNotFoundException);
+        if (dataProvider instanceof FileRefDownloadDataProvider
+                && ((FileRefDownloadDataProvider) dataProvider).fileStorage != null
+                && fileTransferService != null) {
+            fileDownloader.setFileTransferHandler(
+                    createFileTransferHandler((FileRefDownloadDataProvider) dataProvider, resourceName, contentType));
+        }
 
         StreamResource resource = new StreamResource(resourceName, dataProvider::getStream);
-
-        if (downloadFormat != null && StringUtils.isNotEmpty(downloadFormat.getContentType())) {
-            resource.setContentType(downloadFormat.getContentType());
-        } else {
-            resource.setContentType(FileTypesHelper.getMIMEType(resourceName));
-        }
+        resource.setContentType(contentType);
 
         if (showNewWindow && isBrowserSupportsPopups() || isIPhone()) {
             fileDownloader.viewDocument(resource);
@@ -237,6 +251,34 @@ public class DownloaderImpl implements Downloader {
         download(dataProvider, resourceName, format);
     }
 
+    /**
+     * Creates a handler serving the file with the help of {@link FileTransferService}, so that browsers can
+     * request byte ranges of the file and revalidate it with conditional requests.
+     *
+     * @param dataProvider data provider of the file
+     * @param resourceName file name sent to the browser
+     * @param contentType  content type of the file
+     */
+    protected JmixFileDownloader.FileTransferHandler createFileTransferHandler(FileRefDownloadDataProvider dataProvider,
+                                                                               String resourceName,
+                                                                               String contentType) {
+        FileRef fileReference = dataProvider.fileReference;
+        String storageName = dataProvider.fileStorage.getStorageName();
+        return (request, response, inline) -> {
+            try {
+                fileTransferService.downloadAndWriteResponse(fileReference, storageName, !inline,
+                        resourceName, contentType, request, response);
+            } catch (FileTransferException e) {
+                if (e.getHttpStatus() == HttpStatus.NOT_FOUND) {
+                    // reported like other downloads, see handleFileNotFoundException()
+                    throw new FileStorageException(FileStorageException.Type.FILE_NOT_FOUND,
+                            fileReference.toString(), e);
+                }
+                throw e;
+            }
+        };
+    }
+
     protected void checkUIAccess() {
         VaadinSession vaadinSession = VaadinSession.getCurrent();
 
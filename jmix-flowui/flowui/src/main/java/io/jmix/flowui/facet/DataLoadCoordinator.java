@@ -40,6 +40,17 @@ public interface DataLoadCoordinator extends Facet {
      */
     void setComponentPrefix(String value);
 
+    /**
+     * @return whether loaders are loaded asynchronously
+     */
+    boolean isAsyncLoading();
+
+    /**
+     * Sets whether loaders are loaded asynchronously by {@link DataLoader#loadAsync()}. In this mode, loaders
+     * triggered by the same event are executed concurrently. Affects the triggers added after the call.
+     */
+    void setAsyncLoading(boolean asyncLoading);
+
     /**
      * Adds trigger on view event.
      *
@@ -35,6 +35,8 @@ public class OnComponentValueChangedLoadTrigger implements DataLoadCoordinator.T
     protected final String param;
     protected final LikeClause likeClause;
 
+    protected boolean asyncLoading;
+
     public OnComponentValueChangedLoadTrigger(DataLoader loader, Component component,
                                               String param, LikeClause likeClause) {
         if (!(component instanceof HasValue)) {
@@ -67,7 +69,19 @@ public class OnComponentValueChangedLoadTrigger implements DataLoadCoordinator.T
             }
         }
         loader.setParameter(param, value);
-        loader.load();
+        if (asyncLoading) {
+            loader.loadAsync();
+        } else {
+            loader.load();
+        }
+    }
+
+    public boolean isAsyncLoading() {
+        return asyncLoading;
+    }
+
+    public void setAsyncLoading(boolean asyncLoading) {
+        this.asyncLoading = asyncLoading;
     }
 
     @Override
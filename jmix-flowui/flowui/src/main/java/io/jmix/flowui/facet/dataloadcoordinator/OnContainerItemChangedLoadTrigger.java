@@ -26,6 +26,8 @@ public class OnContainerItemChangedLoadTrigger implements DataLoadCoordinator.Tr
     protected final InstanceContainer<?> container;
     protected final String param;
 
+    protected boolean asyncLoading;
+
     public OnContainerItemChangedLoadTrigger(DataLoader loader, InstanceContainer<?> container, String param) {
         this.loader = loader;
         this.container = container;
@@ -36,7 +38,19 @@ public class OnContainerItemChangedLoadTrigger implements DataLoadCoordinator.Tr
 
     protected void load() {
         loader.setParameter(param, container.getItemOrNull());
-        loader.load();
+        if (asyncLoading) {
+            loader.loadAsync();
+        } else {
+            loader.load();
+        }
+    }
+
+    public boolean isAsyncLoading() {
+        return asyncLoading;
+    }
+
+    public void setAsyncLoading(boolean asyncLoading) {
+        this.asyncLoading = asyncLoading;
     }
 
     @Override
@@ -28,6 +28,8 @@ public class OnViewEventLoadTrigger implements DataLoadCoordinator.Trigger {
 
     protected final DataLoader loader;
 
+    protected boolean asyncLoading;
+
     public OnViewEventLoadTrigger(View<?> view, ViewControllerReflectionInspector reflectionInspector,
                                   DataLoader loader, Class<?> eventClass) {
         MethodHandle addListenerMethod = reflectionInspector.getAddListenerMethod(view.getClass(), eventClass);
@@ -47,7 +49,19 @@ public class OnViewEventLoadTrigger implements DataLoadCoordinator.Trigger {
     }
 
     protected void load() {
-        loader.load();
+        if (asyncLoading) {
+            loader.loadAsync();
+        } else {
+            loader.load();
+        }
+    }
+
+    public boolean isAsyncLoading() {
+        return asyncLoading;
+    }
+
+    public void setAsyncLoading(boolean asyncLoading) {
+        this.asyncLoading = asyncLoading;
     }
 
     @Override
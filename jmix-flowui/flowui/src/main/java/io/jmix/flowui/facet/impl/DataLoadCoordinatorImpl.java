@@ -51,6 +51,7 @@ public class DataLoadCoordinatorImpl extends AbstractFacet implements DataLoadCo
 
     protected String containerPrefix = DEFAULT_CONTAINER_PREFIX;
     protected String componentPrefix = DEFAULT_COMPONENT_PREFIX;
+    protected boolean asyncLoading;
 
     protected List<Trigger> triggers = new ArrayList<>();
 
@@ -73,6 +74,16 @@ public class DataLoadCoordinatorImpl extends AbstractFacet implements DataLoadCo
         componentPrefix = value;
     }
 
+    @Override
+    public boolean isAsyncLoading() {
+        return asyncLoading;
+    }
+
+    @Override
+    public void setAsyncLoading(boolean asyncLoading) {
+        this.asyncLoading = asyncLoading;
+    }
+
     @Override
     public List<Trigger> getTriggers() {
         return Collections.unmodifiableList(triggers);
@@ -80,7 +91,11 @@ public class DataLoadCoordinatorImpl extends AbstractFacet implements DataLoadCo
 
     @Override
     public void addOnViewEventLoadTrigger(DataLoader loader, Class<?> eventClass) {
-        triggers.add(new OnViewEventLoadTrigger(getOwnerNN(), reflectionInspector, loader, eventClass));
+        OnViewEventLoadTrigger loadTrigger = new OnViewEventLoadTrigger(getOwnerNN(), reflectionInspector,
+                loader, eventClass);
+        loadTrigger.setAsyncLoading(asyncLoading);
+
+        triggers.add(loadTrigger);
     }
 
     @Override
@@ -92,6 +107,7 @@ public class DataLoadCoordinatorImpl extends AbstractFacet implements DataLoadCo
 
         OnContainerItemChangedLoadTrigger loadTrigger = new OnContainerItemChangedLoadTrigger(loader,
                 container, nonNullParam);
+        loadTrigger.setAsyncLoading(asyncLoading);
 
         triggers.add(loadTrigger);
     }
@@ -105,6 +121,7 @@ public class DataLoadCoordinatorImpl extends AbstractFacet implements DataLoadCo
 
         OnComponentValueChangedLoadTrigger loadTrigger = new OnComponentValueChangedLoadTrigger(
                 loader, component, nonNullParam, likeClause);
+        loadTrigger.setAsyncLoading(asyncLoading);
 
         triggers.add(loadTrigger);
     }
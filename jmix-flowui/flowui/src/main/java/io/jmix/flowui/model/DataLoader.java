@@ -22,6 +22,7 @@ import io.jmix.flowui.monitoring.DataLoaderMonitoringInfo;
 import org.springframework.lang.Nullable;
 import java.io.Serializable;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 /**
@@ -38,6 +39,28 @@ public interface DataLoader {
      */
     void load();
 
+    /**
+     * Loads data to the connected container asynchronously.
+     * <p>
+     * {@code PreLoadEvent} is sent and the load context is created in the calling thread. Data is fetched in a
+     * background thread, so a load delegate is invoked in that thread as well. Fetched data is set to the container
+     * and {@code PostLoadEvent} is sent in the UI thread.
+     * <p>
+     * A pending asynchronous load is cancelled when the loader is loaded again.
+     *
+     * @return future completed when the data is set to the container
+     */
+    default CompletableFuture<Void> loadAsync() {
+        load();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Cancels a pending asynchronous load started by {@link #loadAsync()}.
+     */
+    default void cancelAsyncLoad() {
+    }
+
     /**
      * Returns connected container.
      */
@@ -18,6 +18,7 @@ package io.jmix.flowui.model;
 
 import org.springframework.lang.Nullable;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface defining methods for interacting with data API elements of a view.
@@ -52,6 +53,19 @@ public interface ViewData {
      */
     void loadAll();
 
+    /**
+     * Performs {@link DataLoader#loadAsync()} for all loaders registered in the view, so that the loaders
+     * are executed concurrently.
+     *
+     * @return future completed when all loaders have set data to their containers
+     */
+    CompletableFuture<Void> loadAllAsync();
+
+    /**
+     * Cancels pending asynchronous loads of all loaders registered in the view.
+     */
+    void cancelAsyncLoads();
+
     /**
      * Returns a container by its id.
      *
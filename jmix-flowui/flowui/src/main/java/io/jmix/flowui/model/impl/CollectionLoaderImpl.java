@@ -35,6 +35,7 @@ import org.springframework.lang.Nullable;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -56,6 +57,8 @@ public class CollectionLoaderImpl<E> implements CollectionLoader<E> {
     protected List<QueryStringProcessor> queryStringProcessors;
     @Autowired
     protected MeterRegistry meterRegistry;
+    @Autowired
+    protected DataLoadExecutor dataLoadExecutor;
 
     protected DataContext dataContext;
     protected CollectionContainer<E> container;
@@ -72,6 +75,7 @@ public class CollectionLoaderImpl<E> implements CollectionLoader<E> {
     protected Function<LoadContext<E>, List<E>> delegate;
     protected EventHub events = new EventHub();
     protected Function<DataLoader, DataLoaderMonitoringInfo> monitoringInfoProvider = __ -> DataLoaderMonitoringInfo.empty();
+    protected CompletableFuture<Void> pendingLoad;
 
     @Nullable
     @Override
@@ -97,14 +101,12 @@ public class CollectionLoaderImpl<E> implements CollectionLoader<E> {
 
     @Override
     public void load() {
+        cancelAsyncLoad();
         _load();
     }
 
     protected boolean _load() {
-        if (container == null)
-            throw new IllegalStateException("container is null");
-        if (query == null && delegate == null)
-            throw new IllegalStateException("both query and delegate are null");
+        checkCanLoad();
 
         LoadContext<E> loadContext = createLoadContext();
 
@@ -112,6 +114,51 @@ public class CollectionLoaderImpl<E> implements CollectionLoader<E> {
             return false;
         }
 
+        List<E> list = loadList(loadContext);
+        if (list == null) {
+            return false;
+        }
+
+        setLoadedItems(list);
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Void> loadAsync() {
+        cancelAsyncLoad();
+        checkCanLoad();
+
+        LoadContext<E> loadContext = createLoadContext();
+
+        if (!sendPreLoadEvent(loadContext)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        pendingLoad = dataLoadExecutor.execute(() -> loadList(loadContext), list -> {
+            if (list != null) {
+                setLoadedItems(list);
+            }
+        });
+        return pendingLoad;
+    }
+
+    @Override
+    public void cancelAsyncLoad() {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+            pendingLoad = null;
+        }
+    }
+
+    protected void checkCanLoad() {
+        if (container == null)
+            throw new IllegalStateException("container is null");
+        if (query == null && delegate == null)
+            throw new IllegalStateException("both query and delegate are null");
+    }
+
+    @Nullable
+    protected List<E> loadList(LoadContext<E> loadContext) {
         List<E> list;
 
         Timer.Sample sample = startTimerSample(meterRegistry);
@@ -121,13 +168,17 @@ public class CollectionLoaderImpl<E> implements CollectionLoader<E> {
         } else {
             list = delegate.apply(loadContext);
             if (list == null) {
-                return false;
+                return null;
             }
         }
 
         DataLoaderMonitoringInfo info = monitoringInfoProvider.apply(this);
         stopDataLoaderTimerSample(sample, meterRegistry, DataLoaderLifeCycle.LOAD, info);
 
+        return list;
+    }
+
+    protected void setLoadedItems(List<E> list) {
         if (dataContext != null) {
             List<E> mergedList = new ArrayList<>(list.size());
             for (E entity : list) {
@@ -139,8 +190,6 @@ public class CollectionLoaderImpl<E> implements CollectionLoader<E> {
         }
 
         sendPostLoadEvent(list);
-
-        return true;
     }
 
     @Override
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.flowui.model.impl;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import io.jmix.core.security.SecurityContextHelper;
+import io.jmix.flowui.UiProperties;
+import io.jmix.flowui.backgroundtask.BackgroundWorker;
+import io.jmix.flowui.backgroundtask.UIAccessor;
+import io.jmix.flowui.model.DataLoader;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Executes asynchronous loads of data loaders, see {@link DataLoader#loadAsync()}.
+ * <p>
+ * Data is fetched on virtual threads if they are available in the running JVM, otherwise on a pool of
+ * {@link UiProperties#getAsyncDataLoadThreadsCount()} threads. Fetched data is applied in the UI thread through
+ * {@link UIAccessor}. If there is no current UI, data is fetched and applied synchronously.
+ */
+@Component("flowui_DataLoadExecutor")
+public class DataLoadExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(DataLoadExecutor.class);
+
+    protected BackgroundWorker backgroundWorker;
+
+    protected ExecutorService executorService;
+
+    public DataLoadExecutor(BackgroundWorker backgroundWorker, UiProperties uiProperties) {
+        this.backgroundWorker = backgroundWorker;
+        this.executorService = createExecutorService(uiProperties.getAsyncDataLoadThreadsCount());
+    }
+
+    protected ExecutorService createExecutorService(int threadsCount) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService virtualThreadExecutor = (ExecutorService) method.invoke(null);
+            log.debug("Asynchronous data loads are executed on virtual threads");
+            return virtualThreadExecutor;
+        } catch (ReflectiveOperationException e) {
+            // virtual threads are not available in this JVM
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+                    threadsCount,
+                    threadsCount,
+                    1L, TimeUnit.MINUTES,
+                    new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("DataLoad-%d")
+                            .setDaemon(true)
+                            .build()
+            );
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            return threadPoolExecutor;
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Fetches data in a background thread and passes it to the consumer in the UI thread.
+     * <p>
+     * Cancelling the returned future interrupts fetching and prevents passing the data to the consumer.
+     * If fetching or consuming fails, the returned future is completed exceptionally and the exception
+     * is rethrown in the UI thread to be handled by the UI error handler.
+     *
+     * @param fetcher  function fetching data, invoked in a background thread
+     * @param consumer function applying fetched data, invoked in the UI thread
+     * @param <T>      type of data
+     * @return future completed when the data is applied
+     */
+    public <T> CompletableFuture<Void> execute(Supplier<T> fetcher, Consumer<T> consumer) {
+        if (UI.getCurrent() == null) {
+            consumer.accept(fetcher.get());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        UIAccessor uiAccessor = backgroundWorker.getUIAccessor();
+        Authentication authentication = SecurityContextHelper.getAuthentication();
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Future<?> task = executorService.submit(() -> {
+            SecurityContextHelper.setAuthentication(authentication);
+            try {
+                T data = fetcher.get();
+                access(uiAccessor, result, () -> {
+                    consumer.accept(data);
+                    result.complete(null);
+                });
+            } catch (RuntimeException | Error e) {
+                if (!result.isCancelled()) {
+                    access(uiAccessor, result, () -> {
+                        throw e;
+                    });
+                }
+            } finally {
+                SecurityContextHelper.setAuthentication(null);
+            }
+        });
+
+        result.whenComplete((__, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    protected void access(UIAccessor uiAccessor, CompletableFuture<Void> result, Runnable action) {
+        try {
+            uiAccessor.access(() -> {
+                // the load can be cancelled while waiting for the UI lock
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    action.run();
+                } catch (RuntimeException | Error e) {
+                    result.completeExceptionally(e);
+                    throw e;
+                }
+            });
+        } catch (UIDetachedException e) {
+            log.debug("Cannot apply loaded data because UI is detached");
+            result.cancel(false);
+        }
+    }
+}
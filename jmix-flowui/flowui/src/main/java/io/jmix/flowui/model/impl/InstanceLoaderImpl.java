@@ -36,6 +36,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -52,6 +53,8 @@ public class InstanceLoaderImpl<E> implements InstanceLoader<E> {
     protected Metadata metadata;
     @Autowired
     protected MeterRegistry meterRegistry;
+    @Autowired
+    protected DataLoadExecutor dataLoadExecutor;
 
     protected DataContext dataContext;
     protected InstanceContainer<E> container;
@@ -65,6 +68,7 @@ public class InstanceLoaderImpl<E> implements InstanceLoader<E> {
     protected Function<LoadContext<E>, E> delegate;
     protected EventHub events = new EventHub();
     protected Function<DataLoader, DataLoaderMonitoringInfo> monitoringInfoProvider = __ -> DataLoaderMonitoringInfo.empty();
+    protected CompletableFuture<Void> pendingLoad;
 
     @Nullable
     @Override
@@ -90,41 +94,83 @@ public class InstanceLoaderImpl<E> implements InstanceLoader<E> {
 
     @Override
     public void load() {
+        cancelAsyncLoad();
+
         if (container == null)
             throw new IllegalStateException("container is null");
 
-        E entity;
-
         LoadContext<E> loadContext = createLoadContext();
 
         if (!needLoad())
             return;
 
-        Timer.Sample sample = UiMonitoring.startTimerSample(meterRegistry);
+        if (!sendPreLoadEvent(loadContext)) {
+            return;
+        }
 
-        if (delegate == null) {
-            if (!sendPreLoadEvent(loadContext)) {
-                return;
+        E entity = loadEntity(loadContext);
+        if (entity == null) {
+            return;
+        }
+
+        setLoadedItem(entity);
+    }
+
+    @Override
+    public CompletableFuture<Void> loadAsync() {
+        cancelAsyncLoad();
+
+        if (container == null)
+            throw new IllegalStateException("container is null");
+
+        LoadContext<E> loadContext = createLoadContext();
+
+        if (!needLoad() || !sendPreLoadEvent(loadContext)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        pendingLoad = dataLoadExecutor.execute(() -> loadEntity(loadContext), entity -> {
+            if (entity != null) {
+                setLoadedItem(entity);
             }
+        });
+        return pendingLoad;
+    }
+
+    @Override
+    public void cancelAsyncLoad() {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+            pendingLoad = null;
+        }
+    }
 
+    @Nullable
+    protected E loadEntity(LoadContext<E> loadContext) {
+        E entity;
+
+        Timer.Sample sample = UiMonitoring.startTimerSample(meterRegistry);
+
+        if (delegate == null) {
             entity = dataManager.load(loadContext);
 
             if (entity == null) {
                 throw new EntityAccessException(container.getEntityMetaClass(), entityId);
             }
         } else {
-            if (!sendPreLoadEvent(loadContext)) {
-                return;
-            }
             entity = delegate.apply(createLoadContext());
             if (entity == null) {
-                return;
+                return null;
             }
         }
 
         DataLoaderMonitoringInfo info = monitoringInfoProvider.apply(this);
         UiMonitoring.stopDataLoaderTimerSample(sample, meterRegistry, DataLoaderLifeCycle.LOAD, info);
 
+        return entity;
+    }
+
+    protected void setLoadedItem(E entity) {
         if (dataContext != null) {
             entity = dataContext.merge(entity, new MergeOptions().setFresh(true));
         }
@@ -37,6 +37,7 @@ import org.springframework.lang.Nullable;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -49,6 +50,8 @@ public class KeyValueCollectionLoaderImpl implements KeyValueCollectionLoader {
     protected SorterFactory sorterFactory;
     @Autowired
     protected MeterRegistry meterRegistry;
+    @Autowired
+    protected DataLoadExecutor dataLoadExecutor;
 
     protected DataContext dataContext;
     protected KeyValueCollectionContainer container;
@@ -63,6 +66,7 @@ public class KeyValueCollectionLoaderImpl implements KeyValueCollectionLoader {
     protected Function<ValueLoadContext, List<KeyValueEntity>> delegate;
     protected EventHub events = new EventHub();
     protected Function<DataLoader, DataLoaderMonitoringInfo> monitoringInfoProvider = __ -> DataLoaderMonitoringInfo.empty();
+    protected CompletableFuture<Void> pendingLoad;
 
     @Nullable
     @Override
@@ -88,10 +92,8 @@ public class KeyValueCollectionLoaderImpl implements KeyValueCollectionLoader {
 
     @Override
     public void load() {
-        if (container == null)
-            throw new IllegalStateException("container is null");
-        if (query == null && delegate == null)
-            throw new IllegalStateException("both query and delegate are null");
+        cancelAsyncLoad();
+        checkCanLoad();
 
         ValueLoadContext loadContext = createLoadContext();
 
@@ -99,6 +101,50 @@ public class KeyValueCollectionLoaderImpl implements KeyValueCollectionLoader {
             return;
         }
 
+        List<KeyValueEntity> list = loadValues(loadContext);
+        if (list == null) {
+            return;
+        }
+
+        setLoadedItems(list);
+    }
+
+    @Override
+    public CompletableFuture<Void> loadAsync() {
+        cancelAsyncLoad();
+        checkCanLoad();
+
+        ValueLoadContext loadContext = createLoadContext();
+
+        if (!sendPreLoadEvent(loadContext)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        pendingLoad = dataLoadExecutor.execute(() -> loadValues(loadContext), list -> {
+            if (list != null) {
+                setLoadedItems(list);
+            }
+        });
+        return pendingLoad;
+    }
+
+    @Override
+    public void cancelAsyncLoad() {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+            pendingLoad = null;
+        }
+    }
+
+    protected void checkCanLoad() {
+        if (container == null)
+            throw new IllegalStateException("container is null");
+        if (query == null && delegate == null)
+            throw new IllegalStateException("both query and delegate are null");
+    }
+
+    @Nullable
+    protected List<KeyValueEntity> loadValues(ValueLoadContext loadContext) {
         List<KeyValueEntity> list;
 
         Timer.Sample sample = UiMonitoring.startTimerSample(meterRegistry);
@@ -107,13 +153,17 @@ public class KeyValueCollectionLoaderImpl implements KeyValueCollectionLoader {
         } else {
             list = delegate.apply(loadContext);
             if (list == null) {
-                return;
+                return null;
             }
         }
 
         DataLoaderMonitoringInfo info = monitoringInfoProvider.apply(this);
         UiMonitoring.stopDataLoaderTimerSample(sample, meterRegistry, DataLoaderLifeCycle.LOAD, info);
 
+        return list;
+    }
+
+    protected void setLoadedItems(List<KeyValueEntity> list) {
         if (dataContext != null) {
             List<KeyValueEntity> mergedList = new ArrayList<>(list.size());
             for (KeyValueEntity entity : list) {
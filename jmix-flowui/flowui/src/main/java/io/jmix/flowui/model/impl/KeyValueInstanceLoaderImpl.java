@@ -40,6 +40,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -50,6 +51,8 @@ public class KeyValueInstanceLoaderImpl implements KeyValueInstanceLoader {
 
     @Autowired
     protected MeterRegistry meterRegistry;
+    @Autowired
+    protected DataLoadExecutor dataLoadExecutor;
 
     protected DataContext dataContext;
     protected KeyValueContainer container;
@@ -61,6 +64,7 @@ public class KeyValueInstanceLoaderImpl implements KeyValueInstanceLoader {
     protected Function<ValueLoadContext, KeyValueEntity> delegate;
     protected EventHub events = new EventHub();
     protected Function<DataLoader, DataLoaderMonitoringInfo> monitoringInfoProvider = __ -> DataLoaderMonitoringInfo.empty();
+    protected CompletableFuture<Void> pendingLoad;
 
     @Nullable
     @Override
@@ -86,10 +90,8 @@ public class KeyValueInstanceLoaderImpl implements KeyValueInstanceLoader {
 
     @Override
     public void load() {
-        if (container == null)
-            throw new IllegalStateException("container is null");
-        if (query == null && delegate == null)
-            throw new IllegalStateException("both query and delegate are null");
+        cancelAsyncLoad();
+        checkCanLoad();
 
         ValueLoadContext loadContext = createLoadContext();
 
@@ -97,24 +99,76 @@ public class KeyValueInstanceLoaderImpl implements KeyValueInstanceLoader {
             return;
         }
 
-        KeyValueEntity result = null;
+        List<KeyValueEntity> result = loadValue(loadContext);
+        if (result == null) {
+            return;
+        }
+
+        setLoadedItem(result);
+    }
+
+    @Override
+    public CompletableFuture<Void> loadAsync() {
+        cancelAsyncLoad();
+        checkCanLoad();
+
+        ValueLoadContext loadContext = createLoadContext();
+
+        if (!sendPreLoadEvent(loadContext)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        pendingLoad = dataLoadExecutor.execute(() -> loadValue(loadContext), result -> {
+            if (result != null) {
+                setLoadedItem(result);
+            }
+        });
+        return pendingLoad;
+    }
+
+    @Override
+    public void cancelAsyncLoad() {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+            pendingLoad = null;
+        }
+    }
+
+    protected void checkCanLoad() {
+        if (container == null)
+            throw new IllegalStateException("container is null");
+        if (query == null && delegate == null)
+            throw new IllegalStateException("both query and delegate are null");
+    }
+
+    /**
+     * @return list containing the loaded value, empty list if nothing is found, or null if the load delegate
+     * returned null
+     */
+    @Nullable
+    protected List<KeyValueEntity> loadValue(ValueLoadContext loadContext) {
+        List<KeyValueEntity> list;
 
         Timer.Sample sample = UiMonitoring.startTimerSample(meterRegistry);
         if (delegate == null) {
-            List<KeyValueEntity> list = dataManager.loadValues(loadContext);
-            if (!list.isEmpty()) {
-                result = list.get(0);
-            }
+            list = dataManager.loadValues(loadContext);
         } else {
-            result = delegate.apply(loadContext);
+            KeyValueEntity result = delegate.apply(loadContext);
             if (result == null) {
-                return;
+                return null;
             }
+            list = Collections.singletonList(result);
         }
 
         DataLoaderMonitoringInfo info = monitoringInfoProvider.apply(this);
         UiMonitoring.stopDataLoaderTimerSample(sample, meterRegistry, DataLoaderLifeCycle.LOAD, info);
 
+        return list;
+    }
+
+    protected void setLoadedItem(List<KeyValueEntity> list) {
+        KeyValueEntity result = list.isEmpty() ? null : list.get(0);
+
         container.setItem(result);
         sendPostLoadEvent(result);
     }
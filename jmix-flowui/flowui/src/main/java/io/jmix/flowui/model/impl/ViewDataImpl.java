@@ -29,6 +29,7 @@ import org.springframework.stereotype.Component;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Component("flowui_ViewData")
 @Scope(BeanDefinition.SCOPE_PROTOTYPE)
@@ -108,6 +109,21 @@ public class ViewDataImpl implements ViewData {
         }
     }
 
+    @Override
+    public CompletableFuture<Void> loadAllAsync() {
+        CompletableFuture<?>[] futures = loaders.values().stream()
+                .map(DataLoader::loadAsync)
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures);
+    }
+
+    @Override
+    public void cancelAsyncLoads() {
+        for (DataLoader loader : loaders.values()) {
+            loader.cancelAsyncLoad();
+        }
+    }
+
     @Override
     public void registerContainer(String id, InstanceContainer<?> container) {
         containers.put(id, container);
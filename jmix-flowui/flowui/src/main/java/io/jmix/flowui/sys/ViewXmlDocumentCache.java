@@ -18,34 +18,101 @@ package io.jmix.flowui.sys;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import io.jmix.flowui.UiViewProperties;
 import org.dom4j.Document;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import org.springframework.lang.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.ToLongFunction;
 
+/**
+ * Caches view descriptors with resolved inheritance by resource path.
+ * <p>
+ * A cached descriptor is valid while the last modification times of its resource and of the resources it is
+ * inherited from are not changed. Cached documents are shared between views, so they must not be modified.
+ */
 @Component("flowui_ViewXmlDocumentCache")
 public class ViewXmlDocumentCache {
 
-    protected Cache<String, Document> cache;
+    protected Cache<String, CachedDocument> cache;
 
     public ViewXmlDocumentCache() {
         this(100);
     }
 
+    @Autowired
+    public ViewXmlDocumentCache(UiViewProperties viewProperties) {
+        this(viewProperties.getDescriptorCacheSize());
+    }
+
     protected ViewXmlDocumentCache(int cacheDescriptorsCount) {
         cache = CacheBuilder.newBuilder().maximumSize(cacheDescriptorsCount).build();
     }
 
+    /**
+     * Caches the descriptor.
+     *
+     * @param resourcePath  path of the descriptor resource
+     * @param document      descriptor with resolved inheritance
+     * @param lastModified  last modification times of the descriptor resource and of the resources
+     *                      it is inherited from, by resource path
+     */
+    public void put(String resourcePath, Document document, Map<String, Long> lastModified) {
+        cache.put(resourcePath, new CachedDocument(document, Map.copyOf(lastModified)));
+    }
+
+    /**
+     * Returns the cached descriptor if the resources it is built from are not modified since it has been cached.
+     *
+     * @param resourcePath         path of the descriptor resource
+     * @param lastModifiedProvider function returning the current last modification time of a resource by its path
+     * @return cached descriptor or null
+     */
+    @Nullable
+    public Document get(String resourcePath, ToLongFunction<String> lastModifiedProvider) {
+        CachedDocument cachedDocument = cache.getIfPresent(resourcePath);
+        if (cachedDocument == null) {
+            return null;
+        }
+
+        for (Map.Entry<String, Long> entry : cachedDocument.lastModified().entrySet()) {
+            if (lastModifiedProvider.applyAsLong(entry.getKey()) != entry.getValue()) {
+                cache.invalidate(resourcePath);
+                return null;
+            }
+        }
+        return cachedDocument.document();
+    }
+
+    /**
+     * Caches the descriptor by its text. The descriptor is valid until it is evicted or the cache is invalidated.
+     *
+     * @deprecated use {@link #put(String, Document, Map)} instead
+     */
+    @Deprecated(since = "2.4", forRemoval = true)
     public void put(String xml, Document document) {
-        cache.put(xml, document);
+        put(xml, document, Collections.emptyMap());
     }
 
+    /**
+     * Returns the descriptor cached by its text.
+     *
+     * @deprecated use {@link #get(String, ToLongFunction)} instead
+     */
+    @Deprecated(since = "2.4", forRemoval = true)
     @Nullable
     public Document get(String xml) {
-        return cache.getIfPresent(xml);
+        // descriptors cached by text do not depend on resources
+        return get(xml, resourcePath -> 0L);
     }
 
     public void invalidateAll() {
         cache.invalidateAll();
     }
-}
\ No newline at end of file
+
+    protected record CachedDocument(Document document, Map<String, Long> lastModified) {
+    }
+}
@@ -18,28 +18,46 @@ package io.jmix.flowui.sys;
 
 import io.jmix.core.DevelopmentException;
 import io.jmix.core.Resources;
+import io.jmix.flowui.UiViewProperties;
 import io.jmix.flowui.view.View;
+import io.jmix.flowui.view.ViewInfo;
+import io.jmix.flowui.view.ViewRegistry;
 import org.apache.commons.io.IOUtils;
 import org.dom4j.Document;
 import org.dom4j.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Loads view XML descriptors.
+ * <p>
+ * Descriptors with resolved inheritance are cached by resource path in {@link ViewXmlDocumentCache}, so a view
+ * opened again does not read and parse its XML unless the descriptor or its ancestors are modified.
  */
 @Component("flowui_ViewXmlLoader")
 public class ViewXmlLoader {
 
+    private static final Logger log = LoggerFactory.getLogger(ViewXmlLoader.class);
+
     protected Resources resources;
     protected ViewXmlDocumentCache viewXmlDocumentCache;
     protected ViewXmlParser viewXmlParser;
     protected ApplicationContext applicationContext;
+    protected UiViewProperties viewProperties;
 
     @Autowired
     public void setResources(Resources resources) {
@@ -61,6 +79,11 @@ public class ViewXmlLoader {
         this.applicationContext = applicationContext;
     }
 
+    @Autowired
+    public void setViewProperties(UiViewProperties viewProperties) {
+        this.viewProperties = viewProperties;
+    }
+
     /**
      * Loads a descriptor.
      *
@@ -68,12 +91,45 @@ public class ViewXmlLoader {
      * @return root XML element
      */
     public Element load(String resourcePath) {
-        String template = loadTemplate(resourcePath);
-        Document document = getDocument(template);
+        Document document = viewXmlDocumentCache.get(resourcePath, this::getLastModified);
+        if (document == null) {
+            document = createDocument(resourcePath);
+        }
 
         return document.getRootElement();
     }
 
+    /**
+     * Loads descriptors of all registered views into the cache.
+     */
+    public void precompile() {
+        long startTime = System.currentTimeMillis();
+
+        Set<String> resourcePaths = new LinkedHashSet<>();
+        for (ViewInfo viewInfo : applicationContext.getBean(ViewRegistry.class).getViewInfos()) {
+            viewInfo.getTemplatePath().ifPresent(resourcePaths::add);
+        }
+
+        for (String resourcePath : resourcePaths) {
+            try {
+                load(resourcePath);
+            } catch (RuntimeException e) {
+                // the error is thrown again when the view is opened
+                log.warn("Unable to precompile view descriptor {}: {}", resourcePath, e.toString());
+            }
+        }
+
+        log.info("{} view descriptors precompiled in {} ms",
+                resourcePaths.size(), System.currentTimeMillis() - startTime);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (viewProperties.isDescriptorPrecompilationEnabled()) {
+            precompile();
+        }
+    }
+
     private String loadTemplate(String resourcePath) {
         try (InputStream stream = resources.getResourceAsStream(resourcePath)) {
             if (stream == null) {
@@ -86,22 +142,33 @@ public class ViewXmlLoader {
         }
     }
 
-    protected Document getDocument(String template) {
-        Document document = viewXmlDocumentCache.get(template);
-        if (document == null) {
-            document = createDocument(template);
-            viewXmlDocumentCache.put(template, document);
-        }
-
-        return document;
-    }
+    protected Document createDocument(String resourcePath) {
+        // take the modification time before reading, so that a concurrent change invalidates the cached document
+        Map<String, Long> lastModified = new HashMap<>();
+        lastModified.put(resourcePath, getLastModified(resourcePath));
 
-    protected Document createDocument(String template) {
+        String template = loadTemplate(resourcePath);
         Document originalDocument = viewXmlParser.parseDescriptor(template);
 
         XmlInheritanceProcessor processor = applicationContext.getBean(XmlInheritanceProcessor.class, originalDocument);
         Element resultRoot = processor.getResultRoot();
 
-        return resultRoot.getDocument();
+        for (String ancestorTemplate : processor.getAncestorTemplates()) {
+            lastModified.put(ancestorTemplate, getLastModified(ancestorTemplate));
+        }
+
+        Document document = resultRoot.getDocument();
+        viewXmlDocumentCache.put(resourcePath, document, lastModified);
+        return document;
+    }
+
+    protected long getLastModified(String resourcePath) {
+        Resource resource = resources.getResource(resourcePath);
+        try {
+            return resource.exists() ? resource.lastModified() : -1;
+        } catch (IOException e) {
+            // modification time is not available, e.g. for some resources in archives
+            return -1;
+        }
     }
 }
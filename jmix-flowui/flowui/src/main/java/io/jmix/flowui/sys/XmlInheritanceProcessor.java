@@ -50,6 +50,8 @@ public class XmlInheritanceProcessor {
 
     private List<ElementTargetLocator> targetLocators;
 
+    private final List<String> ancestorTemplates = new ArrayList<>();
+
     protected Resources resources;
     protected ViewXmlParser viewXmlParser;
     protected ApplicationContext applicationContext;
@@ -100,6 +102,9 @@ public class XmlInheritanceProcessor {
             result = processor.getResultRoot();
             process(result, root);
 
+            ancestorTemplates.add(ancestorTemplate);
+            ancestorTemplates.addAll(processor.getAncestorTemplates());
+
             if (log.isTraceEnabled()) {
                 StringWriter writer = new StringWriter();
                 Dom4j.writeDocument(result.getDocument(), true, writer);
@@ -112,6 +117,14 @@ public class XmlInheritanceProcessor {
         return result;
     }
 
+    /**
+     * @return paths of the descriptors the result is inherited from, starting from the nearest one.
+     * Filled by {@link #getResultRoot()}.
+     */
+    public List<String> getAncestorTemplates() {
+        return Collections.unmodifiableList(ancestorTemplates);
+    }
+
     protected InputStream getAncestorStream(String ancestorTemplate) {
         InputStream ancestorStream = resources.getResourceAsStream(ancestorTemplate);
         if (ancestorStream == null) {
@@ -173,6 +173,7 @@ public class View<T extends Component> extends Composite<T>
         super.onDetach(detachEvent);
 
         removeApplicationListeners();
+        cancelAsyncDataLoads();
         if (UiComponentUtils.isComponentAttachedToDialog(this)) {
             removeViewAttributes();
         }
@@ -183,6 +184,12 @@ public class View<T extends Component> extends Composite<T>
         }
     }
 
+    private void cancelAsyncDataLoads() {
+        if (viewData != null) {
+            viewData.cancelAsyncLoads();
+        }
+    }
+
     private void unregisterBackNavigation() {
         getViewSupport().unregisterBackwardNavigation(this);
     }
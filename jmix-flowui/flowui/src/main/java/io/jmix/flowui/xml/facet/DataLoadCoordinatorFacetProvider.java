@@ -74,6 +74,7 @@ public class DataLoadCoordinatorFacetProvider implements FacetProvider<DataLoadC
         loaderSupport.loadString(element, "id", facet::setId);
         loaderSupport.loadString(element, "containerPrefix", facet::setContainerPrefix);
         loaderSupport.loadString(element, "componentPrefix", facet::setComponentPrefix);
+        loaderSupport.loadBoolean(element, "asyncLoading", facet::setAsyncLoading);
 
         for (Element loaderEl : element.elements("refresh")) {
             loadRefresh(facet, context, loaderEl);
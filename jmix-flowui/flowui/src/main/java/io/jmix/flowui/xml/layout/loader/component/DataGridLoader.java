@@ -16,9 +16,13 @@
 
 package io.jmix.flowui.xml.layout.loader.component;
 
+import io.jmix.core.DataManager;
 import io.jmix.flowui.component.grid.DataGrid;
 import io.jmix.flowui.data.grid.ContainerDataGridItems;
 import io.jmix.flowui.data.grid.EmptyDataGridItems;
+import io.jmix.flowui.data.grid.LazyContainerDataGridItems;
+import io.jmix.flowui.exception.GuiDevelopmentException;
+import io.jmix.flowui.model.CollectionLoader;
 import org.dom4j.Element;
 
 public class DataGridLoader extends AbstractGridLoader<DataGrid<?>> {
@@ -32,12 +36,27 @@ public class DataGridLoader extends AbstractGridLoader<DataGrid<?>> {
     @Override
     protected void setupDataProvider(GridDataHolder holder) {
         if (holder.getContainer() != null) {
-            resultComponent.setItems(new ContainerDataGridItems(holder.getContainer()));
+            if (loadBoolean(element, "lazyLoading").orElse(false)) {
+                resultComponent.setItems(createLazyItems(holder));
+            } else {
+                resultComponent.setItems(new ContainerDataGridItems(holder.getContainer()));
+            }
         } else if (holder.getMetaClass() != null) {
             resultComponent.setItems(new EmptyDataGridItems(holder.getMetaClass()));
         }
     }
 
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected LazyContainerDataGridItems<?> createLazyItems(GridDataHolder holder) {
+        if (!(holder.getDataLoader() instanceof CollectionLoader)) {
+            throw new GuiDevelopmentException("Lazy loading requires a data container with a collection loader",
+                    context, "Component ID", element.attributeValue("id"));
+        }
+
+        return new LazyContainerDataGridItems(
+                (CollectionLoader) holder.getDataLoader(), applicationContext.getBean(DataManager.class));
+    }
+
     @Override
     protected void loadActions() {
         loadActionsAttributes();
@@ -17,13 +17,17 @@
 package io.jmix.flowui.xml.layout.loader.component;
 
 import com.google.common.base.Strings;
+import io.jmix.core.DataManager;
 import io.jmix.core.metamodel.model.MetaProperty;
 import io.jmix.core.metamodel.model.MetaPropertyPath;
 import io.jmix.flowui.component.grid.DataGridColumn;
 import io.jmix.flowui.component.grid.TreeDataGrid;
 import io.jmix.flowui.data.grid.ContainerTreeDataGridItems;
 import io.jmix.flowui.data.grid.EmptyTreeDataGridItems;
+import io.jmix.flowui.data.grid.LazyContainerTreeDataGridItems;
+import io.jmix.flowui.data.grid.TreeDataGridChildCountQueryBuilder;
 import io.jmix.flowui.exception.GuiDevelopmentException;
+import io.jmix.flowui.model.CollectionLoader;
 import org.dom4j.Element;
 
 public class TreeDataGridLoader extends AbstractGridLoader<TreeDataGrid<?>> {
@@ -52,7 +56,10 @@ public class TreeDataGridLoader extends AbstractGridLoader<TreeDataGrid<?>> {
                         )
                 );
 
-        if (holder.getContainer() != null) {
+        if (holder.getContainer() != null
+                && loadBoolean(element, "lazyLoading").orElse(false)) {
+            resultComponent.setDataProvider(createLazyItems(holder, hierarchyProperty));
+        } else if (holder.getContainer() != null) {
             Boolean showOrphans = loadBoolean(element, "showOrphans").orElse(false);
 
             resultComponent.setDataProvider(
@@ -63,6 +70,18 @@ public class TreeDataGridLoader extends AbstractGridLoader<TreeDataGrid<?>> {
         }
     }
 
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected LazyContainerTreeDataGridItems<?> createLazyItems(GridDataHolder holder, String hierarchyProperty) {
+        if (!(holder.getDataLoader() instanceof CollectionLoader)) {
+            throw new GuiDevelopmentException("Lazy loading requires a data container with a collection loader",
+                    context, "Component ID", element.attributeValue("id"));
+        }
+
+        return new LazyContainerTreeDataGridItems((CollectionLoader) holder.getDataLoader(), hierarchyProperty,
+                applicationContext.getBean(DataManager.class),
+                applicationContext.getBean(TreeDataGridChildCountQueryBuilder.class));
+    }
+
     @Override
     protected DataGridColumn<?> addColumn(String key, MetaPropertyPath metaPropertyPath) {
         String hierarchyColumn = loadString(element, "hierarchyColumn").orElse(null);
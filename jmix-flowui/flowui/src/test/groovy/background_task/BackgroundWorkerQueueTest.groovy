@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package background_task
+
+import io.jmix.flowui.backgroundtask.BackgroundTask
+import io.jmix.flowui.backgroundtask.BackgroundTaskExecutionStrategy
+import io.jmix.flowui.backgroundtask.BackgroundTaskHandler
+import io.jmix.flowui.backgroundtask.BackgroundTaskWatchDog
+import io.jmix.flowui.backgroundtask.BackgroundWorker
+import io.jmix.flowui.backgroundtask.TaskLifeCycle
+import io.jmix.flowui.backgroundtask.UiBackgroundTaskProperties
+import io.jmix.flowui.backgroundtask.impl.BackgroundWorkerImpl
+import io.jmix.flowui.backgroundtask.impl.FairBackgroundTaskExecutionStrategy
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import test_support.spec.FlowuiTestSpecification
+
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+
+import static io.jmix.flowui.backgroundtask.UiBackgroundTaskProperties.RejectionPolicy
+import static io.jmix.flowui.backgroundtask.UiBackgroundTaskProperties.TaskOwnerScope
+
+@SpringBootTest
+class BackgroundWorkerQueueTest extends FlowuiTestSpecification {
+
+    @Autowired
+    BackgroundWorker backgroundWorker
+
+    @Autowired
+    BackgroundTaskWatchDog watchDog
+
+    def latch = new CountDownLatch(1)
+    def cancelled = Collections.synchronizedList([])
+
+    BackgroundTaskExecutionStrategy defaultStrategy
+    FairBackgroundTaskExecutionStrategy strategy
+
+    @Override
+    void setup() {
+        def properties = new UiBackgroundTaskProperties(1, Duration.ofSeconds(60), Duration.ofMillis(5000),
+                false, TaskOwnerScope.USER, 0, 1, RejectionPolicy.CANCEL_OLDEST)
+        strategy = new FairBackgroundTaskExecutionStrategy(properties, new SimpleMeterRegistry())
+
+        defaultStrategy = (backgroundWorker as BackgroundWorkerImpl).executionStrategy
+        (backgroundWorker as BackgroundWorkerImpl).executionStrategy = strategy
+    }
+
+    @Override
+    void cleanup() {
+        latch.countDown()
+        strategy.shutdown()
+        (backgroundWorker as BackgroundWorkerImpl).executionStrategy = defaultStrategy
+    }
+
+    def "task evicted from the full queue is cancelled through its handler"() {
+        def activeTasksCount = watchDog.activeTasksCount
+
+        when: "the third task is submitted while one task runs and one waits"
+        def running = execute('a1')
+        def evicted = execute('a2')
+        def waiting = execute('a3')
+        vaadinSession.service.runPendingAccessTasks(vaadinSession)
+
+        then: "the waiting task is cancelled and its cancel callbacks are invoked"
+        evicted.cancelled
+        !evicted.alive
+        cancelled == ['a2']
+
+        and: "the cancelled task is unregistered"
+        watchDog.activeTasksCount == activeTasksCount + 2
+        running.alive
+        waiting.alive
+    }
+
+    protected BackgroundTaskHandler<Void> execute(String name) {
+        def handler = backgroundWorker.handle(new BackgroundTask<Integer, Void>(60) {
+
+            @Override
+            Void run(TaskLifeCycle<Integer> taskLifeCycle) throws Exception {
+                latch.await()
+                return null
+            }
+
+            @Override
+            void canceled() {
+                cancelled.add(name)
+            }
+        })
+        handler.execute()
+        return handler
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package background_task
+
+import io.jmix.flowui.backgroundtask.UiBackgroundTaskProperties
+import io.jmix.flowui.backgroundtask.impl.FairBackgroundTaskExecutionStrategy
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.FutureTask
+import java.util.concurrent.RejectedExecutionException
+
+import static io.jmix.flowui.backgroundtask.UiBackgroundTaskProperties.RejectionPolicy
+import static io.jmix.flowui.backgroundtask.UiBackgroundTaskProperties.TaskOwnerScope
+
+class FairBackgroundTaskExecutionStrategyTest extends Specification {
+
+    def conditions = new PollingConditions(timeout: 5)
+    def meterRegistry = new SimpleMeterRegistry()
+    def latch = new CountDownLatch(1)
+    def started = Collections.synchronizedList([])
+
+    FairBackgroundTaskExecutionStrategy strategy
+
+    def cleanup() {
+        latch.countDown()
+        strategy?.shutdown()
+    }
+
+    def "tasks of other owners are started before waiting tasks of a busy owner"() {
+        strategy = createStrategy(2, 1, 0, RejectionPolicy.ABORT)
+
+        when:
+        strategy.execute(createTask('a1'), 'alice')
+        strategy.execute(createTask('a2'), 'alice')
+        strategy.execute(createTask('a3'), 'alice')
+        strategy.execute(createTask('b1'), 'bob')
+
+        then: "only one task of alice runs"
+        conditions.eventually {
+            assert started.toSet() == ['a1', 'b1'] as Set
+        }
+        strategy.runningCount == 2
+        strategy.waitingCount == 2
+
+        when:
+        latch.countDown()
+
+        then:
+        conditions.eventually {
+            assert started.toSet() == ['a1', 'b1', 'a2', 'a3'] as Set
+            assert strategy.runningCount == 0
+        }
+        strategy.waitingCount == 0
+        meterRegistry.get('jmix.ui.background-tasks').tag('stage', 'run').timer().count() == 4
+        meterRegistry.get('jmix.ui.background-tasks').tag('stage', 'wait').timer().count() == 4
+    }
+
+    def "cancelled waiting task is not started"() {
+        strategy = createStrategy(1, 0, 0, RejectionPolicy.ABORT)
+        def waitingTask = createTask('a2')
+
+        when:
+        strategy.execute(createTask('a1'), 'alice')
+        strategy.execute(waitingTask, 'alice')
+        waitingTask.cancel(true)
+        latch.countDown()
+
+        then:
+        conditions.eventually {
+            assert strategy.runningCount == 0
+        }
+        started == ['a1']
+        strategy.waitingCount == 0
+    }
+
+    def "task is rejected when the queue is full"() {
+        strategy = createStrategy(1, 0, 1, RejectionPolicy.ABORT)
+
+        when:
+        strategy.execute(createTask('a1'), 'alice')
+        strategy.execute(createTask('a2'), 'alice')
+        strategy.execute(createTask('b1'), 'bob')
+
+        then:
+        thrown(RejectedExecutionException)
+        strategy.waitingCount == 1
+        meterRegistry.get('jmix.ui.background-tasks.rejected').counter().count() == 1
+    }
+
+    def "oldest task of the busiest owner is cancelled when the queue is full"() {
+        strategy = createStrategy(1, 0, 2, RejectionPolicy.CANCEL_OLDEST)
+        def a2 = createTask('a2')
+        def a3 = createTask('a3')
+        def b1 = createTask('b1')
+
+        when:
+        strategy.execute(createTask('a1'), 'alice')
+        strategy.execute(a2, 'alice')
+        strategy.execute(a3, 'alice')
+        strategy.execute(b1, 'bob')
+
+        then:
+        a2.cancelled
+        !a3.cancelled
+        !b1.cancelled
+        strategy.waitingCount == 2
+    }
+
+    protected FairBackgroundTaskExecutionStrategy createStrategy(int threadsCount, int maxTasksPerOwner,
+                                                                 int queueCapacity, RejectionPolicy rejectionPolicy) {
+        def properties = new UiBackgroundTaskProperties(threadsCount, Duration.ofSeconds(60), Duration.ofMillis(5000),
+                false, TaskOwnerScope.USER, maxTasksPerOwner, queueCapacity, rejectionPolicy)
+        return new FairBackgroundTaskExecutionStrategy(properties, meterRegistry)
+    }
+
+    protected FutureTask<Void> createTask(String name) {
+        return new FutureTask<Void>({
+            started.add(name)
+            latch.await()
+            return null
+        })
+    }
+}
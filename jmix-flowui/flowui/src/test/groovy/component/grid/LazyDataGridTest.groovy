@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package component.grid
+
+import com.vaadin.flow.data.provider.Query
+import component.grid.view.LazyDataGridTestView
+import io.jmix.core.DataManager
+import io.jmix.flowui.data.grid.LazyContainerDataGridItems
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import test_support.entity.sales.Customer
+import test_support.spec.FlowuiTestSpecification
+
+import java.util.stream.Collectors
+
+@SpringBootTest
+class LazyDataGridTest extends FlowuiTestSpecification {
+
+    @Autowired
+    DataManager dataManager
+
+    List<Customer> customers
+
+    @Override
+    void setup() {
+        registerViewBasePackages("component.grid")
+
+        customers = new ArrayList<>()
+        10.times {
+            def customer = dataManager.create(Customer)
+            customer.name = "lazy-$it"
+            customers.add(customer)
+        }
+        dataManager.save(customers.toArray())
+    }
+
+    @Override
+    void cleanup() {
+        dataManager.remove(customers)
+        customers.clear()
+    }
+
+    def "DataGrid with lazy loading loads only requested rows"() {
+        when: "Open the view"
+        def view = navigateToView(LazyDataGridTestView)
+        def items = view.customersDataGrid.items
+
+        then: "DataGrid is bound to lazy items"
+        items instanceof LazyContainerDataGridItems
+
+        when: "Fetch the first window"
+        def fetched = fetch(items, 0, 5)
+
+        then: "Only the window is loaded to the container"
+        fetched*.name == ['lazy-0', 'lazy-1', 'lazy-2', 'lazy-3', 'lazy-4']
+        view.customersDc.items.size() == 5
+
+        when: "Fetch the second window"
+        fetched = fetch(items, 5, 5)
+
+        then: "Both windows are in the container"
+        fetched*.name == ['lazy-5', 'lazy-6', 'lazy-7', 'lazy-8', 'lazy-9']
+        view.customersDc.items*.name == customers*.name
+    }
+
+    def "DataGrid with lazy loading evicts least recently requested windows"() {
+        def view = navigateToView(LazyDataGridTestView)
+        def items = (LazyContainerDataGridItems<Customer>) view.customersDataGrid.items
+        items.maxCachedWindows = 2
+
+        when: "Fetch three windows"
+        fetch(items, 0, 3)
+        fetch(items, 3, 3)
+        fetch(items, 6, 3)
+
+        then: "The first window is evicted"
+        view.customersDc.items*.name == ['lazy-3', 'lazy-4', 'lazy-5', 'lazy-6', 'lazy-7', 'lazy-8']
+
+        when: "Fetch the first window again"
+        fetch(items, 0, 3)
+
+        then: "The second window is evicted"
+        view.customersDc.items*.name == ['lazy-0', 'lazy-1', 'lazy-2', 'lazy-6', 'lazy-7', 'lazy-8']
+    }
+
+    def "DataGrid with lazy loading is refreshed by the loader"() {
+        def view = navigateToView(LazyDataGridTestView)
+        def items = (LazyContainerDataGridItems<Customer>) view.customersDataGrid.items
+        fetch(items, 0, 5)
+
+        when: "Load the loader"
+        view.customersDl.load()
+
+        then: "Loaded rows are discarded instead of loading all rows"
+        view.customersDc.items.empty
+
+        and: "Total count is loaded by the loader query"
+        items.getCount() == 10
+    }
+
+    def "DataGrid with lazy loading sorts rows in the database"() {
+        def view = navigateToView(LazyDataGridTestView)
+        def items = (LazyContainerDataGridItems<Customer>) view.customersDataGrid.items
+
+        when: "Sort by name descending"
+        items.sort(['name'] as Object[], [false] as boolean[])
+        def fetched = fetch(items, 0, 3)
+
+        then: "The first window is sorted"
+        fetched*.name == ['lazy-9', 'lazy-8', 'lazy-7']
+    }
+
+    private static List<Customer> fetch(def items, int offset, int limit) {
+        ((LazyContainerDataGridItems<Customer>) items)
+                .fetch(new Query<Customer, Void>(offset, limit, [], null, null))
+                .collect(Collectors.toList())
+    }
+}
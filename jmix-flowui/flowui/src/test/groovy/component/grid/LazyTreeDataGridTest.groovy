@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package component.grid
+
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery
+import component.grid.view.LazyTreeDataGridTestView
+import io.jmix.core.DataManager
+import io.jmix.flowui.data.grid.LazyContainerTreeDataGridItems
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import test_support.entity.sec.Group
+import test_support.spec.FlowuiTestSpecification
+
+import java.util.stream.Collectors
+
+@SpringBootTest
+class LazyTreeDataGridTest extends FlowuiTestSpecification {
+
+    @Autowired
+    DataManager dataManager
+
+    Group a, a1, a2, a11, b
+
+    @Override
+    void setup() {
+        registerViewBasePackages("component.grid")
+
+        a = createGroup('lazy-a', null)
+        b = createGroup('lazy-b', null)
+        a1 = createGroup('lazy-a1', a)
+        a2 = createGroup('lazy-a2', a)
+        a11 = createGroup('lazy-a11', a1)
+        dataManager.save(a, b, a1, a2, a11)
+    }
+
+    @Override
+    void cleanup() {
+        dataManager.remove(a11, a1, a2, a, b)
+    }
+
+    def "TreeDataGrid with lazy loading loads only root nodes"() {
+        when: "Open the view"
+        def view = navigateToView(LazyTreeDataGridTestView)
+        def items = view.groupsTreeDataGrid.items
+
+        then: "TreeDataGrid is bound to lazy items"
+        items instanceof LazyContainerTreeDataGridItems
+
+        when: "Fetch root nodes"
+        def roots = fetchChildren(items, null)
+
+        then: "Only root nodes are loaded to the container"
+        roots*.name == ['lazy-a', 'lazy-b']
+        view.groupsDc.items*.name == ['lazy-a', 'lazy-b']
+
+        and: "Expand toggles are known without loading children"
+        items.hasChildren(roots[0])
+        !items.hasChildren(roots[1])
+        view.groupsDc.items.size() == 2
+    }
+
+    def "TreeDataGrid with lazy loading loads children on expand"() {
+        def view = navigateToView(LazyTreeDataGridTestView)
+        def items = (LazyContainerTreeDataGridItems<Group>) view.groupsTreeDataGrid.items
+        def roots = fetchChildren(items, null)
+
+        when: "Fetch children of a node"
+        def children = fetchChildren(items, roots[0])
+
+        then: "Children are loaded to the container"
+        children*.name == ['lazy-a1', 'lazy-a2']
+        view.groupsDc.items*.name == ['lazy-a', 'lazy-b', 'lazy-a1', 'lazy-a2']
+        items.getChildCount(new HierarchicalQuery<Group, Void>(null, roots[0])) == 2
+        items.hasChildren(children[0])
+        !items.hasChildren(children[1])
+
+        when: "Expand several nodes at once"
+        view.groupsTreeDataGrid.expand(children)
+
+        then: "Children of all nodes are loaded"
+        view.groupsDc.items*.name.contains('lazy-a11')
+    }
+
+    def "TreeDataGrid with lazy loading splits parent nodes into partitions"() {
+        def view = navigateToView(LazyTreeDataGridTestView)
+        def items = (LazyContainerTreeDataGridItems<Group>) view.groupsTreeDataGrid.items
+        items.parentsPartitionSize = 1
+
+        when: "Fetch root nodes and load children of several nodes"
+        def roots = fetchChildren(items, null)
+        items.preloadChildren(roots)
+
+        then: "Numbers of children and children of all nodes are loaded"
+        items.hasChildren(roots[0])
+        !items.hasChildren(roots[1])
+        view.groupsDc.items*.name.containsAll(['lazy-a1', 'lazy-a2'])
+        items.hasChildren(view.groupsDc.items.find { it.name == 'lazy-a1' })
+    }
+
+    def "TreeDataGrid with lazy loading evicts least recently loaded children"() {
+        def view = navigateToView(LazyTreeDataGridTestView)
+        def items = (LazyContainerTreeDataGridItems<Group>) view.groupsTreeDataGrid.items
+        items.maxCachedSubtrees = 1
+        def roots = fetchChildren(items, null)
+        def children = fetchChildren(items, roots[0])
+
+        when: "Load children of another node"
+        fetchChildren(items, children[0])
+
+        then: "Children of the first node are evicted, root nodes are kept"
+        view.groupsDc.items*.name == ['lazy-a', 'lazy-b', 'lazy-a11']
+    }
+
+    def "TreeDataGrid with lazy loading is refreshed by the loader"() {
+        def view = navigateToView(LazyTreeDataGridTestView)
+        def items = (LazyContainerTreeDataGridItems<Group>) view.groupsTreeDataGrid.items
+        fetchChildren(items, null)
+
+        when: "Load the loader"
+        view.groupsDl.load()
+
+        then: "Loaded nodes are discarded"
+        view.groupsDc.items.empty
+    }
+
+    private Group createGroup(String name, Group parent) {
+        def group = dataManager.create(Group)
+        group.name = name
+        group.parent = parent
+        group
+    }
+
+    private static List<Group> fetchChildren(def items, Group parent) {
+        ((LazyContainerTreeDataGridItems<Group>) items)
+                .fetchChildren(new HierarchicalQuery<Group, Void>(null, parent))
+                .collect(Collectors.toList())
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package data_components
+
+import io.jmix.core.DataManager
+import io.jmix.flowui.model.CollectionContainer
+import io.jmix.flowui.model.CollectionLoader
+import io.jmix.flowui.model.DataComponents
+import io.jmix.flowui.model.ViewData
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import spock.util.concurrent.PollingConditions
+import test_support.entity.Foo
+import test_support.spec.FlowuiTestSpecification
+
+import java.util.function.Consumer
+
+@SpringBootTest
+class AsyncDataLoaderTest extends FlowuiTestSpecification {
+
+    @Autowired
+    DataManager dataManager
+    @Autowired
+    DataComponents factory
+
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    Foo foo
+
+    @Override
+    void setup() {
+        foo = dataManager.save(new Foo())
+    }
+
+    @Override
+    void cleanup() {
+        dataManager.remove(foo)
+    }
+
+    def "loadAsync sets loaded items in UI thread"() {
+        def loader = createLoader()
+        def container = loader.container
+
+        Consumer postLoadListener = Mock()
+        loader.addPostLoadListener(postLoadListener)
+
+        when: "Load asynchronously"
+        def future = loader.loadAsync()
+
+        then: "Items are not set until the UI access tasks are run"
+        conditions.eventually {
+            assert !vaadinSession.pendingAccessQueue.empty
+        }
+        !future.done
+        container.items.empty
+
+        when: "Run UI access tasks"
+        runPendingAccessTasks()
+
+        then: "Items are set to the container"
+        future.done
+        container.items == [foo]
+        1 * postLoadListener.accept(_)
+    }
+
+    def "pending asynchronous load is cancelled when loader is loaded again"() {
+        def loader = createLoader()
+        def container = loader.container
+
+        Consumer postLoadListener = Mock()
+        loader.addPostLoadListener(postLoadListener)
+
+        when: "Load asynchronously and then synchronously"
+        def future = loader.loadAsync()
+        loader.load()
+
+        then: "Asynchronous load is cancelled"
+        future.cancelled
+        container.items == [foo]
+        1 * postLoadListener.accept(_)
+
+        when: "Run UI access tasks"
+        Thread.sleep(100)
+        runPendingAccessTasks()
+
+        then: "Cancelled load is not applied"
+        0 * postLoadListener.accept(_)
+    }
+
+    def "ViewData loads all loaders concurrently and cancels pending loads"() {
+        def viewData = applicationContext.getBean(ViewData)
+        def loader1 = createLoader()
+        def loader2 = createLoader()
+        viewData.registerLoader('loader1', loader1)
+        viewData.registerLoader('loader2', loader2)
+
+        when: "Load all loaders asynchronously"
+        def future = viewData.loadAllAsync()
+        conditions.eventually {
+            assert vaadinSession.pendingAccessQueue.size() == 2
+        }
+        runPendingAccessTasks()
+
+        then: "All containers are loaded"
+        future.done
+        loader1.container.items == [foo]
+        loader2.container.items == [foo]
+
+        when: "Start loads and cancel them"
+        loader1.container.items = []
+        future = viewData.loadAllAsync()
+        viewData.cancelAsyncLoads()
+        Thread.sleep(100)
+        runPendingAccessTasks()
+
+        then: "Cancelled loads are not applied"
+        future.completedExceptionally
+        loader1.container.items.empty
+    }
+
+    private CollectionLoader<Foo> createLoader() {
+        CollectionLoader<Foo> loader = factory.createCollectionLoader()
+        CollectionContainer<Foo> container = factory.createCollectionContainer(Foo)
+        loader.setContainer(container)
+        loader.setQuery('select e from test_Foo e')
+        loader
+    }
+
+    private void runPendingAccessTasks() {
+        vaadinSession.service.runPendingAccessTasks(vaadinSession)
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package xml_inheritance
+
+import io.jmix.flowui.sys.ViewXmlDocumentCache
+import io.jmix.flowui.sys.ViewXmlLoader
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import test_support.spec.FlowuiTestSpecification
+
+@SpringBootTest
+class ViewXmlLoaderTest extends FlowuiTestSpecification {
+
+    static final String EXT_VIEW_PATH = "xml_inheritance/view/xml-inheritance-ext-base-test-view.xml"
+    static final String BASE_VIEW_PATH = "xml_inheritance/view/xml-inheritance-base-test-view.xml"
+
+    @Autowired
+    ViewXmlLoader viewXmlLoader
+
+    @Autowired
+    ViewXmlDocumentCache viewXmlDocumentCache
+
+    @Override
+    void setup() {
+        registerViewBasePackages("xml_inheritance.view")
+        viewXmlDocumentCache.invalidateAll()
+    }
+
+    def "descriptor is cached by resource path"() {
+        when: "Descriptor is loaded twice"
+        def element1 = viewXmlLoader.load(EXT_VIEW_PATH)
+        def element2 = viewXmlLoader.load(EXT_VIEW_PATH)
+
+        then: "The same element is returned"
+        element1.is(element2)
+        element1.attributeValue("extends") == null
+    }
+
+    def "cached descriptor is discarded if its ancestor is modified"() {
+        when: "Descriptor is loaded"
+        def element = viewXmlLoader.load(EXT_VIEW_PATH)
+
+        then: "Cached descriptor is valid while resources are not modified"
+        viewXmlDocumentCache.get(EXT_VIEW_PATH, { path -> viewXmlLoader.getLastModified(path) }).is(element.document)
+
+        and: "Cached descriptor is discarded if the ancestor modification time is changed"
+        viewXmlDocumentCache.get(EXT_VIEW_PATH,
+                { path -> path == BASE_VIEW_PATH ? -2L : viewXmlLoader.getLastModified(path) }) == null
+        viewXmlDocumentCache.get(EXT_VIEW_PATH, { path -> viewXmlLoader.getLastModified(path) }) == null
+    }
+
+    def "descriptors of registered views are precompiled"() {
+        when: "Descriptors are precompiled"
+        viewXmlLoader.precompile()
+
+        then: "Descriptors are cached"
+        viewXmlDocumentCache.get(EXT_VIEW_PATH, { path -> viewXmlLoader.getLastModified(path) }) != null
+        viewXmlDocumentCache.get(BASE_VIEW_PATH, { path -> viewXmlLoader.getLastModified(path) }) != null
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.localfs;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Copies files saved to the primary storage directory of {@link LocalFileStorage} to its secondary directories.
+ * <p>
+ * Each copy is recorded in a {@link ReplicationJournal} before it is executed and is removed from the journal when
+ * the file has been copied. Copies to each secondary directory are executed by a separate pool of
+ * {@code concurrency} threads, so a slow or unavailable directory does not delay the others. A failed copy is retried
+ * with an exponentially growing delay until it succeeds or the file is removed from the primary directory.
+ * <p>
+ * On start, the copies left in the journal are resumed and, if enabled, the primary directory is scanned
+ * for files that are missing in the secondary directories.
+ */
+public class FileReplicator implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(FileReplicator.class);
+
+    protected static final String TEMP_FILE_SUFFIX = ".replicating";
+
+    protected final String storageName;
+    protected final Path primaryRoot;
+    protected final List<SecondaryRoot> secondaryRoots = new ArrayList<>();
+    protected final ReplicationJournal journal;
+
+    protected int concurrency = 2;
+    protected Duration retryDelay = Duration.ofSeconds(1);
+    protected Duration maxRetryDelay = Duration.ofMinutes(5);
+    protected boolean startupScanEnabled = true;
+
+    protected ScheduledExecutorService retryScheduler;
+    protected volatile boolean started;
+    protected volatile boolean stopped;
+
+    /**
+     * @param storageName    name of the file storage, used in thread names and metric tags
+     * @param primaryRoot    directory files are saved to
+     * @param secondaryRoots directories files are copied to
+     * @param journal        journal of pending copies
+     */
+    public FileReplicator(String storageName, Path primaryRoot, List<Path> secondaryRoots, ReplicationJournal journal) {
+        this.storageName = storageName;
+        this.primaryRoot = primaryRoot;
+        this.journal = journal;
+        for (Path root : secondaryRoots) {
+            this.secondaryRoots.add(new SecondaryRoot(root));
+        }
+    }
+
+    /**
+     * Sets the maximum number of files copied to each secondary directory concurrently.
+     */
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Sets the delay before the first retry of a failed copy. The delay is doubled after each failure.
+     */
+    public void setRetryDelay(Duration retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Sets the maximum delay between retries of a failed copy.
+     */
+    public void setMaxRetryDelay(Duration maxRetryDelay) {
+        this.maxRetryDelay = maxRetryDelay;
+    }
+
+    /**
+     * Sets whether the primary directory is scanned for files missing in the secondary directories on start.
+     */
+    public void setStartupScanEnabled(boolean startupScanEnabled) {
+        this.startupScanEnabled = startupScanEnabled;
+    }
+
+    /**
+     * Starts copying: resumes the copies left in the journal and starts the scan of the primary directory if enabled.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        int rootIndex = 1;
+        for (SecondaryRoot root : secondaryRoots) {
+            root.executor = Executors.newFixedThreadPool(Math.max(concurrency, 1), new ThreadFactoryBuilder()
+                    .setNameFormat("FileReplicator-" + storageName + "-" + rootIndex++ + "-%d")
+                    .setDaemon(true)
+                    .build());
+        }
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("FileReplicatorRetry-" + storageName)
+                .setDaemon(true)
+                .build());
+        started = true;
+
+        for (SecondaryRoot root : secondaryRoots) {
+            List<String> pendingPaths = journal.getPending(root.key);
+            if (!pendingPaths.isEmpty()) {
+                log.info("Resuming {} pending copies of files to {}", pendingPaths.size(), root.path);
+            }
+            for (String path : pendingPaths) {
+                submit(root, path, 1);
+            }
+        }
+
+        if (startupScanEnabled) {
+            Thread scanThread = new Thread(this::scanPrimaryRoot, "FileReplicatorScan-" + storageName);
+            scanThread.setDaemon(true);
+            scanThread.start();
+        }
+    }
+
+    /**
+     * Stops copying. Pending copies are kept in the journal and resumed on the next start.
+     */
+    public synchronized void stop() {
+        if (!started || stopped) {
+            return;
+        }
+        stopped = true;
+        retryScheduler.shutdownNow();
+        for (SecondaryRoot root : secondaryRoots) {
+            root.executor.shutdown();
+        }
+        try {
+            for (SecondaryRoot root : secondaryRoots) {
+                if (!root.executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    root.executor.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Error closing replication journal", e);
+        }
+    }
+
+    /**
+     * Schedules copying of the file to all secondary directories.
+     *
+     * @param path path of the file relative to the storage directories
+     */
+    public void replicate(String path) {
+        for (SecondaryRoot root : secondaryRoots) {
+            schedule(root, path);
+        }
+    }
+
+    /**
+     * @return number of files waiting to be copied to all secondary directories
+     */
+    public int getBacklog() {
+        int backlog = 0;
+        for (SecondaryRoot root : secondaryRoots) {
+            backlog += journal.getBacklog(root.key);
+        }
+        return backlog;
+    }
+
+    /**
+     * @return time the oldest pending copy to the directory has been waiting, or zero if there are no pending copies
+     */
+    public Duration getLag(Path secondaryRoot) {
+        Long oldestTimestamp = journal.getOldestTimestamp(secondaryRoot.toString());
+        return oldestTimestamp == null
+                ? Duration.ZERO
+                : Duration.ofMillis(Math.max(System.currentTimeMillis() - oldestTimestamp, 0));
+    }
+
+    /**
+     * @return number of files copied to all secondary directories
+     */
+    public long getCopiedFiles() {
+        long copied = 0;
+        for (SecondaryRoot root : secondaryRoots) {
+            copied += root.copiedFiles.sum();
+        }
+        return copied;
+    }
+
+    /**
+     * @return number of failed attempts to copy files to all secondary directories
+     */
+    public long getFailedCopies() {
+        long failed = 0;
+        for (SecondaryRoot root : secondaryRoots) {
+            failed += root.failedCopies.sum();
+        }
+        return failed;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (SecondaryRoot root : secondaryRoots) {
+            Gauge.builder("jmix.localfs.replication.backlog", journal, j -> j.getBacklog(root.key))
+                    .tag("storage", storageName)
+                    .tag("root", root.key)
+                    .description("Files waiting to be copied to the secondary storage directory")
+                    .register(registry);
+            Gauge.builder("jmix.localfs.replication.lag", root, r -> getLag(r.path).toMillis() / 1000.0)
+                    .tag("storage", storageName)
+                    .tag("root", root.key)
+                    .baseUnit("seconds")
+                    .description("Time the oldest pending copy to the secondary storage directory has been waiting")
+                    .register(registry);
+            FunctionCounter.builder("jmix.localfs.replication.copies", root.copiedFiles, LongAdder::sum)
+                    .tag("storage", storageName)
+                    .tag("root", root.key)
+                    .tag("result", "success")
+                    .register(registry);
+            FunctionCounter.builder("jmix.localfs.replication.copies", root.failedCopies, LongAdder::sum)
+                    .tag("storage", storageName)
+                    .tag("root", root.key)
+                    .tag("result", "failure")
+                    .register(registry);
+        }
+    }
+
+    protected synchronized void schedule(SecondaryRoot root, String path) {
+        if (stopped) {
+            log.warn("Replication is stopped, {} is not copied to {}", path, root.path);
+            return;
+        }
+        if (journal.add(root.key, path, System.currentTimeMillis()) && started) {
+            submit(root, path, 1);
+        }
+    }
+
+    protected void submit(SecondaryRoot root, String path, int attempt) {
+        if (stopped) {
+            return;
+        }
+        try {
+            root.executor.execute(() -> copy(root, path, attempt));
+        } catch (RejectedExecutionException e) {
+            log.debug("Copying of {} to {} is postponed until the next start", path, root.path);
+        }
+    }
+
+    protected void copy(SecondaryRoot root, String path, int attempt) {
+        if (stopped) {
+            return;
+        }
+        Path source = primaryRoot.resolve(path);
+        try {
+            if (!Files.exists(source)) {
+                log.debug("File {} has been removed before it was copied to {}", path, root.path);
+                journal.complete(root.key, path);
+                return;
+            }
+            if (!Files.isDirectory(root.path)) {
+                throw new IOException("Directory " + root.path + " doesn't exist");
+            }
+            Path target = root.path.resolve(path);
+            copyFile(source, target);
+            if (!Files.exists(source)) {
+                // the file has been removed while it was being copied
+                Files.deleteIfExists(target);
+            }
+            journal.complete(root.key, path);
+            root.copiedFiles.increment();
+        } catch (IOException | RuntimeException e) {
+            root.failedCopies.increment();
+            if (stopped) {
+                return;
+            }
+            Duration delay = getRetryDelay(attempt);
+            log.warn("Error copying {} to {}, attempt {}, retrying in {}: {}", path, root.path, attempt, delay, e.toString());
+            try {
+                retryScheduler.schedule(() -> submit(root, path, attempt + 1), delay.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ex) {
+                log.debug("Copying of {} to {} is postponed until the next start", path, root.path);
+            }
+        }
+    }
+
+    /**
+     * Copies the file with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} to
+     * a temporary file, which is then moved to the target path, so that an incomplete copy is never visible.
+     */
+    protected void copyFile(Path source, Path target) throws IOException {
+        Path parent = target.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tempFile = target.resolveSibling("." + target.getFileName() + TEMP_FILE_SUFFIX);
+        try {
+            try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+                 FileChannel targetChannel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long size = sourceChannel.size();
+                long position = 0;
+                while (position < size) {
+                    long transferred = sourceChannel.transferTo(position, size - position, targetChannel);
+                    if (transferred <= 0) {
+                        throw new IOException("Unexpected end of file " + source);
+                    }
+                    position += transferred;
+                }
+                targetChannel.force(true);
+            }
+            Files.setLastModifiedTime(tempFile, Files.getLastModifiedTime(source));
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    protected Duration getRetryDelay(int attempt) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+
+    /**
+     * Schedules copies of the files of the primary directory that are missing in the secondary directories
+     * or differ from the originals in size.
+     */
+    protected void scanPrimaryRoot() {
+        if (!Files.isDirectory(primaryRoot)) {
+            return;
+        }
+        log.debug("Scanning {} for files missing in secondary storage directories", primaryRoot);
+        int scheduled = 0;
+        try (Stream<Path> files = Files.walk(primaryRoot)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (stopped) {
+                    return;
+                }
+                if (!Files.isRegularFile(file) || file.getFileName().toString().endsWith(TEMP_FILE_SUFFIX)) {
+                    continue;
+                }
+                String path = primaryRoot.relativize(file).toString().replace('\\', '/');
+                for (SecondaryRoot root : secondaryRoots) {
+                    if (!isReplicated(file, root.path.resolve(path))) {
+                        schedule(root, path);
+                        scheduled++;
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Error scanning {} for files missing in secondary storage directories", primaryRoot, e);
+        }
+        if (scheduled > 0) {
+            log.info("Scheduled {} copies of files missing in secondary storage directories", scheduled);
+        }
+    }
+
+    protected boolean isReplicated(Path source, Path target) {
+        try {
+            return Files.exists(target) && Files.size(target) == Files.size(source);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    protected static class SecondaryRoot {
+
+        protected final Path path;
+        protected final String key;
+        protected final LongAdder copiedFiles = new LongAdder();
+        protected final LongAdder failedCopies = new LongAdder();
+        protected ExecutorService executor;
+
+        protected SecondaryRoot(Path path) {
+            this.path = path;
+            this.key = path.toString();
+        }
+    }
+}
@@ -17,14 +17,16 @@
 package io.jmix.localfs;
 
 import com.google.common.collect.Maps;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.io.ByteStreams;
 import io.jmix.core.CoreProperties;
+import io.jmix.core.FileAttributes;
 import io.jmix.core.FileRef;
 import io.jmix.core.FileStorage;
 import io.jmix.core.FileStorageException;
 import io.jmix.core.TimeSource;
 import io.jmix.core.UuidProvider;
 import io.jmix.core.annotation.Internal;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PreDestroy;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
@@ -33,21 +35,30 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import static java.nio.file.StandardOpenOption.CREATE_NEW;
 
@@ -73,8 +84,10 @@ public class LocalFileStorage implements FileStorage {
 
     protected boolean isImmutableFileStorage;
 
-    protected ExecutorService writeExecutor = Executors.newFixedThreadPool(5,
-            new ThreadFactoryBuilder().setNameFormat("FileStorageWriter-%d").build());
+    @Autowired(required = false)
+    protected MeterRegistry meterRegistry;
+
+    protected volatile FileReplicator replicator;
 
     protected volatile Path[] storageRoots;
 
@@ -172,21 +185,9 @@ public class LocalFileStorage implements FileStorage {
         }
 
         // Copy file to secondary storages asynchronously
-        for (int i = 1; i < roots.length; i++) {
-            if (!roots[i].toFile().exists()) {
-                log.error("Error saving {} into {} : directory doesn't exist", fileRef.getFileName(), roots[i]);
-                continue;
-            }
-
-            Path pathCopy = roots[i].resolve(relativePath);
-
-            writeExecutor.submit(() -> {
-                try {
-                    FileUtils.copyFile(path.toFile(), pathCopy.toFile(), true);
-                } catch (Exception e) {
-                    log.error("Error saving {} into {} : {}", fileRef.getFileName(), pathCopy, e.getMessage());
-                }
-            });
+        FileReplicator replicator = getReplicator();
+        if (replicator != null) {
+            replicator.replicate(pathToString(relativePath));
         }
 
         return size;
@@ -238,6 +239,81 @@ public class LocalFileStorage implements FileStorage {
         }
     }
 
+    @Override
+    public InputStream openStream(FileRef reference, long offset, long length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Offset and length must not be negative");
+        }
+        Path path = findFilePath(reference);
+        try {
+            SeekableByteChannel channel = Files.newByteChannel(path);
+            try {
+                channel.position(offset);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            return ByteStreams.limit(Channels.newInputStream(channel), length);
+        } catch (IOException e) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, reference.toString(), e);
+        }
+    }
+
+    /**
+     * Transfers the file contents with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)},
+     * which lets the operating system copy the data without passing it through the application memory where possible.
+     */
+    @Override
+    public void transferTo(FileRef reference, long offset, long length, OutputStream outputStream) throws IOException {
+        Path path = findFilePath(reference);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            if (channel.size() < offset + length) {
+                throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, reference.toString(),
+                        new EOFException(String.format("File size %d is less than the requested range end %d",
+                                channel.size(), offset + length)));
+            }
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, reference.toString(),
+                            new EOFException(String.format("File ended after %d of %d requested bytes",
+                                    length - remaining, length)));
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    @Override
+    public FileAttributes getFileAttributes(FileRef reference) {
+        Path path = findFilePath(reference);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileAttributes(attributes.size(), attributes.lastModifiedTime().toInstant());
+        } catch (IOException e) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, reference.toString(), e);
+        }
+    }
+
+    /**
+     * @return path of the file in the first storage root containing it
+     * @throws FileStorageException if the file is not found
+     */
+    protected Path findFilePath(FileRef reference) {
+        Path relativePath = getRelativePath(reference.getPath());
+        for (Path root : getStorageRoots()) {
+            Path path = root.resolve(relativePath);
+            if (Files.exists(path)) {
+                return path;
+            }
+        }
+        throw new FileStorageException(FileStorageException.Type.FILE_NOT_FOUND, reference.toString());
+    }
+
     @Override
     public void removeFile(FileRef reference) {
         Path[] roots = getStorageRoots();
@@ -340,9 +416,55 @@ public class LocalFileStorage implements FileStorage {
         return path.toString().replace('\\', '/');
     }
 
+    /**
+     * @return replicator copying files to the secondary storage directories, or null if there is a single directory
+     */
+    @Nullable
+    protected FileReplicator getReplicator() {
+        FileReplicator replicator = this.replicator;
+        if (replicator == null) {
+            Path[] roots = getStorageRoots();
+            if (roots.length < 2) {
+                return null;
+            }
+            synchronized (this) {
+                if (this.replicator == null) {
+                    this.replicator = createReplicator(roots);
+                }
+                replicator = this.replicator;
+            }
+        }
+        return replicator;
+    }
+
+    protected FileReplicator createReplicator(Path[] roots) {
+        Path journalFile = Paths.get(coreProperties.getWorkDir(), "localfs", storageName + "-replication.journal");
+        FileReplicator replicator = new FileReplicator(storageName, roots[0],
+                Arrays.asList(roots).subList(1, roots.length), new ReplicationJournal(journalFile));
+        replicator.setConcurrency(properties.getReplicationConcurrency());
+        replicator.setRetryDelay(properties.getReplicationRetryDelay());
+        replicator.setMaxRetryDelay(properties.getReplicationMaxRetryDelay());
+        replicator.setStartupScanEnabled(properties.isReplicationStartupScanEnabled());
+        if (meterRegistry != null) {
+            replicator.bindTo(meterRegistry);
+        }
+        replicator.start();
+        return replicator;
+    }
+
+    /**
+     * Resumes pending copies to the secondary storage directories when the application is started.
+     */
+    @EventListener
+    protected void startReplication(ApplicationStartedEvent event) {
+        getReplicator();
+    }
+
     @PreDestroy
-    protected void stopWriteExecutor() {
-        writeExecutor.shutdown();
+    protected void stopReplication() {
+        if (replicator != null) {
+            replicator.stop();
+        }
     }
 
 }
@@ -17,6 +17,9 @@
 package io.jmix.localfs;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
 
 @ConfigurationProperties(prefix = "jmix.localfs")
 public class LocalFileStorageProperties {
@@ -26,9 +29,38 @@ public class LocalFileStorageProperties {
      */
     String storageDir;
 
+    /**
+     * Maximum number of files copied to each secondary storage directory concurrently.
+     */
+    int replicationConcurrency;
+
+    /**
+     * Delay before the first retry of a failed copy to a secondary storage directory. The delay is doubled
+     * after each failure.
+     */
+    Duration replicationRetryDelay;
+
+    /**
+     * Maximum delay between retries of a failed copy to a secondary storage directory.
+     */
+    Duration replicationMaxRetryDelay;
+
+    /**
+     * Whether the primary storage directory is scanned on startup for files missing in the secondary directories.
+     */
+    boolean replicationStartupScanEnabled;
+
     public LocalFileStorageProperties(
-            String storageDir) {
+            String storageDir,
+            @DefaultValue("2") int replicationConcurrency,
+            @DefaultValue("1s") Duration replicationRetryDelay,
+            @DefaultValue("5m") Duration replicationMaxRetryDelay,
+            @DefaultValue("true") boolean replicationStartupScanEnabled) {
         this.storageDir = storageDir;
+        this.replicationConcurrency = replicationConcurrency;
+        this.replicationRetryDelay = replicationRetryDelay;
+        this.replicationMaxRetryDelay = replicationMaxRetryDelay;
+        this.replicationStartupScanEnabled = replicationStartupScanEnabled;
     }
 
     /**
@@ -37,4 +69,32 @@ public class LocalFileStorageProperties {
     public String getStorageDir() {
         return storageDir;
     }
+
+    /**
+     * @see #replicationConcurrency
+     */
+    public int getReplicationConcurrency() {
+        return replicationConcurrency;
+    }
+
+    /**
+     * @see #replicationRetryDelay
+     */
+    public Duration getReplicationRetryDelay() {
+        return replicationRetryDelay;
+    }
+
+    /**
+     * @see #replicationMaxRetryDelay
+     */
+    public Duration getReplicationMaxRetryDelay() {
+        return replicationMaxRetryDelay;
+    }
+
+    /**
+     * @see #replicationStartupScanEnabled
+     */
+    public boolean isReplicationStartupScanEnabled() {
+        return replicationStartupScanEnabled;
+    }
 }
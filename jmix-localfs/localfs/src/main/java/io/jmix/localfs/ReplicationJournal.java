@@ -0,0 +1,255 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.localfs;
+
+import io.jmix.core.FileStorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Durable journal of pending copies of files to the secondary storage directories of {@link LocalFileStorage}.
+ * <p>
+ * A record is appended to the journal file and forced to disk when a copy is scheduled, so that scheduled copies
+ * survive an application restart. Completion records are not forced: a lost completion record only makes
+ * the file copied once more. When the journal grows much larger than the number of pending copies, it is rewritten
+ * with the pending copies only.
+ */
+public class ReplicationJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationJournal.class);
+
+    protected static final String ADDED = "A";
+    protected static final String COMPLETED = "C";
+    protected static final char SEPARATOR = '\t';
+
+    protected final Path journalFile;
+    // root -> relative path -> time the copy was scheduled, in the order of scheduling
+    protected final Map<String, LinkedHashMap<String, Long>> pendingCopies = new HashMap<>();
+
+    protected FileChannel channel;
+    protected long journalRecords;
+    protected int compactionThreshold = 10_000;
+
+    public ReplicationJournal(Path journalFile) {
+        this.journalFile = journalFile;
+        try {
+            Path parent = journalFile.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            boolean incompleteRecord = false;
+            if (Files.exists(journalFile)) {
+                load();
+                incompleteRecord = !endsWithLineBreak();
+            }
+            channel = openChannel();
+            if (incompleteRecord) {
+                // the last record is incomplete if the application was stopped while writing it
+                channel.write(ByteBuffer.wrap(new byte[]{'\n'}));
+            }
+        } catch (IOException e) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, journalFile.toString(), e);
+        }
+    }
+
+    /**
+     * Sets the number of obsolete journal records after which the journal is rewritten.
+     */
+    public void setCompactionThreshold(int compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Records a scheduled copy and forces it to disk.
+     *
+     * @param root      secondary storage directory
+     * @param path      path of the file relative to the storage directories
+     * @param timestamp time the copy is scheduled
+     * @return false if the copy is already pending
+     */
+    public synchronized boolean add(String root, String path, long timestamp) {
+        Map<String, Long> rootCopies = pendingCopies.computeIfAbsent(root, k -> new LinkedHashMap<>());
+        if (rootCopies.containsKey(path)) {
+            return false;
+        }
+        write(ADDED + SEPARATOR + timestamp + SEPARATOR + root + SEPARATOR + path + '\n', true);
+        rootCopies.put(path, timestamp);
+        return true;
+    }
+
+    /**
+     * Records a finished copy.
+     */
+    public synchronized void complete(String root, String path) {
+        Map<String, Long> rootCopies = pendingCopies.get(root);
+        if (rootCopies == null || rootCopies.remove(path) == null) {
+            return;
+        }
+        write(COMPLETED + SEPARATOR + root + SEPARATOR + path + '\n', false);
+        if (journalRecords > getTotalBacklog() + compactionThreshold) {
+            compact();
+        }
+    }
+
+    /**
+     * @return relative paths of the files waiting to be copied to the root, in the order of scheduling
+     */
+    public synchronized List<String> getPending(String root) {
+        Map<String, Long> rootCopies = pendingCopies.get(root);
+        return rootCopies == null ? Collections.emptyList() : new ArrayList<>(rootCopies.keySet());
+    }
+
+    /**
+     * @return number of files waiting to be copied to the root
+     */
+    public synchronized int getBacklog(String root) {
+        Map<String, Long> rootCopies = pendingCopies.get(root);
+        return rootCopies == null ? 0 : rootCopies.size();
+    }
+
+    /**
+     * @return time the oldest pending copy to the root has been scheduled, or null if there are no pending copies
+     */
+    @Nullable
+    public synchronized Long getOldestTimestamp(String root) {
+        Map<String, Long> rootCopies = pendingCopies.get(root);
+        if (rootCopies == null || rootCopies.isEmpty()) {
+            return null;
+        }
+        return rootCopies.values().iterator().next();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    protected int getTotalBacklog() {
+        int backlog = 0;
+        for (Map<String, Long> rootCopies : pendingCopies.values()) {
+            backlog += rootCopies.size();
+        }
+        return backlog;
+    }
+
+    protected void write(String record, boolean force) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (force) {
+                channel.force(false);
+            }
+            journalRecords++;
+        } catch (IOException e) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, journalFile.toString(), e);
+        }
+    }
+
+    protected void load() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                journalRecords++;
+                String[] fields = line.split(String.valueOf(SEPARATOR));
+                if (fields.length == 4 && ADDED.equals(fields[0])) {
+                    try {
+                        pendingCopies.computeIfAbsent(fields[2], k -> new LinkedHashMap<>())
+                                .putIfAbsent(fields[3], Long.parseLong(fields[1]));
+                        continue;
+                    } catch (NumberFormatException e) {
+                        // handled below as a malformed record
+                    }
+                } else if (fields.length == 3 && COMPLETED.equals(fields[0])) {
+                    Map<String, Long> rootCopies = pendingCopies.get(fields[1]);
+                    if (rootCopies != null) {
+                        rootCopies.remove(fields[2]);
+                    }
+                    continue;
+                }
+                log.warn("Skipping malformed record of replication journal {}: {}", journalFile, line);
+            }
+        }
+        log.debug("Loaded {} pending copies from replication journal {}", getTotalBacklog(), journalFile);
+    }
+
+    /**
+     * Rewrites the journal with the pending copies only.
+     */
+    protected void compact() {
+        Path compactedFile = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+        try {
+            StringBuilder records = new StringBuilder();
+            for (Map.Entry<String, LinkedHashMap<String, Long>> rootEntry : pendingCopies.entrySet()) {
+                for (Map.Entry<String, Long> copyEntry : rootEntry.getValue().entrySet()) {
+                    records.append(ADDED).append(SEPARATOR).append(copyEntry.getValue())
+                            .append(SEPARATOR).append(rootEntry.getKey())
+                            .append(SEPARATOR).append(copyEntry.getKey()).append('\n');
+                }
+            }
+            try (FileChannel compactedChannel = FileChannel.open(compactedFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    compactedChannel.write(buffer);
+                }
+                compactedChannel.force(false);
+            }
+            channel.close();
+            Files.move(compactedFile, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = openChannel();
+            journalRecords = getTotalBacklog();
+        } catch (IOException e) {
+            throw new FileStorageException(FileStorageException.Type.IO_EXCEPTION, journalFile.toString(), e);
+        }
+    }
+
+    protected FileChannel openChannel() throws IOException {
+        return FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    protected boolean endsWithLineBreak() throws IOException {
+        try (FileChannel readChannel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            if (readChannel.size() == 0) {
+                return true;
+            }
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            readChannel.read(lastByte, readChannel.size() - 1);
+            return lastByte.get(0) == '\n';
+        }
+    }
+}
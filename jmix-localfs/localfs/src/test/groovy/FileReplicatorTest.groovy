@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.jmix.localfs.FileReplicator
+import io.jmix.localfs.ReplicationJournal
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
+
+class FileReplicatorTest extends Specification {
+
+    Path workDir
+    Path primaryRoot
+    Path secondaryRoot
+    Path journalFile
+    FileReplicator replicator
+
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    void setup() {
+        workDir = Files.createTempDirectory('replication-test')
+        primaryRoot = Files.createDirectories(workDir.resolve('primary'))
+        secondaryRoot = Files.createDirectories(workDir.resolve('secondary'))
+        journalFile = workDir.resolve('replication.journal')
+    }
+
+    void cleanup() {
+        replicator?.stop()
+        workDir.toFile().deleteDir()
+    }
+
+    def "file is copied to the secondary root"() {
+        replicator = createReplicator(false)
+        replicator.start()
+
+        when:
+        writePrimary('2024/01/01/a.txt', 'content')
+        replicator.replicate('2024/01/01/a.txt')
+
+        then:
+        conditions.eventually {
+            assert Files.exists(secondaryRoot.resolve('2024/01/01/a.txt'))
+            assert replicator.backlog == 0
+        }
+        secondaryRoot.resolve('2024/01/01/a.txt').text == 'content'
+        replicator.copiedFiles == 1
+        !Files.exists(secondaryRoot.resolve('2024/01/01/.a.txt.replicating'))
+    }
+
+    def "copy is retried until the secondary root is available"() {
+        secondaryRoot.toFile().deleteDir()
+        replicator = createReplicator(false)
+        replicator.start()
+
+        when:
+        writePrimary('a.txt', 'content')
+        replicator.replicate('a.txt')
+
+        then:
+        conditions.eventually {
+            assert replicator.failedCopies >= 2
+        }
+        replicator.backlog == 1
+        replicator.getLag(secondaryRoot) > Duration.ZERO
+
+        when:
+        Files.createDirectories(secondaryRoot)
+
+        then:
+        conditions.eventually {
+            assert replicator.backlog == 0
+        }
+        secondaryRoot.resolve('a.txt').text == 'content'
+    }
+
+    def "pending copies are resumed after restart"() {
+        secondaryRoot.toFile().deleteDir()
+        replicator = createReplicator(false)
+        replicator.start()
+        writePrimary('a.txt', 'content')
+        replicator.replicate('a.txt')
+        replicator.stop()
+
+        when:
+        Files.createDirectories(secondaryRoot)
+        replicator = createReplicator(false)
+
+        then:
+        replicator.backlog == 1
+
+        when:
+        replicator.start()
+
+        then:
+        conditions.eventually {
+            assert replicator.backlog == 0
+        }
+        secondaryRoot.resolve('a.txt').text == 'content'
+    }
+
+    def "missing files are found by the startup scan"() {
+        writePrimary('a.txt', 'first')
+        writePrimary('dir/b.txt', 'second')
+        Files.createDirectories(secondaryRoot.resolve('dir'))
+        secondaryRoot.resolve('dir/b.txt').text = 'second'
+
+        when:
+        replicator = createReplicator(true)
+        replicator.start()
+
+        then:
+        conditions.eventually {
+            assert Files.exists(secondaryRoot.resolve('a.txt'))
+            assert replicator.backlog == 0
+        }
+        secondaryRoot.resolve('a.txt').text == 'first'
+        replicator.copiedFiles == 1
+    }
+
+    def "metrics are registered"() {
+        def registry = new SimpleMeterRegistry()
+        replicator = createReplicator(false)
+        replicator.bindTo(registry)
+        replicator.start()
+
+        when:
+        writePrimary('a.txt', 'content')
+        replicator.replicate('a.txt')
+
+        then:
+        conditions.eventually {
+            assert registry.get('jmix.localfs.replication.copies').tag('result', 'success').functionCounter().count() == 1
+        }
+        registry.get('jmix.localfs.replication.backlog').gauge().value() == 0
+        registry.get('jmix.localfs.replication.lag').gauge().value() == 0
+    }
+
+    private FileReplicator createReplicator(boolean startupScanEnabled) {
+        def replicator = new FileReplicator('test', primaryRoot, [secondaryRoot], new ReplicationJournal(journalFile))
+        replicator.retryDelay = Duration.ofMillis(10)
+        replicator.maxRetryDelay = Duration.ofMillis(50)
+        replicator.startupScanEnabled = startupScanEnabled
+        replicator
+    }
+
+    private void writePrimary(String path, String content) {
+        Path file = primaryRoot.resolve(path)
+        Files.createDirectories(file.parent)
+        file.text = content
+    }
+}
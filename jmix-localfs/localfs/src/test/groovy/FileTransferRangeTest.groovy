@@ -0,0 +1,171 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import io.jmix.core.CoreConfiguration
+import io.jmix.core.FileRef
+import io.jmix.core.FileStorage
+import io.jmix.core.FileStorageException
+import io.jmix.core.FileTransferService
+import io.jmix.localfs.LocalFileStorageConfiguration
+import org.apache.commons.io.IOUtils
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.test.context.ContextConfiguration
+import spock.lang.Specification
+import test_support.LocalFileStorageTestConfiguration
+import test_support.TestContextInititalizer
+
+@ContextConfiguration(
+        classes = [CoreConfiguration, LocalFileStorageConfiguration, LocalFileStorageTestConfiguration],
+        initializers = [TestContextInititalizer]
+)
+class FileTransferRangeTest extends Specification {
+
+    @Autowired
+    private FileStorage fileStorage
+
+    @Autowired
+    private FileTransferService fileTransferService
+
+    private FileRef fileRef
+
+    def setup() {
+        fileRef = fileStorage.saveStream("test.txt", new ByteArrayInputStream('0123456789'.getBytes()))
+    }
+
+    def cleanup() {
+        fileStorage.removeFile(fileRef)
+    }
+
+    def "part of a file is loaded"() {
+        expect:
+        IOUtils.toString(fileStorage.openStream(fileRef, 2, 3), 'UTF-8') == '234'
+        IOUtils.toString(fileStorage.openStream(fileRef, 8, 10), 'UTF-8') == '89'
+
+        def out = new ByteArrayOutputStream()
+        fileStorage.transferTo(fileRef, 5, 5, out)
+        out.toString('UTF-8') == '56789'
+
+        fileStorage.getFileAttributes(fileRef).size == 10
+    }
+
+    def "transfer fails if the file is shorter than the requested range"() {
+        when:
+        fileStorage.transferTo(fileRef, 8, 5, new ByteArrayOutputStream())
+
+        then:
+        def e = thrown(FileStorageException)
+        e.type == FileStorageException.Type.IO_EXCEPTION
+    }
+
+    def "whole file is sent with validators"() {
+        when:
+        def response = download(new MockHttpServletRequest())
+
+        then:
+        response.status == 200
+        response.contentAsString == '0123456789'
+        response.contentLengthLong == 10
+        response.getHeader('Accept-Ranges') == 'bytes'
+        response.getHeader('ETag') != null
+        response.getHeader('Last-Modified') != null
+    }
+
+    def "single range is sent"() {
+        given:
+        def request = new MockHttpServletRequest()
+        request.addHeader('Range', range)
+
+        when:
+        def response = download(request)
+
+        then:
+        response.status == 206
+        response.getHeader('Content-Range') == contentRange
+        response.contentAsString == content
+
+        where:
+        range         | contentRange     | content
+        'bytes=2-4'   | 'bytes 2-4/10'   | '234'
+        'bytes=7-'    | 'bytes 7-9/10'   | '789'
+        'bytes=-3'    | 'bytes 7-9/10'   | '789'
+        'bytes=5-100' | 'bytes 5-9/10'   | '56789'
+    }
+
+    def "multiple ranges are sent as multipart"() {
+        given:
+        def request = new MockHttpServletRequest()
+        request.addHeader('Range', 'bytes=0-1,8-9')
+
+        when:
+        def response = download(request)
+
+        then:
+        response.status == 206
+        response.contentType.startsWith('multipart/byteranges; boundary=')
+        response.contentAsString.contains('Content-Range: bytes 0-1/10\r\n\r\n01')
+        response.contentAsString.contains('Content-Range: bytes 8-9/10\r\n\r\n89')
+        response.contentLengthLong == response.contentAsByteArray.length
+    }
+
+    def "unsatisfiable range is rejected"() {
+        given:
+        def request = new MockHttpServletRequest()
+        request.addHeader('Range', 'bytes=20-30')
+
+        when:
+        def response = download(request)
+
+        then:
+        response.status == 416
+        response.getHeader('Content-Range') == 'bytes */10'
+    }
+
+    def "unchanged file is not sent again"() {
+        given:
+        def eTag = download(new MockHttpServletRequest()).getHeader('ETag')
+        def request = new MockHttpServletRequest()
+        request.addHeader('If-None-Match', eTag)
+
+        when:
+        def response = download(request)
+
+        then:
+        response.status == 304
+        response.contentAsByteArray.length == 0
+    }
+
+    def "range is ignored if If-Range does not match"() {
+        given:
+        def request = new MockHttpServletRequest()
+        request.addHeader('Range', 'bytes=2-4')
+        request.addHeader('If-Range', '"outdated"')
+
+        when:
+        def response = download(request)
+
+        then:
+        response.status == 200
+        response.contentAsString == '0123456789'
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) {
+        def response = new MockHttpServletResponse()
+        fileTransferService.downloadAndWriteResponse(fileRef, fileRef.storageName, false, request, response)
+        response
+    }
+}
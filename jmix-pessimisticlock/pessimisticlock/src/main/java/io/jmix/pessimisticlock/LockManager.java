@@ -21,6 +21,7 @@ import io.jmix.pessimisticlock.entity.LockNotSupported;
 import org.springframework.lang.Nullable;
 
 import java.util.Collection;
+import java.util.Map;
 
 public interface LockManager {
 
@@ -49,6 +50,17 @@ public interface LockManager {
     @Nullable
     LockInfo lock(Object entity);
 
+    /**
+     * Try to lock entities, for example, the entities selected in a list view. Either all entities are locked,
+     * or none of them.
+     *
+     * @param entities entity instances
+     * @return - empty map in case of successful lock of all entities for which locking is configured,<br>
+     * - map of the entities already locked by someone to their {@link LockInfo} instances otherwise,
+     * in this case none of the entities is locked
+     */
+    Map<Object, LockInfo> lock(Collection<?> entities);
+
     /**
      * Unlock an arbitrary object.
      *
@@ -64,6 +76,13 @@ public interface LockManager {
      */
     void unlock(Object entity);
 
+    /**
+     * Unlock entities.
+     *
+     * @param entities entity instances
+     */
+    void unlock(Collection<?> entities);
+
     /**
      * Get locking status for particular object
      *
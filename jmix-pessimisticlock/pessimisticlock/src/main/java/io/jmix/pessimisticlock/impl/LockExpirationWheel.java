@@ -0,0 +1,201 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.pessimisticlock.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timer wheel keeping lock deadlines.
+ * <p>
+ * A deadline is put into the lowest level whose slots span it, so scheduling and cancelling take constant time.
+ * Advancing the wheel moves the deadlines of the reached slots of the upper levels to the lower ones and returns
+ * the keys whose deadlines have passed, so that expiring takes time proportional to the number of elapsed ticks
+ * and expired keys rather than to the number of scheduled keys.
+ * <p>
+ * The class is not thread-safe.
+ *
+ * @param <K> key type
+ */
+public class LockExpirationWheel<K> {
+
+    protected static final int SLOT_BITS = 6;
+    protected static final int SLOTS = 1 << SLOT_BITS;
+    protected static final int LEVELS = 4;
+
+    protected final long tickMillis;
+    protected final List<List<Set<Deadline<K>>>> levels = new ArrayList<>(LEVELS);
+    // deadlines beyond the span of the upper level, rescheduled when the upper level wraps around
+    protected final Set<Deadline<K>> overflow = new LinkedHashSet<>();
+    protected final Map<K, Deadline<K>> deadlines = new HashMap<>();
+
+    protected long currentTick;
+
+    /**
+     * @param tickMillis  resolution of the wheel in milliseconds
+     * @param startMillis current time in milliseconds
+     */
+    public LockExpirationWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (int i = 0; i < LEVELS; i++) {
+            List<Set<Deadline<K>>> slots = new ArrayList<>(SLOTS);
+            for (int j = 0; j < SLOTS; j++) {
+                slots.add(new LinkedHashSet<>());
+            }
+            levels.add(slots);
+        }
+    }
+
+    /**
+     * Schedules expiration of the key, replacing its previous deadline.
+     *
+     * @param key            key
+     * @param deadlineMillis time in milliseconds the key expires at
+     */
+    public void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        // round up, so that the key never expires before its deadline
+        long tick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        Deadline<K> deadline = new Deadline<>(key, Math.max(tick, currentTick + 1));
+        deadlines.put(key, deadline);
+        place(deadline);
+    }
+
+    /**
+     * Cancels expiration of the key.
+     *
+     * @return true if the key has been scheduled
+     */
+    public boolean cancel(K key) {
+        Deadline<K> deadline = deadlines.remove(key);
+        if (deadline == null) {
+            return false;
+        }
+        deadline.slot.remove(deadline);
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time.
+     *
+     * @param nowMillis current time in milliseconds
+     * @return keys whose deadlines have passed, they are no longer scheduled
+     */
+    public List<K> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        if (deadlines.isEmpty()) {
+            currentTick = Math.max(currentTick, nowTick);
+            return expired;
+        }
+        while (currentTick < nowTick) {
+            currentTick++;
+            cascade();
+            Set<Deadline<K>> slot = levels.get(0).get(slotIndex(currentTick, 0));
+            for (Deadline<K> deadline : slot) {
+                deadlines.remove(deadline.key);
+                expired.add(deadline.key);
+            }
+            slot.clear();
+            if (deadlines.isEmpty()) {
+                currentTick = nowTick;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * @return number of scheduled keys
+     */
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Removes all scheduled keys.
+     */
+    public void clear() {
+        deadlines.clear();
+        overflow.clear();
+        for (List<Set<Deadline<K>>> slots : levels) {
+            slots.forEach(Set::clear);
+        }
+    }
+
+    /**
+     * Moves the deadlines of the upper level slots reached by the current tick to the lower levels.
+     */
+    protected void cascade() {
+        if ((currentTick & mask(LEVELS)) == 0) {
+            replace(overflow);
+        }
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((currentTick & mask(level)) == 0) {
+                replace(levels.get(level).get(slotIndex(currentTick, level)));
+            }
+        }
+    }
+
+    protected void replace(Set<Deadline<K>> slot) {
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Deadline<K>> moved = new ArrayList<>(slot);
+        slot.clear();
+        for (Deadline<K> deadline : moved) {
+            place(deadline);
+        }
+    }
+
+    protected void place(Deadline<K> deadline) {
+        Set<Deadline<K>> slot = overflow;
+        for (int level = 0; level < LEVELS; level++) {
+            // the lowest level where the deadline and the current tick differ only in the slot of this level
+            if ((deadline.tick >>> (SLOT_BITS * (level + 1))) == (currentTick >>> (SLOT_BITS * (level + 1)))) {
+                slot = levels.get(level).get(slotIndex(deadline.tick, level));
+                break;
+            }
+        }
+        deadline.slot = slot;
+        slot.add(deadline);
+    }
+
+    protected static int slotIndex(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+    }
+
+    protected static long mask(int level) {
+        return (1L << (SLOT_BITS * level)) - 1;
+    }
+
+    protected static class Deadline<K> {
+
+        protected final K key;
+        protected final long tick;
+        protected Set<Deadline<K>> slot;
+
+        protected Deadline(K key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package io.jmix.pessimisticlock.impl;
 
 import io.jmix.core.*;
+import io.jmix.core.cluster.ClusterApplicationEventPublisher;
 import io.jmix.core.common.util.Preconditions;
 import io.jmix.core.entity.EntityValues;
 import io.jmix.core.metamodel.model.MetaClass;
@@ -31,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
 import org.springframework.lang.Nullable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -39,6 +41,19 @@ import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * {@link LockManager} keeping locks in the {@link LockManager#LOCKS_CACHE_NAME} cache.
+ * <p>
+ * Locks are acquired by the atomic {@link Cache#putIfAbsent(Object, Object)} operation, so the cache provider
+ * must implement it atomically, like {@code ConcurrentMapCache} and JCache-based caches do. In a cluster, the cache
+ * must be shared by all application instances.
+ * <p>
+ * Expiration deadlines of locks are kept in a {@link LockExpirationWheel}, so {@link #expireLocks()} checks only
+ * the locks whose deadlines have passed. Acquired and released locks are published to other application instances
+ * by {@link LocksChangedEvent}, so each instance tracks the deadlines of all locks. A released lock cancels only
+ * the deadline scheduled for the same lock, so a late release event does not cancel the deadline of a lock re-acquired
+ * in the meantime.
+ */
 @Component("pslock_LockManagerImpl")
 public class LockManagerImpl implements LockManager {
 
@@ -51,12 +66,18 @@ public class LockManagerImpl implements LockManager {
     protected final CurrentAuthentication currentAuthentication;
     protected final CacheManager cacheManager;
     protected final CacheOperations cacheOperations;
+    protected final ClusterApplicationEventPublisher clusterEventPublisher;
     protected List<LockDescriptorProvider> lockDescriptorProviders;
 
     protected volatile Map<String, LockDescriptor> config;
 
     protected Cache locks;
 
+    // guarded by itself
+    protected LockExpirationWheel<LockKey> expirationWheel;
+    // locks whose deadlines are scheduled in the wheel, guarded by expirationWheel
+    protected Map<LockKey, LockInfo> scheduledLocks = new HashMap<>();
+
     public LockManagerImpl(ExtendedEntities extendedEntities,
                            Metadata metadata,
                            MetadataTools metadataTools,
@@ -64,6 +85,7 @@ public class LockManagerImpl implements LockManager {
                            CurrentAuthentication currentAuthentication,
                            CacheManager cacheManager,
                            CacheOperations cacheOperations,
+                           ClusterApplicationEventPublisher clusterEventPublisher,
                            List<LockDescriptorProvider> lockDescriptorProviders) {
         this.extendedEntities = extendedEntities;
         this.metadata = metadata;
@@ -72,6 +94,7 @@ public class LockManagerImpl implements LockManager {
         this.currentAuthentication = currentAuthentication;
         this.cacheManager = cacheManager;
         this.cacheOperations = cacheOperations;
+        this.clusterEventPublisher = clusterEventPublisher;
         this.lockDescriptorProviders = lockDescriptorProviders;
     }
 
@@ -81,6 +104,17 @@ public class LockManagerImpl implements LockManager {
         if (locks == null) {
             throw new IllegalStateException(String.format("Unable to find cache: %s", LOCKS_CACHE_NAME));
         }
+        expirationWheel = new LockExpirationWheel<>(1000, timeSource.currentTimeMillis());
+        if (cacheOperations.isIterableCache(locks)) {
+            // locks acquired before the start of this instance
+            Collection<LockKey> keys = cacheOperations.getKeys(locks);
+            for (LockKey key : keys) {
+                LockInfo lockInfo = locks.get(key, LockInfo.class);
+                if (lockInfo != null) {
+                    scheduleExpiration(key, lockInfo);
+                }
+            }
+        }
     }
 
     protected Map<String, LockDescriptor> getConfig() {
@@ -106,19 +140,16 @@ public class LockManagerImpl implements LockManager {
             return new LockNotSupported();
         }
 
-        LockKey key = new LockKey(name, id);
-
-        LockInfo lockInfo = locks.get(key, LockInfo.class);
-        if (lockInfo != null) {
-            log.debug("Already locked: {}", lockInfo);
-            return lockInfo;
-        }
-
         UserDetails user = currentAuthentication.getUser();
-        lockInfo = new LockInfo(user.getUsername(), name, id, timeSource.currentTimestamp());
-        locks.put(key, lockInfo);
+        LockInfo lockInfo = new LockInfo(user.getUsername(), name, id, timeSource.currentTimestamp());
+        LockInfo existingLockInfo = tryLock(lockInfo);
+        if (existingLockInfo != null) {
+            log.debug("Already locked: {}", existingLockInfo);
+            return existingLockInfo;
+        }
         log.debug("Locked {}/{}", name, id);
 
+        publishChanges(Collections.singletonList(lockInfo), Collections.emptyList());
         return null;
     }
 
@@ -127,16 +158,57 @@ public class LockManagerImpl implements LockManager {
     public LockInfo lock(Object entity) {
         Preconditions.checkNotNullArgument(entity, "entity is null");
 
-        MetaClass metaClass = metadata.getClass(entity);
-        MetaClass originalMetaClass = extendedEntities.getOriginalOrThisMetaClass(metaClass);
+        return lock(getLockName(entity), EntityValues.getId(entity).toString());
+    }
 
-        return lock(originalMetaClass.getName(), EntityValues.getId(entity).toString());
+    @Override
+    public Map<Object, LockInfo> lock(Collection<?> entities) {
+        Preconditions.checkNotNullArgument(entities, "entities is null");
+
+        UserDetails user = currentAuthentication.getUser();
+        Date since = timeSource.currentTimestamp();
+
+        Map<Object, LockInfo> failed = new LinkedHashMap<>();
+        List<LockInfo> acquired = new ArrayList<>();
+        Set<LockKey> processedKeys = new HashSet<>();
+        for (Object entity : entities) {
+            String name = getLockName(entity);
+            if (getConfig().get(name) == null) {
+                continue;
+            }
+            String id = EntityValues.getId(entity).toString();
+            if (!processedKeys.add(new LockKey(name, id))) {
+                continue;
+            }
+            LockInfo lockInfo = new LockInfo(user.getUsername(), name, id, since);
+            LockInfo existingLockInfo = tryLock(lockInfo);
+            if (existingLockInfo != null) {
+                failed.put(entity, existingLockInfo);
+            } else {
+                acquired.add(lockInfo);
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            log.debug("{} of {} entities are already locked, releasing acquired locks", failed.size(), entities.size());
+            for (LockInfo lockInfo : acquired) {
+                locks.evictIfPresent(getLockKey(lockInfo));
+                cancelExpiration(lockInfo);
+            }
+            return failed;
+        }
+
+        log.debug("Locked {} entities", acquired.size());
+        publishChanges(acquired, Collections.emptyList());
+        return Collections.emptyMap();
     }
 
     @Override
     public void unlock(String name, String id) {
-        if (locks.evictIfPresent(new LockKey(name, id))) {
+        LockInfo lockInfo = releaseLock(new LockKey(name, id));
+        if (lockInfo != null) {
             log.debug("Unlocked {}/{}", name, id);
+            publishChanges(Collections.emptyList(), Collections.singletonList(lockInfo));
         }
     }
 
@@ -144,10 +216,22 @@ public class LockManagerImpl implements LockManager {
     public void unlock(Object entity) {
         Preconditions.checkNotNullArgument(entity, "entity is null");
 
-        MetaClass metaClass = metadata.getClass(entity);
-        MetaClass originalMetaClass = extendedEntities.getOriginalOrThisMetaClass(metaClass);
+        unlock(getLockName(entity), EntityValues.getId(entity).toString());
+    }
 
-        unlock(originalMetaClass.getName(), EntityValues.getId(entity).toString());
+    @Override
+    public void unlock(Collection<?> entities) {
+        Preconditions.checkNotNullArgument(entities, "entities is null");
+
+        List<LockInfo> released = new ArrayList<>();
+        for (Object entity : entities) {
+            LockInfo lockInfo = releaseLock(new LockKey(getLockName(entity), EntityValues.getId(entity).toString()));
+            if (lockInfo != null) {
+                released.add(lockInfo);
+            }
+        }
+        log.debug("Unlocked {} entities", released.size());
+        publishChanges(Collections.emptyList(), released);
     }
 
     @Override
@@ -172,32 +256,43 @@ public class LockManagerImpl implements LockManager {
 
     @Override
     public void expireLocks() {
-        if (cacheOperations.isIterableCache(locks)) {
-            log.trace("Start expiring locks operation");
-            Collection<LockKey> keys = cacheOperations.getKeys(locks);
-            for (LockKey key : keys) {
-                LockInfo lockInfo = locks.get(key, LockInfo.class);
-                if (lockInfo != null) {
-                    LockDescriptor ld = getConfig().get(key.name);
-                    if (ld == null) {
-                        log.debug("Lock {}/{} configuration not found, remove it", key.name, key.id);
-                        locks.evict(key);
-                    } else {
-                        Integer timeoutSec = ld.getTimeoutSec();
-                        if (timeoutSec != null && timeoutSec > 0) {
-                            Date since = lockInfo.getSince();
-                            if (since.getTime() + timeoutSec * 1000 < timeSource.currentTimestamp().getTime()) {
-                                log.debug("Lock {}/{} expired", key.name, key.id);
-                                locks.evict(key);
-                            }
-                        }
-                    }
-                } else {
-                    log.trace("Lock info not found for key '{}'", key);
-                }
+        long now = timeSource.currentTimeMillis();
+        List<LockKey> keys;
+        synchronized (expirationWheel) {
+            keys = expirationWheel.advance(now);
+            keys.forEach(scheduledLocks::remove);
+        }
+        log.trace("Start expiring locks operation, {} locks to check", keys.size());
+        for (LockKey key : keys) {
+            LockInfo lockInfo = locks.get(key, LockInfo.class);
+            if (lockInfo == null) {
+                log.trace("Lock info not found for key '{}'", key);
+                continue;
             }
-        } else {
-            log.debug("Expiring locks operation is unsupported by cache provider");
+            LockDescriptor ld = getConfig().get(key.name);
+            if (ld == null) {
+                log.debug("Lock {}/{} configuration not found, remove it", key.name, key.id);
+                locks.evict(key);
+            } else if (getDeadline(lockInfo, ld) <= now) {
+                log.debug("Lock {}/{} expired", key.name, key.id);
+                locks.evict(key);
+            } else {
+                // the lock has been re-acquired or its timeout has been changed
+                scheduleExpiration(key, lockInfo);
+            }
+        }
+    }
+
+    /**
+     * Receives locks acquired and released by this and other application instances.
+     */
+    @EventListener
+    protected void onLocksChanged(LocksChangedEvent event) {
+        for (LockInfo lockInfo : event.getAcquired()) {
+            scheduleExpiration(getLockKey(lockInfo), lockInfo);
+        }
+        for (LockInfo lockInfo : event.getReleased()) {
+            cancelExpiration(lockInfo);
         }
     }
 
@@ -206,6 +301,96 @@ public class LockManagerImpl implements LockManager {
         config = null;
     }
 
+    /**
+     * Stores the lock if the object is not locked yet.
+     *
+     * @return null if the lock has been stored, or the existing lock
+     */
+    @Nullable
+    protected LockInfo tryLock(LockInfo lockInfo) {
+        LockKey key = getLockKey(lockInfo);
+        Cache.ValueWrapper existing = locks.putIfAbsent(key, lockInfo);
+        if (existing != null && existing.get() != null) {
+            return (LockInfo) existing.get();
+        }
+        scheduleExpiration(key, lockInfo);
+        return null;
+    }
+
+    /**
+     * Removes the lock from the cache and cancels its expiration.
+     *
+     * @return the released lock, or null if the object is not locked
+     */
+    @Nullable
+    protected LockInfo releaseLock(LockKey key) {
+        LockInfo lockInfo = locks.get(key, LockInfo.class);
+        if (lockInfo == null || !locks.evictIfPresent(key)) {
+            return null;
+        }
+        cancelExpiration(lockInfo);
+        return lockInfo;
+    }
+
+    protected void scheduleExpiration(LockKey key, LockInfo lockInfo) {
+        LockDescriptor ld = getConfig().get(key.name);
+        if (ld == null) {
+            // removed on the next expiration run
+            synchronized (expirationWheel) {
+                expirationWheel.schedule(key, timeSource.currentTimeMillis());
+                scheduledLocks.put(key, lockInfo);
+            }
+        } else if (ld.getTimeoutSec() != null && ld.getTimeoutSec() > 0) {
+            synchronized (expirationWheel) {
+                expirationWheel.schedule(key, getDeadline(lockInfo, ld));
+                scheduledLocks.put(key, lockInfo);
+            }
+        }
+    }
+
+    /**
+     * Cancels expiration of the lock if its deadline is scheduled for the same lock, and not for a lock of the same
+     * object acquired later.
+     */
+    protected void cancelExpiration(LockInfo lockInfo) {
+        LockKey key = getLockKey(lockInfo);
+        synchronized (expirationWheel) {
+            LockInfo scheduled = scheduledLocks.get(key);
+            if (scheduled != null && isSameLock(scheduled, lockInfo)) {
+                expirationWheel.cancel(key);
+                scheduledLocks.remove(key);
+            }
+        }
+    }
+
+    protected boolean isSameLock(LockInfo lockInfo1, LockInfo lockInfo2) {
+        return Objects.equals(lockInfo1.getUsername(), lockInfo2.getUsername())
+                && Objects.equals(lockInfo1.getSince(), lockInfo2.getSince());
+    }
+
+    protected long getDeadline(LockInfo lockInfo, LockDescriptor ld) {
+        Integer timeoutSec = ld.getTimeoutSec();
+        if (timeoutSec == null || timeoutSec <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return lockInfo.getSince().getTime() + timeoutSec * 1000L;
+    }
+
+    protected void publishChanges(List<LockInfo> acquired, List<LockInfo> released) {
+        if (!acquired.isEmpty() || !released.isEmpty()) {
+            clusterEventPublisher.publish(new LocksChangedEvent(this, acquired, released));
+        }
+    }
+
+    protected String getLockName(Object entity) {
+        MetaClass metaClass = metadata.getClass(entity);
+        return extendedEntities.getOriginalOrThisMetaClass(metaClass).getName();
+    }
+
+    protected LockKey getLockKey(LockInfo lockInfo) {
+        return new LockKey(lockInfo.getObjectType(), lockInfo.getObjectId());
+    }
+
     public static class LockKey implements Serializable {
         private static final long serialVersionUID = -79055072974087187L;
 
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.pessimisticlock.impl;
+
+import io.jmix.core.cluster.ClusterApplicationEvent;
+import io.jmix.pessimisticlock.entity.LockInfo;
+
+import java.util.List;
+
+/**
+ * Event published cluster-wide when locks are acquired or released, so that each application instance
+ * can track expiration of all locks.
+ */
+public class LocksChangedEvent extends ClusterApplicationEvent {
+
+    private static final long serialVersionUID = 4619874263551079410L;
+
+    private final List<LockInfo> acquired;
+    private final List<LockInfo> released;
+
+    public LocksChangedEvent(Object source, List<LockInfo> acquired, List<LockInfo> released) {
+        super(source);
+        this.acquired = acquired;
+        this.released = released;
+    }
+
+    /**
+     * @return acquired locks
+     */
+    public List<LockInfo> getAcquired() {
+        return acquired;
+    }
+
+    /**
+     * @return released locks
+     */
+    public List<LockInfo> getReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return "LocksChangedEvent{acquired=" + acquired.size() + ", released=" + released.size() + "}";
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package pessimisticlock
+
+import io.jmix.pessimisticlock.impl.LockExpirationWheel
+import spock.lang.Specification
+
+class LockExpirationWheelTest extends Specification {
+
+    static final long START = 1_700_000_000_000L
+
+    def "keys expire at their deadlines"() {
+        def wheel = new LockExpirationWheel<String>(1000, START)
+
+        when:
+        wheel.schedule('a', START + 5_000)
+        wheel.schedule('b', START + 120_000)
+        wheel.schedule('c', START + 10_000_000)
+        wheel.schedule('d', START + 300L * 24 * 3600 * 1000)
+
+        then:
+        wheel.size() == 4
+        wheel.advance(START + 4_000).isEmpty()
+        wheel.advance(START + 5_000) == ['a']
+        wheel.advance(START + 119_000).isEmpty()
+        wheel.advance(START + 200_000) == ['b']
+        wheel.advance(START + 9_999_000).isEmpty()
+        wheel.advance(START + 10_000_000) == ['c']
+        wheel.size() == 1
+        wheel.advance(START + 300L * 24 * 3600 * 1000 - 1000).isEmpty()
+        wheel.advance(START + 300L * 24 * 3600 * 1000) == ['d']
+        wheel.size() == 0
+    }
+
+    def "cancelled and rescheduled keys"() {
+        def wheel = new LockExpirationWheel<String>(1000, START)
+        wheel.schedule('a', START + 5_000)
+        wheel.schedule('b', START + 5_000)
+
+        when:
+        wheel.cancel('a')
+        wheel.schedule('b', START + 70_000)
+
+        then:
+        wheel.advance(START + 60_000).isEmpty()
+        wheel.advance(START + 70_000) == ['b']
+        !wheel.cancel('b')
+    }
+
+    def "key with passed deadline expires on the next tick"() {
+        def wheel = new LockExpirationWheel<String>(1000, START)
+
+        when:
+        wheel.schedule('a', START - 10_000)
+
+        then:
+        wheel.advance(START + 1_000) == ['a']
+    }
+}
@@ -21,6 +21,8 @@ import io.jmix.core.Metadata
 import io.jmix.core.security.SystemAuthenticator
 import io.jmix.pessimisticlock.LockManager
 import io.jmix.pessimisticlock.entity.LockInfo
+import io.jmix.pessimisticlock.impl.LockManagerImpl
+import io.jmix.pessimisticlock.impl.LocksChangedEvent
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.test.context.ContextConfiguration
 import spock.lang.Specification
@@ -28,6 +30,9 @@ import test_support.PessimisticLockTestConfiguration
 import test_support.entity.LockableChildEntity
 import test_support.entity.LockableParentEntity
 
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
 import static org.junit.jupiter.api.Assertions.assertNotNull
 import static org.junit.jupiter.api.Assertions.assertNull
 
@@ -92,4 +97,72 @@ class LockManagerTest extends Specification {
         then:
         assertNull(lockInfo)
     }
+
+    def "Test bulk lock of entities"() {
+        LockableParentEntity entity1 = metadata.create(LockableParentEntity.class)
+        LockableParentEntity entity2 = metadata.create(LockableParentEntity.class)
+        LockableParentEntity entity3 = metadata.create(LockableParentEntity.class)
+        lockManager.lock(entity1)
+
+        when:
+        Map<Object, LockInfo> failed = lockManager.lock([entity1, entity2, entity3])
+        then:
+        failed.keySet() == [entity1] as Set
+        lockManager.getLockInfo("pslock_LockableParentEntity", entity2.getId().toString()) == null
+        lockManager.getLockInfo("pslock_LockableParentEntity", entity3.getId().toString()) == null
+
+        when:
+        lockManager.unlock(entity1)
+        failed = lockManager.lock([entity1, entity2, entity3])
+        then:
+        failed.isEmpty()
+        lockManager.getLockInfo("pslock_LockableParentEntity", entity3.getId().toString()) != null
+
+        when:
+        lockManager.unlock([entity1, entity2, entity3])
+        then:
+        lockManager.getLockInfo("pslock_LockableParentEntity", entity1.getId().toString()) == null
+        lockManager.getLockInfo("pslock_LockableParentEntity", entity3.getId().toString()) == null
+    }
+
+    def "Test concurrent lock of the same entity"() {
+        LockableParentEntity entity = metadata.create(LockableParentEntity.class)
+        def executor = Executors.newFixedThreadPool(8)
+
+        when:
+        List<Callable<LockInfo>> tasks = (1..32).collect {
+            { -> authenticator.withSystem { lockManager.lock(entity) } } as Callable<LockInfo>
+        }
+        List<LockInfo> results = executor.invokeAll(tasks)*.get()
+        then:
+        results.count { it == null } == 1
+
+        cleanup:
+        executor.shutdown()
+        lockManager.unlock(entity)
+    }
+
+    def "Test late release event does not cancel expiration of re-acquired lock"() {
+        LockableParentEntity entity = metadata.create(LockableParentEntity.class)
+        LockManagerImpl lockManagerImpl = lockManager as LockManagerImpl
+        String id = entity.getId().toString()
+
+        when: "the lock is released by another instance after it has been re-acquired"
+        lockManager.lock(entity)
+        LockInfo currentLock = lockManager.getLockInfo("pslock_LockableParentEntity", id)
+        LockInfo releasedLock = new LockInfo("other", "pslock_LockableParentEntity", id, new Date(0))
+        lockManagerImpl.onLocksChanged(new LocksChangedEvent(this, [], [releasedLock]))
+
+        then: "the expiration of the current lock is kept"
+        lockManagerImpl.scheduledLocks.values().contains(currentLock)
+
+        when: "the current lock is released"
+        lockManagerImpl.onLocksChanged(new LocksChangedEvent(this, [], [currentLock]))
+
+        then:
+        !lockManagerImpl.scheduledLocks.values().contains(currentLock)
+
+        cleanup:
+        lockManager.unlock(entity)
+    }
 }
@@ -139,16 +139,25 @@ public class ReportsConfiguration {
     public JmixFormatterFactory formatterFactory(JmixInlinersProvider inlinersProvider,
                                                  JmixFieldFormatProvider fieldFormatProvider,
                                                  Scripting scripting,
-                                                 JmixOfficeIntegration officeIntegration) {
+                                                 JmixOfficeIntegration officeIntegration,
+                                                 JmixTemplateCache templateCache) {
         JmixFormatterFactory formatterFactory = new JmixFormatterFactory();
         formatterFactory.setUseOfficeForDocumentConversion(reportsProperties.isUseOfficeForDocumentConversion());
         formatterFactory.setInlinersProvider(inlinersProvider);
         formatterFactory.setDefaultFormatProvider(fieldFormatProvider);
         formatterFactory.setOfficeIntegration(officeIntegration);
         formatterFactory.setScripting(scripting);
+        if (reportsProperties.getTemplateCacheMaxSize() > 0) {
+            formatterFactory.setTemplateCache(templateCache);
+        }
         return formatterFactory;
     }
 
+    @Bean("report_TemplateCache")
+    public JmixTemplateCache templateCache() {
+        return new JmixTemplateCache(Math.max(reportsProperties.getTemplateCacheMaxSize(), 0));
+    }
+
     @Bean("report_InlinersProvider")
     public JmixInlinersProvider inlinersProvider(FileStorageContentInliner fileStorageContentInliner) {
         return new JmixInlinersProvider(fileStorageContentInliner);
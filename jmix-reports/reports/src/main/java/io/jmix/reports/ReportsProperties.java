@@ -144,6 +144,25 @@ public class ReportsProperties {
      */
     boolean formulasPostProcessingEvaluationEnabled;
 
+    /**
+     * Maximum number of parent rows whose child band data is loaded by a single query. Applies to child bands with
+     * a single SQL or JPQL query linked to the parent band by an equality condition. Value &lt; 2 disables batching,
+     * so the child query is executed for each parent row.
+     */
+    int childBandBatchSize;
+
+    /**
+     * Number of threads used to extract independent first level bands of a report concurrently. Value &lt; 2 means
+     * bands are extracted one after another in the thread running the report.
+     */
+    int bandExtractionThreads;
+
+    /**
+     * Maximum number of templates kept compiled (Jasper) or parsed (XLSX) in memory between report runs.
+     * Value == 0 disables the cache.
+     */
+    int templateCacheMaxSize;
+
     public ReportsProperties(@DefaultValue("/") String officePath,
                              @DefaultValue({"8100", "8101", "8102", "8103"}) List<Integer> officePorts,
                              @DefaultValue("20") int docFormatterTimeout,
@@ -166,7 +185,10 @@ public class ReportsProperties {
                              @DefaultValue("1000") int historyCleanupMaxItemsPerReport,
                              @DefaultValue("3") int countOfRetry,
                              @DefaultValue("false") boolean useOfficeForDocumentConversion,
-                             @DefaultValue("false") boolean formulasPostProcessingEvaluationEnabled) {
+                             @DefaultValue("false") boolean formulasPostProcessingEvaluationEnabled,
+                             @DefaultValue("0") int childBandBatchSize,
+                             @DefaultValue("0") int bandExtractionThreads,
+                             @DefaultValue("100") int templateCacheMaxSize) {
         this.officePath = officePath;
         this.officePorts = officePorts;
         this.docFormatterTimeout = docFormatterTimeout;
@@ -190,6 +212,9 @@ public class ReportsProperties {
         this.countOfRetry = countOfRetry;
         this.useOfficeForDocumentConversion = useOfficeForDocumentConversion;
         this.formulasPostProcessingEvaluationEnabled = formulasPostProcessingEvaluationEnabled;
+        this.childBandBatchSize = childBandBatchSize;
+        this.bandExtractionThreads = bandExtractionThreads;
+        this.templateCacheMaxSize = templateCacheMaxSize;
     }
 
     /**
@@ -343,4 +368,25 @@ public class ReportsProperties {
     public boolean isFormulasPostProcessingEvaluationEnabled() {
         return formulasPostProcessingEvaluationEnabled;
     }
-}
\ No newline at end of file
+
+    /**
+     * @see #childBandBatchSize
+     */
+    public int getChildBandBatchSize() {
+        return childBandBatchSize;
+    }
+
+    /**
+     * @see #bandExtractionThreads
+     */
+    public int getBandExtractionThreads() {
+        return bandExtractionThreads;
+    }
+
+    /**
+     * @see #templateCacheMaxSize
+     */
+    public int getTemplateCacheMaxSize() {
+        return templateCacheMaxSize;
+    }
+}
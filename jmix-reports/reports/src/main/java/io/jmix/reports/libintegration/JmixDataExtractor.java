@@ -19,7 +19,14 @@ package io.jmix.reports.libintegration;
 import io.jmix.reports.yarg.loaders.factory.ReportLoaderFactory;
 import io.jmix.reports.ReportsProperties;
 import io.jmix.reports.yarg.reporting.DataExtractorImpl;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.*;
 
 public class JmixDataExtractor extends DataExtractorImpl {
 
@@ -30,8 +37,48 @@ public class JmixDataExtractor extends DataExtractorImpl {
         super(loaderFactory);
     }
 
+    @PostConstruct
+    protected void initBandExtractionExecutor() {
+        int threads = reportsProperties.getBandExtractionThreads();
+        if (threads > 1) {
+            // the queue is bounded and overflowing tasks run in the calling thread, so concurrent reports
+            // cannot exhaust the pool and wait for each other
+            bandExtractionExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(threads * 4),
+                    new ThreadFactoryBuilder().setNameFormat("ReportBandExtraction-%d").setDaemon(true).build(),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    @PreDestroy
+    protected void shutdownBandExtractionExecutor() {
+        if (bandExtractionExecutor != null) {
+            bandExtractionExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public boolean getPutEmptyRowIfNoDataSelected() {
         return Boolean.TRUE.equals(reportsProperties.getPutEmptyRowIfNoDataSelected());
     }
+
+    @Override
+    public int getChildBandBatchSize() {
+        return reportsProperties.getChildBandBatchSize();
+    }
+
+    @Override
+    protected <T> Callable<T> wrapBandExtractionTask(Callable<T> task) {
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        return () -> {
+            // the task may be executed by the calling thread if the pool is busy, so restore its context afterwards
+            SecurityContext previousContext = SecurityContextHolder.getContext();
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                return task.call();
+            } finally {
+                SecurityContextHolder.setContext(previousContext);
+            }
+        };
+    }
 }
\ No newline at end of file
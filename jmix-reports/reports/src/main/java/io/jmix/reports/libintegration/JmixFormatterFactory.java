@@ -65,6 +65,7 @@ public class JmixFormatterFactory extends DefaultFormatterFactory {
             xlsxFormatter.setDocumentConverter(documentConverter);
             xlsxFormatter.setScripting(scripting);
             xlsxFormatter.setFormulasPostProcessingEvaluationEnabled(reportsProperties.isFormulasPostProcessingEvaluationEnabled());
+            xlsxFormatter.setTemplateCache(templateCache);
             return xlsxFormatter;
         };
         formattersMap.put("xlsx", xlsxCreator);
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.reports.libintegration;
+
+import io.jmix.core.event.EntitySavingEvent;
+import io.jmix.reports.entity.ReportTemplate;
+import io.jmix.reports.yarg.formatters.cache.TemplateCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Template cache keyed by the ids of {@link ReportTemplate} entities. Entries of a template are removed when
+ * the template is saved.
+ */
+public class JmixTemplateCache extends TemplateCache {
+
+    private static final Logger log = LoggerFactory.getLogger(JmixTemplateCache.class);
+
+    public JmixTemplateCache(int maxSize) {
+        super(maxSize);
+    }
+
+    @EventListener
+    public void onTemplateSaving(EntitySavingEvent<ReportTemplate> event) {
+        ReportTemplate template = event.getEntity();
+        if (!event.isNewEntity() && template.getId() != null) {
+            log.debug("Invalidating cached template {}, hit rate {}", template.getId(), getHitRate());
+            invalidate(template.getId());
+        }
+    }
+
+    @Override
+    protected Object getTemplateId(io.jmix.reports.yarg.structure.ReportTemplate template) {
+        if (template instanceof ReportTemplate && ((ReportTemplate) template).getId() != null) {
+            return ((ReportTemplate) template).getId();
+        }
+        return super.getTemplateId(template);
+    }
+}
@@ -51,6 +51,12 @@ public class SqlParametersConverter implements ReportParametersConverter {
 
                     return (T) entityIds;
                 }
+
+                List<Object> values = new ArrayList<>(collection.size());
+                for (Object object : collection) {
+                    values.add(dbSpecificConvert(object));
+                }
+                return (T) values;
             }
         } else if (input instanceof Object[]) {
             Object[] objects = (Object[]) input;
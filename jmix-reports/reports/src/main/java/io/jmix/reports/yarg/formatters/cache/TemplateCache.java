@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.reports.yarg.formatters.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import io.jmix.reports.yarg.exception.ReportingException;
+import io.jmix.reports.yarg.structure.ReportTemplate;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps templates in the form formatters work with, so that frequently run reports do not parse and compile
+ * unchanged templates on each run.
+ * <p>
+ * Two kinds of entries are supported:
+ * <ul>
+ *     <li>compiled templates, which are immutable and shared by all report runs, e.g. {@code JasperReport};</li>
+ *     <li>parsed templates, which are only read by a formatter but are not safe for concurrent use, e.g. a parsed
+ *     XLSX package. Such templates are borrowed for a single report run and returned to the cache afterwards.</li>
+ * </ul>
+ * Entries are identified by {@link TemplateKey} consisting of the template identifier and the content hash,
+ * so a changed template is never served from the cache even if it has not been invalidated.
+ */
+public class TemplateCache {
+
+    protected final Cache<TemplateKey, Object> compiledTemplates;
+    protected final Cache<TemplateKey, Queue<Object>> parsedTemplates;
+
+    protected int maxParsedTemplatesPerKey = 4;
+
+    protected final LongAdder hitCount = new LongAdder();
+    protected final LongAdder missCount = new LongAdder();
+
+    /**
+     * @param maxSize maximum number of distinct templates kept for each kind of entries
+     */
+    public TemplateCache(int maxSize) {
+        compiledTemplates = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+        parsedTemplates = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public void setMaxParsedTemplatesPerKey(int maxParsedTemplatesPerKey) {
+        this.maxParsedTemplatesPerKey = maxParsedTemplatesPerKey;
+    }
+
+    /**
+     * Creates the cache key of the template.
+     *
+     * @param template template
+     * @param content  template content
+     */
+    public TemplateKey createKey(ReportTemplate template, byte[] content) {
+        String hash = Hashing.sha256().hashBytes(content).toString();
+        return new TemplateKey(getTemplateId(template), hash);
+    }
+
+    /**
+     * Returns the shared compiled template, compiling it on a cache miss.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getCompiled(TemplateKey key, Callable<T> compiler) {
+        Object compiled = compiledTemplates.getIfPresent(key);
+        if (compiled != null) {
+            hitCount.increment();
+            return (T) compiled;
+        }
+        missCount.increment();
+        compiled = call(compiler);
+        compiledTemplates.put(key, compiled);
+        return (T) compiled;
+    }
+
+    /**
+     * Returns a parsed template for exclusive use by a single report run, parsing it on a cache miss.
+     * The template must be returned by {@link #releaseParsed(TemplateKey, Object)} when the run is finished.
+     * If the run fails, the template is not returned, so that a partly modified template is not reused.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T borrowParsed(TemplateKey key, Callable<T> parser) {
+        Queue<Object> pool = parsedTemplates.getIfPresent(key);
+        Object parsed = pool != null ? pool.poll() : null;
+        if (parsed != null) {
+            hitCount.increment();
+            return (T) parsed;
+        }
+        missCount.increment();
+        return call(parser);
+    }
+
+    /**
+     * Returns the parsed template borrowed by {@link #borrowParsed(TemplateKey, Callable)} to the cache.
+     * Must not be called if the formatter has modified the template.
+     */
+    public void releaseParsed(TemplateKey key, Object parsed) {
+        Queue<Object> pool = parsedTemplates.asMap().computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>());
+        if (pool.size() < maxParsedTemplatesPerKey) {
+            pool.offer(parsed);
+        }
+    }
+
+    /**
+     * Removes all entries of the template, e.g. when it is saved.
+     */
+    public void invalidate(Object templateId) {
+        compiledTemplates.asMap().keySet().removeIf(key -> key.getTemplateId().equals(templateId));
+        parsedTemplates.asMap().keySet().removeIf(key -> key.getTemplateId().equals(templateId));
+    }
+
+    public void invalidateAll() {
+        compiledTemplates.invalidateAll();
+        parsedTemplates.invalidateAll();
+    }
+
+    /**
+     * @return number of report runs that used a cached template
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return number of report runs that had to parse or compile a template
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return ratio of report runs that used a cached template, or 1.0 if no templates were requested yet
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    /**
+     * @return identifier of the template, templates of different reports must have different identifiers
+     */
+    protected Object getTemplateId(ReportTemplate template) {
+        return template.getCode() + "/" + template.getDocumentName();
+    }
+
+    protected <T> T call(Callable<T> callable) {
+        try {
+            return callable.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ReportingException(e);
+        }
+    }
+
+    public static class TemplateKey {
+
+        protected final Object templateId;
+        protected final String contentHash;
+
+        public TemplateKey(Object templateId, String contentHash) {
+            this.templateId = templateId;
+            this.contentHash = contentHash;
+        }
+
+        public Object getTemplateId() {
+            return templateId;
+        }
+
+        public String getContentHash() {
+            return contentHash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TemplateKey that = (TemplateKey) o;
+            return templateId.equals(that.templateId) && contentHash.equals(that.contentHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(templateId, contentHash);
+        }
+
+        @Override
+        public String toString() {
+            return templateId + "@" + contentHash;
+        }
+    }
+}
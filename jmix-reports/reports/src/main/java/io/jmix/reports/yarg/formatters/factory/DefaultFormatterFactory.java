@@ -15,6 +15,7 @@
  */
 package io.jmix.reports.yarg.formatters.factory;
 
+import io.jmix.reports.yarg.formatters.cache.TemplateCache;
 import io.jmix.reports.yarg.formatters.factory.inline.DefaultInlinersProvider;
 import io.jmix.reports.yarg.formatters.factory.inline.ReportInlinersProvider;
 import io.jmix.reports.yarg.formatters.impl.*;
@@ -50,6 +51,8 @@ public class DefaultFormatterFactory implements ReportFormatterFactory {
 
     protected boolean formulasPostProcessingEvaluationEnabled;
 
+    protected TemplateCache templateCache;
+
     public DefaultFormatterFactory() {
         htmlImportProcessor = new HtmlImportProcessorImpl();
         htmlToPdfConverterFactory = new HtmlToPdfConverterFactory();
@@ -96,6 +99,7 @@ public class DefaultFormatterFactory implements ReportFormatterFactory {
             xlsxFormatter.setDocumentConverter(documentConverter);
             xlsxFormatter.setScripting(scripting);
             xlsxFormatter.setFormulasPostProcessingEvaluationEnabled(formulasPostProcessingEvaluationEnabled);
+            xlsxFormatter.setTemplateCache(templateCache);
             return xlsxFormatter;
         };
         formattersMap.put("xlsx", xlsxCreator);
@@ -103,7 +107,11 @@ public class DefaultFormatterFactory implements ReportFormatterFactory {
 
         formattersMap.put("csv", CsvFormatter::new);
 
-        FormatterCreator jasperCreator = JasperFormatter::new;
+        FormatterCreator jasperCreator = factoryInput -> {
+            JasperFormatter jasperFormatter = new JasperFormatter(factoryInput);
+            jasperFormatter.setTemplateCache(templateCache);
+            return jasperFormatter;
+        };
         formattersMap.put("jasper", jasperCreator);
         formattersMap.put("jrxml", jasperCreator);
 
@@ -160,6 +168,18 @@ public class DefaultFormatterFactory implements ReportFormatterFactory {
         this.formulasPostProcessingEvaluationEnabled = formulasPostProcessingEvaluationEnabled;
     }
 
+    public TemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    /**
+     * Sets the cache of compiled and parsed templates used by Jasper and XLSX formatters.
+     * If not set, templates are loaded on each report run.
+     */
+    public void setTemplateCache(TemplateCache templateCache) {
+        this.templateCache = templateCache;
+    }
+
     public ReportFormatter createFormatter(FormatterFactoryInput factoryInput) {
         String templateExtension = factoryInput.templateExtension;
         BandData rootBand = factoryInput.rootBand;
@@ -17,6 +17,7 @@
 package io.jmix.reports.yarg.formatters.impl;
 
 import io.jmix.reports.yarg.exception.ReportFormattingException;
+import io.jmix.reports.yarg.formatters.cache.TemplateCache;
 import io.jmix.reports.yarg.formatters.impl.jasper.CubaJRFunction;
 import io.jmix.reports.yarg.formatters.impl.jasper.JRBandDataDataSource;
 import io.jmix.reports.yarg.formatters.factory.FormatterFactoryInput;
@@ -32,6 +33,11 @@ import net.sf.jasperreports.engine.util.JRLoader;
 import net.sf.jasperreports.engine.xml.JRXmlLoader;
 import net.sf.jasperreports.export.*;
 
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -44,32 +50,59 @@ public class JasperFormatter extends AbstractFormatter {
 
     private static final String CUBA_PARAM = "REPORTING";
 
+    protected TemplateCache templateCache;
+
     public JasperFormatter(FormatterFactoryInput formatterFactoryInput) {
         super(formatterFactoryInput);
     }
 
+    /**
+     * Sets the cache of compiled reports. If not set, the template is loaded and compiled on each run.
+     */
+    public void setTemplateCache(TemplateCache templateCache) {
+        this.templateCache = templateCache;
+    }
+
     @Override
     public void renderDocument() {
+        String extension = getExtension(reportTemplate);
+        if (!JASPER_EXT.equals(extension) && !JRXML_EXT.equals(extension)) {
+            throw new ReportFormattingException("Error handling template extension");
+        }
         try {
-            switch (getExtension(reportTemplate)) {
-                case JASPER_EXT:
-                    printReport((JasperReport) JRLoader.loadObject(reportTemplate.getDocumentContent()));
-                    break;
-                case JRXML_EXT:
-                    JasperDesign design = JRXmlLoader.load(reportTemplate.getDocumentContent());
-                    if (!design.getParametersMap().containsKey(CUBA_PARAM))
-                        design.addParameter(createJRParameter());
-
-                    printReport(JasperCompileManager.compileReport(design));
-                    break;
-                default:
-                    throw new ReportFormattingException("Error handling template extension");
+            JasperReport report;
+            if (templateCache != null) {
+                byte[] content = readTemplateContent();
+                report = templateCache.getCompiled(templateCache.createKey(reportTemplate, content),
+                        () -> loadReport(extension, new ByteArrayInputStream(content)));
+            } else {
+                report = loadReport(extension, reportTemplate.getDocumentContent());
             }
+            printReport(report);
         } catch (JRException e) {
             throw new ReportFormattingException("Error formatting jasper report: " + e.getMessage(), e);
         }
     }
 
+    protected JasperReport loadReport(String extension, InputStream content) throws JRException {
+        if (JASPER_EXT.equals(extension)) {
+            return (JasperReport) JRLoader.loadObject(content);
+        }
+        JasperDesign design = JRXmlLoader.load(content);
+        if (!design.getParametersMap().containsKey(CUBA_PARAM))
+            design.addParameter(createJRParameter());
+
+        return JasperCompileManager.compileReport(design);
+    }
+
+    protected byte[] readTemplateContent() {
+        try (InputStream content = reportTemplate.getDocumentContent()) {
+            return IOUtils.toByteArray(content);
+        } catch (IOException e) {
+            throw new ReportFormattingException("Unable to read jasper report template", e);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     protected void printReport(JasperReport report) throws JRException {
         JRDataSource dataSource = new JRBandDataDataSource(rootBand);
@@ -19,6 +19,7 @@ import com.google.common.collect.HashBiMap;
 import com.google.common.collect.LinkedHashMultimap;
 import com.opencsv.CSVWriter;
 import io.jmix.reports.yarg.exception.ReportingException;
+import io.jmix.reports.yarg.formatters.cache.TemplateCache;
 import io.jmix.reports.yarg.formatters.factory.FormatterFactoryInput;
 import io.jmix.reports.yarg.formatters.impl.xls.DocumentConverter;
 import io.jmix.reports.yarg.formatters.impl.xlsx.*;
@@ -91,6 +92,9 @@ public class XlsxFormatter extends AbstractFormatter {
     protected Unmarshaller unmarshaller;
     protected Marshaller marshaller;
 
+    protected TemplateCache templateCache;
+    protected TemplateCache.TemplateKey templateKey;
+
     public XlsxFormatter(FormatterFactoryInput formatterFactoryInput) {
         super(formatterFactoryInput);
         supportedOutputTypes.add(ReportOutputType.xlsx);
@@ -104,34 +108,54 @@ public class XlsxFormatter extends AbstractFormatter {
         this.formulasPostProcessingEvaluationEnabled = formulasPostProcessingEvaluationEnabled;
     }
 
+    /**
+     * Sets the cache of parsed templates. The parsed template is only read while rendering, so it is taken from
+     * the cache and returned back after the document is rendered. The result document is always parsed anew.
+     */
+    public void setTemplateCache(TemplateCache templateCache) {
+        this.templateCache = templateCache;
+    }
+
     @Override
     public void renderDocument() {
-        init();
+        boolean rendered = false;
+        try {
+            init();
 
-        validateTemplateContainsNamedRange();
+            validateTemplateContainsNamedRange();
 
-        hintProcessor.init(template, result);
-        findVerticalDependencies();
+            hintProcessor.init(template, result);
+            findVerticalDependencies();
 
-        result.clearWorkbook();
-        result.clearBandDefinedNames(rootBand);
+            result.clearWorkbook();
+            result.clearBandDefinedNames(rootBand);
 
-        for (BandData childBand : rootBand.getChildrenList()) {
-            checkThreadInterrupted();
-            writeBand(childBand);
-        }
+            for (BandData childBand : rootBand.getChildrenList()) {
+                checkThreadInterrupted();
+                writeBand(childBand);
+            }
 
-        updateOutlines();
-        updateMergeRegions();
-        updateCharts();
-        updateFormulas();
-        updatePivotTables();
-        updateConditionalFormatting();
-        updateHeaderAndFooter();
-        updateSheetNames();
-        hintProcessor.apply();
-
-        saveAndClose();
+            updateOutlines();
+            updateMergeRegions();
+            updateCharts();
+            updateFormulas();
+            updatePivotTables();
+            updateConditionalFormatting();
+            updateHeaderAndFooter();
+            updateSheetNames();
+            hintProcessor.apply();
+
+            saveAndClose();
+            rendered = true;
+        } finally {
+            if (templateKey != null) {
+                // a template borrowed by a failed run may be left partly modified, so it is not returned to the cache
+                if (rendered) {
+                    templateCache.releaseParsed(templateKey, template);
+                }
+                templateKey = null;
+            }
+        }
     }
 
     protected void validateTemplateContainsNamedRange() {
@@ -221,8 +245,16 @@ public class XlsxFormatter extends AbstractFormatter {
 
     protected void init() {
         try {
-            template = Document.create(SpreadsheetMLPackage.load(reportTemplate.getDocumentContent()));
-            result = Document.create(SpreadsheetMLPackage.load(reportTemplate.getDocumentContent()));
+            if (templateCache != null) {
+                byte[] content = IOUtils.toByteArray(reportTemplate.getDocumentContent());
+                templateKey = templateCache.createKey(reportTemplate, content);
+                template = templateCache.borrowParsed(templateKey,
+                        () -> Document.create(SpreadsheetMLPackage.load(new ByteArrayInputStream(content))));
+                result = Document.create(SpreadsheetMLPackage.load(new ByteArrayInputStream(content)));
+            } else {
+                template = Document.create(SpreadsheetMLPackage.load(reportTemplate.getDocumentContent()));
+                result = Document.create(SpreadsheetMLPackage.load(reportTemplate.getDocumentContent()));
+            }
             result.getWorkbook().getCalcPr().setCalcMode(STCalcMode.AUTO);
             result.getWorkbook().getCalcPr().setFullCalcOnLoad(true);
             marshaller = XmlCopyUtils.createMarshaller(Context.jcSML);
@@ -32,4 +32,10 @@ public interface DataExtractor {
 
     default boolean getPutEmptyRowIfNoDataSelected() { return true; }
 
+    /**
+     * @return max number of parent rows whose child band data is loaded with a single query,
+     * values less than 2 disable batched extraction of child bands
+     */
+    default int getChildBandBatchSize() { return 0; }
+
 }
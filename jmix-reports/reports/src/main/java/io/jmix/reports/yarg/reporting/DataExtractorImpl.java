@@ -17,6 +17,8 @@
 package io.jmix.reports.yarg.reporting;
 
 
+import io.jmix.reports.yarg.exception.DataLoadingException;
+import io.jmix.reports.yarg.exception.ReportingInterruptedException;
 import io.jmix.reports.yarg.reporting.extraction.DefaultExtractionContextFactory;
 import io.jmix.reports.yarg.reporting.extraction.DefaultExtractionControllerFactory;
 import io.jmix.reports.yarg.loaders.factory.ReportLoaderFactory;
@@ -27,9 +29,11 @@ import io.jmix.reports.yarg.structure.Report;
 import io.jmix.reports.yarg.structure.ReportBand;
 import org.apache.commons.collections4.CollectionUtils;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -42,6 +46,10 @@ public class DataExtractorImpl implements DataExtractor {
 
     protected boolean putEmptyRowIfNoDataSelected = true;
 
+    protected int childBandBatchSize = 0;
+
+    protected ExecutorService bandExtractionExecutor;
+
     public DataExtractorImpl(ReportLoaderFactory loaderFactory) {
         checkNotNull(loaderFactory, "\"loaderFactory\" parameter can not be null");
 
@@ -68,10 +76,18 @@ public class DataExtractorImpl implements DataExtractor {
 
         List<ReportBand> firstLevelBands = report.getRootBand().getChildren();
         if (firstLevelBands != null) {
-            for (ReportBand definition : firstLevelBands) {
-                List<BandData> bands = createBands(definition, rootBand, params);
-                rootBand.addChildren(bands);
-                rootBand.getFirstLevelBandDefinitionNames().add(definition.getName());
+            if (bandExtractionExecutor != null && firstLevelBands.size() > 1) {
+                List<List<BandData>> bandsList = createBandsConcurrently(firstLevelBands, rootBand, params);
+                for (int i = 0; i < firstLevelBands.size(); i++) {
+                    rootBand.addChildren(bandsList.get(i));
+                    rootBand.getFirstLevelBandDefinitionNames().add(firstLevelBands.get(i).getName());
+                }
+            } else {
+                for (ReportBand definition : firstLevelBands) {
+                    List<BandData> bands = createBands(definition, rootBand, params);
+                    rootBand.addChildren(bands);
+                    rootBand.getFirstLevelBandDefinitionNames().add(definition.getName());
+                }
             }
         }
     }
@@ -85,6 +101,27 @@ public class DataExtractorImpl implements DataExtractor {
         return putEmptyRowIfNoDataSelected;
     }
 
+    public void setChildBandBatchSize(int childBandBatchSize) {
+        this.childBandBatchSize = childBandBatchSize;
+    }
+
+    @Override
+    public int getChildBandBatchSize() {
+        return childBandBatchSize;
+    }
+
+    /**
+     * Sets the executor used to extract independent first level bands concurrently. If not set, bands
+     * are extracted one after another in the calling thread. The executor is expected to be bounded.
+     */
+    public void setBandExtractionExecutor(ExecutorService bandExtractionExecutor) {
+        this.bandExtractionExecutor = bandExtractionExecutor;
+    }
+
+    public ExecutorService getBandExtractionExecutor() {
+        return bandExtractionExecutor;
+    }
+
     public ExtractionControllerFactory getExtractionControllerFactory() {
         return controllerFactory;
     }
@@ -99,4 +136,42 @@ public class DataExtractorImpl implements DataExtractor {
         return controllerFactory.controllerBy(definition.getBandOrientation())
                 .extract(contextFactory.context(definition, parentBandData, params));
     }
+
+    protected List<List<BandData>> createBandsConcurrently(List<ReportBand> definitions, BandData parentBandData,
+                                                           Map<String, Object> params) {
+        List<Future<List<BandData>>> futures = new ArrayList<>(definitions.size());
+        try {
+            for (ReportBand definition : definitions) {
+                // loaders may extend params, so each band gets its own copy
+                Map<String, Object> bandParams = new HashMap<>(params);
+                futures.add(bandExtractionExecutor.submit(
+                        wrapBandExtractionTask(() -> createBands(definition, parentBandData, bandParams))));
+            }
+            List<List<BandData>> result = new ArrayList<>(definitions.size());
+            for (Future<List<BandData>> future : futures) {
+                result.add(future.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            throw new ReportingInterruptedException("Data extraction interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new DataLoadingException("An error occurred while loading report data", cause);
+        } finally {
+            for (Future<List<BandData>> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Allows to propagate the state of the calling thread, e.g. security context, to band extraction tasks
+     * executed by {@link #bandExtractionExecutor}.
+     */
+    protected <T> Callable<T> wrapBandExtractionTask(Callable<T> task) {
+        return task;
+    }
 }
@@ -32,6 +32,14 @@ public interface ExtractionContext {
      */
     boolean putEmptyRowIfNoDataSelected();
 
+    /**
+     * @return max number of parent rows whose child band data is loaded with a single query,
+     * values less than 2 disable batched extraction of child bands
+     */
+    default int getChildBandBatchSize() {
+        return 0;
+    }
+
     /**
      * @return current processing report band
      */
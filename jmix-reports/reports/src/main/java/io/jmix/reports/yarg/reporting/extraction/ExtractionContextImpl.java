@@ -49,6 +49,11 @@ public class ExtractionContextImpl implements ExtractionContext {
         return extractor.getPutEmptyRowIfNoDataSelected();
     }
 
+    @Override
+    public int getChildBandBatchSize() {
+        return extractor.getChildBandBatchSize();
+    }
+
     public ReportBand getBand() {
         return band;
     }
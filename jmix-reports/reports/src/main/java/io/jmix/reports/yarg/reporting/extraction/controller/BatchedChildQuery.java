@@ -0,0 +1,254 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.reports.yarg.reporting.extraction.controller;
+
+import io.jmix.reports.yarg.structure.BandOrientation;
+import io.jmix.reports.yarg.structure.ReportBand;
+import io.jmix.reports.yarg.structure.ReportQuery;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Child band query rewritten to load data for many parent rows at once.
+ * <p>
+ * A child band query can be batched if it is the only query of the band, is an SQL or JPQL query without
+ * template processing, and depends on its parent band through exactly one condition of the form
+ * {@code expression = ${Parent.field}}. The condition is rewritten to {@code expression in ${Parent.field}},
+ * and {@code expression} is added to the select clause so that result rows can be distributed back to
+ * the parent rows in memory.
+ */
+public class BatchedChildQuery {
+
+    public static final String KEY_ALIAS = "jmixbatchkey";
+
+    protected static final Set<String> BATCHABLE_LOADER_TYPES = Set.of("sql", "jpql");
+
+    protected static final Pattern PARAM_PATTERN = Pattern.compile("\\$\\{(.+?)\\}");
+
+    protected static final Pattern SELECT_PATTERN =
+            Pattern.compile("^\\s*select\\s+(distinct\\s+)?", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Constructs that restrict or aggregate the result per parent row and would change their meaning
+     * if the query returned the rows of many parents at once.
+     */
+    protected static final Pattern NOT_BATCHABLE_PATTERN = Pattern.compile(
+            "\\b(limit|top|offset|fetch|rownum|group\\s+by|having|union|intersect|except|minus)\\b"
+                    + "|\\b(count|sum|avg|min|max|over)\\s*\\(",
+            Pattern.CASE_INSENSITIVE);
+
+    protected static final Pattern SELECT_KEYWORD_PATTERN = Pattern.compile("\\bselect\\b", Pattern.CASE_INSENSITIVE);
+
+    protected final ReportQuery query;
+    protected final String parentParamName;
+    protected final String parentField;
+    protected final String script;
+
+    protected BatchedChildQuery(ReportQuery query, String parentParamName, String parentField, String script) {
+        this.query = query;
+        this.parentParamName = parentParamName;
+        this.parentField = parentField;
+        this.script = script;
+    }
+
+    /**
+     * @param band           child band definition
+     * @param parentBandName name of the parent band
+     * @return batched query or null if the band query cannot be batched
+     */
+    public static BatchedChildQuery of(ReportBand band, String parentBandName) {
+        if (band.getBandOrientation() == BandOrientation.CROSS) {
+            return null;
+        }
+        List<ReportQuery> queries = band.getReportQueries();
+        if (queries == null || queries.size() != 1) {
+            return null;
+        }
+        ReportQuery query = queries.get(0);
+        String script = query.getScript();
+        if (script == null
+                || Boolean.TRUE.equals(query.getProcessTemplate())
+                || !BATCHABLE_LOADER_TYPES.contains(query.getLoaderType())
+                || NOT_BATCHABLE_PATTERN.matcher(script).find()) {
+            return null;
+        }
+        Matcher selectMatcher = SELECT_PATTERN.matcher(script);
+        if (!selectMatcher.find() || countSelects(script) != 1) {
+            // sub-queries are not supported: the key expression might not be visible in the outer select clause
+            return null;
+        }
+        if ("jpql".equals(query.getLoaderType()) && !script.toLowerCase().contains(" as ")) {
+            // entity results are wrapped as a whole, an additional key column cannot be added to them
+            return null;
+        }
+
+        String parentPrefix = parentBandName + ".";
+        String parentParamName = null;
+        int parentParamCount = 0;
+        Matcher paramMatcher = PARAM_PATTERN.matcher(script);
+        while (paramMatcher.find()) {
+            String paramName = paramMatcher.group(1);
+            if (paramName.startsWith(parentPrefix)) {
+                parentParamName = paramName;
+                parentParamCount++;
+            }
+        }
+        if (parentParamCount != 1) {
+            return null;
+        }
+
+        String quotedParam = Pattern.quote("${" + parentParamName + "}");
+        Matcher conditionMatcher = Pattern.compile("([\\w.]+)\\s*=\\s*" + quotedParam).matcher(script);
+        String keyExpression;
+        int start;
+        int end;
+        if (conditionMatcher.find()) {
+            keyExpression = conditionMatcher.group(1);
+        } else {
+            conditionMatcher = Pattern.compile(quotedParam + "\\s*=\\s*([\\w.]+)").matcher(script);
+            if (!conditionMatcher.find()) {
+                return null;
+            }
+            keyExpression = conditionMatcher.group(1);
+        }
+        start = conditionMatcher.start();
+        end = conditionMatcher.end();
+        if (keyExpression.matches("\\d+") || keyExpression.startsWith(".") || keyExpression.endsWith(".")) {
+            return null;
+        }
+
+        String batchScript = script.substring(0, start)
+                + keyExpression + " in ${" + parentParamName + "}"
+                + script.substring(end);
+        selectMatcher = SELECT_PATTERN.matcher(batchScript);
+        if (!selectMatcher.find()) {
+            return null;
+        }
+        String distinct = selectMatcher.group(1) != null ? selectMatcher.group(1) : "";
+        batchScript = "select " + distinct + keyExpression + " as " + KEY_ALIAS + ", "
+                + batchScript.substring(selectMatcher.end());
+
+        return new BatchedChildQuery(query, parentParamName, parentParamName.substring(parentPrefix.length()), batchScript);
+    }
+
+    protected static int countSelects(String script) {
+        int count = 0;
+        Matcher matcher = SELECT_KEYWORD_PATTERN.matcher(script);
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return parameter name referencing the parent band field, e.g. {@code Orders.id}
+     */
+    public String getParentParamName() {
+        return parentParamName;
+    }
+
+    /**
+     * @return name of the parent band field the child rows are linked by
+     */
+    public String getParentField() {
+        return parentField;
+    }
+
+    /**
+     * @return report query with the rewritten script
+     */
+    public ReportQuery toReportQuery() {
+        return new BatchReportQuery(query, script);
+    }
+
+    /**
+     * Removes the key column added by the rewritten query from the row.
+     *
+     * @return normalized key of the parent row the result row belongs to
+     */
+    public Object extractKey(Map<String, Object> row) {
+        Object key = null;
+        for (Iterator<Map.Entry<String, Object>> it = row.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Object> entry = it.next();
+            if (KEY_ALIAS.equalsIgnoreCase(entry.getKey())) {
+                key = entry.getValue();
+                it.remove();
+            }
+        }
+        return normalizeKey(key);
+    }
+
+    /**
+     * Brings parent field values and values returned by the child query to a comparable form, as the database
+     * can return a different numeric type or a string representation of a UUID.
+     */
+    public static Object normalizeKey(Object key) {
+        if (key instanceof Number) {
+            return new BigDecimal(key.toString()).stripTrailingZeros().toPlainString();
+        }
+        if (key instanceof UUID) {
+            return key.toString();
+        }
+        return key;
+    }
+
+    protected static class BatchReportQuery implements ReportQuery {
+
+        private static final long serialVersionUID = 2453516283491725163L;
+
+        protected final ReportQuery delegate;
+        protected final String script;
+
+        protected BatchReportQuery(ReportQuery delegate, String script) {
+            this.delegate = delegate;
+            this.script = script;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public String getScript() {
+            return script;
+        }
+
+        @Override
+        public String getLinkParameterName() {
+            return delegate.getLinkParameterName();
+        }
+
+        @Override
+        public String getLoaderType() {
+            return delegate.getLoaderType();
+        }
+
+        @Override
+        public Boolean getProcessTemplate() {
+            return delegate.getProcessTemplate();
+        }
+
+        @Override
+        public Map<String, Object> getAdditionalParams() {
+            return delegate.getAdditionalParams();
+        }
+    }
+}
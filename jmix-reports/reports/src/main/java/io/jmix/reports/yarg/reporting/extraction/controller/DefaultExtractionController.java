@@ -16,6 +16,7 @@
 
 package io.jmix.reports.yarg.reporting.extraction.controller;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import io.jmix.reports.yarg.reporting.extraction.*;
 import io.jmix.reports.yarg.exception.DataLoadingException;
@@ -114,28 +115,112 @@ public class DefaultExtractionController implements ExtractionController {
     }
 
     protected List<BandData> traverseData(ExtractionContext context, List<Map<String, Object>> outputData) {
-        return outputData.stream()
-                .map(data-> wrapData(context, data))
+        Collection<ReportBand> childrenBandDefinitions = context.getBand().getChildren();
+        if (context.getChildBandBatchSize() < 2 || outputData.size() < 2 || childrenBandDefinitions == null) {
+            return outputData.stream()
+                    .map(data-> wrapData(context, data))
+                    .collect(Collectors.toList());
+        }
+
+        List<BandData> bands = outputData.stream()
+                .map(data -> createBandData(context, data))
                 .collect(Collectors.toList());
+        for (ReportBand childDefinition : childrenBandDefinitions) {
+            BatchedChildQuery batchedQuery = BatchedChildQuery.of(childDefinition, context.getBand().getName());
+            ExtractionController childController = controllerRegistry.controllerBy(childDefinition.getBandOrientation());
+            if (batchedQuery != null && childController instanceof DefaultExtractionController) {
+                extractBatchedChildBands(context, childDefinition, batchedQuery,
+                        (DefaultExtractionController) childController, bands);
+            } else {
+                for (BandData band : bands) {
+                    band.addChildren(extractChildBands(context, childDefinition, band));
+                }
+            }
+        }
+        return bands;
     }
 
     protected BandData wrapData(ExtractionContext context, Map<String, Object> data) {
-        BandData band = new BandData(context.getBand().getName(),
-                context.getParentBandData(), context.getBand().getBandOrientation());
-        band.setData(data);
+        BandData band = createBandData(context, data);
         Collection<ReportBand> childrenBandDefinitions = context.getBand().getChildren();
         if (childrenBandDefinitions != null) {
             for (ReportBand childDefinition : childrenBandDefinitions) {
-                List<BandData> childBands = controllerRegistry
-                        .controllerBy(childDefinition.getBandOrientation())
-                        .extract(context
-                                .withBand(childDefinition, band));
-                band.addChildren(childBands);
+                band.addChildren(extractChildBands(context, childDefinition, band));
             }
         }
         return band;
     }
 
+    protected BandData createBandData(ExtractionContext context, Map<String, Object> data) {
+        BandData band = new BandData(context.getBand().getName(),
+                context.getParentBandData(), context.getBand().getBandOrientation());
+        band.setData(data);
+        return band;
+    }
+
+    protected List<BandData> extractChildBands(ExtractionContext context, ReportBand childDefinition, BandData band) {
+        return controllerRegistry
+                .controllerBy(childDefinition.getBandOrientation())
+                .extract(context
+                        .withBand(childDefinition, band));
+    }
+
+    /**
+     * Loads data of a child band for all given parent bands with one query per
+     * {@link ExtractionContext#getChildBandBatchSize()} parent keys instead of one query per parent band,
+     * then distributes the loaded rows to the parent bands.
+     */
+    protected void extractBatchedChildBands(ExtractionContext context, ReportBand childDefinition,
+                                            BatchedChildQuery batchedQuery, DefaultExtractionController childController,
+                                            List<BandData> parentBands) {
+        String parentField = batchedQuery.getParentField();
+        List<Object> keys = parentBands.stream()
+                .filter(band -> !isEmptyBand(band))
+                .map(band -> band.getData().get(parentField))
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+        // parent data is passed through params, so the loader must not override it with the data of a single parent
+        BandData firstParent = parentBands.get(0);
+        BandData keysParent = new BandData(firstParent.getName(), firstParent.getParentBand(), firstParent.getOrientation());
+        keysParent.setData(new HashMap<>());
+
+        ReportQuery reportQuery = batchedQuery.toReportQuery();
+        Map<Object, List<Map<String, Object>>> rowsByKey = new HashMap<>();
+        for (List<Object> chunk : Lists.partition(keys, context.getChildBandBatchSize())) {
+            if (Thread.interrupted()) {
+                throw new ReportingInterruptedException("Data extraction interrupted");
+            }
+            ExtractionContext chunkContext = context.withBand(childDefinition, keysParent);
+            Map<String, Object> params = new HashMap<>(chunkContext.getParams());
+            params.put(batchedQuery.getParentParamName(), chunk);
+
+            List<Map<String, Object>> rows = childController.getQueryData(chunkContext.withParams(params), reportQuery);
+            for (Map<String, Object> row : rows) {
+                rowsByKey.computeIfAbsent(batchedQuery.extractKey(row), key -> new ArrayList<>()).add(row);
+            }
+        }
+
+        for (BandData parentBand : parentBands) {
+            ExtractionContext childContext = context.withBand(childDefinition, parentBand);
+            List<Map<String, Object>> rows = new ArrayList<>();
+            if (!isEmptyBand(parentBand)) {
+                Object key = BatchedChildQuery.normalizeKey(parentBand.getData().get(parentField));
+                if (key != null) {
+                    // several parents may share a key, each of them gets its own copy of the rows
+                    for (Map<String, Object> row : rowsByKey.getOrDefault(key, Collections.emptyList())) {
+                        rows.add(new HashMap<>(row));
+                    }
+                }
+            }
+            if (childContext.putEmptyRowIfNoDataSelected() && rows.isEmpty()) {
+                rows.add(Collections.emptyMap());
+            }
+            parentBand.addChildren(childController.traverseData(childContext, rows));
+        }
+    }
+
     protected Stream<ReportQuery> getQueries(ExtractionContext context) {
         return context.getBand().getReportQueries().stream();
     }
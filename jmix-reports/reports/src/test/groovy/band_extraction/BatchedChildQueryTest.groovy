@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package band_extraction
+
+import io.jmix.reports.yarg.reporting.extraction.controller.BatchedChildQuery
+import io.jmix.reports.yarg.structure.BandOrientation
+import io.jmix.reports.yarg.structure.ReportBand
+import io.jmix.reports.yarg.structure.ReportQuery
+import spock.lang.Specification
+
+class BatchedChildQueryTest extends Specification {
+
+    def "equality condition on parent field is rewritten to in condition"() {
+        when:
+        def batched = BatchedChildQuery.of(band('sql',
+                'select distinct i.name as name from item i where i.order_id = ${Orders.id} order by i.name'), 'Orders')
+
+        then:
+        batched != null
+        batched.parentParamName == 'Orders.id'
+        batched.parentField == 'id'
+        batched.toReportQuery().script ==
+                'select distinct i.order_id as jmixbatchkey, i.name as name from item i where i.order_id in ${Orders.id} order by i.name'
+    }
+
+    def "queries changing their meaning for many parents are not batched"() {
+        expect:
+        BatchedChildQuery.of(band(loaderType, script), 'Orders') == null
+
+        where:
+        loaderType | script
+        'groovy'   | 'return []'
+        'sql'      | 'select count(*) as c from item i where i.order_id = ${Orders.id}'
+        'sql'      | 'select i.name as name from item i where i.order_id = ${Orders.id} limit 1'
+        'sql'      | 'select i.name as name from item i where i.order_id > ${Orders.id}'
+        'sql'      | 'select i.name as name from item i where i.order_id = ${Orders.id} and i.code = ${Orders.code}'
+        'sql'      | 'select i.name as name from item i where i.id in (select l.item_id from line l where l.order_id = ${Orders.id})'
+        'jpql'     | 'select i from ref_Item i where i.order.id = ${Orders.id}'
+    }
+
+    def "key column is removed from the row and normalized"() {
+        given:
+        def batched = BatchedChildQuery.of(band('sql',
+                'select i.name as name from item i where ${Orders.id} = i.order_id'), 'Orders')
+        def row = [JMIXBATCHKEY: 10L, name: 'item']
+
+        when:
+        def key = batched.extractKey(row)
+
+        then:
+        key == BatchedChildQuery.normalizeKey(new BigDecimal('10.0'))
+        row == [name: 'item']
+    }
+
+    private static ReportBand band(String loaderType, String script) {
+        def query = [
+                getName              : { 'query' },
+                getScript            : { script },
+                getLinkParameterName : { null },
+                getLoaderType        : { loaderType },
+                getProcessTemplate   : { false },
+                getAdditionalParams  : { [:] }
+        ] as ReportQuery
+        return [
+                getName           : { 'Items' },
+                getBandOrientation: { BandOrientation.HORIZONTAL },
+                getReportQueries  : { [query] }
+        ] as ReportBand
+    }
+}
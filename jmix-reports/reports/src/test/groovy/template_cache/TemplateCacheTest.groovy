@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package template_cache
+
+import io.jmix.reports.yarg.formatters.cache.TemplateCache
+import io.jmix.reports.yarg.structure.ReportTemplate
+import spock.lang.Specification
+
+class TemplateCacheTest extends Specification {
+
+    def "compiled template is shared until the content changes"() {
+        given:
+        def cache = new TemplateCache(10)
+        def template = template('orders.jrxml')
+        int compilations = 0
+
+        when:
+        def first = cache.getCompiled(cache.createKey(template, 'v1'.bytes), { new Object() })
+        def second = cache.getCompiled(cache.createKey(template, 'v1'.bytes), { compilations++; new Object() })
+        def changed = cache.getCompiled(cache.createKey(template, 'v2'.bytes), { compilations++; new Object() })
+
+        then:
+        first.is(second)
+        !first.is(changed)
+        compilations == 1
+        cache.hitCount == 1
+        cache.missCount == 2
+    }
+
+    def "parsed template is used by one run at a time"() {
+        given:
+        def cache = new TemplateCache(10)
+        def key = cache.createKey(template('orders.xlsx'), 'v1'.bytes)
+
+        when:
+        def first = cache.borrowParsed(key, { new Object() })
+        def concurrent = cache.borrowParsed(key, { new Object() })
+        cache.releaseParsed(key, first)
+        def next = cache.borrowParsed(key, { new Object() })
+
+        then:
+        !first.is(concurrent)
+        first.is(next)
+        cache.hitCount == 1
+        cache.missCount == 2
+    }
+
+    def "entries are removed on invalidation"() {
+        given:
+        def cache = new TemplateCache(10)
+        def key = cache.createKey(template('orders.jrxml'), 'v1'.bytes)
+        def compiled = cache.getCompiled(key, { new Object() })
+
+        when:
+        cache.invalidate(key.templateId)
+
+        then:
+        !cache.getCompiled(key, { new Object() }).is(compiled)
+    }
+
+    private static ReportTemplate template(String documentName) {
+        return [
+                getCode        : { ReportTemplate.DEFAULT_TEMPLATE_CODE },
+                getDocumentName: { documentName }
+        ] as ReportTemplate
+    }
+}